@@ -0,0 +1,81 @@
+#!/usr/bin/env bash
+#
+# Compares time-to-ready of the plain jar and the fast-start artifact (AOT + AppCDS).
+#
+#   mvn -Pfast-start package -DskipTests
+#   scripts/startup-benchmark.sh [runs]
+#
+# Each run starts the application on a free port and measures wall time until
+# /actuator/health/readiness reports UP, then stops it. The "+ warm-up" variants
+# include the warm-up routine, which delays readiness by design.
+
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+RUNS="${1:-5}"
+PORT="${PORT:-18080}"
+VERSION_JAR="target/smart-feedback-backend-0.0.1-SNAPSHOT.jar"
+FAST_DIR="target/fast-start"
+FAST_JAR="smart-feedback-backend-0.0.1-SNAPSHOT-app.jar"
+COMMON_ARGS=(--server.port="$PORT" --spring.jpa.show-sql=false
+  --logging.level.com.smartfeedback.backend=INFO --logging.level.org.springframework.web=INFO)
+
+if [[ ! -f "$VERSION_JAR" || ! -f "$FAST_DIR/$FAST_JAR" || ! -f "$FAST_DIR/app.jsa" ]]; then
+  echo "Build first: mvn -Pfast-start package -DskipTests" >&2
+  exit 1
+fi
+
+now_ms() {
+  date +%s%3N
+}
+
+# Prints milliseconds from launch to readiness for one start of the given command
+measure() {
+  local started pid elapsed
+  started=$(now_ms)
+  "$@" > /tmp/startup-benchmark.log 2>&1 &
+  pid=$!
+  until curl -sf "http://localhost:$PORT/actuator/health/readiness" > /dev/null 2>&1; do
+    if ! kill -0 "$pid" 2> /dev/null; then
+      echo "Application exited during startup, see /tmp/startup-benchmark.log" >&2
+      exit 1
+    fi
+    sleep 0.02
+  done
+  elapsed=$(( $(now_ms) - started ))
+  kill "$pid"
+  wait "$pid" 2> /dev/null || true
+  echo "$elapsed"
+}
+
+run_variant() {
+  local name="$1"
+  shift
+  local total=0 best=0 ms
+  for ((i = 0; i < RUNS; i++)); do
+    ms=$(measure "$@")
+    total=$((total + ms))
+    if ((best == 0 || ms < best)); then
+      best=$ms
+    fi
+  done
+  printf "%-28s avg %6d ms   best %6d ms\n" "$name" $((total / RUNS)) "$best"
+}
+
+# Both launchers exec so the background pid is the JVM itself
+plain() {
+  exec java -jar "$VERSION_JAR" "${COMMON_ARGS[@]}" "$@"
+}
+
+fast() {
+  cd "$FAST_DIR"
+  exec java -XX:SharedArchiveFile=app.jsa -Xlog:cds=off -Dspring.aot.enabled=true \
+    -jar "$FAST_JAR" "${COMMON_ARGS[@]}" "$@"
+}
+
+echo "Time to readiness over $RUNS runs"
+run_variant "plain jar" plain
+run_variant "fast-start (AOT + CDS)" fast
+run_variant "plain jar + warm-up" plain --app.warmup.enabled=true
+run_variant "fast-start + warm-up" fast --app.warmup.enabled=true
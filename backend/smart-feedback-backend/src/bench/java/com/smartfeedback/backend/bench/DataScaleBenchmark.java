@@ -0,0 +1,267 @@
+package com.smartfeedback.backend.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartfeedback.backend.controller.AnalyticsController;
+import com.smartfeedback.backend.controller.FeedbackController;
+import com.smartfeedback.backend.controller.ReportGenerationController;
+import com.smartfeedback.backend.entity.Feedback;
+import com.smartfeedback.backend.entity.Report;
+import com.smartfeedback.backend.repository.FeedbackRepository;
+import com.smartfeedback.backend.repository.ReportRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.ResponseEntity;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Every repository query and controller read path on a {@link SyntheticDataset} of the
+ * given size, to show which of them grow with the table rather than with the result.
+ * Controller paths include writing the response body as JSON (to a byte counter), since
+ * for listings that is a large part of the cost. Per-faculty paths use the busiest
+ * faculty by default; -p faculty=typical uses one from the middle of the popularity curve.
+ *
+ * The heap is fixed so allocation and GC figures from -prof gc compare across sizes; the
+ * dataset size, database file and heap in use after startup are printed at setup. The
+ * full feedback listings need more than that heap at 10M rows; leave them out with
+ * -e AllFeedback -e AllResponses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class DataScaleBenchmark {
+
+	@Param({"10000", "1000000"})
+	public int rows;
+
+	@Param({"hot"})
+	public String faculty;
+
+	private ConfigurableApplicationContext context;
+	private FeedbackRepository feedbackRepository;
+	private ReportRepository reportRepository;
+	private FeedbackController feedbackController;
+	private ReportGenerationController reportController;
+	private AnalyticsController analyticsController;
+	private ObjectMapper objectMapper;
+
+	private String facultyName;
+	private String studentName;
+	private LocalDateTime termAgo;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		SyntheticDataset dataset = new SyntheticDataset(rows, SyntheticDataset.DEFAULT_SEED);
+		// Analytics results would otherwise be answered from the query cache
+		context = dataset.open("--app.analytics.query.cache-ttl-ms=0");
+		feedbackRepository = context.getBean(FeedbackRepository.class);
+		reportRepository = context.getBean(ReportRepository.class);
+		feedbackController = context.getBean(FeedbackController.class);
+		reportController = context.getBean(ReportGenerationController.class);
+		analyticsController = context.getBean(AnalyticsController.class);
+		objectMapper = context.getBean(ObjectMapper.class);
+
+		facultyName = SyntheticDataset.facultyName("typical".equals(faculty) ? dataset.getFaculties() / 2 : 0);
+		studentName = SyntheticDataset.studentName(dataset.getStudents() / 2);
+		termAgo = LocalDateTime.now().minusMonths(6);
+
+		System.gc();
+		Runtime runtime = Runtime.getRuntime();
+		System.out.printf("%nDataset: %,d feedback, %,d faculties, %,d students; database file %,d MB; "
+						+ "heap in use after startup %,d MB; %s has %,d feedback%n",
+				rows, dataset.getFaculties(), dataset.getStudents(), dataset.fileBytes() >> 20,
+				(runtime.totalMemory() - runtime.freeMemory()) >> 20,
+				facultyName, feedbackRepository.countByFacultyName(facultyName));
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	// FeedbackRepository
+
+	@Benchmark
+	public List<?> repositoryFindAllResponses() {
+		return feedbackRepository.findAllResponses();
+	}
+
+	@Benchmark
+	public List<?> repositoryFindResponsesByFacultyName() {
+		return feedbackRepository.findResponsesByFacultyName(facultyName);
+	}
+
+	@Benchmark
+	public List<?> repositoryFindResponsesByStudentName() {
+		return feedbackRepository.findResponsesByStudentName(studentName);
+	}
+
+	@Benchmark
+	public List<Feedback> repositoryFindByFacultyName() {
+		return feedbackRepository.findByFacultyName(facultyName);
+	}
+
+	@Benchmark
+	public List<Feedback> repositoryFindByIdGreaterThanPage() {
+		return feedbackRepository.findByIdGreaterThanOrderByIdAsc((long) rows / 2, PageRequest.of(0, 500));
+	}
+
+	@Benchmark
+	public List<Feedback> repositoryFindByCreatedAtBeforePage() {
+		return feedbackRepository.findByCreatedAtBeforeOrderByIdAsc(termAgo, PageRequest.of(0, 500));
+	}
+
+	@Benchmark
+	public Double repositoryAverageTeachingQuality() {
+		return feedbackRepository.findAverageTeachingQualityByFacultyName(facultyName);
+	}
+
+	@Benchmark
+	public Double repositoryAverageCommunicationSkill() {
+		return feedbackRepository.findAverageCommunicationSkillByFacultyName(facultyName);
+	}
+
+	@Benchmark
+	public Long repositoryCountByFacultyNameAndSentiment() {
+		return feedbackRepository.countByFacultyNameAndSentiment(facultyName, Feedback.Sentiment.NEGATIVE);
+	}
+
+	@Benchmark
+	public Long repositoryCountByFacultyName() {
+		return feedbackRepository.countByFacultyName(facultyName);
+	}
+
+	@Benchmark
+	public List<Object[]> repositoryCountSentimentsByFacultyName() {
+		return feedbackRepository.countSentimentsByFacultyName(facultyName);
+	}
+
+	@Benchmark
+	public List<Object[]> repositoryAggregateByFacultyName() {
+		return feedbackRepository.aggregateByFacultyName(facultyName);
+	}
+
+	@Benchmark
+	public List<Object[]> repositoryAggregateByFacultyAndSentiment() {
+		return feedbackRepository.aggregateByFacultyAndSentiment();
+	}
+
+	// ReportRepository
+
+	@Benchmark
+	public List<Report> repositoryReportsFindAll() {
+		return reportRepository.findAll();
+	}
+
+	@Benchmark
+	public List<Report> repositoryReportsByFacultyNewestFirst() {
+		return reportRepository.findByFacultyNameOrderByCreatedAtDesc(facultyName);
+	}
+
+	@Benchmark
+	public Report repositoryReportsLatestOfFaculty() {
+		return reportRepository.findFirstByFacultyNameOrderByIdDesc(facultyName);
+	}
+
+	@Benchmark
+	public List<String> repositoryReportsFacultyNames() {
+		return reportRepository.findFacultyNames();
+	}
+
+	@Benchmark
+	public List<Report> repositoryReportsLatestPerFaculty() {
+		return reportRepository.findLatestPerFaculty();
+	}
+
+	// Controller read paths, response body included
+
+	@Benchmark
+	public long controllerAllFeedback() throws IOException {
+		return json(feedbackController.getAllFeedback());
+	}
+
+	@Benchmark
+	public long controllerFeedbackByFaculty() throws IOException {
+		return json(feedbackController.getFeedbackByFaculty(facultyName));
+	}
+
+	@Benchmark
+	public long controllerFeedbackByStudent() throws IOException {
+		return json(feedbackController.getFeedbackByStudent(studentName));
+	}
+
+	@Benchmark
+	public long controllerAllReports() throws IOException {
+		return json(reportController.getAllReports());
+	}
+
+	@Benchmark
+	public long controllerReportsByFaculty() throws IOException {
+		return json(reportController.getReportsByFaculty(facultyName));
+	}
+
+	@Benchmark
+	public long controllerFacultyStats() throws IOException {
+		return json(reportController.getFacultyStats(facultyName, null, null));
+	}
+
+	@Benchmark
+	public long controllerLeaderboard() throws IOException {
+		return json(reportController.getLeaderboard("teachingQuality", 10));
+	}
+
+	@Benchmark
+	public long controllerLeaderboardRank() throws IOException {
+		return json(reportController.getLeaderboardRank(facultyName, "positiveRatio"));
+	}
+
+	@Benchmark
+	public long controllerAnalyticsByFacultyAndSentiment() throws IOException {
+		return json(analyticsController.query("faculty,sentiment", null, null, null, null, null));
+	}
+
+	@Benchmark
+	public long controllerAnalyticsWeeklyForFaculty() throws IOException {
+		return json(analyticsController.query("time", "week", List.of(facultyName), null, termAgo, null));
+	}
+
+	// Serialized length of the body; fails the run if the path returned an error
+	private long json(ResponseEntity<?> response) throws IOException {
+		if (!response.getStatusCode().is2xxSuccessful()) {
+			throw new IllegalStateException("Read path returned " + response.getStatusCode() + ": " + response.getBody());
+		}
+		CountingOutputStream out = new CountingOutputStream();
+		objectMapper.writeValue(out, response.getBody());
+		return out.count;
+	}
+
+	private static final class CountingOutputStream extends OutputStream {
+		long count;
+
+		@Override
+		public void write(int b) {
+			count++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			count += len;
+		}
+	}
+}
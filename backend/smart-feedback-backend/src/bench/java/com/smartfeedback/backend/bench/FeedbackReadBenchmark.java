@@ -0,0 +1,98 @@
+package com.smartfeedback.backend.bench;
+
+import com.smartfeedback.backend.SmartFeedbackBackendApplication;
+import com.smartfeedback.backend.dto.FeedbackResponse;
+import com.smartfeedback.backend.entity.Feedback;
+import com.smartfeedback.backend.repository.FeedbackStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Feedback listings read as managed entities and mapped to responses (the old read path)
+ * against the JPQL constructor projections, on the application context with an in-memory
+ * database. Run with -prof gc to compare allocation per listing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FeedbackReadBenchmark {
+
+	private static final String[] FACULTY = {"Dr. Rao", "Dr. Iyer", "Dr. Sen", "Prof. Mehta", "Dr. Kapoor"};
+
+	@Param({"1000", "10000"})
+	public int rows;
+
+	private ConfigurableApplicationContext context;
+	private FeedbackStore feedbackStore;
+
+	@Setup
+	public void setUp() {
+		SpringApplication application = new SpringApplication(SmartFeedbackBackendApplication.class);
+		context = application.run(
+				"--spring.main.web-application-type=none",
+				"--spring.datasource.url=jdbc:h2:mem:read-bench",
+				"--spring.jpa.show-sql=false",
+				"--logging.level.root=WARN",
+				"--logging.level.com.smartfeedback.backend=WARN",
+				"--logging.level.org.springframework.web=WARN");
+		feedbackStore = context.getBean(FeedbackStore.class);
+
+		Random random = new Random(42);
+		List<Feedback> batch = new ArrayList<>();
+		for (int i = 0; i < rows; i++) {
+			Feedback row = new Feedback(FACULTY[i % FACULTY.length], "Student " + random.nextInt(2000),
+					1 + random.nextInt(5), 1 + random.nextInt(5), "Explains concepts clearly, comment " + i);
+			row.setSentiment(Feedback.Sentiment.values()[random.nextInt(3)]);
+			batch.add(row);
+			if (batch.size() == 1000) {
+				feedbackStore.saveAll(batch);
+				batch = new ArrayList<>();
+			}
+		}
+		feedbackStore.saveAll(batch);
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public List<FeedbackResponse> allAsEntities() {
+		return feedbackStore.findAll().stream()
+				.map(FeedbackResponse::new)
+				.collect(Collectors.toList());
+	}
+
+	@Benchmark
+	public List<FeedbackResponse> allAsProjection() {
+		return feedbackStore.findAllResponses();
+	}
+
+	@Benchmark
+	public List<FeedbackResponse> facultyAsEntities() {
+		return feedbackStore.findByFacultyName(FACULTY[0]).stream()
+				.map(FeedbackResponse::new)
+				.collect(Collectors.toList());
+	}
+
+	@Benchmark
+	public List<FeedbackResponse> facultyAsProjection() {
+		return feedbackStore.findResponsesByFacultyName(FACULTY[0]);
+	}
+}
@@ -0,0 +1,99 @@
+package com.smartfeedback.backend.bench;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartfeedback.backend.config.BinaryContentConfig;
+import com.smartfeedback.backend.dto.FeedbackResponse;
+import com.smartfeedback.backend.entity.Feedback;
+import com.smartfeedback.backend.entity.Report;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of writing and reading the feedback and report lists as JSON, Smile and CBOR with
+ * the mappers the application uses. Encoded sizes are printed once per trial, since JMH
+ * only reports time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SerializationBenchmark {
+
+	private static final TypeReference<List<FeedbackResponse>> FEEDBACK_LIST = new TypeReference<>() {};
+	private static final String[] FACULTY = {"Dr. Rao", "Dr. Iyer", "Dr. Sen", "Prof. Mehta", "Dr. Kapoor"};
+	private static final String[] COMMENTS = {
+			"Explains concepts clearly and is always happy to take questions after class.",
+			"The pace was too fast for most of us and the slides were hard to follow.",
+			"Okay overall.",
+	};
+
+	@Param({"100", "5000"})
+	public int rows;
+
+	@Param({"json", "smile", "cbor"})
+	public String format;
+
+	private ObjectMapper mapper;
+	private List<FeedbackResponse> feedback;
+	private List<Report> reports;
+	private byte[] encodedFeedback;
+
+	@Setup
+	public void setUp() throws IOException {
+		mapper = switch (format) {
+			case "smile" -> BinaryContentConfig.smileMapper(new Jackson2ObjectMapperBuilder());
+			case "cbor" -> BinaryContentConfig.cborMapper(new Jackson2ObjectMapperBuilder(), true);
+			default -> new Jackson2ObjectMapperBuilder().build();
+		};
+		Random random = new Random(42);
+		LocalDateTime start = LocalDateTime.of(2026, 1, 5, 9, 0);
+		feedback = new ArrayList<>(rows);
+		reports = new ArrayList<>(rows);
+		for (int i = 0; i < rows; i++) {
+			Feedback row = new Feedback(FACULTY[i % FACULTY.length], "Student " + random.nextInt(2000),
+					1 + random.nextInt(5), 1 + random.nextInt(5), COMMENTS[random.nextInt(COMMENTS.length)]);
+			row.setId((long) i + 1);
+			row.setSentiment(Feedback.Sentiment.values()[random.nextInt(3)]);
+			row.setCreatedAt(start.plusMinutes(i * 7L));
+			feedback.add(new FeedbackResponse(row));
+
+			Report report = new Report(FACULTY[i % FACULTY.length], 1 + 4 * random.nextDouble(), 1 + 4 * random.nextDouble(),
+					"Based on 120 feedback submissions: 70 positive, 30 negative, 20 neutral.", 120, 70, 30, 20);
+			report.setId((long) i + 1);
+			report.setCreatedAt(start.plusDays(i));
+			reports.add(report);
+		}
+		encodedFeedback = mapper.writeValueAsBytes(feedback);
+		System.out.printf("%n[%s, %d rows] feedback list: %d bytes, report list: %d bytes%n",
+				format, rows, encodedFeedback.length, mapper.writeValueAsBytes(reports).length);
+	}
+
+	@Benchmark
+	public byte[] writeFeedback() throws IOException {
+		return mapper.writeValueAsBytes(feedback);
+	}
+
+	@Benchmark
+	public byte[] writeReports() throws IOException {
+		return mapper.writeValueAsBytes(reports);
+	}
+
+	@Benchmark
+	public List<FeedbackResponse> readFeedback() throws IOException {
+		return mapper.readValue(encodedFeedback, FEEDBACK_LIST);
+	}
+}
@@ -0,0 +1,161 @@
+package com.smartfeedback.backend.bench;
+
+import com.smartfeedback.backend.analytics.AnalyticsAggregator;
+import com.smartfeedback.backend.analytics.AnalyticsQuery;
+import com.smartfeedback.backend.analytics.FacultyAggregate;
+import com.smartfeedback.backend.dto.FeedbackResponse;
+import com.smartfeedback.backend.entity.Feedback;
+import com.smartfeedback.backend.repository.FeedbackRepository;
+import com.smartfeedback.backend.repository.FeedbackStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@link FeedbackStore} queries behind the read endpoints on each storage engine
+ * (app.storage.engine), over the same {@link SyntheticDataset}. The mmap engine gets a
+ * copy of the generated rows in its own directory on first use, in id order, so both
+ * engines answer from identical data. Per-faculty queries use the busiest faculty by
+ * default; -p faculty=typical uses one from the middle of the popularity curve.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class StorageEngineBenchmark {
+
+	private static final int COPY_BATCH = 10_000;
+
+	@Param({"jpa", "mmap"})
+	public String engine;
+
+	@Param({"10000", "1000000"})
+	public int rows;
+
+	@Param({"hot"})
+	public String faculty;
+
+	private ConfigurableApplicationContext context;
+	private FeedbackStore feedbackStore;
+
+	private String facultyName;
+	private AnalyticsQuery byFacultyAndSentiment;
+	private AnalyticsQuery weeklyForFaculty;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		SyntheticDataset dataset = new SyntheticDataset(rows, SyntheticDataset.DEFAULT_SEED);
+		context = dataset.open(
+				"--app.storage.engine=" + engine,
+				"--app.storage.mmap.dir=" + dataset.mmapDirectory());
+		feedbackStore = context.getBean(FeedbackStore.class);
+		if (feedbackStore.count() == 0) {
+			copyFeedback(context.getBean(FeedbackRepository.class));
+		}
+		if (feedbackStore.count() != rows) {
+			throw new IllegalStateException("The " + engine + " store holds " + feedbackStore.count() + " feedback, not "
+					+ rows + "; delete " + dataset.mmapDirectory() + " and run again");
+		}
+
+		facultyName = SyntheticDataset.facultyName("typical".equals(faculty) ? dataset.getFaculties() / 2 : 0);
+		byFacultyAndSentiment = AnalyticsQuery.parse("faculty,sentiment", null, null, null, null, null);
+		weeklyForFaculty = AnalyticsQuery.parse("time", "week", List.of(facultyName), null,
+				LocalDateTime.now().minusMonths(6), null);
+
+		System.out.printf("%n%s store: %,d feedback; %s has %,d%n",
+				engine, feedbackStore.count(), facultyName, feedbackStore.countByFacultyName(facultyName));
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	// The generated rows live in the database; the mmap store is filled from there, keeping their ids
+	private void copyFeedback(FeedbackRepository feedbackRepository) {
+		long started = System.nanoTime();
+		long lastId = 0;
+		while (true) {
+			List<Feedback> page = feedbackRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, COPY_BATCH));
+			if (page.isEmpty()) {
+				break;
+			}
+			lastId = page.get(page.size() - 1).getId();
+			page.forEach(feedback -> feedback.setId(null));
+			feedbackStore.saveAll(page);
+		}
+		System.out.printf("Copied %,d feedback into the %s store in %.1f s%n",
+				feedbackStore.count(), engine, (System.nanoTime() - started) / 1e9);
+	}
+
+	@Benchmark
+	public Optional<Feedback> findById() {
+		return feedbackStore.findById((long) rows / 2);
+	}
+
+	@Benchmark
+	public List<Feedback> findPageAfterId() {
+		return feedbackStore.findPageAfterId((long) rows / 2, 500);
+	}
+
+	@Benchmark
+	public long count() {
+		return feedbackStore.count();
+	}
+
+	@Benchmark
+	public List<Feedback> findByFacultyName() {
+		return feedbackStore.findByFacultyName(facultyName);
+	}
+
+	@Benchmark
+	public List<FeedbackResponse> findResponsesByFacultyName() {
+		return feedbackStore.findResponsesByFacultyName(facultyName);
+	}
+
+	@Benchmark
+	public Double averageTeachingQuality() {
+		return feedbackStore.findAverageTeachingQualityByFacultyName(facultyName);
+	}
+
+	@Benchmark
+	public Long countByFacultyName() {
+		return feedbackStore.countByFacultyName(facultyName);
+	}
+
+	@Benchmark
+	public Map<Feedback.Sentiment, Long> countSentimentsByFacultyName() {
+		return feedbackStore.countSentimentsByFacultyName(facultyName);
+	}
+
+	@Benchmark
+	public List<FacultyAggregate> aggregateByFaculty() {
+		return feedbackStore.aggregateByFaculty();
+	}
+
+	@Benchmark
+	public AnalyticsAggregator aggregateByFacultyAndSentiment() {
+		return feedbackStore.aggregate(byFacultyAndSentiment);
+	}
+
+	@Benchmark
+	public AnalyticsAggregator aggregateWeeklyForFaculty() {
+		return feedbackStore.aggregate(weeklyForFaculty);
+	}
+}
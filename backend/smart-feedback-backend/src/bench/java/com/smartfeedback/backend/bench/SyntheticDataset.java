@@ -0,0 +1,386 @@
+package com.smartfeedback.backend.bench;
+
+import com.smartfeedback.backend.SmartFeedbackBackendApplication;
+import com.smartfeedback.backend.entity.Feedback;
+import com.smartfeedback.backend.entity.Report;
+import com.smartfeedback.backend.service.AcademicTerms;
+import com.smartfeedback.backend.service.NameDictionary;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Reproducible synthetic feedback for the data-scale benchmarks, bulk-loaded with batched
+ * JDBC inserts into an H2 file database under target/bench-data. A database is generated
+ * once per size and seed and reused by later runs, so the 10M row set is only paid for
+ * once. Distributions:
+ * <ul>
+ *   <li>one faculty per ~400 feedback (10 to 5000) with Zipf popularity, so a few
+ *       faculties get a large share of all feedback; faculty 0 is the busiest</li>
+ *   <li>one student per ~6 feedback, picked uniformly</li>
+ *   <li>a rating level per faculty; communication ratings follow teaching ratings</li>
+ *   <li>sentiment follows the ratings with some noise; a fifth of feedback has no comment
+ *       and is NEUTRAL, as submission stores it</li>
+ *   <li>submissions over the last two years, more on weekdays and in the evening, and
+ *       three times as many in the last three weeks of each term</li>
+ *   <li>a few reports per faculty</li>
+ * </ul>
+ *
+ * Run on its own to get a populated database for trying the application at scale:
+ * <pre>
+ * mvn -Pbench -DskipTests test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.smartfeedback.backend.bench.SyntheticDataset -Dexec.args=1000000
+ * </pre>
+ */
+public final class SyntheticDataset {
+
+	public static final long DEFAULT_SEED = 42;
+
+	private static final String[] FIRST = {"Asha", "Vikram", "Meera", "Arjun", "Kavya", "Rohan", "Ananya", "Siddharth",
+			"Priya", "Karthik", "Neha", "Aditya", "Lakshmi", "Rahul", "Divya", "Suresh", "Isha", "Manoj", "Pooja",
+			"Nikhil", "Sneha", "Varun", "Deepa", "Ajay"};
+	private static final String[] LAST = {"Rao", "Iyer", "Sen", "Mehta", "Kapoor", "Nair", "Sharma", "Gupta", "Reddy",
+			"Das", "Menon", "Joshi", "Pillai", "Bose", "Kulkarni", "Verma", "Chatterjee", "Patel", "Mishra", "Banerjee",
+			"Hegde", "Shetty", "Pandey", "Saxena", "Agarwal", "Naidu", "Ghosh", "Kumar", "Singh", "Jain", "Desai",
+			"Chopra"};
+	private static final String[][] PHRASES = {
+			// POSITIVE
+			{"Explains concepts clearly", "Great examples in every class", "Always happy to answer questions",
+					"The assignments really helped me understand the material", "Very engaging lectures",
+					"Well organised course", "Gives useful feedback on submissions"},
+			// NEGATIVE
+			{"The pace is far too fast", "Lectures are hard to follow", "Rarely available outside class",
+					"Grading feels inconsistent", "Slides are read out without explanation",
+					"Assignments were returned very late", "The course felt disorganised"},
+			// NEUTRAL
+			{"The course covers the syllabus", "Lectures are okay", "Some topics could use more examples",
+					"Average experience overall", "Tutorials were sometimes useful", "Nothing stood out either way"}
+	};
+	private static final double ZIPF_EXPONENT = 0.8;
+	private static final int BATCH = 10_000;
+	private static final int HISTORY_DAYS = 730;
+	private static final Path DIR = Paths.get("target", "bench-data");
+
+	private final int rows;
+	private final long seed;
+	private final int faculties;
+	private final int students;
+
+	public SyntheticDataset(int rows, long seed) {
+		this.rows = rows;
+		this.seed = seed;
+		this.faculties = facultiesFor(rows);
+		this.students = Math.max(50, rows / 6);
+	}
+
+	public static void main(String[] args) {
+		int rows = args.length > 0 ? Integer.parseInt(args[0].replace("_", "")) : 100_000;
+		long seed = args.length > 1 ? Long.parseLong(args[1]) : DEFAULT_SEED;
+		SyntheticDataset dataset = new SyntheticDataset(rows, seed);
+		dataset.open().close();
+		System.out.println("Start the application on it with --spring.datasource.url=" + dataset.url()
+				+ " --spring.jpa.hibernate.ddl-auto=update");
+	}
+
+	public static int facultiesFor(int rows) {
+		return Math.max(10, Math.min(5000, rows / 400));
+	}
+
+	// Display names are a pure function of the index, so benchmarks can name rows without querying
+	public static String facultyName(int index) {
+		String title = index % 3 == 0 ? "Prof." : "Dr.";
+		int combination = index % (FIRST.length * LAST.length);
+		char initial = (char) ('A' + index / (FIRST.length * LAST.length) % 26);
+		return title + " " + FIRST[combination % FIRST.length] + " " + initial + ". " + LAST[combination / FIRST.length];
+	}
+
+	public static String studentName(int index) {
+		return FIRST[index % FIRST.length] + " " + LAST[(index / FIRST.length) % LAST.length] + " " + String.format("%07d", index);
+	}
+
+	public int getRows() {
+		return rows;
+	}
+
+	public int getFaculties() {
+		return faculties;
+	}
+
+	public int getStudents() {
+		return students;
+	}
+
+	public Path getFile() {
+		return DIR.resolve("feedback-" + rows + "-" + seed + ".mv.db").toAbsolutePath();
+	}
+
+	public String url() {
+		return "jdbc:h2:file:" + DIR.resolve("feedback-" + rows + "-" + seed).toAbsolutePath();
+	}
+
+	// Where a copy of the feedback rows in the mmap storage engine's format is kept
+	public Path mmapDirectory() {
+		return DIR.resolve("feedback-" + rows + "-" + seed + "-mmap").toAbsolutePath();
+	}
+
+	/**
+	 * Starts the application on the dataset, generating it first if the file holds no
+	 * complete copy. Generation goes through a first context that is closed afterwards, so
+	 * the returned context loads its caches and leaderboard from the full data.
+	 */
+	public ConfigurableApplicationContext open(String... extraArgs) {
+		ConfigurableApplicationContext context = start(extraArgs);
+		DataSource dataSource = context.getBean(DataSource.class);
+		try {
+			if (count(dataSource) == rows) {
+				return context;
+			}
+			long started = System.nanoTime();
+			System.out.printf("Generating %,d feedback rows (%,d faculties, %,d students) into %s%n",
+					rows, faculties, students, getFile());
+			load(dataSource);
+			System.out.printf("Generated in %.1f s, %,d MB on disk%n",
+					(System.nanoTime() - started) / 1e9, fileBytes() >> 20);
+		} catch (SQLException e) {
+			context.close();
+			throw new IllegalStateException("Could not generate the synthetic dataset", e);
+		}
+		context.close();
+		return start(extraArgs);
+	}
+
+	public long fileBytes() {
+		try {
+			return Files.size(getFile());
+		} catch (IOException e) {
+			return -1;
+		}
+	}
+
+	private ConfigurableApplicationContext start(String... extraArgs) {
+		List<String> args = new ArrayList<>(List.of(
+				"--spring.main.web-application-type=none",
+				"--spring.datasource.url=" + url(),
+				"--spring.jpa.hibernate.ddl-auto=update",
+				"--spring.jpa.show-sql=false",
+				"--logging.level.root=WARN",
+				"--logging.level.com.smartfeedback.backend=WARN",
+				"--logging.level.org.springframework.web=WARN"));
+		args.addAll(Arrays.asList(extraArgs));
+		return new SpringApplication(SmartFeedbackBackendApplication.class).run(args.toArray(new String[0]));
+	}
+
+	private static long count(DataSource dataSource) throws SQLException {
+		try (Connection connection = dataSource.getConnection();
+			 Statement statement = connection.createStatement();
+			 ResultSet result = statement.executeQuery("SELECT COUNT(*) FROM feedback")) {
+			result.next();
+			return result.getLong(1);
+		}
+	}
+
+	private void load(DataSource dataSource) throws SQLException {
+		Random random = new Random(seed);
+		try (Connection connection = dataSource.getConnection()) {
+			connection.setAutoCommit(false);
+			try (Statement statement = connection.createStatement()) {
+				// A partial copy left by an interrupted run
+				for (String table : List.of("feedback", "reports", "faculty", "students")) {
+					statement.execute("TRUNCATE TABLE " + table);
+				}
+			}
+
+			double[] ratingLevel = new double[faculties];
+			try (PreparedStatement insert = connection.prepareStatement(
+					"INSERT INTO faculty (id, canonical_name, display_name) VALUES (?, ?, ?)")) {
+				for (int i = 0; i < faculties; i++) {
+					ratingLevel[i] = clamp(3.6 + random.nextGaussian() * 0.6, 1.5, 4.8);
+					addName(insert, i, facultyName(i));
+				}
+				insert.executeBatch();
+			}
+			try (PreparedStatement insert = connection.prepareStatement(
+					"INSERT INTO students (id, canonical_name, display_name) VALUES (?, ?, ?)")) {
+				for (int i = 0; i < students; i++) {
+					addName(insert, i, studentName(i));
+					if ((i + 1) % BATCH == 0) {
+						insert.executeBatch();
+					}
+				}
+				insert.executeBatch();
+			}
+			connection.commit();
+
+			double[] popularity = zipf(faculties);
+			AcademicTerms terms = AcademicTerms.parse("1,8");
+			LocalDate today = LocalDate.now();
+			try (PreparedStatement insert = connection.prepareStatement("INSERT INTO feedback "
+					+ "(id, faculty_id, student_id, teaching_quality, communication_skill, comment, sentiment, created_at) "
+					+ "VALUES (?, ?, ?, ?, ?, ?, ?, ?)")) {
+				for (int i = 0; i < rows; i++) {
+					int faculty = pick(popularity, random.nextDouble());
+					int teaching = rating(ratingLevel[faculty] + random.nextGaussian() * 0.9);
+					int communication = rating(teaching + random.nextGaussian() * 0.8);
+					Feedback.Sentiment sentiment = Feedback.Sentiment.NEUTRAL;
+					String comment = null;
+					if (random.nextInt(5) != 0) {
+						sentiment = sentiment(teaching, communication, random);
+						comment = comment(sentiment, random);
+					}
+					insert.setLong(1, i + 1);
+					insert.setInt(2, faculty + 1);
+					insert.setInt(3, random.nextInt(students) + 1);
+					insert.setInt(4, teaching);
+					insert.setInt(5, communication);
+					insert.setString(6, comment);
+					insert.setString(7, sentiment.name());
+					insert.setTimestamp(8, Timestamp.valueOf(submittedAt(today, terms, random)));
+					insert.addBatch();
+					if ((i + 1) % BATCH == 0) {
+						insert.executeBatch();
+						connection.commit();
+					}
+				}
+				insert.executeBatch();
+			}
+
+			int reports = 0;
+			try (PreparedStatement insert = connection.prepareStatement("INSERT INTO reports (id, faculty_id, "
+					+ "avg_teaching_quality, avg_communication_skill, sentiment_summary, total_feedback_count, "
+					+ "positive_count, negative_count, neutral_count, created_at, content_hash) "
+					+ "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+				for (int faculty = 0; faculty < faculties; faculty++) {
+					int total = Math.max(1, (int) (rows * popularity(popularity, faculty)));
+					for (int r = 1 + random.nextInt(4); r > 0; r--) {
+						double teaching = Math.round(clamp(ratingLevel[faculty] + random.nextGaussian() * 0.2, 1, 5) * 100) / 100.0;
+						double communication = Math.round(clamp(teaching + random.nextGaussian() * 0.3, 1, 5) * 100) / 100.0;
+						int positive = (int) (total * clamp((teaching - 2) / 3, 0, 1) * 0.8);
+						int negative = (int) ((total - positive) * 0.4);
+						int neutral = total - positive - negative;
+						insert.setLong(1, ++reports);
+						insert.setInt(2, faculty + 1);
+						insert.setDouble(3, teaching);
+						insert.setDouble(4, communication);
+						insert.setString(5, "Students mostly said: " + PHRASES[teaching >= 3.5 ? 0 : 1][random.nextInt(6)].toLowerCase());
+						insert.setInt(6, total);
+						insert.setInt(7, positive);
+						insert.setInt(8, negative);
+						insert.setInt(9, neutral);
+						insert.setTimestamp(10, Timestamp.valueOf(submittedAt(today, terms, random)));
+						insert.setString(11, Report.contentHash(total, teaching, communication, positive, negative, neutral));
+						insert.addBatch();
+					}
+				}
+				insert.executeBatch();
+			}
+
+			// Later inserts by the application continue after the generated ids
+			try (Statement statement = connection.createStatement()) {
+				statement.execute("ALTER TABLE faculty ALTER COLUMN id RESTART WITH " + (faculties + 1));
+				statement.execute("ALTER TABLE students ALTER COLUMN id RESTART WITH " + (students + 1));
+				statement.execute("ALTER TABLE feedback ALTER COLUMN id RESTART WITH " + (rows + 1L));
+				statement.execute("ALTER TABLE reports ALTER COLUMN id RESTART WITH " + (reports + 1));
+			}
+			connection.commit();
+		}
+	}
+
+	private static void addName(PreparedStatement insert, int index, String name) throws SQLException {
+		insert.setInt(1, index + 1);
+		insert.setString(2, NameDictionary.canonicalize(name));
+		insert.setString(3, name);
+		insert.addBatch();
+	}
+
+	// Cumulative Zipf weights, normalised to end at 1
+	private static double[] zipf(int n) {
+		double[] cumulative = new double[n];
+		double sum = 0;
+		for (int k = 0; k < n; k++) {
+			sum += 1 / Math.pow(k + 1, ZIPF_EXPONENT);
+			cumulative[k] = sum;
+		}
+		for (int k = 0; k < n; k++) {
+			cumulative[k] /= sum;
+		}
+		return cumulative;
+	}
+
+	private static int pick(double[] cumulative, double u) {
+		int index = Arrays.binarySearch(cumulative, u);
+		return Math.min(cumulative.length - 1, index >= 0 ? index : -index - 1);
+	}
+
+	private static double popularity(double[] cumulative, int index) {
+		return cumulative[index] - (index == 0 ? 0 : cumulative[index - 1]);
+	}
+
+	private static int rating(double value) {
+		return (int) clamp(Math.round(value), 1, 5);
+	}
+
+	private static double clamp(double value, double min, double max) {
+		return Math.max(min, Math.min(max, value));
+	}
+
+	// Mostly what the ratings suggest, sometimes not (sarcasm, one bad week, a misclick)
+	private static Feedback.Sentiment sentiment(int teaching, int communication, Random random) {
+		if (random.nextDouble() < 0.15) {
+			return Feedback.Sentiment.values()[random.nextInt(3)];
+		}
+		double average = (teaching + communication) / 2.0;
+		if (average >= 4) {
+			return Feedback.Sentiment.POSITIVE;
+		}
+		return average <= 2 ? Feedback.Sentiment.NEGATIVE : Feedback.Sentiment.NEUTRAL;
+	}
+
+	private static String comment(Feedback.Sentiment sentiment, Random random) {
+		String[] phrases = PHRASES[sentiment.ordinal()];
+		int first = random.nextInt(phrases.length);
+		StringBuilder comment = new StringBuilder(phrases[first]);
+		// Up to two more, never repeating the opening phrase
+		for (int extra = random.nextInt(3); extra > 0; extra--) {
+			int next = (first + 1 + random.nextInt(phrases.length - 1)) % phrases.length;
+			comment.append(". ").append(phrases[next]);
+		}
+		return comment.append('.').toString();
+	}
+
+	private static LocalDateTime submittedAt(LocalDate today, AcademicTerms terms, Random random) {
+		while (true) {
+			LocalDate day = today.minusDays(random.nextInt(HISTORY_DAYS));
+			double weight = 1;
+			if (day.getDayOfWeek() == DayOfWeek.SATURDAY || day.getDayOfWeek() == DayOfWeek.SUNDAY) {
+				weight *= 0.4;
+			}
+			// Last three weeks before the next term starts, when feedback forms go out
+			if (terms.termStart(day.plusWeeks(3)).isAfter(day)) {
+				weight *= 3;
+			}
+			if (random.nextDouble() * 3 < weight) {
+				// Evenings are busiest
+				int minute = (int) clamp(19 * 60 + random.nextGaussian() * 200, 8 * 60, 23 * 60 + 59);
+				return day.atTime(minute / 60, minute % 60, random.nextInt(60));
+			}
+		}
+	}
+}
@@ -0,0 +1,86 @@
+package com.smartfeedback.backend.analytics;
+
+import com.smartfeedback.backend.dto.AnalyticsRow;
+import com.smartfeedback.backend.entity.Feedback;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Folds feedback rows, or partial groups from a database GROUP BY, into the groups of an
+ * {@link AnalyticsQuery}. Dimensions the query does not group by are dropped from the key.
+ */
+public class AnalyticsAggregator {
+    
+    private record GroupKey(String faculty, Feedback.Sentiment sentiment, Integer teachingQuality,
+                            Integer communicationSkill, String period) {}
+    
+    private static final class Totals {
+        long count;
+        long teachingQualitySum;
+        long communicationSkillSum;
+    }
+    
+    private static final Comparator<GroupKey> ORDER = Comparator
+            .comparing(GroupKey::faculty, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+            .thenComparing(GroupKey::period, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+            .thenComparing(GroupKey::sentiment, Comparator.nullsFirst(Comparator.<Feedback.Sentiment>naturalOrder()))
+            .thenComparing(GroupKey::teachingQuality, Comparator.nullsFirst(Comparator.<Integer>naturalOrder()))
+            .thenComparing(GroupKey::communicationSkill, Comparator.nullsFirst(Comparator.<Integer>naturalOrder()));
+    
+    private final AnalyticsQuery query;
+    private final Map<GroupKey, Totals> groups = new HashMap<>();
+    
+    public AnalyticsAggregator(AnalyticsQuery query) {
+        this.query = query;
+    }
+    
+    // day may be null when the query does not group by time
+    public void add(String faculty, Feedback.Sentiment sentiment, int teachingQuality, int communicationSkill, LocalDate day) {
+        add(faculty, sentiment, teachingQuality, communicationSkill, day, 1, teachingQuality, communicationSkill);
+    }
+    
+    // A pre-aggregated group; teachingQuality and communicationSkill are ignored unless grouped by
+    public void add(String faculty, Feedback.Sentiment sentiment, Integer teachingQuality, Integer communicationSkill,
+                    LocalDate day, long count, long teachingQualitySum, long communicationSkillSum) {
+        GroupKey key = new GroupKey(
+                query.groupsBy(AnalyticsQuery.Dimension.FACULTY) ? faculty : null,
+                query.groupsBy(AnalyticsQuery.Dimension.SENTIMENT) ? sentiment : null,
+                query.groupsBy(AnalyticsQuery.Dimension.TEACHING_QUALITY) ? teachingQuality : null,
+                query.groupsBy(AnalyticsQuery.Dimension.COMMUNICATION_SKILL) ? communicationSkill : null,
+                query.groupsBy(AnalyticsQuery.Dimension.TIME) && day != null ? query.bucket().label(day) : null);
+        Totals totals = groups.computeIfAbsent(key, k -> new Totals());
+        totals.count += count;
+        totals.teachingQualitySum += teachingQualitySum;
+        totals.communicationSkillSum += communicationSkillSum;
+    }
+    
+    public int groupCount() {
+        return groups.size();
+    }
+    
+    // At most maxRows groups, ordered by faculty, period, sentiment and ratings
+    public List<AnalyticsRow> rows(int maxRows) {
+        return groups.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey(ORDER))
+                .limit(maxRows)
+                .map(entry -> {
+                    GroupKey key = entry.getKey();
+                    Totals totals = entry.getValue();
+                    AnalyticsRow row = new AnalyticsRow();
+                    row.setFaculty(key.faculty());
+                    row.setSentiment(key.sentiment() != null ? key.sentiment().name() : null);
+                    row.setTeachingQuality(key.teachingQuality());
+                    row.setCommunicationSkill(key.communicationSkill());
+                    row.setPeriod(key.period());
+                    row.setCount(totals.count);
+                    row.setAvgTeachingQuality((double) totals.teachingQualitySum / totals.count);
+                    row.setAvgCommunicationSkill((double) totals.communicationSkillSum / totals.count);
+                    return row;
+                })
+                .toList();
+    }
+}
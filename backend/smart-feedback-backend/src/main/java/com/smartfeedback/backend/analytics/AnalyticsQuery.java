@@ -0,0 +1,113 @@
+package com.smartfeedback.backend.analytics;
+
+import com.smartfeedback.backend.entity.Feedback;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * A parsed /api/analytics request. Records compare by value, so a query doubles as its
+ * own cache key; faculty names are expected to be resolved to their stored spelling.
+ */
+public record AnalyticsQuery(Set<Dimension> groupBy, Bucket bucket, Set<String> faculties,
+                             Set<Feedback.Sentiment> sentiments, LocalDateTime from, LocalDateTime to) {
+    
+    public enum Dimension {
+        FACULTY("faculty"),
+        SENTIMENT("sentiment"),
+        TEACHING_QUALITY("teachingQuality"),
+        COMMUNICATION_SKILL("communicationSkill"),
+        TIME("time");
+        
+        private final String parameter;
+        
+        Dimension(String parameter) {
+            this.parameter = parameter;
+        }
+        
+        public String parameter() {
+            return parameter;
+        }
+        
+        static Dimension fromParameter(String value) {
+            for (Dimension dimension : values()) {
+                if (dimension.parameter.equalsIgnoreCase(value)) {
+                    return dimension;
+                }
+            }
+            throw new IllegalArgumentException("Invalid analytics query: unknown groupBy dimension '" + value + "'");
+        }
+    }
+    
+    public enum Bucket {
+        DAY, WEEK, MONTH;
+        
+        // Periods are labelled by their first day, or yyyy-MM for months
+        public String label(LocalDate day) {
+            return switch (this) {
+                case DAY -> day.toString();
+                case WEEK -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).toString();
+                case MONTH -> day.toString().substring(0, 7);
+            };
+        }
+    }
+    
+    public static AnalyticsQuery parse(String groupBy, String bucket, List<String> faculties, List<String> sentiments,
+                                       LocalDateTime from, LocalDateTime to) {
+        Set<Dimension> dimensions = EnumSet.noneOf(Dimension.class);
+        if (groupBy != null) {
+            for (String part : groupBy.split(",")) {
+                if (!part.isBlank()) {
+                    dimensions.add(Dimension.fromParameter(part.trim()));
+                }
+            }
+        }
+        
+        Bucket timeBucket = null;
+        if (dimensions.contains(Dimension.TIME)) {
+            try {
+                timeBucket = Bucket.valueOf((bucket != null ? bucket : "day").trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid analytics query: bucket must be day, week or month");
+            }
+        }
+        
+        Set<Feedback.Sentiment> sentimentFilter = EnumSet.noneOf(Feedback.Sentiment.class);
+        if (sentiments != null) {
+            for (String sentiment : sentiments) {
+                try {
+                    sentimentFilter.add(Feedback.Sentiment.valueOf(sentiment.trim().toUpperCase(Locale.ROOT)));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Invalid analytics query: unknown sentiment '" + sentiment + "'");
+                }
+            }
+        }
+        
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("Invalid analytics query: from must be before to");
+        }
+        
+        Set<String> facultyFilter = faculties != null ? new TreeSet<>(faculties) : Collections.emptySet();
+        return new AnalyticsQuery(dimensions, timeBucket, facultyFilter, sentimentFilter, from, to);
+    }
+    
+    public boolean groupsBy(Dimension dimension) {
+        return groupBy.contains(dimension);
+    }
+    
+    // Whether a single feedback row passes the faculty, sentiment and time filters
+    public boolean matches(String faculty, Feedback.Sentiment sentiment, LocalDateTime createdAt) {
+        return (faculties.isEmpty() || faculties.contains(faculty))
+                && (sentiments.isEmpty() || sentiments.contains(sentiment))
+                && (from == null || !createdAt.isBefore(from))
+                && (to == null || createdAt.isBefore(to));
+    }
+}
@@ -0,0 +1,73 @@
+package com.smartfeedback.backend.analytics;
+
+import com.smartfeedback.backend.entity.Feedback;
+import com.smartfeedback.backend.event.FeedbackSubmittedEvent;
+import com.smartfeedback.backend.event.SentimentUpdatedEvent;
+import com.smartfeedback.backend.repository.FeedbackStore;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory columnar copy of all feedback, keyed by faculty. Loaded once at startup and
+ * appended from feedback events, so report and dashboard aggregates never hit the database.
+ * Only writes made through this instance are seen; enable it where one instance owns the data.
+ */
+@Component
+@ConditionalOnProperty(name = "app.analytics.columnar.enabled", havingValue = "true")
+public class ColumnarAnalyticsCache {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ColumnarAnalyticsCache.class);
+    
+    @Autowired
+    private FeedbackStore feedbackStore;
+    
+    private final Map<String, FacultyColumns> faculties = new ConcurrentHashMap<>();
+    
+    @PostConstruct
+    void load() {
+        long started = System.nanoTime();
+        int loaded = 0;
+        for (Feedback feedback : feedbackStore.findAll()) {
+            columnsFor(feedback.getFacultyName()).append(feedback);
+            loaded++;
+        }
+        logger.info("Columnar analytics cache loaded {} feedback rows for {} faculties in {} ms",
+                loaded, faculties.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+    
+    @EventListener
+    public void onFeedbackSubmitted(FeedbackSubmittedEvent event) {
+        Feedback feedback = event.getFeedback();
+        columnsFor(feedback.getFacultyName()).append(feedback);
+    }
+    
+    @EventListener
+    public void onSentimentUpdated(SentimentUpdatedEvent event) {
+        FacultyColumns columns = faculties.get(event.getFacultyName());
+        if (columns != null) {
+            columns.updateSentiment(event.getFeedbackId(), event.getSentiment());
+        }
+    }
+    
+    // Null when the faculty has no feedback
+    public FacultyColumns get(String facultyName) {
+        FacultyColumns columns = faculties.get(facultyName);
+        return columns != null && columns.size() > 0 ? columns : null;
+    }
+    
+    public Map<String, FacultyColumns> getAll() {
+        return faculties;
+    }
+    
+    private FacultyColumns columnsFor(String facultyName) {
+        return faculties.computeIfAbsent(facultyName, k -> new FacultyColumns(64));
+    }
+}
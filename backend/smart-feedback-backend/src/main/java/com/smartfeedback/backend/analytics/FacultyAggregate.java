@@ -0,0 +1,69 @@
+package com.smartfeedback.backend.analytics;
+
+import com.smartfeedback.backend.entity.Feedback;
+
+/**
+ * Report inputs for one faculty: row count, rating sums and sentiment counts. Built from
+ * a single grouped query over all faculties, so precomputing reports does not need
+ * per-faculty queries.
+ */
+public class FacultyAggregate {
+    
+    private final String facultyName;
+    private long count;
+    private long teachingQualitySum;
+    private long communicationSkillSum;
+    private final long[] sentimentCounts = new long[Feedback.Sentiment.values().length];
+    
+    public FacultyAggregate(String facultyName) {
+        this.facultyName = facultyName;
+    }
+    
+    // Adds a group of rows sharing one sentiment (null for unclassified rows)
+    public void add(Feedback.Sentiment sentiment, long rows, long teachingQualitySum, long communicationSkillSum) {
+        count += rows;
+        this.teachingQualitySum += teachingQualitySum;
+        this.communicationSkillSum += communicationSkillSum;
+        if (sentiment != null) {
+            sentimentCounts[sentiment.ordinal()] += rows;
+        }
+    }
+    
+    // Adds the rows of another aggregate of the same faculty, such as its archived terms
+    public void add(FacultyAggregate other) {
+        count += other.count;
+        teachingQualitySum += other.teachingQualitySum;
+        communicationSkillSum += other.communicationSkillSum;
+        for (int i = 0; i < sentimentCounts.length; i++) {
+            sentimentCounts[i] += other.sentimentCounts[i];
+        }
+    }
+    
+    public String getFacultyName() {
+        return facultyName;
+    }
+    
+    public long getCount() {
+        return count;
+    }
+    
+    public long getTeachingQualitySum() {
+        return teachingQualitySum;
+    }
+    
+    public long getCommunicationSkillSum() {
+        return communicationSkillSum;
+    }
+    
+    public double averageTeachingQuality() {
+        return count == 0 ? 0.0 : (double) teachingQualitySum / count;
+    }
+    
+    public double averageCommunicationSkill() {
+        return count == 0 ? 0.0 : (double) communicationSkillSum / count;
+    }
+    
+    public long count(Feedback.Sentiment sentiment) {
+        return sentimentCounts[sentiment.ordinal()];
+    }
+}
@@ -0,0 +1,239 @@
+package com.smartfeedback.backend.analytics;
+
+import com.smartfeedback.backend.dto.FacultyStatsResponse;
+import com.smartfeedback.backend.entity.Feedback;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Column-oriented copy of one faculty's feedback: ratings and sentiment as bytes, ids and
+ * timestamps as longs. Writers are serialized on the instance; readers run lock-free
+ * against the arrays published before the volatile size, whose prefix never changes
+ * except for sentiment bytes.
+ */
+public final class FacultyColumns {
+    
+    private static final int RATINGS = 5;
+    // Sentiment column stores ordinal + 1, 0 meaning not classified
+    private static final int SENTIMENT_SLOTS = Feedback.Sentiment.values().length + 1;
+    
+    private long[] ids;
+    private long[] createdAt;
+    private byte[] teaching;
+    private byte[] communication;
+    private byte[] sentiment;
+    private volatile int size;
+    private boolean idsAscending = true;
+    
+    // Running totals so unfiltered aggregates are O(1)
+    private final long[] teachingHistogram = new long[RATINGS];
+    private final long[] communicationHistogram = new long[RATINGS];
+    private final long[] sentimentCounts = new long[SENTIMENT_SLOTS];
+    private long teachingSum;
+    private long communicationSum;
+    
+    public FacultyColumns(int initialCapacity) {
+        int capacity = Math.max(16, initialCapacity);
+        ids = new long[capacity];
+        createdAt = new long[capacity];
+        teaching = new byte[capacity];
+        communication = new byte[capacity];
+        sentiment = new byte[capacity];
+    }
+    
+    public static FacultyColumns of(List<Feedback> feedback) {
+        FacultyColumns columns = new FacultyColumns(feedback.size());
+        feedback.forEach(columns::append);
+        return columns;
+    }
+    
+    // Ignores ids that are already present, so replays and load/event races are harmless
+    public synchronized void append(Feedback feedback) {
+        long id = feedback.getId();
+        int n = size;
+        if (n > 0 && id <= ids[n - 1]) {
+            if (indexOf(id, n) >= 0) {
+                return;
+            }
+            idsAscending = false;
+        }
+        if (n == ids.length) {
+            grow(n * 2);
+        }
+        int tq = feedback.getTeachingQuality();
+        int cs = feedback.getCommunicationSkill();
+        byte s = sentimentByte(feedback.getSentiment());
+        ids[n] = id;
+        createdAt[n] = toEpochMillis(feedback.getCreatedAt());
+        teaching[n] = (byte) tq;
+        communication[n] = (byte) cs;
+        sentiment[n] = s;
+        teachingHistogram[tq - 1]++;
+        communicationHistogram[cs - 1]++;
+        sentimentCounts[s]++;
+        teachingSum += tq;
+        communicationSum += cs;
+        size = n + 1;
+    }
+    
+    public synchronized boolean updateSentiment(long id, Feedback.Sentiment value) {
+        int i = indexOf(id, size);
+        if (i < 0) {
+            return false;
+        }
+        byte s = sentimentByte(value);
+        sentimentCounts[sentiment[i]]--;
+        sentimentCounts[s]++;
+        sentiment[i] = s;
+        return true;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public synchronized long count(Feedback.Sentiment value) {
+        return sentimentCounts[sentimentByte(value)];
+    }
+    
+    public synchronized double averageTeachingQuality() {
+        return size == 0 ? 0 : (double) teachingSum / size;
+    }
+    
+    public synchronized double averageCommunicationSkill() {
+        return size == 0 ? 0 : (double) communicationSum / size;
+    }
+    
+    /**
+     * Aggregates over feedback created in [from, to); either bound may be null.
+     */
+    public FacultyStatsResponse stats(String facultyName, LocalDateTime from, LocalDateTime to) {
+        long[] tqHistogram = new long[RATINGS];
+        long[] csHistogram = new long[RATINGS];
+        long[] sentiments = new long[SENTIMENT_SLOTS];
+        long count;
+        long tqSum;
+        long csSum;
+        
+        if (from == null && to == null) {
+            synchronized (this) {
+                System.arraycopy(teachingHistogram, 0, tqHistogram, 0, RATINGS);
+                System.arraycopy(communicationHistogram, 0, csHistogram, 0, RATINGS);
+                System.arraycopy(sentimentCounts, 0, sentiments, 0, SENTIMENT_SLOTS);
+                count = size;
+                tqSum = teachingSum;
+                csSum = communicationSum;
+            }
+        } else {
+            long lower = from != null ? toEpochMillis(from) : Long.MIN_VALUE;
+            long upper = to != null ? toEpochMillis(to) : Long.MAX_VALUE;
+            int n = size;
+            long[] times = createdAt;
+            byte[] tq = teaching;
+            byte[] cs = communication;
+            byte[] sent = sentiment;
+            count = 0;
+            for (int i = 0; i < n; i++) {
+                long t = times[i];
+                if (t >= lower && t < upper) {
+                    tqHistogram[tq[i] - 1]++;
+                    csHistogram[cs[i] - 1]++;
+                    sentiments[sent[i]]++;
+                    count++;
+                }
+            }
+            tqSum = weightedSum(tqHistogram);
+            csSum = weightedSum(csHistogram);
+        }
+        
+        FacultyStatsResponse stats = new FacultyStatsResponse();
+        stats.setFacultyName(facultyName);
+        stats.setFrom(from);
+        stats.setTo(to);
+        stats.setTotalFeedbackCount(count);
+        stats.setTeachingQualityHistogram(tqHistogram);
+        stats.setCommunicationSkillHistogram(csHistogram);
+        if (count > 0) {
+            stats.setAvgTeachingQuality((double) tqSum / count);
+            stats.setAvgCommunicationSkill((double) csSum / count);
+            stats.setTeachingQualityMedian(percentile(tqHistogram, count, 0.5));
+            stats.setTeachingQualityP90(percentile(tqHistogram, count, 0.9));
+            stats.setCommunicationSkillMedian(percentile(csHistogram, count, 0.5));
+            stats.setCommunicationSkillP90(percentile(csHistogram, count, 0.9));
+        }
+        stats.setPositiveCount(sentiments[sentimentByte(Feedback.Sentiment.POSITIVE)]);
+        stats.setNegativeCount(sentiments[sentimentByte(Feedback.Sentiment.NEGATIVE)]);
+        stats.setNeutralCount(sentiments[sentimentByte(Feedback.Sentiment.NEUTRAL)]);
+        return stats;
+    }
+    
+    public interface RowVisitor {
+        void visit(long createdAtMillis, int teachingQuality, int communicationSkill, Feedback.Sentiment sentiment);
+    }
+    
+    // Visits every row without locking, against the arrays published before size
+    public void forEachRow(RowVisitor visitor) {
+        int n = size;
+        long[] times = createdAt;
+        byte[] tq = teaching;
+        byte[] cs = communication;
+        byte[] sent = sentiment;
+        Feedback.Sentiment[] values = Feedback.Sentiment.values();
+        for (int i = 0; i < n; i++) {
+            visitor.visit(times[i], tq[i], cs[i], sent[i] == 0 ? null : values[sent[i] - 1]);
+        }
+    }
+    
+    private int indexOf(long id, int n) {
+        if (idsAscending) {
+            int i = Arrays.binarySearch(ids, 0, n, id);
+            return i >= 0 ? i : -1;
+        }
+        for (int i = 0; i < n; i++) {
+            if (ids[i] == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    private void grow(int capacity) {
+        ids = Arrays.copyOf(ids, capacity);
+        createdAt = Arrays.copyOf(createdAt, capacity);
+        teaching = Arrays.copyOf(teaching, capacity);
+        communication = Arrays.copyOf(communication, capacity);
+        sentiment = Arrays.copyOf(sentiment, capacity);
+    }
+    
+    // Smallest rating whose cumulative share reaches the quantile
+    private static int percentile(long[] histogram, long count, double quantile) {
+        long rank = (long) Math.ceil(quantile * count);
+        long cumulative = 0;
+        for (int rating = 0; rating < histogram.length; rating++) {
+            cumulative += histogram[rating];
+            if (cumulative >= rank) {
+                return rating + 1;
+            }
+        }
+        return histogram.length;
+    }
+    
+    private static long weightedSum(long[] histogram) {
+        long sum = 0;
+        for (int rating = 0; rating < histogram.length; rating++) {
+            sum += histogram[rating] * (rating + 1);
+        }
+        return sum;
+    }
+    
+    static byte sentimentByte(Feedback.Sentiment value) {
+        return (byte) (value != null ? value.ordinal() + 1 : 0);
+    }
+    
+    static long toEpochMillis(LocalDateTime time) {
+        return time != null ? time.toInstant(ZoneOffset.UTC).toEpochMilli() : 0L;
+    }
+}
@@ -0,0 +1,248 @@
+package com.smartfeedback.backend.analytics;
+
+import com.smartfeedback.backend.dto.LeaderboardEntry;
+import com.smartfeedback.backend.entity.Feedback;
+import com.smartfeedback.backend.event.FeedbackSubmittedEvent;
+import com.smartfeedback.backend.event.SentimentUpdatedEvent;
+import com.smartfeedback.backend.repository.FeedbackStore;
+import com.smartfeedback.backend.service.NameDictionary;
+import com.smartfeedback.backend.tenant.TenantContext;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Faculty rankings kept up to date from feedback events. Each metric has a
+ * {@link RankedSet} ordered by score, so top-K and rank-of-faculty queries are logarithmic
+ * and a new submission only moves its own faculty. Faculties with fewer than min-samples
+ * feedback are left out, so one enthusiastic review cannot top the board.
+ *
+ * Seeded from one aggregate query per tenant; deletions are only picked up on restart.
+ */
+@Component
+public class FacultyLeaderboard {
+    
+    private static final Logger logger = LoggerFactory.getLogger(FacultyLeaderboard.class);
+    
+    public enum Metric {
+        TEACHING_QUALITY("teachingQuality"),
+        COMMUNICATION_SKILL("communicationSkill"),
+        POSITIVE_RATIO("positiveRatio"),
+        VOLUME("volume");
+        
+        private final String parameter;
+        
+        Metric(String parameter) {
+            this.parameter = parameter;
+        }
+        
+        public String parameter() {
+            return parameter;
+        }
+        
+        public static Metric fromParameter(String value) {
+            for (Metric metric : values()) {
+                if (metric.parameter.equalsIgnoreCase(value) || metric.name().equalsIgnoreCase(value)) {
+                    return metric;
+                }
+            }
+            throw new RuntimeException("Invalid leaderboard metric: " + value);
+        }
+    }
+    
+    private record Entry(String facultyName, double score, long count) {}
+    
+    // Highest score first; ties broken by name so entries are unique and stable
+    private static final Comparator<Entry> ORDER = Comparator
+            .comparingDouble(Entry::score).reversed()
+            .thenComparing(Entry::facultyName);
+    
+    private static final class Standing {
+        long count;
+        long teachingQualitySum;
+        long communicationSkillSum;
+        long positive;
+        
+        double score(Metric metric) {
+            return switch (metric) {
+                case TEACHING_QUALITY -> (double) teachingQualitySum / count;
+                case COMMUNICATION_SKILL -> (double) communicationSkillSum / count;
+                case POSITIVE_RATIO -> (double) positive / count;
+                case VOLUME -> count;
+            };
+        }
+    }
+    
+    @Value("${app.leaderboard.min-samples:5}")
+    private int minSamples;
+    
+    @Autowired
+    private FeedbackStore feedbackStore;
+    
+    @Autowired
+    private NameDictionary nameDictionary;
+    
+    // One board per tenant; other tenants' boards are loaded when first read
+    private final Map<String, Board> boards = new ConcurrentHashMap<>();
+    
+    @PostConstruct
+    void init() {
+        boards.put(TenantContext.DEFAULT_TENANT, load());
+    }
+    
+    @EventListener
+    public void onFeedbackSubmitted(FeedbackSubmittedEvent event) {
+        Board board = boards.get(TenantContext.current());
+        if (board == null) {
+            // Not loaded yet; the load will include this row
+            return;
+        }
+        Feedback feedback = event.getFeedback();
+        board.update(resolve(feedback.getFacultyName()), standing -> {
+            standing.count++;
+            standing.teachingQualitySum += feedback.getTeachingQuality();
+            standing.communicationSkillSum += feedback.getCommunicationSkill();
+            if (feedback.getSentiment() == Feedback.Sentiment.POSITIVE) {
+                standing.positive++;
+            }
+        });
+    }
+    
+    @EventListener
+    public void onSentimentUpdated(SentimentUpdatedEvent event) {
+        Board board = boards.get(TenantContext.current());
+        int delta = (event.getSentiment() == Feedback.Sentiment.POSITIVE ? 1 : 0)
+                - (event.getPreviousSentiment() == Feedback.Sentiment.POSITIVE ? 1 : 0);
+        if (board != null && delta != 0) {
+            board.update(resolve(event.getFacultyName()), standing -> standing.positive += delta);
+        }
+    }
+    
+    public int getMinSamples() {
+        return minSamples;
+    }
+    
+    public int rankedCount(Metric metric) {
+        Board board = board();
+        board.lock.readLock().lock();
+        try {
+            return board.rankings.get(metric).size();
+        } finally {
+            board.lock.readLock().unlock();
+        }
+    }
+    
+    public List<LeaderboardEntry> top(Metric metric, int k) {
+        Board board = board();
+        board.lock.readLock().lock();
+        try {
+            List<LeaderboardEntry> result = new ArrayList<>();
+            int rank = 1;
+            for (Entry entry : board.rankings.get(metric).first(k)) {
+                result.add(new LeaderboardEntry(rank++, entry.facultyName(), entry.score(), entry.count()));
+            }
+            return result;
+        } finally {
+            board.lock.readLock().unlock();
+        }
+    }
+    
+    // Null when the faculty has no feedback or fewer than min-samples
+    public LeaderboardEntry rankOf(Metric metric, String name) {
+        String facultyName = resolve(name);
+        Board board = board();
+        board.lock.readLock().lock();
+        try {
+            Standing standing = board.standings.get(facultyName);
+            if (standing == null || standing.count < minSamples) {
+                return null;
+            }
+            Entry entry = new Entry(facultyName, standing.score(metric), standing.count);
+            return new LeaderboardEntry(board.rankings.get(metric).rankOf(entry), facultyName, entry.score(), entry.count());
+        } finally {
+            board.lock.readLock().unlock();
+        }
+    }
+    
+    private Board board() {
+        return boards.computeIfAbsent(TenantContext.current(), tenant -> load());
+    }
+    
+    private Board load() {
+        long started = System.nanoTime();
+        List<FacultyAggregate> aggregates = feedbackStore.aggregateByFaculty();
+        Board board = new Board();
+        for (FacultyAggregate aggregate : aggregates) {
+            Standing standing = new Standing();
+            standing.count = aggregate.getCount();
+            standing.teachingQualitySum = aggregate.getTeachingQualitySum();
+            standing.communicationSkillSum = aggregate.getCommunicationSkillSum();
+            standing.positive = aggregate.count(Feedback.Sentiment.POSITIVE);
+            board.standings.put(aggregate.getFacultyName(), standing);
+            board.rank(aggregate.getFacultyName(), standing);
+        }
+        logger.info("Leaderboard for tenant {} loaded {} faculties in {} ms", TenantContext.current(),
+                aggregates.size(), (System.nanoTime() - started) / 1_000_000);
+        return board;
+    }
+    
+    // Events and lookups may use any spelling of a name; the stored one is the key
+    private String resolve(String facultyName) {
+        return nameDictionary.resolveDisplayName(NameDictionary.Dimension.FACULTY, facultyName);
+    }
+    
+    private interface Change {
+        void apply(Standing standing);
+    }
+    
+    private final class Board {
+        final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        final Map<String, Standing> standings = new HashMap<>();
+        final Map<Metric, RankedSet<Entry>> rankings = new EnumMap<>(Metric.class);
+        
+        Board() {
+            for (Metric metric : Metric.values()) {
+                rankings.put(metric, new RankedSet<>(ORDER));
+            }
+        }
+        
+        void update(String facultyName, Change change) {
+            lock.writeLock().lock();
+            try {
+                Standing standing = standings.computeIfAbsent(facultyName, k -> new Standing());
+                unrank(facultyName, standing);
+                change.apply(standing);
+                rank(facultyName, standing);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        
+        // Caller holds the write lock or owns the board
+        void rank(String facultyName, Standing standing) {
+            if (standing.count >= minSamples && standing.count > 0) {
+                rankings.forEach((metric, ranking) -> ranking.add(new Entry(facultyName, standing.score(metric), standing.count)));
+            }
+        }
+        
+        // Caller holds the write lock
+        void unrank(String facultyName, Standing standing) {
+            if (standing.count >= minSamples && standing.count > 0) {
+                rankings.forEach((metric, ranking) -> ranking.remove(new Entry(facultyName, standing.score(metric), standing.count)));
+            }
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.smartfeedback.backend.analytics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sorted set with rank lookups: a treap whose nodes carry their subtree size, so insert,
+ * remove and rank-of are O(log n) expected and the first k elements cost O(log n + k).
+ * Not thread-safe; callers synchronize.
+ */
+public final class RankedSet<E> {
+    
+    private static final class Node<E> {
+        final E element;
+        final int priority;
+        Node<E> left;
+        Node<E> right;
+        int size = 1;
+        
+        Node(E element) {
+            this.element = element;
+            this.priority = ThreadLocalRandom.current().nextInt();
+        }
+    }
+    
+    private final Comparator<? super E> order;
+    private Node<E> root;
+    
+    public RankedSet(Comparator<? super E> order) {
+        this.order = order;
+    }
+    
+    public int size() {
+        return size(root);
+    }
+    
+    public void add(E element) {
+        root = insert(root, new Node<>(element));
+    }
+    
+    public void remove(E element) {
+        root = delete(root, element);
+    }
+    
+    // 1-based position in the order, or -1 when absent
+    public int rankOf(E element) {
+        int before = 0;
+        Node<E> node = root;
+        while (node != null) {
+            int c = order.compare(element, node.element);
+            if (c == 0) {
+                return before + size(node.left) + 1;
+            }
+            if (c < 0) {
+                node = node.left;
+            } else {
+                before += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return -1;
+    }
+    
+    public List<E> first(int k) {
+        List<E> result = new ArrayList<>(Math.min(k, size()));
+        collect(root, k, result);
+        return result;
+    }
+    
+    private void collect(Node<E> node, int k, List<E> result) {
+        if (node == null || result.size() >= k) {
+            return;
+        }
+        collect(node.left, k, result);
+        if (result.size() < k) {
+            result.add(node.element);
+            collect(node.right, k, result);
+        }
+    }
+    
+    private Node<E> insert(Node<E> node, Node<E> fresh) {
+        if (node == null) {
+            return fresh;
+        }
+        int c = order.compare(fresh.element, node.element);
+        if (c == 0) {
+            return node;
+        }
+        if (c < 0) {
+            node.left = insert(node.left, fresh);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, fresh);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        update(node);
+        return node;
+    }
+    
+    private Node<E> delete(Node<E> node, E element) {
+        if (node == null) {
+            return null;
+        }
+        int c = order.compare(element, node.element);
+        if (c < 0) {
+            node.left = delete(node.left, element);
+        } else if (c > 0) {
+            node.right = delete(node.right, element);
+        } else {
+            return merge(node.left, node.right);
+        }
+        update(node);
+        return node;
+    }
+    
+    // All of left orders before all of right
+    private Node<E> merge(Node<E> left, Node<E> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+    
+    private Node<E> rotateRight(Node<E> node) {
+        Node<E> pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+    
+    private Node<E> rotateLeft(Node<E> node) {
+        Node<E> pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+    
+    private static <E> void update(Node<E> node) {
+        node.size = 1 + size(node.left) + size(node.right);
+    }
+    
+    private static <E> int size(Node<E> node) {
+        return node == null ? 0 : node.size;
+    }
+}
@@ -0,0 +1,298 @@
+package com.smartfeedback.backend.analytics;
+
+import com.smartfeedback.backend.dto.SentimentAlert;
+import com.smartfeedback.backend.entity.Feedback;
+import com.smartfeedback.backend.event.FeedbackSubmittedEvent;
+import com.smartfeedback.backend.event.SentimentAlertEvent;
+import com.smartfeedback.backend.service.NameDictionary;
+import com.smartfeedback.backend.tenant.TenantContext;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Watches each faculty's share of negative feedback for sudden spikes. Every classified
+ * submission is counted in the faculty's {@link SentimentWindow}, a fixed ring of buckets
+ * covering app.alerts.baseline-hours, so the cost per feedback is one compare-and-set and
+ * memory is one ring per active faculty. Every app.alerts.evaluate-interval-ms the last
+ * app.alerts.window-minutes are tested against the rest of the ring: the baseline ratio is
+ * shrunk towards the tenant-wide ratio by app.alerts.prior-weight pseudo-counts, so a
+ * faculty with little history is compared with everyone else, and an alert is raised when
+ * the one-sided z-score of the window reaches app.alerts.z-threshold. It stays active
+ * until the z-score falls below half the threshold, so a rate hovering at the line does not
+ * flap. Raising and resolving publish a {@link SentimentAlertEvent}.
+ *
+ * Counts start empty on startup; deletions and later sentiment changes are not counted.
+ */
+@Component
+@ConditionalOnProperty(name = "app.alerts.enabled", havingValue = "true")
+public class SentimentMonitor {
+    
+    private static final Logger logger = LoggerFactory.getLogger(SentimentMonitor.class);
+    
+    @Value("${app.alerts.bucket-seconds:300}")
+    private int bucketSeconds;
+    
+    @Value("${app.alerts.window-minutes:60}")
+    private int windowMinutes;
+    
+    @Value("${app.alerts.baseline-hours:24}")
+    private int baselineHours;
+    
+    @Value("${app.alerts.min-samples:10}")
+    private int minSamples;
+    
+    @Value("${app.alerts.z-threshold:3.0}")
+    private double zThreshold;
+    
+    // Below this share of negative feedback nothing is raised, however unusual it is
+    @Value("${app.alerts.min-negative-ratio:0.3}")
+    private double minNegativeRatio;
+    
+    @Value("${app.alerts.prior-weight:20}")
+    private double priorWeight;
+    
+    @Value("${app.alerts.history:100}")
+    private int history;
+    
+    @Value("${app.alerts.max-faculties:10000}")
+    private int maxFaculties;
+    
+    @Autowired
+    private NameDictionary nameDictionary;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    private long bucketMillis;
+    private int windowBuckets;
+    private int ringBuckets;
+    
+    // Windows and alerts per tenant, created on the tenant's first classified feedback
+    private final Map<String, Faculties> tenants = new ConcurrentHashMap<>();
+    
+    private final class Faculties {
+        final Map<String, SentimentWindow> windows = new ConcurrentHashMap<>();
+        final Map<String, SentimentAlert> active = new ConcurrentHashMap<>();
+        // Guarded by itself
+        final Deque<SentimentAlert> recent = new ArrayDeque<>();
+        
+        void remember(SentimentAlert alert) {
+            synchronized (recent) {
+                recent.addFirst(alert);
+                while (recent.size() > history) {
+                    recent.removeLast();
+                }
+            }
+        }
+    }
+    
+    @PostConstruct
+    void init() {
+        bucketMillis = bucketSeconds * 1000L;
+        ringBuckets = Math.max(2, (int) (baselineHours * 3600L / bucketSeconds));
+        windowBuckets = Math.max(1, Math.min(ringBuckets - 1, windowMinutes * 60 / bucketSeconds));
+        logger.info("Sentiment alerts: {} min window against {} h baseline in {} s buckets",
+                windowBuckets * bucketSeconds / 60, baselineHours, bucketSeconds);
+    }
+    
+    @EventListener
+    public void onFeedbackSubmitted(FeedbackSubmittedEvent event) {
+        Feedback feedback = event.getFeedback();
+        if (feedback.getSentiment() == null) {
+            return;
+        }
+        Faculties faculties = tenants.computeIfAbsent(TenantContext.current(), tenant -> new Faculties());
+        String facultyName = resolve(feedback.getFacultyName());
+        SentimentWindow window = faculties.windows.get(facultyName);
+        if (window == null) {
+            if (faculties.windows.size() >= maxFaculties) {
+                logger.debug("Not monitoring {}: {} faculties already monitored", facultyName, maxFaculties);
+                return;
+            }
+            window = faculties.windows.computeIfAbsent(facultyName, name -> new SentimentWindow(bucketMillis, ringBuckets));
+        }
+        LocalDateTime createdAt = feedback.getCreatedAt();
+        long time = createdAt != null ? createdAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : System.currentTimeMillis();
+        window.record(time, feedback.getSentiment() == Feedback.Sentiment.NEGATIVE);
+    }
+    
+    @Scheduled(initialDelayString = "${app.alerts.evaluate-interval-ms:60000}",
+               fixedDelayString = "${app.alerts.evaluate-interval-ms:60000}")
+    public void evaluate() {
+        long now = System.currentTimeMillis();
+        tenants.forEach((tenant, faculties) -> TenantContext.runAs(tenant, () -> evaluate(faculties, now)));
+    }
+    
+    public int getWindowMinutes() {
+        return windowBuckets * bucketSeconds / 60;
+    }
+    
+    public int getBaselineHours() {
+        return baselineHours;
+    }
+    
+    // Active alerts of the current tenant, most significant first
+    public List<SentimentAlert> activeAlerts() {
+        Faculties faculties = tenants.get(TenantContext.current());
+        if (faculties == null) {
+            return List.of();
+        }
+        List<SentimentAlert> alerts = new ArrayList<>(faculties.active.values());
+        alerts.sort(Comparator.comparingDouble(SentimentAlert::getZScore).reversed());
+        return alerts;
+    }
+    
+    public List<SentimentAlert> recentAlerts() {
+        Faculties faculties = tenants.get(TenantContext.current());
+        if (faculties == null) {
+            return List.of();
+        }
+        synchronized (faculties.recent) {
+            return new ArrayList<>(faculties.recent);
+        }
+    }
+    
+    // Current window of one faculty; null when it has no classified feedback in the baseline period
+    public SentimentAlert status(String name) {
+        Faculties faculties = tenants.get(TenantContext.current());
+        String facultyName = resolve(name);
+        SentimentWindow window = faculties == null ? null : faculties.windows.get(facultyName);
+        if (window == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        SentimentAlert snapshot = snapshot(facultyName, window, now);
+        if (snapshot.getWindowTotal() + snapshot.getBaselineTotal() == 0) {
+            return null;
+        }
+        score(snapshot, tenantRatio(faculties, now));
+        SentimentAlert active = faculties.active.get(facultyName);
+        if (active != null) {
+            snapshot.setStatus(SentimentAlert.ACTIVE);
+            snapshot.setRaisedAt(active.getRaisedAt());
+        }
+        return snapshot;
+    }
+    
+    // One-sided z-score of observing ratio over n samples when the expected ratio is p0
+    static double zScore(double ratio, long n, double p0) {
+        if (n == 0) {
+            return 0;
+        }
+        return (ratio - p0) / Math.sqrt(p0 * (1 - p0) / n);
+    }
+    
+    private void evaluate(Faculties faculties, long now) {
+        Map<String, SentimentAlert> snapshots = new HashMap<>();
+        long total = 0;
+        long negative = 0;
+        for (Map.Entry<String, SentimentWindow> entry : faculties.windows.entrySet()) {
+            SentimentAlert snapshot = snapshot(entry.getKey(), entry.getValue(), now);
+            if (snapshot.getWindowTotal() + snapshot.getBaselineTotal() == 0
+                    && !faculties.active.containsKey(entry.getKey())) {
+                // Idle for the whole baseline period; a record racing this removal is lost
+                faculties.windows.remove(entry.getKey(), entry.getValue());
+                continue;
+            }
+            snapshots.put(entry.getKey(), snapshot);
+            total += snapshot.getWindowTotal() + snapshot.getBaselineTotal();
+            negative += snapshot.getWindowNegative() + snapshot.getBaselineNegative();
+        }
+        double tenantRatio = total == 0 ? 0 : (double) negative / total;
+        
+        snapshots.forEach((facultyName, snapshot) -> {
+            score(snapshot, tenantRatio);
+            SentimentAlert active = faculties.active.get(facultyName);
+            if (active == null) {
+                if (snapshot.getWindowTotal() >= minSamples && snapshot.getZScore() >= zThreshold
+                        && snapshot.getNegativeRatio() >= minNegativeRatio) {
+                    snapshot.setStatus(SentimentAlert.ACTIVE);
+                    snapshot.setRaisedAt(LocalDateTime.now());
+                    faculties.active.put(facultyName, snapshot);
+                    faculties.remember(snapshot);
+                    logger.warn("Negative feedback alert for {}: {} of {} negative in the last {} min against a baseline of {}",
+                            facultyName, snapshot.getWindowNegative(), snapshot.getWindowTotal(), getWindowMinutes(),
+                            snapshot.getBaselineRatio());
+                    eventPublisher.publishEvent(new SentimentAlertEvent(snapshot));
+                }
+            } else if (snapshot.getWindowTotal() < minSamples || snapshot.getZScore() < zThreshold / 2
+                    || snapshot.getNegativeRatio() < minNegativeRatio) {
+                snapshot.setStatus(SentimentAlert.RESOLVED);
+                snapshot.setRaisedAt(active.getRaisedAt());
+                snapshot.setResolvedAt(LocalDateTime.now());
+                faculties.active.remove(facultyName);
+                faculties.remember(snapshot);
+                logger.info("Negative feedback alert for {} resolved", facultyName);
+                eventPublisher.publishEvent(new SentimentAlertEvent(snapshot));
+            } else {
+                // Still active; keep the figures current
+                snapshot.setStatus(SentimentAlert.ACTIVE);
+                snapshot.setRaisedAt(active.getRaisedAt());
+                faculties.active.put(facultyName, snapshot);
+            }
+        });
+    }
+    
+    // Window and baseline counts, with status NORMAL and no scores yet
+    private SentimentAlert snapshot(String facultyName, SentimentWindow window, long now) {
+        long[] recent = window.counts(now, windowBuckets);
+        long[] all = window.counts(now, window.buckets());
+        SentimentAlert snapshot = new SentimentAlert(facultyName, SentimentAlert.NORMAL);
+        snapshot.setWindowMinutes(getWindowMinutes());
+        snapshot.setWindowTotal(recent[0]);
+        snapshot.setWindowNegative(recent[1]);
+        snapshot.setBaselineTotal(all[0] - recent[0]);
+        snapshot.setBaselineNegative(all[1] - recent[1]);
+        return snapshot;
+    }
+    
+    private void score(SentimentAlert snapshot, double tenantRatio) {
+        double ratio = snapshot.getWindowTotal() == 0 ? 0 : (double) snapshot.getWindowNegative() / snapshot.getWindowTotal();
+        double baseline = (snapshot.getBaselineNegative() + priorWeight * tenantRatio)
+                / (snapshot.getBaselineTotal() + priorWeight);
+        // Keeps the variance away from zero for faculties that never had negative feedback
+        double p0 = Math.min(0.99, Math.max(0.01, baseline));
+        snapshot.setNegativeRatio(round(ratio));
+        snapshot.setBaselineRatio(round(p0));
+        snapshot.setZScore(round(zScore(ratio, snapshot.getWindowTotal(), p0)));
+    }
+    
+    private double tenantRatio(Faculties faculties, long now) {
+        long total = 0;
+        long negative = 0;
+        for (SentimentWindow window : faculties.windows.values()) {
+            long[] counts = window.counts(now, window.buckets());
+            total += counts[0];
+            negative += counts[1];
+        }
+        return total == 0 ? 0 : (double) negative / total;
+    }
+    
+    private String resolve(String facultyName) {
+        return nameDictionary.resolveDisplayName(NameDictionary.Dimension.FACULTY, facultyName);
+    }
+    
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+}
@@ -0,0 +1,74 @@
+package com.smartfeedback.backend.analytics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Sliding-window counts of classified and negative feedback for one faculty, in a ring of
+ * fixed-width time buckets. Each bucket is one long holding the bucket number it counts
+ * for and both counts, so recording is a single compare-and-set and a bucket left over
+ * from the previous lap of the ring is reset by the first write that lands in it. Memory
+ * is fixed at one long per bucket; windows can span up to the whole ring.
+ */
+public class SentimentWindow {
+    
+    // Bucket number (low bits) | total | negative
+    private static final int COUNT_BITS = 20;
+    private static final int BUCKET_BITS = 64 - 2 * COUNT_BITS;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+    private static final long BUCKET_MASK = (1L << BUCKET_BITS) - 1;
+    
+    private final long bucketMillis;
+    private final AtomicLongArray slots;
+    
+    public SentimentWindow(long bucketMillis, int buckets) {
+        this.bucketMillis = bucketMillis;
+        this.slots = new AtomicLongArray(buckets);
+    }
+    
+    // Counts one classified feedback submitted at timeMillis; ones older than the ring are dropped
+    public void record(long timeMillis, boolean negative) {
+        long bucket = timeMillis / bucketMillis;
+        int index = (int) (bucket % slots.length());
+        long stamp = bucket & BUCKET_MASK;
+        while (true) {
+            long current = slots.get(index);
+            // Bucket numbers wrap around, so compare by distance rather than by value
+            long ahead = (stamp - (current >>> (2 * COUNT_BITS))) & BUCKET_MASK;
+            long next;
+            if (current != 0 && ahead == 0) {
+                if (((current >>> COUNT_BITS) & COUNT_MASK) == COUNT_MASK) {
+                    // A full bucket stops counting rather than overflow into the bucket number
+                    return;
+                }
+                next = current + (1L << COUNT_BITS) + (negative ? 1 : 0);
+            } else if (current == 0 || ahead < BUCKET_MASK / 2) {
+                next = (stamp << (2 * COUNT_BITS)) | (1L << COUNT_BITS) | (negative ? 1 : 0);
+            } else {
+                // The slot already counts a later lap
+                return;
+            }
+            if (slots.compareAndSet(index, current, next)) {
+                return;
+            }
+        }
+    }
+    
+    // {total, negative} over the buckets ending with the one containing nowMillis
+    public long[] counts(long nowMillis, int buckets) {
+        long last = nowMillis / bucketMillis;
+        long total = 0;
+        long negative = 0;
+        for (long bucket = last - Math.min(buckets, slots.length()) + 1; bucket <= last; bucket++) {
+            long slot = slots.get((int) (bucket % slots.length()));
+            if (slot >>> (2 * COUNT_BITS) == (bucket & BUCKET_MASK)) {
+                total += (slot >>> COUNT_BITS) & COUNT_MASK;
+                negative += slot & COUNT_MASK;
+            }
+        }
+        return new long[] {total, negative};
+    }
+    
+    public int buckets() {
+        return slots.length();
+    }
+}
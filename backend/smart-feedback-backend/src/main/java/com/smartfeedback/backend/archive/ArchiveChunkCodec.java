@@ -0,0 +1,189 @@
+package com.smartfeedback.backend.archive;
+
+import com.smartfeedback.backend.entity.Feedback;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzipped columnar file of archived feedback rows. Each column is written in full before
+ * the next, ids and timestamps as varint deltas and ratings and sentiments as single
+ * bytes, so similar values sit together and compress well. Student ids come right after
+ * the row ids, which lets the archive index a chunk by decompressing only its start.
+ */
+public final class ArchiveChunkCodec {
+    
+    private static final int MAGIC = 0x46424143;
+    private static final byte VERSION = 1;
+    
+    private ArchiveChunkCodec() {}
+    
+    // Writes rows (in id order) and forces the file to disk
+    public static void write(Path file, List<ArchivedRow> rows) throws IOException {
+        try (FileOutputStream fileOut = new FileOutputStream(file.toFile())) {
+            GZIPOutputStream gzip = new GZIPOutputStream(fileOut, 64 * 1024);
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(gzip));
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeInt(rows.size());
+            
+            long previousId = 0;
+            for (ArchivedRow row : rows) {
+                writeVarLong(out, row.id() - previousId);
+                previousId = row.id();
+            }
+            for (ArchivedRow row : rows) {
+                writeVarLong(out, row.studentId());
+            }
+            for (ArchivedRow row : rows) {
+                writeVarLong(out, row.facultyId());
+            }
+            for (ArchivedRow row : rows) {
+                out.writeByte(row.teachingQuality());
+            }
+            for (ArchivedRow row : rows) {
+                out.writeByte(row.communicationSkill());
+            }
+            for (ArchivedRow row : rows) {
+                out.writeByte(row.sentiment() != null ? row.sentiment().ordinal() + 1 : 0);
+            }
+            long previousSecond = 0;
+            for (ArchivedRow row : rows) {
+                long second = row.createdAt().toEpochSecond(ZoneOffset.UTC);
+                writeVarLong(out, zigZag(second - previousSecond));
+                writeVarLong(out, row.createdAt().getNano());
+                previousSecond = second;
+            }
+            for (ArchivedRow row : rows) {
+                if (row.comment() == null) {
+                    writeVarLong(out, 0);
+                    continue;
+                }
+                byte[] utf8 = row.comment().getBytes(StandardCharsets.UTF_8);
+                writeVarLong(out, utf8.length + 1);
+                out.write(utf8);
+            }
+            out.flush();
+            gzip.finish();
+            fileOut.getFD().sync();
+        }
+    }
+    
+    public static List<ArchivedRow> read(Path file) throws IOException {
+        try (DataInputStream in = open(file)) {
+            int size = readHeader(in, file);
+            long[] ids = readIds(in, size);
+            int[] students = readInts(in, size);
+            int[] faculties = readInts(in, size);
+            byte[] teaching = new byte[size];
+            in.readFully(teaching);
+            byte[] communication = new byte[size];
+            in.readFully(communication);
+            byte[] sentiments = new byte[size];
+            in.readFully(sentiments);
+            
+            Feedback.Sentiment[] values = Feedback.Sentiment.values();
+            List<ArchivedRow> rows = new ArrayList<>(size);
+            long second = 0;
+            LocalDateTime[] createdAt = new LocalDateTime[size];
+            for (int i = 0; i < size; i++) {
+                second += unZigZag(readVarLong(in));
+                createdAt[i] = LocalDateTime.ofEpochSecond(second, (int) readVarLong(in), ZoneOffset.UTC);
+            }
+            for (int i = 0; i < size; i++) {
+                int length = (int) readVarLong(in);
+                String comment = null;
+                if (length > 0) {
+                    byte[] utf8 = new byte[length - 1];
+                    in.readFully(utf8);
+                    comment = new String(utf8, StandardCharsets.UTF_8);
+                }
+                rows.add(new ArchivedRow(ids[i], faculties[i], students[i], teaching[i], communication[i],
+                        sentiments[i] > 0 ? values[sentiments[i] - 1] : null, createdAt[i], comment));
+            }
+            return rows;
+        }
+    }
+    
+    // The student id of every row, without decoding the rest of the chunk
+    public static int[] readStudentIds(Path file) throws IOException {
+        try (DataInputStream in = open(file)) {
+            int size = readHeader(in, file);
+            readIds(in, size);
+            return readInts(in, size);
+        }
+    }
+    
+    private static DataInputStream open(Path file) throws IOException {
+        return new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file), 64 * 1024)));
+    }
+    
+    private static int readHeader(DataInputStream in, Path file) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException(file + " is not a feedback archive chunk");
+        }
+        byte version = in.readByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported archive chunk version " + version + " in " + file);
+        }
+        return in.readInt();
+    }
+    
+    private static long[] readIds(DataInputStream in, int size) throws IOException {
+        long[] ids = new long[size];
+        long id = 0;
+        for (int i = 0; i < size; i++) {
+            id += readVarLong(in);
+            ids[i] = id;
+        }
+        return ids;
+    }
+    
+    private static int[] readInts(DataInputStream in, int size) throws IOException {
+        int[] values = new int[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = (int) readVarLong(in);
+        }
+        return values;
+    }
+    
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+    
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+    
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+    
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+    }
+}
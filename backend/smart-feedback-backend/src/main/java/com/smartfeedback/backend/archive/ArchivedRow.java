@@ -0,0 +1,9 @@
+package com.smartfeedback.backend.archive;
+
+import com.smartfeedback.backend.entity.Feedback;
+
+import java.time.LocalDateTime;
+
+// One archived feedback row; faculty and student are name dictionary ids
+public record ArchivedRow(long id, int facultyId, int studentId, int teachingQuality, int communicationSkill,
+                          Feedback.Sentiment sentiment, LocalDateTime createdAt, String comment) {}
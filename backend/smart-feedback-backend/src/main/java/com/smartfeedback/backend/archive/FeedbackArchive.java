@@ -0,0 +1,415 @@
+package com.smartfeedback.backend.archive;
+
+import com.smartfeedback.backend.analytics.AnalyticsAggregator;
+import com.smartfeedback.backend.analytics.AnalyticsQuery;
+import com.smartfeedback.backend.analytics.FacultyAggregate;
+import com.smartfeedback.backend.dto.ArchiveStatusResponse;
+import com.smartfeedback.backend.dto.FeedbackResponse;
+import com.smartfeedback.backend.entity.Feedback;
+import com.smartfeedback.backend.entity.FeedbackArchiveSummary;
+import com.smartfeedback.backend.repository.FeedbackArchiveSummaryRepository;
+import com.smartfeedback.backend.repository.FeedbackRepository;
+import com.smartfeedback.backend.service.AcademicTerms;
+import com.smartfeedback.backend.service.NameDictionary;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Cold tier for feedback from past terms. A background run moves rows submitted before
+ * the most recent app.archive.hot-terms terms out of the feedback table into gzipped
+ * columnar chunk files, one directory per term, and in the same transaction as the delete
+ * records per-faculty summaries of what each chunk holds. The summaries keep all-time
+ * counts and averages unchanged for the store to add to its own; a student's history is
+ * read back from the chunks that mention the student, which are known from an index
+ * built on startup.
+ */
+@Component
+@ConditionalOnProperty(name = "app.archive.enabled", havingValue = "true")
+public class FeedbackArchive {
+    
+    private static final Logger logger = LoggerFactory.getLogger(FeedbackArchive.class);
+    
+    private static final String CHUNK_SUFFIX = ".fbc";
+    
+    @Value("${app.archive.dir:./data/archive}")
+    private String dir;
+    
+    // The current term counts as one; older terms are archived
+    @Value("${app.archive.hot-terms:2}")
+    private int hotTerms;
+    
+    // Terms are the ones report retention keeps a report for
+    @Value("${app.reports.retention.term-start-months:1,8}")
+    private String termStartMonths;
+    
+    @Value("${app.archive.batch-size:5000}")
+    private int batchSize;
+    
+    // Decoded chunks kept in memory for repeated history lookups
+    @Value("${app.archive.cache-chunks:8}")
+    private int cacheChunks;
+    
+    @Autowired
+    private FeedbackRepository feedbackRepository;
+    
+    @Autowired
+    private FeedbackArchiveSummaryRepository summaryRepository;
+    
+    @Autowired
+    private NameDictionary nameDictionary;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    private record Chunk(String name, LocalDate term, Path path, long bytes, int rows, int[] studentIds) {}
+    
+    private AcademicTerms terms;
+    private TransactionTemplate transactionTemplate;
+    private Path root;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile LocalDateTime lastRunAt;
+    private volatile long lastRunRows;
+    
+    // Archived chunks by name; names sort by term, then by id
+    private final Map<String, Chunk> chunks = new ConcurrentSkipListMap<>();
+    // Archived totals by canonical faculty name; replaced, never modified, once published
+    private final Map<String, FacultyAggregate> aggregates = new ConcurrentHashMap<>();
+    private final Map<String, List<ArchivedRow>> decoded = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, List<ArchivedRow>> eldest) {
+            return size() > cacheChunks;
+        }
+    };
+    
+    public FeedbackArchive(Environment environment) {
+        // Both keep their own copy of the feedback rows, which would still include archived ones
+        if (!"jpa".equalsIgnoreCase(environment.getProperty("app.storage.engine", "jpa"))
+                || environment.getProperty("app.analytics.columnar.enabled", Boolean.class, false)) {
+            throw new IllegalStateException("app.archive.enabled requires the jpa storage engine "
+                    + "and cannot be combined with the columnar cache");
+        }
+    }
+    
+    @PostConstruct
+    void init() throws IOException {
+        terms = AcademicTerms.parse(termStartMonths);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        root = Paths.get(dir);
+        Files.createDirectories(root);
+        
+        Set<String> committed = new HashSet<>();
+        for (FeedbackArchiveSummary summary : summaryRepository.findAll()) {
+            committed.add(summary.getChunk());
+            publish(summary);
+        }
+        
+        // A chunk without summaries was written by a run whose delete did not commit: its rows are still hot
+        try (Stream<Path> files = Files.walk(root)) {
+            for (Path path : files.filter(Files::isRegularFile).toList()) {
+                String name = root.relativize(path).toString().replace('\\', '/');
+                if (name.endsWith(".tmp")) {
+                    Files.delete(path);
+                } else if (name.endsWith(CHUNK_SUFFIX) && committed.remove(name)) {
+                    chunks.put(name, index(name, path));
+                } else if (name.endsWith(CHUNK_SUFFIX)) {
+                    logger.warn("Ignoring archive chunk {}: it has no summary, so its rows were never removed from feedback", name);
+                }
+            }
+        }
+        for (String missing : committed) {
+            logger.error("Archive chunk {} is missing; its rows still count in totals but not in student history", missing);
+        }
+        if (!chunks.isEmpty()) {
+            logger.info("Feedback archive has {} chunks in {}", chunks.size(), root);
+        }
+    }
+    
+    @Scheduled(initialDelayString = "${app.archive.initial-delay-ms:300000}",
+               fixedDelayString = "${app.archive.interval-ms:86400000}")
+    public void scheduledRun() {
+        try {
+            archive();
+        } catch (RuntimeException e) {
+            logger.error("Scheduled feedback archival failed: {}", e.getMessage());
+        }
+    }
+    
+    // Moves every row submitted before the cutoff into the archive
+    public ArchiveStatusResponse archive() {
+        if (!running.compareAndSet(false, true)) {
+            throw new RuntimeException("Archive run already running");
+        }
+        try {
+            long started = System.nanoTime();
+            LocalDateTime cutoff = cutoff().atStartOfDay();
+            long moved = 0;
+            List<Feedback> page;
+            while (!(page = feedbackRepository.findByCreatedAtBeforeOrderByIdAsc(cutoff, PageRequest.of(0, batchSize))).isEmpty()) {
+                archivePage(page);
+                moved += page.size();
+            }
+            lastRunAt = LocalDateTime.now();
+            lastRunRows = moved;
+            if (moved > 0) {
+                logger.info("Archived {} feedback rows submitted before {} in {} ms",
+                        moved, cutoff.toLocalDate(), (System.nanoTime() - started) / 1_000_000);
+            }
+        } finally {
+            running.set(false);
+        }
+        return getStatus();
+    }
+    
+    public FacultyAggregate aggregate(String facultyName) {
+        return aggregates.get(NameDictionary.canonicalize(facultyName));
+    }
+    
+    public List<FacultyAggregate> aggregates() {
+        return new ArrayList<>(aggregates.values());
+    }
+    
+    // Adds the archived feedback matching an /api/analytics query. Terms wholly inside the
+    // time range come from the summaries when only faculty and sentiment are grouped; the
+    // rows of every other term the range touches are read back from its chunks
+    public void aggregate(AnalyticsQuery query, AnalyticsAggregator aggregator) {
+        boolean bySummary = !query.groupsBy(AnalyticsQuery.Dimension.TEACHING_QUALITY)
+                && !query.groupsBy(AnalyticsQuery.Dimension.COMMUNICATION_SKILL)
+                && !query.groupsBy(AnalyticsQuery.Dimension.TIME);
+        Set<LocalDate> summarized = new TreeSet<>();
+        for (Chunk chunk : chunks.values()) {
+            LocalDateTime start = chunk.term().atStartOfDay();
+            LocalDateTime end = terms.nextTermStart(chunk.term()).atStartOfDay();
+            if ((query.to() != null && !start.isBefore(query.to())) || (query.from() != null && !end.isAfter(query.from()))) {
+                continue;
+            }
+            boolean whole = (query.from() == null || !query.from().isAfter(start)) && (query.to() == null || !query.to().isBefore(end));
+            if (bySummary && whole) {
+                summarized.add(chunk.term());
+                continue;
+            }
+            for (ArchivedRow row : load(chunk)) {
+                String faculty = nameDictionary.displayName(NameDictionary.Dimension.FACULTY, row.facultyId());
+                if (query.matches(faculty, row.sentiment(), row.createdAt())) {
+                    aggregator.add(faculty, row.sentiment(), row.teachingQuality(), row.communicationSkill(),
+                            row.createdAt().toLocalDate());
+                }
+            }
+        }
+        if (summarized.isEmpty()) {
+            return;
+        }
+        for (FeedbackArchiveSummary summary : summaryRepository.findByTermIn(summarized)) {
+            String faculty = nameDictionary.resolveDisplayName(NameDictionary.Dimension.FACULTY, summary.getFacultyName());
+            if ((query.faculties().isEmpty() || query.faculties().contains(faculty))
+                    && (query.sentiments().isEmpty() || query.sentiments().contains(summary.getSentiment()))) {
+                aggregator.add(faculty, summary.getSentiment(), null, null, null,
+                        summary.getRowCount(), summary.getTeachingQualitySum(), summary.getCommunicationSkillSum());
+            }
+        }
+    }
+    
+    // Archived feedback of one student, read back from the chunks that have any, in id order
+    public List<FeedbackResponse> findResponsesByStudentName(String studentName) {
+        Integer studentId = nameDictionary.find(NameDictionary.Dimension.STUDENT, studentName);
+        if (studentId == null) {
+            return List.of();
+        }
+        List<FeedbackResponse> responses = new ArrayList<>();
+        for (Chunk chunk : chunks.values()) {
+            if (Arrays.binarySearch(chunk.studentIds(), studentId) < 0) {
+                continue;
+            }
+            for (ArchivedRow row : load(chunk)) {
+                if (row.studentId() == studentId) {
+                    responses.add(new FeedbackResponse(row.id(),
+                            nameDictionary.displayName(NameDictionary.Dimension.FACULTY, row.facultyId()),
+                            nameDictionary.displayName(NameDictionary.Dimension.STUDENT, studentId),
+                            row.teachingQuality(), row.communicationSkill(), row.comment(), row.sentiment(), row.createdAt()));
+                }
+            }
+        }
+        return responses;
+    }
+    
+    public ArchiveStatusResponse getStatus() {
+        ArchiveStatusResponse status = new ArchiveStatusResponse();
+        status.setHotTerms(hotTerms);
+        status.setCutoff(cutoff());
+        status.setRunning(running.get());
+        status.setHotRows(feedbackRepository.count());
+        status.setLastRunAt(lastRunAt);
+        status.setLastRunRows(lastRunRows);
+        
+        Map<LocalDate, ArchiveStatusResponse.TermSummary> byTerm = new TreeMap<>();
+        Map<LocalDate, FacultyAggregate> termTotals = new HashMap<>();
+        for (Object[] row : summaryRepository.aggregateByTermAndSentiment()) {
+            LocalDate term = (LocalDate) row[0];
+            Feedback.Sentiment sentiment = (Feedback.Sentiment) row[1];
+            long rows = ((Number) row[2]).longValue();
+            termTotals.computeIfAbsent(term, key -> new FacultyAggregate(key.toString()))
+                    .add(sentiment, rows, ((Number) row[3]).longValue(), ((Number) row[4]).longValue());
+            ArchiveStatusResponse.TermSummary summary = byTerm.computeIfAbsent(term, ArchiveStatusResponse.TermSummary::new);
+            if (summary.getSentimentCounts() == null) {
+                summary.setSentimentCounts(new LinkedHashMap<>());
+            }
+            if (sentiment != null) {
+                summary.getSentimentCounts().put(sentiment.name(), rows);
+            }
+        }
+        // FacultyAggregate does the summing; here it holds every faculty of one term
+        termTotals.forEach((term, totals) -> {
+            ArchiveStatusResponse.TermSummary summary = byTerm.get(term);
+            summary.setRows(totals.getCount());
+            summary.setAverageTeachingQuality(round(totals.averageTeachingQuality()));
+            summary.setAverageCommunicationSkill(round(totals.averageCommunicationSkill()));
+        });
+        for (Chunk chunk : chunks.values()) {
+            ArchiveStatusResponse.TermSummary term = byTerm.get(chunk.term());
+            if (term != null) {
+                term.setChunks(term.getChunks() + 1);
+                term.setBytes(term.getBytes() + chunk.bytes());
+            }
+            status.setChunks(status.getChunks() + 1);
+            status.setArchiveBytes(status.getArchiveBytes() + chunk.bytes());
+        }
+        status.setTerms(new ArrayList<>(byTerm.values()));
+        status.setArchivedRows(byTerm.values().stream().mapToLong(ArchiveStatusResponse.TermSummary::getRows).sum());
+        return status;
+    }
+    
+    private LocalDate cutoff() {
+        return terms.termStart(LocalDate.now(), Math.max(1, hotTerms) - 1);
+    }
+    
+    private void archivePage(List<Feedback> page) {
+        Map<LocalDate, List<Feedback>> byTerm = new TreeMap<>();
+        for (Feedback feedback : page) {
+            byTerm.computeIfAbsent(terms.termStart(feedback.getCreatedAt().toLocalDate()), term -> new ArrayList<>()).add(feedback);
+        }
+        
+        List<Chunk> written = new ArrayList<>();
+        List<FeedbackArchiveSummary> summaries = new ArrayList<>();
+        try {
+            for (Map.Entry<LocalDate, List<Feedback>> entry : byTerm.entrySet()) {
+                List<Feedback> rows = entry.getValue();
+                String name = entry.getKey() + "/" + String.format("%012d-%012d", rows.get(0).getId(), rows.get(rows.size() - 1).getId())
+                        + CHUNK_SUFFIX;
+                Path path = root.resolve(name);
+                Files.createDirectories(path.getParent());
+                Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+                List<ArchivedRow> archived = rows.stream().map(this::toArchivedRow).collect(Collectors.toList());
+                ArchiveChunkCodec.write(temp, archived);
+                Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                int[] studentIds = archived.stream().mapToInt(ArchivedRow::studentId).sorted().distinct().toArray();
+                written.add(new Chunk(name, entry.getKey(), path, Files.size(path), rows.size(), studentIds));
+                
+                Map<String, FeedbackArchiveSummary> groups = new HashMap<>();
+                for (Feedback feedback : rows) {
+                    groups.computeIfAbsent(feedback.getFacultyName() + "|" + feedback.getSentiment(),
+                            key -> new FeedbackArchiveSummary(name, entry.getKey(), feedback.getFacultyName(), feedback.getSentiment()))
+                            .add(feedback);
+                }
+                summaries.addAll(groups.values());
+            }
+            
+            List<Long> ids = page.stream().map(Feedback::getId).collect(Collectors.toList());
+            transactionTemplate.executeWithoutResult(status -> {
+                summaryRepository.saveAll(summaries);
+                feedbackRepository.deleteAllByIdInBatch(ids);
+            });
+        } catch (IOException | RuntimeException e) {
+            for (Chunk chunk : written) {
+                try {
+                    Files.deleteIfExists(chunk.path());
+                } catch (IOException ignored) {
+                    // Left behind without summaries, it is ignored on the next startup
+                }
+            }
+            throw new RuntimeException("Archiving feedback failed: " + e.getMessage(), e);
+        }
+        
+        written.forEach(chunk -> chunks.put(chunk.name(), chunk));
+        summaries.forEach(this::publish);
+    }
+    
+    private ArchivedRow toArchivedRow(Feedback feedback) {
+        return new ArchivedRow(feedback.getId(),
+                nameDictionary.find(NameDictionary.Dimension.FACULTY, feedback.getFacultyName()),
+                nameDictionary.find(NameDictionary.Dimension.STUDENT, feedback.getStudentName()),
+                feedback.getTeachingQuality(), feedback.getCommunicationSkill(),
+                feedback.getSentiment(), feedback.getCreatedAt(), feedback.getComment());
+    }
+    
+    private void publish(FeedbackArchiveSummary summary) {
+        aggregates.compute(NameDictionary.canonicalize(summary.getFacultyName()), (key, current) -> {
+            FacultyAggregate next = new FacultyAggregate(summary.getFacultyName());
+            if (current != null) {
+                next.add(current);
+            }
+            next.add(summary.getSentiment(), summary.getRowCount(), summary.getTeachingQualitySum(), summary.getCommunicationSkillSum());
+            return next;
+        });
+    }
+    
+    private Chunk index(String name, Path path) throws IOException {
+        int[] studentIds = ArchiveChunkCodec.readStudentIds(path);
+        return new Chunk(name, LocalDate.parse(name.substring(0, name.indexOf('/'))), path, Files.size(path), studentIds.length,
+                Arrays.stream(studentIds).sorted().distinct().toArray());
+    }
+    
+    private List<ArchivedRow> load(Chunk chunk) {
+        synchronized (decoded) {
+            List<ArchivedRow> rows = decoded.get(chunk.name());
+            if (rows != null) {
+                return rows;
+            }
+        }
+        try {
+            List<ArchivedRow> rows = ArchiveChunkCodec.read(chunk.path());
+            synchronized (decoded) {
+                decoded.put(chunk.name(), rows);
+            }
+            return rows;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read archive chunk " + chunk.name(), e);
+        }
+    }
+    
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
@@ -0,0 +1,118 @@
+package com.smartfeedback.backend.config;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that follows latency, after the gradient algorithm: a long-term
+ * average of response time is compared with the average over the last short window,
+ * and the limit shrinks in proportion while responses are slower than usual and grows
+ * by a small queue allowance while they are not. A window with a server error cuts the
+ * limit multiplicatively, as in AIMD. The limit only grows when it is actually being
+ * used, so an idle endpoint does not drift up to the maximum.
+ */
+public final class AdaptiveConcurrencyLimiter {
+    
+    private static final int LONG_WINDOW_SAMPLES = 600;
+    private static final double BACKOFF = 0.9;
+    
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final long windowNanos;
+    private final int windowMinSamples;
+    
+    private final AtomicInteger inflight = new AtomicInteger();
+    private volatile double limit;
+    
+    // Current window and the long-term average, guarded by this
+    private long windowStartNanos;
+    private long windowRttSum;
+    private int windowSamples;
+    private int windowMaxInflight;
+    private boolean windowDropped;
+    private double longRtt;
+    private long longSamples;
+    
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance,
+                                      double smoothing, long windowMs, int windowMinSamples) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.tolerance = Math.max(1.0, tolerance);
+        this.smoothing = smoothing;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+        this.windowMinSamples = Math.max(1, windowMinSamples);
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+        this.windowStartNanos = System.nanoTime();
+    }
+    
+    // Takes a slot, or returns false when the limit is reached and the request should be shed
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inflight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+    
+    // Returns the slot; dropped marks a response that failed on the server side
+    public void release(long rttNanos, boolean dropped) {
+        release(rttNanos, dropped, System.nanoTime());
+    }
+    
+    void release(long rttNanos, boolean dropped, long nowNanos) {
+        int before = inflight.getAndDecrement();
+        synchronized (this) {
+            windowRttSum += rttNanos;
+            windowSamples++;
+            windowMaxInflight = Math.max(windowMaxInflight, before);
+            windowDropped |= dropped;
+            if (windowSamples >= windowMinSamples && nowNanos - windowStartNanos >= windowNanos) {
+                update((double) windowRttSum / windowSamples);
+                windowStartNanos = nowNanos;
+                windowRttSum = 0;
+                windowSamples = 0;
+                windowMaxInflight = 0;
+                windowDropped = false;
+            }
+        }
+    }
+    
+    private void update(double shortRtt) {
+        double current = limit;
+        if (windowDropped) {
+            limit = Math.max(minLimit, current * BACKOFF);
+            return;
+        }
+        
+        // Exponential average over roughly the last LONG_WINDOW_SAMPLES windows
+        longSamples++;
+        double factor = longSamples < 10 ? 1.0 / longSamples : 2.0 / (LONG_WINDOW_SAMPLES + 1);
+        longRtt = longRtt + (shortRtt - longRtt) * factor;
+        // After a sustained drop in latency, let the baseline follow it down faster
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+        
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / shortRtt));
+        double estimate = current * gradient + Math.sqrt(current);
+        estimate = current * (1 - smoothing) + estimate * smoothing;
+        if (windowMaxInflight < current / 2) {
+            estimate = Math.min(estimate, current);
+        }
+        limit = Math.max(minLimit, Math.min(maxLimit, estimate));
+    }
+    
+    public int getLimit() {
+        return (int) limit;
+    }
+    
+    public int getInflight() {
+        return inflight.get();
+    }
+}
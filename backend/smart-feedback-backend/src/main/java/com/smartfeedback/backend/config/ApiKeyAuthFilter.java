@@ -1,11 +1,16 @@
 package com.smartfeedback.backend.config;
 
+import com.smartfeedback.backend.tenant.TenantContext;
+import com.smartfeedback.backend.tenant.TenantRegistry;
+import com.smartfeedback.backend.tracing.Span;
+import com.smartfeedback.backend.tracing.Tracer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.util.AntPathMatcher;
@@ -27,10 +32,36 @@ public class ApiKeyAuthFilter extends OncePerRequestFilter {
 	@Value("${app.api.keys:}")
 	private String apiKeysProperty;
 
+	// Keys allowed on /api/admin/**; regular keys are not accepted there
+	@Value("${app.api.admin-keys:}")
+	private String adminKeysProperty;
+
+	@Autowired
+	private TenantRegistry tenantRegistry;
+
+	@Autowired
+	private Tracer tracer;
+
 	private volatile Set<String> cachedKeys = Collections.emptySet();
 
 	@Override
-	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		// The auth span ends when the request is passed on, so it covers only the checks here
+		// or the rejection; closing it twice is harmless
+		Span auth = tracer.startSpan("auth.api-key");
+		FilterChain filterChain = (req, res) -> {
+			auth.close();
+			chain.doFilter(req, res);
+		};
+		try {
+			authenticate(request, response, filterChain);
+		} finally {
+			auth.close();
+		}
+	}
+
+	private void authenticate(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
 			throws ServletException, IOException {
 
 		String path = request.getRequestURI();
@@ -42,11 +73,16 @@ public class ApiKeyAuthFilter extends OncePerRequestFilter {
 			return;
 		}
 
+		if (pathMatcher.match("/api/admin/**", path)) {
+			filterAdmin(request, response, filterChain, path);
+			return;
+		}
+
 		Set<String> validKeys = getConfiguredKeys();
 		if (validKeys.isEmpty()) {
 			// No keys configured: allow traffic but warn (dev-mode behavior)
 			logger.warn("No API keys configured (app.api.keys empty). Allowing request to {}. Set APP_API_KEYS env var or app.api.keys property to enable API key auth.", path);
-			filterChain.doFilter(request, response);
+			filterAsTenant(request, response, filterChain, resolveApiKey(request));
 			return;
 		}
 
@@ -58,9 +94,69 @@ public class ApiKeyAuthFilter extends OncePerRequestFilter {
 			return;
 		}
 
+		filterAsTenant(request, response, filterChain, providedKey);
+	}
+
+	// Binds the key's tenant for the request; writes are refused while that tenant is being moved
+	private void filterAsTenant(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain, String apiKey)
+			throws ServletException, IOException {
+		if (!tenantRegistry.isEnabled()) {
+			filterChain.doFilter(request, response);
+			return;
+		}
+
+		String tenant = tenantRegistry.tenantForKey(apiKey);
+		String method = request.getMethod();
+		boolean write = !"GET".equals(method) && !"HEAD".equals(method) && !"OPTIONS".equals(method);
+		if (write && !tenantRegistry.tryBeginWrite(tenant)) {
+			response.setHeader("Retry-After", "5");
+			reject(response, HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Service unavailable: tenant data is being moved, retry shortly");
+			return;
+		}
+		TenantContext.set(tenant);
+		try {
+			filterChain.doFilter(request, response);
+		} finally {
+			TenantContext.clear();
+			if (write) {
+				tenantRegistry.endWrite(tenant);
+			}
+		}
+	}
+
+	private void filterAdmin(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain, String path)
+			throws ServletException, IOException {
+		Set<String> adminKeys = parseKeys(adminKeysProperty);
+		if (adminKeys.isEmpty()) {
+			// Open only in dev mode, when no API keys are configured at all
+			if (getConfiguredKeys().isEmpty()) {
+				logger.warn("No admin API keys configured (app.api.admin-keys empty). Allowing request to {}.", path);
+				filterChain.doFilter(request, response);
+				return;
+			}
+			reject(response, HttpServletResponse.SC_FORBIDDEN, "Forbidden: admin endpoints require app.api.admin-keys");
+			return;
+		}
+
+		String providedKey = resolveApiKey(request);
+		if (providedKey == null) {
+			reject(response, HttpServletResponse.SC_UNAUTHORIZED, "Unauthorized: missing or invalid API key");
+			return;
+		}
+		if (!adminKeys.contains(providedKey)) {
+			reject(response, HttpServletResponse.SC_FORBIDDEN, "Forbidden: admin API key required");
+			return;
+		}
+
 		filterChain.doFilter(request, response);
 	}
 
+	private void reject(HttpServletResponse response, int status, String message) throws IOException {
+		response.setStatus(status);
+		response.setContentType("application/json");
+		response.getWriter().write("{\"error\":\"" + message + "\"}");
+	}
+
 	private String resolveApiKey(HttpServletRequest request) {
 		// Common header name for simple API key auth
 		String header = request.getHeader("X-API-Key");
@@ -0,0 +1,67 @@
+package com.smartfeedback.backend.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Binary alternatives to JSON for clients that ask for them with Accept:
+ * application/x-jackson-smile or application/cbor. Both mappers come from the same builder
+ * as the JSON one, so they use the same modules and date handling. Repeated field names,
+ * and short repeated values such as faculty names and sentiments, are written once per
+ * response and referenced after that. The converters go after JSON, so clients that
+ * accept any type still get JSON.
+ */
+@Configuration
+public class BinaryContentConfig implements WebMvcConfigurer {
+    
+    // CBOR string references (tag 256) are understood by Jackson, but not by every CBOR decoder
+    @Value("${app.content.cbor.string-refs:true}")
+    private boolean cborStringRefs;
+    
+    private final ObjectProvider<Jackson2ObjectMapperBuilder> builders;
+    
+    public BinaryContentConfig(ObjectProvider<Jackson2ObjectMapperBuilder> builders) {
+        this.builders = builders;
+    }
+    
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Replace the defaults Spring registers when the dataformats are on the classpath
+        converters.removeIf(converter -> converter instanceof MappingJackson2SmileHttpMessageConverter
+                || converter instanceof MappingJackson2CborHttpMessageConverter);
+        converters.add(new MappingJackson2SmileHttpMessageConverter(smileMapper(builder())));
+        converters.add(new MappingJackson2CborHttpMessageConverter(cborMapper(builder(), cborStringRefs)));
+    }
+    
+    public static ObjectMapper smileMapper(Jackson2ObjectMapperBuilder builder) {
+        SmileFactory factory = SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_NAMES)
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build();
+        return builder.createXmlMapper(false).factory(factory).build();
+    }
+    
+    public static ObjectMapper cborMapper(Jackson2ObjectMapperBuilder builder, boolean stringRefs) {
+        CBORFactory factory = stringRefs
+                ? CBORFactory.builder().enable(CBORGenerator.Feature.STRINGREF).build()
+                : CBORFactory.builder().build();
+        return builder.createXmlMapper(false).factory(factory).build();
+    }
+    
+    private Jackson2ObjectMapperBuilder builder() {
+        return builders.getIfAvailable(Jackson2ObjectMapperBuilder::new);
+    }
+}
@@ -0,0 +1,138 @@
+package com.smartfeedback.backend.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Sheds load before it queues up in the container. API reads and feedback submissions
+ * each have an {@link AdaptiveConcurrencyLimiter}, so slow gateway-bound submissions
+ * cannot take the slots reads need; a request over its limit is answered 503 with
+ * Retry-After straight away. Runs ahead of {@link ApiKeyAuthFilter}. The live feed,
+ * health checks and admin endpoints are not limited.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnProperty(name = "app.concurrency.enabled", havingValue = "true")
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+    
+    private static final AntPathMatcher pathMatcher = new AntPathMatcher();
+    
+    @Value("${app.concurrency.read.initial-limit:40}")
+    private int readInitialLimit;
+    
+    @Value("${app.concurrency.read.min-limit:8}")
+    private int readMinLimit;
+    
+    @Value("${app.concurrency.read.max-limit:150}")
+    private int readMaxLimit;
+    
+    @Value("${app.concurrency.submit.initial-limit:20}")
+    private int submitInitialLimit;
+    
+    @Value("${app.concurrency.submit.min-limit:4}")
+    private int submitMinLimit;
+    
+    @Value("${app.concurrency.submit.max-limit:100}")
+    private int submitMaxLimit;
+    
+    // How much slower than the long-term average a window may be before the limit shrinks
+    @Value("${app.concurrency.tolerance:1.5}")
+    private double tolerance;
+    
+    @Value("${app.concurrency.smoothing:0.2}")
+    private double smoothing;
+    
+    @Value("${app.concurrency.window-ms:500}")
+    private long windowMs;
+    
+    @Value("${app.concurrency.window-min-samples:10}")
+    private int windowMinSamples;
+    
+    @Value("${app.concurrency.retry-after-seconds:1}")
+    private int retryAfterSeconds;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private AdaptiveConcurrencyLimiter readLimiter;
+    private AdaptiveConcurrencyLimiter submitLimiter;
+    private Counter readRejected;
+    private Counter submitRejected;
+    
+    @PostConstruct
+    void init() {
+        readLimiter = new AdaptiveConcurrencyLimiter(readInitialLimit, readMinLimit, readMaxLimit,
+                tolerance, smoothing, windowMs, windowMinSamples);
+        submitLimiter = new AdaptiveConcurrencyLimiter(submitInitialLimit, submitMinLimit, submitMaxLimit,
+                tolerance, smoothing, windowMs, windowMinSamples);
+        readRejected = register("read", readLimiter);
+        submitRejected = register("submit", submitLimiter);
+    }
+    
+    private Counter register(String name, AdaptiveConcurrencyLimiter limiter) {
+        Tags tags = Tags.of("limiter", name);
+        meterRegistry.gauge("http.concurrency.limit", tags, limiter, AdaptiveConcurrencyLimiter::getLimit);
+        meterRegistry.gauge("http.concurrency.inflight", tags, limiter, AdaptiveConcurrencyLimiter::getInflight);
+        return meterRegistry.counter("http.concurrency.rejected", tags);
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return !pathMatcher.match("/api/**", path)
+                || pathMatcher.match("/api/*/health", path)
+                || pathMatcher.match("/api/stream/**", path)
+                || pathMatcher.match("/api/admin/**", path);
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        AdaptiveConcurrencyLimiter limiter;
+        Counter rejected;
+        if ("POST".equals(request.getMethod()) && "/api/feedback".equals(request.getRequestURI())) {
+            limiter = submitLimiter;
+            rejected = submitRejected;
+        } else if ("GET".equals(request.getMethod())) {
+            limiter = readLimiter;
+            rejected = readRejected;
+        } else {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        
+        if (!limiter.tryAcquire()) {
+            rejected.increment();
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+            response.setContentType("application/json");
+            response.getWriter().write("{\"error\":\"Service overloaded, retry shortly\"}");
+            return;
+        }
+        
+        long started = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = response.getStatus() >= 500;
+        } finally {
+            limiter.release(System.nanoTime() - started, failed);
+        }
+    }
+}
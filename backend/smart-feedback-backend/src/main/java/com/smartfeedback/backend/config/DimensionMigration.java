@@ -0,0 +1,142 @@
+package com.smartfeedback.backend.config;
+
+import com.smartfeedback.backend.service.NameDictionary;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Rewrites databases created before faculty and student names moved to dimension tables.
+ * Each legacy name column is replaced by an integer id column pointing at the faculty or
+ * students row for its canonical name. Runs before Hibernate builds its schema, and does
+ * nothing once the name columns are gone (or on a fresh database).
+ */
+@Component
+public class DimensionMigration {
+    
+    private static final Logger logger = LoggerFactory.getLogger(DimensionMigration.class);
+    
+    private static final int BATCH_SIZE = 500;
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    @Autowired
+    private NameDictionary nameDictionary;
+    
+    @PostConstruct
+    void migrate() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            boolean legacy = hasColumn(connection, "feedback", "faculty_name")
+                    || hasColumn(connection, "feedback", "student_name")
+                    || hasColumn(connection, "reports", "faculty_name");
+            if (!legacy) {
+                return;
+            }
+            logger.info("Migrating faculty and student names to dimension tables");
+            createDimensionTable(connection, "faculty");
+            createDimensionTable(connection, "students");
+            rewrite(connection, "feedback", "faculty_name", "faculty_id", NameDictionary.Dimension.FACULTY);
+            rewrite(connection, "feedback", "student_name", "student_id", NameDictionary.Dimension.STUDENT);
+            rewrite(connection, "reports", "faculty_name", "faculty_id", NameDictionary.Dimension.FACULTY);
+            logger.info("Name migration complete: {} faculty, {} students",
+                    nameDictionary.size(NameDictionary.Dimension.FACULTY), nameDictionary.size(NameDictionary.Dimension.STUDENT));
+        }
+    }
+    
+    private void createDimensionTable(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS " + table + " ("
+                    + "id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                    + "canonical_name VARCHAR(255) NOT NULL UNIQUE, "
+                    + "display_name VARCHAR(255) NOT NULL)");
+        }
+    }
+    
+    private void rewrite(Connection connection, String table, String nameColumn, String idColumn,
+                         NameDictionary.Dimension dimension) throws SQLException {
+        if (!hasColumn(connection, table, nameColumn)) {
+            return;
+        }
+        try (Statement statement = connection.createStatement()) {
+            if (!hasColumn(connection, table, idColumn)) {
+                statement.execute("ALTER TABLE " + table + " ADD COLUMN " + idColumn + " INTEGER");
+            }
+            
+            // Oldest spelling first, so it becomes the display name of its canonical form
+            List<String> names = new ArrayList<>();
+            try (ResultSet rs = statement.executeQuery("SELECT " + nameColumn + " FROM " + table
+                    + " WHERE " + idColumn + " IS NULL AND " + nameColumn + " IS NOT NULL"
+                    + " GROUP BY " + nameColumn + " ORDER BY MIN(id)")) {
+                while (rs.next()) {
+                    names.add(rs.getString(1));
+                }
+            }
+            
+            // One update per distinct spelling; variants of a name land on the same id
+            try (PreparedStatement update = connection.prepareStatement(
+                    "UPDATE " + table + " SET " + idColumn + " = ? WHERE " + nameColumn + " = ?")) {
+                int pending = 0;
+                for (String name : names) {
+                    if (name.isBlank()) {
+                        continue;
+                    }
+                    update.setInt(1, nameDictionary.intern(dimension, name));
+                    update.setString(2, name);
+                    update.addBatch();
+                    if (++pending == BATCH_SIZE) {
+                        update.executeBatch();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    update.executeBatch();
+                }
+            }
+            
+            statement.execute("ALTER TABLE " + table + " ALTER COLUMN " + idColumn + " SET NOT NULL");
+            statement.execute("ALTER TABLE " + table + " DROP COLUMN " + nameColumn);
+            statement.execute("CREATE INDEX IF NOT EXISTS idx_" + table + "_" + idColumn + " ON " + table + " (" + idColumn + ")");
+            logger.info("Rewrote {}.{} to {} ({} distinct names)", table, nameColumn, idColumn, names.size());
+        }
+    }
+    
+    private static boolean hasColumn(Connection connection, String table, String column) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        // Identifier case depends on the database; H2 reports upper case
+        for (String[] candidate : new String[][] {
+                {table, column},
+                {table.toUpperCase(Locale.ROOT), column.toUpperCase(Locale.ROOT)}}) {
+            try (ResultSet rs = metaData.getColumns(null, null, candidate[0], candidate[1])) {
+                if (rs.next()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+    
+    // Make the EntityManagerFactory, and with it Hibernate's schema handling, wait for the migration
+    @Component
+    static class EntityManagerFactoryDependency extends EntityManagerFactoryDependsOnPostProcessor {
+        
+        EntityManagerFactoryDependency() {
+            super(DimensionMigration.class);
+        }
+    }
+}
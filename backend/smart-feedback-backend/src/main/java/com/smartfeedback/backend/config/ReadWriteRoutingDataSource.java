@@ -0,0 +1,48 @@
+package com.smartfeedback.backend.config;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Sends connections for read-only transactions to the replica pool and everything else to
+ * the primary. A request can pin itself to the primary (read-your-writes) for its thread.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+    
+    enum Target { PRIMARY, REPLICA }
+    
+    private static final ThreadLocal<Boolean> pinnedToPrimary = new ThreadLocal<>();
+    
+    /**
+     * Wraps the router in a lazy proxy. Transaction managers fetch the connection before
+     * the read-only flag is bound to the thread, so the physical connection has to be
+     * chosen on first use instead.
+     */
+    public static DataSource create(DataSource primary, DataSource replica) {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource();
+        routing.setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+    
+    public static void pinToPrimary() {
+        pinnedToPrimary.set(Boolean.TRUE);
+    }
+    
+    public static void unpin() {
+        pinnedToPrimary.remove();
+    }
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && pinnedToPrimary.get() == null) {
+            return Target.REPLICA;
+        }
+        return Target.PRIMARY;
+    }
+}
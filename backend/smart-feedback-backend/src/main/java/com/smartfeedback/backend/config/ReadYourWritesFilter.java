@@ -0,0 +1,76 @@
+package com.smartfeedback.backend.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * After a client writes (any successful non-GET API request), its reads go to the primary
+ * for app.datasource.replica.sticky-ms so it does not miss its own data while the replica
+ * catches up. Clients are told apart by API key and remote address.
+ */
+@Component
+@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+    
+    @Value("${app.datasource.replica.sticky-ms:5000}")
+    private long stickyMs;
+    
+    @Value("${app.datasource.replica.sticky-max-clients:100000}")
+    private int maxClients;
+    
+    private final Map<String, Long> stickyUntil = new ConcurrentHashMap<>();
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return stickyMs <= 0 || !request.getRequestURI().startsWith("/api/");
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String client = clientKey(request);
+        Long until = stickyUntil.get(client);
+        boolean pinned = until != null && until > System.currentTimeMillis();
+        if (pinned) {
+            ReadWriteRoutingDataSource.pinToPrimary();
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (pinned) {
+                ReadWriteRoutingDataSource.unpin();
+            }
+        }
+        
+        if (isWrite(request) && response.getStatus() < 400 && stickyUntil.size() < maxClients) {
+            stickyUntil.put(client, System.currentTimeMillis() + stickyMs);
+        }
+    }
+    
+    @Scheduled(fixedDelay = 60000)
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        stickyUntil.values().removeIf(until -> until <= now);
+    }
+    
+    private static boolean isWrite(HttpServletRequest request) {
+        String method = request.getMethod();
+        return !"GET".equals(method) && !"HEAD".equals(method) && !"OPTIONS".equals(method);
+    }
+    
+    private static String clientKey(HttpServletRequest request) {
+        String apiKey = request.getHeader("X-API-Key");
+        return (apiKey != null ? apiKey.trim() : "") + "|" + request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,109 @@
+package com.smartfeedback.backend.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartfeedback.backend.dto.FeedbackResponse;
+import com.smartfeedback.backend.entity.Feedback;
+import com.smartfeedback.backend.repository.FeedbackStore;
+import com.smartfeedback.backend.repository.ReportRepository;
+import com.smartfeedback.backend.service.SentimentAnalysisService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Optional warm-up that drives sentiment parsing, the feedback and report queries and JSON
+ * serialization before the instance reports ready. Spring Boot publishes the readiness
+ * change only after ApplicationReadyEvent listeners return, so /actuator/health/readiness
+ * stays down until this finishes.
+ *
+ * The flag is read at runtime rather than through a condition so the bean survives AOT
+ * processing, which fixes the set of beans at build time.
+ */
+@Component
+public class StartupWarmup {
+    
+    private static final Logger logger = LoggerFactory.getLogger(StartupWarmup.class);
+    
+    // Never submitted; lookups for it only touch indexes
+    private static final String WARMUP_FACULTY = "__warmup__";
+    
+    private static final String[] COMMENTS = {
+        "Great lectures and very helpful during office hours",
+        "The pace was bad and the examples were confusing",
+        "Covered the syllabus",
+        "Excellent explanations, best course this term",
+        "Disappointed with how late the grades came back"
+    };
+    
+    @Value("${app.warmup.enabled:false}")
+    private boolean enabled;
+    
+    @Value("${app.warmup.iterations:200}")
+    private int iterations;
+    
+    // For CDS training runs: stop the JVM once warm-up is done so the archive is written
+    @Value("${app.warmup.exit-when-done:false}")
+    private boolean exitWhenDone;
+    
+    @Autowired
+    private SentimentAnalysisService sentimentAnalysisService;
+    
+    @Autowired
+    private FeedbackStore feedbackStore;
+    
+    @Autowired
+    private ReportRepository reportRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @EventListener
+    public void onApplicationReady(ApplicationReadyEvent event) {
+        if (!enabled) {
+            return;
+        }
+        long started = System.nanoTime();
+        int failures = 0;
+        for (int i = 0; i < iterations; i++) {
+            try {
+                runOnce(i);
+            } catch (Exception e) {
+                if (failures++ == 0) {
+                    logger.warn("Warm-up iteration failed, continuing", e);
+                }
+            }
+        }
+        logger.info("Warm-up finished: {} iterations in {} ms ({} failed)",
+                iterations, (System.nanoTime() - started) / 1_000_000, failures);
+        
+        if (exitWhenDone) {
+            System.exit(SpringApplication.exit(event.getApplicationContext()));
+        }
+    }
+    
+    private void runOnce(int i) throws Exception {
+        String comment = COMMENTS[i % COMMENTS.length];
+        sentimentAnalysisService.warmUp(comment);
+        
+        feedbackStore.findByFacultyName(WARMUP_FACULTY);
+        feedbackStore.findAverageTeachingQualityByFacultyName(WARMUP_FACULTY);
+        feedbackStore.findAverageCommunicationSkillByFacultyName(WARMUP_FACULTY);
+        feedbackStore.countSentimentsByFacultyName(WARMUP_FACULTY);
+        feedbackStore.countByFacultyName(WARMUP_FACULTY);
+        feedbackStore.count();
+        reportRepository.findByFacultyNameOrderByCreatedAtDesc(WARMUP_FACULTY);
+        
+        Feedback feedback = new Feedback(WARMUP_FACULTY, "Student " + i, 1 + i % 5, 5 - i % 5, comment);
+        feedback.setId((long) i);
+        feedback.setSentiment(Feedback.Sentiment.values()[i % 3]);
+        feedback.setCreatedAt(LocalDateTime.now());
+        objectMapper.writeValueAsString(new FeedbackResponse(feedback));
+    }
+}
@@ -0,0 +1,106 @@
+package com.smartfeedback.backend.config;
+
+import com.smartfeedback.backend.tenant.TenantRegistry;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.tool.schema.Action;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * One connection pool per shard behind a tenant router. The primary shard keeps the
+ * spring.datasource.* settings; further shards are configured under
+ * app.tenancy.shards.<name>.* with their own Hikari sizing. Hibernate also writes its
+ * create script to a temporary file, which is replayed into each tenant's schema.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.tenancy.enabled", havingValue = "true")
+public class TenantDataSourceConfig {
+    
+    public TenantDataSourceConfig(Environment environment) {
+        // Features that keep their own copy of the data or write from background threads
+        // without a tenant cannot tell tenants apart
+        if (environment.getProperty("app.datasource.replica.enabled", Boolean.class, false)
+                || environment.getProperty("app.analytics.columnar.enabled", Boolean.class, false)
+                || "mmap".equalsIgnoreCase(environment.getProperty("app.storage.engine", "jpa"))
+                || "write-behind".equalsIgnoreCase(environment.getProperty("app.ingestion.mode", "direct"))
+                || environment.getProperty("app.archive.enabled", Boolean.class, false)) {
+            throw new IllegalStateException("app.tenancy.enabled cannot be combined with the read replica, "
+                    + "the columnar cache, the mmap storage engine, write-behind ingestion or the feedback archive");
+        }
+    }
+    
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryShardDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("shard-" + TenantRegistry.PRIMARY_SHARD);
+        return dataSource;
+    }
+    
+    @Bean
+    @Primary
+    public TenantRoutingDataSource dataSource(@Qualifier("primaryShardDataSource") DataSource primary,
+                                              TenantRegistry tenantRegistry, Environment environment,
+                                              MeterRegistry meterRegistry) {
+        Map<String, DataSource> shards = new HashMap<>();
+        shards.put(TenantRegistry.PRIMARY_SHARD, primary);
+        Binder.get(environment)
+                .bind("app.tenancy.shards", Bindable.mapOf(String.class, HikariDataSource.class))
+                .orElse(Map.of())
+                .forEach((name, dataSource) -> {
+                    dataSource.setPoolName("shard-" + name);
+                    // Not beans, so register their pool metrics here
+                    dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+                    shards.put(name, dataSource);
+                });
+        tenantRegistry.placement().forEach((tenant, shard) -> {
+            if (!shards.containsKey(shard)) {
+                throw new IllegalStateException("Tenant " + tenant + " is placed on unknown shard " + shard);
+            }
+        });
+        return new TenantRoutingDataSource(tenantRegistry, shards);
+    }
+    
+    @Bean
+    public Path tenantSchemaScript() {
+        try {
+            Path script = Files.createTempFile("tenant-schema", ".sql");
+            script.toFile().deleteOnExit();
+            return script;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create tenant schema script", e);
+        }
+    }
+    
+    @Bean
+    public HibernatePropertiesCustomizer tenantSchemaScriptCustomizer(@Qualifier("tenantSchemaScript") Path script) {
+        return properties -> {
+            // Hibernate ignores ddl-auto once a script action is set, so carry it over explicitly
+            properties.put("jakarta.persistence.schema-generation.database.action",
+                    Action.interpretHbm2ddlSetting(properties.get("hibernate.hbm2ddl.auto")));
+            properties.put("jakarta.persistence.schema-generation.scripts.action", "create");
+            properties.put("jakarta.persistence.schema-generation.scripts.create-target", script.toString());
+            properties.put("hibernate.hbm2ddl.schema-generation.script.append", "false");
+            properties.put("hibernate.hbm2ddl.delimiter", ";");
+        };
+    }
+}
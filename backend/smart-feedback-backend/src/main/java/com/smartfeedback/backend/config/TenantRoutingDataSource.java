@@ -0,0 +1,80 @@
+package com.smartfeedback.backend.config;
+
+import com.smartfeedback.backend.tenant.TenantContext;
+import com.smartfeedback.backend.tenant.TenantRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Hands out connections from the pool of the current tenant's shard with the tenant's
+ * schema selected, so unqualified table names resolve to that tenant's tables. Hikari
+ * restores the pool's default schema when the connection is returned.
+ */
+public class TenantRoutingDataSource extends AbstractRoutingDataSource {
+    
+    private final TenantRegistry tenantRegistry;
+    private final Map<String, DataSource> shards;
+    
+    public TenantRoutingDataSource(TenantRegistry tenantRegistry, Map<String, DataSource> shards) {
+        this.tenantRegistry = tenantRegistry;
+        this.shards = Map.copyOf(shards);
+        setTargetDataSources(new HashMap<>(shards));
+        setDefaultTargetDataSource(shards.get(TenantRegistry.PRIMARY_SHARD));
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+    
+    // The pool of one shard, with no schema selected
+    public DataSource shard(String name) {
+        DataSource shard = shards.get(name);
+        if (shard == null) {
+            throw new IllegalArgumentException("Unknown shard " + name);
+        }
+        return shard;
+    }
+    
+    public boolean hasShard(String name) {
+        return shards.containsKey(name);
+    }
+    
+    // Closes the shard pools that are not Spring beans; called as the bean's destroy method
+    public void close() throws IOException {
+        for (Map.Entry<String, DataSource> shard : shards.entrySet()) {
+            if (!shard.getKey().equals(TenantRegistry.PRIMARY_SHARD) && shard.getValue() instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return tenantRegistry.shardOf(TenantContext.current());
+    }
+    
+    @Override
+    public Connection getConnection() throws SQLException {
+        return selectSchema(super.getConnection());
+    }
+    
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return selectSchema(super.getConnection(username, password));
+    }
+    
+    private Connection selectSchema(Connection connection) throws SQLException {
+        try {
+            connection.setSchema(TenantRegistry.schemaOf(TenantContext.current()));
+            return connection;
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.smartfeedback.backend.config;
+
+import com.smartfeedback.backend.tracing.Span;
+import com.smartfeedback.backend.tracing.Tracer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Starts a trace for every API request, outermost among the application's filters so the
+ * load shedding and API key check show up as part of it. The root span is named after the
+ * matched route template only, never the request path, so names in path variables stay out
+ * of traces. The trace context is returned in a traceparent response header so a slow
+ * response can be looked up under /api/admin/traces.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
+public class TracingFilter extends OncePerRequestFilter {
+    
+    // Name kept for requests that never reach a handler, e.g. rejected by the API key check
+    private static final String UNMATCHED = "(unmatched)";
+    
+    @Autowired
+    private Tracer tracer;
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !tracer.isEnabled() || !request.getRequestURI().startsWith("/api/");
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try (Span root = tracer.startTrace(request.getMethod() + " " + UNMATCHED, request.getHeader("traceparent"))) {
+            if (root.isRecording()) {
+                response.setHeader("traceparent", tracer.traceparent());
+            }
+            try {
+                filterChain.doFilter(request, response);
+            } catch (IOException | ServletException | RuntimeException e) {
+                root.error(e);
+                throw e;
+            } finally {
+                Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                if (route != null) {
+                    root.rename(request.getMethod() + " " + route);
+                }
+                root.tag("status", response.getStatus());
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.smartfeedback.backend.controller;
+
+import com.smartfeedback.backend.analytics.SentimentMonitor;
+import com.smartfeedback.backend.dto.SentimentAlert;
+import com.smartfeedback.backend.dto.SentimentAlertsResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/alerts")
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:3000"})
+@ConditionalOnProperty(name = "app.alerts.enabled", havingValue = "true")
+public class AlertController {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AlertController.class);
+    
+    @Autowired
+    private SentimentMonitor sentimentMonitor;
+    
+    @GetMapping
+    public ResponseEntity<?> getAlerts() {
+        return ResponseEntity.ok(new SentimentAlertsResponse(sentimentMonitor.getWindowMinutes(),
+                sentimentMonitor.getBaselineHours(), sentimentMonitor.activeAlerts(), sentimentMonitor.recentAlerts()));
+    }
+    
+    @GetMapping("/faculty/{facultyName}")
+    public ResponseEntity<?> getFacultyStatus(@PathVariable String facultyName) {
+        try {
+            SentimentAlert status = sentimentMonitor.status(facultyName);
+            if (status == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(new ErrorResponse("No recent classified feedback for faculty: " + facultyName));
+            }
+            return ResponseEntity.ok(status);
+        } catch (RuntimeException e) {
+            logger.error("Error reading sentiment window for {}: ", facultyName, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ErrorResponse("Error reading sentiment window: " + e.getMessage()));
+        }
+    }
+    
+    // Inner class for error responses
+    public static class ErrorResponse {
+        private String error;
+        
+        public ErrorResponse(String error) {
+            this.error = error;
+        }
+        
+        public String getError() {
+            return error;
+        }
+        
+        public void setError(String error) {
+            this.error = error;
+        }
+    }
+}
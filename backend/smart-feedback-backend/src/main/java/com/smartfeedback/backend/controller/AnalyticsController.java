@@ -0,0 +1,63 @@
+package com.smartfeedback.backend.controller;
+
+import com.smartfeedback.backend.service.AnalyticsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/analytics")
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:3000"})
+public class AnalyticsController {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AnalyticsController.class);
+    
+    @Autowired
+    private AnalyticsService analyticsService;
+    
+    // e.g. /api/analytics?groupBy=faculty,time&bucket=week&sentiment=negative&from=2026-09-01T00:00:00
+    @GetMapping
+    public ResponseEntity<?> query(
+            @RequestParam(defaultValue = "faculty") String groupBy,
+            @RequestParam(required = false) String bucket,
+            @RequestParam(required = false) List<String> faculty,
+            @RequestParam(required = false) List<String> sentiment,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        try {
+            return ResponseEntity.ok(analyticsService.query(groupBy, bucket, faculty, sentiment, from, to));
+        } catch (RuntimeException e) {
+            if (e.getMessage() != null && e.getMessage().startsWith("Invalid analytics query")) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(new ErrorResponse(e.getMessage()));
+            }
+            logger.error("Error running analytics query: ", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ErrorResponse("Error running analytics query: " + e.getMessage()));
+        }
+    }
+    
+    // Inner class for error responses
+    public static class ErrorResponse {
+        private String error;
+        
+        public ErrorResponse(String error) {
+            this.error = error;
+        }
+        
+        public String getError() {
+            return error;
+        }
+        
+        public void setError(String error) {
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.smartfeedback.backend.controller;
+
+import com.smartfeedback.backend.archive.FeedbackArchive;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+// Admin endpoints for the feedback archive; /api/admin/** requires an admin API key
+@RestController
+@RequestMapping("/api/admin/archive")
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:3000"})
+@ConditionalOnProperty(name = "app.archive.enabled", havingValue = "true")
+public class ArchiveController {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ArchiveController.class);
+    
+    @Autowired
+    private FeedbackArchive feedbackArchive;
+    
+    @GetMapping
+    public ResponseEntity<?> status() {
+        return ResponseEntity.ok(feedbackArchive.getStatus());
+    }
+    
+    @PostMapping("/run")
+    public ResponseEntity<?> run() {
+        try {
+            return ResponseEntity.ok(feedbackArchive.archive());
+        } catch (RuntimeException e) {
+            if (e.getMessage() != null && e.getMessage().contains("already running")) {
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(new ErrorResponse(e.getMessage()));
+            }
+            logger.error("Error archiving feedback: ", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ErrorResponse("Error archiving feedback: " + e.getMessage()));
+        }
+    }
+    
+    // Inner class for error responses
+    public static class ErrorResponse {
+        private String error;
+        
+        public ErrorResponse(String error) {
+            this.error = error;
+        }
+        
+        public String getError() {
+            return error;
+        }
+        
+        public void setError(String error) {
+            this.error = error;
+        }
+    }
+}
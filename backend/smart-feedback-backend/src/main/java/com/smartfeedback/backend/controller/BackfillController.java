@@ -0,0 +1,67 @@
+package com.smartfeedback.backend.controller;
+
+import com.smartfeedback.backend.service.SentimentBackfillService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+// Admin endpoints for re-scoring stored feedback; /api/admin/** requires an admin API key
+@RestController
+@RequestMapping("/api/admin/backfill")
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:3000"})
+public class BackfillController {
+    
+    private static final Logger logger = LoggerFactory.getLogger(BackfillController.class);
+    
+    @Autowired
+    private SentimentBackfillService sentimentBackfillService;
+    
+    @PostMapping("/start")
+    public ResponseEntity<?> start(@RequestParam(defaultValue = "false") boolean restart) {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(sentimentBackfillService.startJob(restart));
+        } catch (RuntimeException e) {
+            if (e.getMessage() != null && e.getMessage().contains("already running")) {
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(new ErrorResponse(e.getMessage()));
+            }
+            if (e.getMessage() != null && e.getMessage().contains("not configured")) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .body(new ErrorResponse(e.getMessage()));
+            }
+            logger.error("Error starting sentiment backfill: ", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ErrorResponse("Error starting backfill: " + e.getMessage()));
+        }
+    }
+    
+    @PostMapping("/stop")
+    public ResponseEntity<?> stop() {
+        return ResponseEntity.ok(sentimentBackfillService.stopJob());
+    }
+    
+    @GetMapping
+    public ResponseEntity<?> progress() {
+        return ResponseEntity.ok(sentimentBackfillService.getProgress());
+    }
+    
+    // Inner class for error responses
+    public static class ErrorResponse {
+        private String error;
+        
+        public ErrorResponse(String error) {
+            this.error = error;
+        }
+        
+        public String getError() {
+            return error;
+        }
+        
+        public void setError(String error) {
+            this.error = error;
+        }
+    }
+}
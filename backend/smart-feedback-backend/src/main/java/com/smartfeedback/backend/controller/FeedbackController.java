@@ -5,18 +5,26 @@ import com.smartfeedback.backend.dto.FeedbackResponse;
 import com.smartfeedback.backend.dto.SentimentAnalysisRequest;
 import com.smartfeedback.backend.dto.SentimentAnalysisResponse;
 import com.smartfeedback.backend.entity.Feedback;
-import com.smartfeedback.backend.repository.FeedbackRepository;
+import com.smartfeedback.backend.event.FeedbackSubmittedEvent;
+import com.smartfeedback.backend.ingestion.IngestionBufferFullException;
+import com.smartfeedback.backend.ingestion.IngestionNotDurableException;
+import com.smartfeedback.backend.ingestion.WriteBehindIngestionService;
+import com.smartfeedback.backend.repository.FeedbackStore;
+import com.smartfeedback.backend.service.IdempotencyStore;
 import com.smartfeedback.backend.service.SentimentAnalysisService;
+import com.smartfeedback.backend.tenant.TenantContext;
+import com.smartfeedback.backend.tracing.Tracer;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeoutException;
 
 @RestController
 @RequestMapping("/api/feedback")
@@ -26,25 +34,101 @@ public class FeedbackController {
     private static final Logger logger = LoggerFactory.getLogger(FeedbackController.class);
     
     @Autowired
-    private FeedbackRepository feedbackRepository;
+    private FeedbackStore feedbackStore;
     
     @Autowired
     private SentimentAnalysisService sentimentAnalysisService;
     
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+    
+    @Autowired
+    private Tracer tracer;
+    
+    // Present only when app.ingestion.mode=write-behind
+    @Autowired(required = false)
+    private WriteBehindIngestionService writeBehindIngestionService;
+    
     @PostMapping
-    public ResponseEntity<?> submitFeedback(@Valid @RequestBody FeedbackRequest request) {
+    public ResponseEntity<?> submitFeedback(@Valid @RequestBody FeedbackRequest request,
+                                            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                            @RequestHeader(value = "X-API-Key", required = false) String apiKey) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return submit(request);
+        }
+        if (idempotencyKey.length() > 255) {
+            return ResponseEntity.badRequest().body(new ErrorResponse("Idempotency-Key must be at most 255 characters"));
+        }
+        
+        // Keys are only unique per client, so they are scoped by tenant and API key
+        String key = TenantContext.current() + "|" + (apiKey != null ? apiKey.trim() : "") + "|" + idempotencyKey.trim();
+        String fingerprint = IdempotencyStore.fingerprint(request.getFacultyName(), request.getStudentName(),
+                request.getTeachingQuality(), request.getCommunicationSkill(), request.getComment());
+        while (true) {
+            IdempotencyStore.Claim claim;
+            try {
+                claim = idempotencyStore.claim(key, fingerprint);
+            } catch (RuntimeException e) {
+                return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(new ErrorResponse(e.getMessage()));
+            }
+            if (claim == null) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header("Retry-After", "1")
+                        .body(new ErrorResponse("Too many requests with an Idempotency-Key are in progress, retry shortly"));
+            }
+            
+            if (claim.isOwner()) {
+                ResponseEntity<?> response = null;
+                try {
+                    response = submit(request);
+                } finally {
+                    // Only successes are replayed; after a failure the next retry runs again
+                    if (response != null && response.getStatusCode().is2xxSuccessful()) {
+                        claim.complete(response.getStatusCode().value(), response.getBody());
+                    } else {
+                        claim.release();
+                    }
+                }
+                return response;
+            }
+            
+            try {
+                IdempotencyStore.StoredResponse stored = claim.await();
+                if (stored != null) {
+                    logger.info("Replaying stored response for Idempotency-Key {}", idempotencyKey);
+                    return ResponseEntity.status(stored.status())
+                            .header("Idempotent-Replayed", "true")
+                            .body(stored.body());
+                }
+            } catch (TimeoutException e) {
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(new ErrorResponse("A request with this Idempotency-Key is still being processed"));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .body(new ErrorResponse("Interrupted while waiting for the original request"));
+            }
+        }
+    }
+    
+    private ResponseEntity<?> submit(FeedbackRequest request) {
         try {
             logger.info("Received feedback submission for faculty: {}", request.getFacultyName());
             
             // Analyze sentiment if comment is provided
             Feedback.Sentiment sentiment = Feedback.Sentiment.NEUTRAL;
+            Feedback.SentimentSource sentimentSource = Feedback.SentimentSource.DEFAULT;
             if (request.getComment() != null && !request.getComment().trim().isEmpty()) {
-                SentimentAnalysisRequest sentimentRequest = new SentimentAnalysisRequest(request.getComment());
+                SentimentAnalysisRequest sentimentRequest = new SentimentAnalysisRequest(request.getComment(), request.getStudentName());
                 SentimentAnalysisResponse sentimentResponse = sentimentAnalysisService.analyzeSentiment(sentimentRequest);
                 
                 // Convert string sentiment to enum
                 try {
                     sentiment = Feedback.Sentiment.valueOf(sentimentResponse.getSentiment().toUpperCase());
+                    sentimentSource = sentimentResponse.getSource();
                 } catch (IllegalArgumentException e) {
                     logger.warn("Invalid sentiment value: {}, defaulting to NEUTRAL", sentimentResponse.getSentiment());
                     sentiment = Feedback.Sentiment.NEUTRAL;
@@ -60,12 +144,28 @@ public class FeedbackController {
                 request.getComment()
             );
             feedback.setSentiment(sentiment);
+            feedback.setSentimentSource(sentimentSource);
+            
+            if (writeBehindIngestionService != null) {
+                Feedback acceptedFeedback = tracer.trace("ingestion.accept", () -> writeBehindIngestionService.accept(feedback));
+                logger.info("Feedback accepted for write-behind ingestion");
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body(new FeedbackResponse(acceptedFeedback));
+            }
             
-            Feedback savedFeedback = feedbackRepository.save(feedback);
+            Feedback savedFeedback = tracer.trace("db.feedback.save", () -> feedbackStore.save(feedback));
             logger.info("Feedback saved successfully with ID: {}", savedFeedback.getId());
+            // Listeners run synchronously (leaderboard, live feed, caches)
+            tracer.trace("events.feedback-submitted", () -> {
+                eventPublisher.publishEvent(new FeedbackSubmittedEvent(savedFeedback));
+                return null;
+            });
             
             return ResponseEntity.status(HttpStatus.CREATED).body(new FeedbackResponse(savedFeedback));
             
+        } catch (IngestionBufferFullException | IngestionNotDurableException e) {
+            logger.error("Feedback not accepted for ingestion: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(new ErrorResponse(e.getMessage()));
         } catch (Exception e) {
             logger.error("Error submitting feedback: ", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -76,11 +176,7 @@ public class FeedbackController {
     @GetMapping
     public ResponseEntity<List<FeedbackResponse>> getAllFeedback() {
         try {
-            List<Feedback> feedbackList = feedbackRepository.findAll();
-            List<FeedbackResponse> responses = feedbackList.stream()
-                    .map(FeedbackResponse::new)
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(responses);
+            return ResponseEntity.ok(feedbackStore.findAllResponses());
         } catch (Exception e) {
             logger.error("Error retrieving feedback: ", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -90,13 +186,7 @@ public class FeedbackController {
     @GetMapping("/student/{studentName}")
     public ResponseEntity<List<FeedbackResponse>> getFeedbackByStudent(@PathVariable String studentName) {
         try {
-            List<Feedback> feedbackList = feedbackRepository.findAll().stream()
-                    .filter(f -> f.getStudentName().equalsIgnoreCase(studentName))
-                    .collect(Collectors.toList());
-            List<FeedbackResponse> responses = feedbackList.stream()
-                    .map(FeedbackResponse::new)
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(responses);
+            return ResponseEntity.ok(feedbackStore.findResponsesByStudentName(studentName));
         } catch (Exception e) {
             logger.error("Error retrieving feedback for student: {}", studentName, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -106,11 +196,7 @@ public class FeedbackController {
     @GetMapping("/faculty/{facultyName}")
     public ResponseEntity<List<FeedbackResponse>> getFeedbackByFaculty(@PathVariable String facultyName) {
         try {
-            List<Feedback> feedbackList = feedbackRepository.findByFacultyName(facultyName);
-            List<FeedbackResponse> responses = feedbackList.stream()
-                    .map(FeedbackResponse::new)
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(responses);
+            return ResponseEntity.ok(feedbackStore.findResponsesByFacultyName(facultyName));
         } catch (Exception e) {
             logger.error("Error retrieving feedback for faculty: {}", facultyName, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
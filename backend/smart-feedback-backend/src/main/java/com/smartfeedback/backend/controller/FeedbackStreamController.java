@@ -0,0 +1,49 @@
+package com.smartfeedback.backend.controller;
+
+import com.smartfeedback.backend.service.FeedbackStreamHub;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/stream")
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:3000"})
+public class FeedbackStreamController {
+    
+    private static final Logger logger = LoggerFactory.getLogger(FeedbackStreamController.class);
+    
+    @Autowired
+    private FeedbackStreamHub feedbackStreamHub;
+    
+    // Admin dashboards: every faculty
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamAll() {
+        return subscribe(null);
+    }
+    
+    @GetMapping(value = "/faculty/{facultyName}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamFaculty(@PathVariable String facultyName) {
+        return subscribe(facultyName);
+    }
+    
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> stats() {
+        return ResponseEntity.ok(feedbackStreamHub.getStats());
+    }
+    
+    private ResponseEntity<SseEmitter> subscribe(String facultyName) {
+        try {
+            return ResponseEntity.ok(feedbackStreamHub.subscribe(facultyName));
+        } catch (RuntimeException e) {
+            logger.warn("Rejecting live feed subscription: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+}
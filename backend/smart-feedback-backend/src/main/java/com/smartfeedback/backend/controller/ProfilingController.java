@@ -0,0 +1,86 @@
+package com.smartfeedback.backend.controller;
+
+import com.smartfeedback.backend.service.ProfilingService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.file.Path;
+
+// Admin endpoints for on-demand JFR profiling; /api/admin/** requires an admin API key
+@RestController
+@RequestMapping("/api/admin/profiling")
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:3000"})
+public class ProfilingController {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ProfilingController.class);
+    
+    @Autowired
+    private ProfilingService profilingService;
+    
+    @PostMapping("/start")
+    public ResponseEntity<?> start(@RequestParam(defaultValue = "30") int durationSeconds) {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(profilingService.start(durationSeconds));
+        } catch (RuntimeException e) {
+            if (e.getMessage() != null && e.getMessage().contains("already running")) {
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(new ErrorResponse(e.getMessage()));
+            }
+            if (e.getMessage() != null && e.getMessage().contains("Duration must be")) {
+                return ResponseEntity.badRequest()
+                        .body(new ErrorResponse(e.getMessage()));
+            }
+            logger.error("Error starting profiling session: ", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ErrorResponse("Error starting profiling: " + e.getMessage()));
+        }
+    }
+    
+    @PostMapping("/stop")
+    public ResponseEntity<?> stop() {
+        return ResponseEntity.ok(profilingService.stop());
+    }
+    
+    @GetMapping
+    public ResponseEntity<?> report() {
+        return ResponseEntity.ok(profilingService.getReport());
+    }
+    
+    // The .jfr file of the last finished session, for JDK Mission Control or `jfr print`
+    @GetMapping("/recording")
+    public ResponseEntity<?> recording() {
+        Path file = profilingService.getRecordingFile();
+        if (file == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new ErrorResponse("No profiling recording available"));
+        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + file.getFileName() + "\"")
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(new FileSystemResource(file));
+    }
+    
+    // Inner class for error responses
+    public static class ErrorResponse {
+        private String error;
+        
+        public ErrorResponse(String error) {
+            this.error = error;
+        }
+        
+        public String getError() {
+            return error;
+        }
+        
+        public void setError(String error) {
+            this.error = error;
+        }
+    }
+}
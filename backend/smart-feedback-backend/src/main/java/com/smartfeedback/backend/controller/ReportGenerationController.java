@@ -1,5 +1,8 @@
 package com.smartfeedback.backend.controller;
 
+import com.smartfeedback.backend.analytics.FacultyLeaderboard;
+import com.smartfeedback.backend.dto.LeaderboardEntry;
+import com.smartfeedback.backend.dto.LeaderboardResponse;
 import com.smartfeedback.backend.dto.ReportGenerationRequest;
 import com.smartfeedback.backend.dto.ReportGenerationResponse;
 import com.smartfeedback.backend.service.ReportGenerationService;
@@ -7,10 +10,12 @@ import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -23,6 +28,9 @@ public class ReportGenerationController {
     @Autowired
     private ReportGenerationService reportGenerationService;
     
+    @Autowired
+    private FacultyLeaderboard facultyLeaderboard;
+    
     @PostMapping("/generate")
     public ResponseEntity<?> generateReport(@Valid @RequestBody ReportGenerationRequest request) {
         try {
@@ -76,6 +84,65 @@ public class ReportGenerationController {
         }
     }
     
+    @GetMapping("/faculty/{facultyName}/stats")
+    public ResponseEntity<?> getFacultyStats(
+            @PathVariable String facultyName,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        try {
+            return ResponseEntity.ok(reportGenerationService.getFacultyStats(facultyName, from, to));
+        } catch (RuntimeException e) {
+            if (e.getMessage() != null && e.getMessage().contains("No feedback found")) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(new ErrorResponse(e.getMessage()));
+            }
+            logger.error("Error computing stats for faculty: {}", facultyName, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ErrorResponse("Error computing stats: " + e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/leaderboard")
+    public ResponseEntity<?> getLeaderboard(
+            @RequestParam(defaultValue = "teachingQuality") String metric,
+            @RequestParam(defaultValue = "10") int limit) {
+        try {
+            FacultyLeaderboard.Metric parsed = FacultyLeaderboard.Metric.fromParameter(metric);
+            List<LeaderboardEntry> entries = facultyLeaderboard.top(parsed, Math.max(0, Math.min(limit, 100)));
+            return ResponseEntity.ok(new LeaderboardResponse(parsed.parameter(), facultyLeaderboard.getMinSamples(),
+                    facultyLeaderboard.rankedCount(parsed), entries));
+        } catch (RuntimeException e) {
+            if (e.getMessage() != null && e.getMessage().contains("Invalid leaderboard metric")) {
+                return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+            }
+            logger.error("Error reading leaderboard: ", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ErrorResponse("Error reading leaderboard: " + e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/leaderboard/faculty/{facultyName}")
+    public ResponseEntity<?> getLeaderboardRank(
+            @PathVariable String facultyName,
+            @RequestParam(defaultValue = "teachingQuality") String metric) {
+        try {
+            LeaderboardEntry entry = facultyLeaderboard.rankOf(FacultyLeaderboard.Metric.fromParameter(metric), facultyName);
+            if (entry == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(new ErrorResponse("Faculty not ranked (needs at least "
+                                + facultyLeaderboard.getMinSamples() + " feedback): " + facultyName));
+            }
+            return ResponseEntity.ok(entry);
+        } catch (RuntimeException e) {
+            if (e.getMessage() != null && e.getMessage().contains("Invalid leaderboard metric")) {
+                return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+            }
+            logger.error("Error reading leaderboard rank for faculty: {}", facultyName, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ErrorResponse("Error reading leaderboard: " + e.getMessage()));
+        }
+    }
+    
     // Inner class for error responses
     public static class ErrorResponse {
         private String error;
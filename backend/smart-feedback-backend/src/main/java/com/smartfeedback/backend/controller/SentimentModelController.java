@@ -0,0 +1,62 @@
+package com.smartfeedback.backend.controller;
+
+import com.smartfeedback.backend.service.LocalSentimentClassifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+// Admin endpoints for the local sentiment model; /api/admin/** requires an admin API key
+@RestController
+@RequestMapping("/api/admin/sentiment-model")
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:3000"})
+public class SentimentModelController {
+    
+    private static final Logger logger = LoggerFactory.getLogger(SentimentModelController.class);
+    
+    @Autowired
+    private LocalSentimentClassifier localSentimentClassifier;
+    
+    @GetMapping
+    public ResponseEntity<?> report() {
+        return ResponseEntity.ok(localSentimentClassifier.getReport());
+    }
+    
+    @PostMapping("/retrain")
+    public ResponseEntity<?> retrain() {
+        try {
+            return ResponseEntity.ok(localSentimentClassifier.retrain());
+        } catch (RuntimeException e) {
+            if (e.getMessage() != null && e.getMessage().contains("already running")) {
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(new ErrorResponse(e.getMessage()));
+            }
+            if (e.getMessage() != null && e.getMessage().contains("Not enough labelled feedback")) {
+                return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                        .body(new ErrorResponse(e.getMessage()));
+            }
+            logger.error("Error training sentiment model: ", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ErrorResponse("Error training sentiment model: " + e.getMessage()));
+        }
+    }
+    
+    // Inner class for error responses
+    public static class ErrorResponse {
+        private String error;
+        
+        public ErrorResponse(String error) {
+            this.error = error;
+        }
+        
+        public String getError() {
+            return error;
+        }
+        
+        public void setError(String error) {
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.smartfeedback.backend.controller;
+
+import com.smartfeedback.backend.tenant.TenantRebalancer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+// Admin endpoints for tenant placement; /api/admin/** requires an admin API key
+@RestController
+@RequestMapping("/api/admin/tenants")
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:3000"})
+public class TenantAdminController {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TenantAdminController.class);
+    
+    // Present only when app.tenancy.enabled=true
+    @Autowired(required = false)
+    private TenantRebalancer tenantRebalancer;
+    
+    @GetMapping
+    public ResponseEntity<?> status() {
+        if (tenantRebalancer == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorResponse("Tenancy is not enabled"));
+        }
+        return ResponseEntity.ok(tenantRebalancer.getStatus());
+    }
+    
+    @PostMapping("/{tenant}/move")
+    public ResponseEntity<?> move(@PathVariable String tenant, @RequestParam String shard) {
+        if (tenantRebalancer == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorResponse("Tenancy is not enabled"));
+        }
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(tenantRebalancer.startMove(tenant, shard));
+        } catch (RuntimeException e) {
+            String message = e.getMessage() != null ? e.getMessage() : "";
+            if (message.startsWith("Unknown")) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorResponse(message));
+            }
+            if (message.contains("already")) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(new ErrorResponse(message));
+            }
+            logger.error("Error starting tenant move: ", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ErrorResponse("Error starting tenant move: " + message));
+        }
+    }
+    
+    // Inner class for error responses
+    public static class ErrorResponse {
+        private String error;
+        
+        public ErrorResponse(String error) {
+            this.error = error;
+        }
+        
+        public String getError() {
+            return error;
+        }
+        
+        public void setError(String error) {
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.smartfeedback.backend.controller;
+
+import com.smartfeedback.backend.tracing.TraceRecord;
+import com.smartfeedback.backend.tracing.TraceStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Recent kept traces; /api/admin/** requires an admin API key since spans carry error messages
+@RestController
+@RequestMapping("/api/admin/traces")
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:3000"})
+public class TraceController {
+    
+    private static final int DEFAULT_LIMIT = 50;
+    
+    @Autowired
+    private TraceStore traceStore;
+    
+    // Newest first; minDurationMs to look for slow ones
+    @GetMapping
+    public ResponseEntity<?> traces(@RequestParam(required = false) Integer limit,
+                                    @RequestParam(required = false) Long minDurationMs) {
+        List<TraceRecord> traces = traceStore.recent(limit != null ? Math.max(1, limit) : DEFAULT_LIMIT,
+                minDurationMs != null ? minDurationMs : 0);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("kept", traceStore.getAdded());
+        result.put("exportDropped", traceStore.getExportDropped());
+        result.put("traces", traces);
+        return ResponseEntity.ok(result);
+    }
+    
+    @GetMapping("/{traceId}")
+    public ResponseEntity<?> trace(@PathVariable String traceId) {
+        TraceRecord trace = traceStore.find(traceId);
+        if (trace == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new ErrorResponse("Trace not found: " + traceId));
+        }
+        return ResponseEntity.ok(trace);
+    }
+    
+    // Inner class for error responses
+    public static class ErrorResponse {
+        private String error;
+        
+        public ErrorResponse(String error) {
+            this.error = error;
+        }
+        
+        public String getError() {
+            return error;
+        }
+        
+        public void setError(String error) {
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.smartfeedback.backend.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class AnalyticsResponse {
+    
+    private List<String> groupBy;
+    private String bucket;
+    private List<AnalyticsRow> rows;
+    private long totalGroups;
+    // True when totalGroups exceeded the row cap and only the first rows are returned
+    private boolean truncated;
+    // When the result was computed; cached results are served for a few seconds
+    private LocalDateTime generatedAt;
+    
+    public AnalyticsResponse() {}
+    
+    public List<String> getGroupBy() {
+        return groupBy;
+    }
+    
+    public void setGroupBy(List<String> groupBy) {
+        this.groupBy = groupBy;
+    }
+    
+    public String getBucket() {
+        return bucket;
+    }
+    
+    public void setBucket(String bucket) {
+        this.bucket = bucket;
+    }
+    
+    public List<AnalyticsRow> getRows() {
+        return rows;
+    }
+    
+    public void setRows(List<AnalyticsRow> rows) {
+        this.rows = rows;
+    }
+    
+    public long getTotalGroups() {
+        return totalGroups;
+    }
+    
+    public void setTotalGroups(long totalGroups) {
+        this.totalGroups = totalGroups;
+    }
+    
+    public boolean getTruncated() {
+        return truncated;
+    }
+    
+    public void setTruncated(boolean truncated) {
+        this.truncated = truncated;
+    }
+    
+    public LocalDateTime getGeneratedAt() {
+        return generatedAt;
+    }
+    
+    public void setGeneratedAt(LocalDateTime generatedAt) {
+        this.generatedAt = generatedAt;
+    }
+}
@@ -0,0 +1,84 @@
+package com.smartfeedback.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// One group of an analytics query; only the dimensions that were grouped by are present
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AnalyticsRow {
+    
+    private String faculty;
+    private String sentiment;
+    private Integer teachingQuality;
+    private Integer communicationSkill;
+    // First day of the time bucket, or yyyy-MM for months
+    private String period;
+    private long count;
+    private double avgTeachingQuality;
+    private double avgCommunicationSkill;
+    
+    public AnalyticsRow() {}
+    
+    public String getFaculty() {
+        return faculty;
+    }
+    
+    public void setFaculty(String faculty) {
+        this.faculty = faculty;
+    }
+    
+    public String getSentiment() {
+        return sentiment;
+    }
+    
+    public void setSentiment(String sentiment) {
+        this.sentiment = sentiment;
+    }
+    
+    public Integer getTeachingQuality() {
+        return teachingQuality;
+    }
+    
+    public void setTeachingQuality(Integer teachingQuality) {
+        this.teachingQuality = teachingQuality;
+    }
+    
+    public Integer getCommunicationSkill() {
+        return communicationSkill;
+    }
+    
+    public void setCommunicationSkill(Integer communicationSkill) {
+        this.communicationSkill = communicationSkill;
+    }
+    
+    public String getPeriod() {
+        return period;
+    }
+    
+    public void setPeriod(String period) {
+        this.period = period;
+    }
+    
+    public long getCount() {
+        return count;
+    }
+    
+    public void setCount(long count) {
+        this.count = count;
+    }
+    
+    public double getAvgTeachingQuality() {
+        return avgTeachingQuality;
+    }
+    
+    public void setAvgTeachingQuality(double avgTeachingQuality) {
+        this.avgTeachingQuality = avgTeachingQuality;
+    }
+    
+    public double getAvgCommunicationSkill() {
+        return avgCommunicationSkill;
+    }
+    
+    public void setAvgCommunicationSkill(double avgCommunicationSkill) {
+        this.avgCommunicationSkill = avgCommunicationSkill;
+    }
+}
@@ -0,0 +1,180 @@
+package com.smartfeedback.backend.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * State of the feedback archive. Feedback submitted before cutoff, the start of the oldest
+ * of the hotTerms most recent terms, is moved out of the feedback table into archive
+ * chunks; terms lists what was archived per term, from the summaries kept in the database.
+ */
+public class ArchiveStatusResponse {
+    
+    private int hotTerms;
+    private LocalDate cutoff;
+    private boolean running;
+    private long hotRows;
+    private long archivedRows;
+    private int chunks;
+    private long archiveBytes;
+    private LocalDateTime lastRunAt;
+    private long lastRunRows;
+    private List<TermSummary> terms;
+    
+    public ArchiveStatusResponse() {}
+    
+    public int getHotTerms() {
+        return hotTerms;
+    }
+    
+    public void setHotTerms(int hotTerms) {
+        this.hotTerms = hotTerms;
+    }
+    
+    public LocalDate getCutoff() {
+        return cutoff;
+    }
+    
+    public void setCutoff(LocalDate cutoff) {
+        this.cutoff = cutoff;
+    }
+    
+    public boolean isRunning() {
+        return running;
+    }
+    
+    public void setRunning(boolean running) {
+        this.running = running;
+    }
+    
+    public long getHotRows() {
+        return hotRows;
+    }
+    
+    public void setHotRows(long hotRows) {
+        this.hotRows = hotRows;
+    }
+    
+    public long getArchivedRows() {
+        return archivedRows;
+    }
+    
+    public void setArchivedRows(long archivedRows) {
+        this.archivedRows = archivedRows;
+    }
+    
+    public int getChunks() {
+        return chunks;
+    }
+    
+    public void setChunks(int chunks) {
+        this.chunks = chunks;
+    }
+    
+    public long getArchiveBytes() {
+        return archiveBytes;
+    }
+    
+    public void setArchiveBytes(long archiveBytes) {
+        this.archiveBytes = archiveBytes;
+    }
+    
+    public LocalDateTime getLastRunAt() {
+        return lastRunAt;
+    }
+    
+    public void setLastRunAt(LocalDateTime lastRunAt) {
+        this.lastRunAt = lastRunAt;
+    }
+    
+    public long getLastRunRows() {
+        return lastRunRows;
+    }
+    
+    public void setLastRunRows(long lastRunRows) {
+        this.lastRunRows = lastRunRows;
+    }
+    
+    public List<TermSummary> getTerms() {
+        return terms;
+    }
+    
+    public void setTerms(List<TermSummary> terms) {
+        this.terms = terms;
+    }
+    
+    public static class TermSummary {
+        
+        private LocalDate term;
+        private long rows;
+        private int chunks;
+        private long bytes;
+        private double averageTeachingQuality;
+        private double averageCommunicationSkill;
+        private Map<String, Long> sentimentCounts;
+        
+        public TermSummary() {}
+        
+        public TermSummary(LocalDate term) {
+            this.term = term;
+        }
+        
+        public LocalDate getTerm() {
+            return term;
+        }
+        
+        public void setTerm(LocalDate term) {
+            this.term = term;
+        }
+        
+        public long getRows() {
+            return rows;
+        }
+        
+        public void setRows(long rows) {
+            this.rows = rows;
+        }
+        
+        public int getChunks() {
+            return chunks;
+        }
+        
+        public void setChunks(int chunks) {
+            this.chunks = chunks;
+        }
+        
+        public long getBytes() {
+            return bytes;
+        }
+        
+        public void setBytes(long bytes) {
+            this.bytes = bytes;
+        }
+        
+        public double getAverageTeachingQuality() {
+            return averageTeachingQuality;
+        }
+        
+        public void setAverageTeachingQuality(double averageTeachingQuality) {
+            this.averageTeachingQuality = averageTeachingQuality;
+        }
+        
+        public double getAverageCommunicationSkill() {
+            return averageCommunicationSkill;
+        }
+        
+        public void setAverageCommunicationSkill(double averageCommunicationSkill) {
+            this.averageCommunicationSkill = averageCommunicationSkill;
+        }
+        
+        public Map<String, Long> getSentimentCounts() {
+            return sentimentCounts;
+        }
+        
+        public void setSentimentCounts(Map<String, Long> sentimentCounts) {
+            this.sentimentCounts = sentimentCounts;
+        }
+    }
+}
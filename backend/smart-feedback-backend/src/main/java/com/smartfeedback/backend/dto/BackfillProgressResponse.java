@@ -0,0 +1,135 @@
+package com.smartfeedback.backend.dto;
+
+import java.time.LocalDateTime;
+
+// Progress of the sentiment backfill job; etaSeconds is null until a rate has been measured
+public class BackfillProgressResponse {
+    
+    private String status;
+    private String model;
+    private long lastId;
+    private long totalRows;
+    private long processed;
+    private long changed;
+    private long failed;
+    private double ratePerSecond;
+    private Long etaSeconds;
+    private LocalDateTime startedAt;
+    private LocalDateTime updatedAt;
+    private String lastError;
+    
+    public BackfillProgressResponse() {}
+    
+    public BackfillProgressResponse(String status, String model, long lastId, long totalRows, long processed,
+                                    long changed, long failed, double ratePerSecond, Long etaSeconds,
+                                    LocalDateTime startedAt, LocalDateTime updatedAt, String lastError) {
+        this.status = status;
+        this.model = model;
+        this.lastId = lastId;
+        this.totalRows = totalRows;
+        this.processed = processed;
+        this.changed = changed;
+        this.failed = failed;
+        this.ratePerSecond = ratePerSecond;
+        this.etaSeconds = etaSeconds;
+        this.startedAt = startedAt;
+        this.updatedAt = updatedAt;
+        this.lastError = lastError;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    public String getModel() {
+        return model;
+    }
+    
+    public void setModel(String model) {
+        this.model = model;
+    }
+    
+    public long getLastId() {
+        return lastId;
+    }
+    
+    public void setLastId(long lastId) {
+        this.lastId = lastId;
+    }
+    
+    public long getTotalRows() {
+        return totalRows;
+    }
+    
+    public void setTotalRows(long totalRows) {
+        this.totalRows = totalRows;
+    }
+    
+    public long getProcessed() {
+        return processed;
+    }
+    
+    public void setProcessed(long processed) {
+        this.processed = processed;
+    }
+    
+    public long getChanged() {
+        return changed;
+    }
+    
+    public void setChanged(long changed) {
+        this.changed = changed;
+    }
+    
+    public long getFailed() {
+        return failed;
+    }
+    
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+    
+    public double getRatePerSecond() {
+        return ratePerSecond;
+    }
+    
+    public void setRatePerSecond(double ratePerSecond) {
+        this.ratePerSecond = ratePerSecond;
+    }
+    
+    public Long getEtaSeconds() {
+        return etaSeconds;
+    }
+    
+    public void setEtaSeconds(Long etaSeconds) {
+        this.etaSeconds = etaSeconds;
+    }
+    
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+    
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+    
+    public String getLastError() {
+        return lastError;
+    }
+    
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+}
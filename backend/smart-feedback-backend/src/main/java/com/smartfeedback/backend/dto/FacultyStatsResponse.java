@@ -0,0 +1,145 @@
+package com.smartfeedback.backend.dto;
+
+import java.time.LocalDateTime;
+
+public class FacultyStatsResponse {
+    
+    private String facultyName;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private long totalFeedbackCount;
+    private Double avgTeachingQuality;
+    private Double avgCommunicationSkill;
+    // Index 0 holds the count of rating 1, index 4 the count of rating 5
+    private long[] teachingQualityHistogram;
+    private long[] communicationSkillHistogram;
+    private Integer teachingQualityMedian;
+    private Integer teachingQualityP90;
+    private Integer communicationSkillMedian;
+    private Integer communicationSkillP90;
+    private long positiveCount;
+    private long negativeCount;
+    private long neutralCount;
+    
+    public FacultyStatsResponse() {}
+    
+    public String getFacultyName() {
+        return facultyName;
+    }
+    
+    public void setFacultyName(String facultyName) {
+        this.facultyName = facultyName;
+    }
+    
+    public LocalDateTime getFrom() {
+        return from;
+    }
+    
+    public void setFrom(LocalDateTime from) {
+        this.from = from;
+    }
+    
+    public LocalDateTime getTo() {
+        return to;
+    }
+    
+    public void setTo(LocalDateTime to) {
+        this.to = to;
+    }
+    
+    public long getTotalFeedbackCount() {
+        return totalFeedbackCount;
+    }
+    
+    public void setTotalFeedbackCount(long totalFeedbackCount) {
+        this.totalFeedbackCount = totalFeedbackCount;
+    }
+    
+    public Double getAvgTeachingQuality() {
+        return avgTeachingQuality;
+    }
+    
+    public void setAvgTeachingQuality(Double avgTeachingQuality) {
+        this.avgTeachingQuality = avgTeachingQuality;
+    }
+    
+    public Double getAvgCommunicationSkill() {
+        return avgCommunicationSkill;
+    }
+    
+    public void setAvgCommunicationSkill(Double avgCommunicationSkill) {
+        this.avgCommunicationSkill = avgCommunicationSkill;
+    }
+    
+    public long[] getTeachingQualityHistogram() {
+        return teachingQualityHistogram;
+    }
+    
+    public void setTeachingQualityHistogram(long[] teachingQualityHistogram) {
+        this.teachingQualityHistogram = teachingQualityHistogram;
+    }
+    
+    public long[] getCommunicationSkillHistogram() {
+        return communicationSkillHistogram;
+    }
+    
+    public void setCommunicationSkillHistogram(long[] communicationSkillHistogram) {
+        this.communicationSkillHistogram = communicationSkillHistogram;
+    }
+    
+    public Integer getTeachingQualityMedian() {
+        return teachingQualityMedian;
+    }
+    
+    public void setTeachingQualityMedian(Integer teachingQualityMedian) {
+        this.teachingQualityMedian = teachingQualityMedian;
+    }
+    
+    public Integer getTeachingQualityP90() {
+        return teachingQualityP90;
+    }
+    
+    public void setTeachingQualityP90(Integer teachingQualityP90) {
+        this.teachingQualityP90 = teachingQualityP90;
+    }
+    
+    public Integer getCommunicationSkillMedian() {
+        return communicationSkillMedian;
+    }
+    
+    public void setCommunicationSkillMedian(Integer communicationSkillMedian) {
+        this.communicationSkillMedian = communicationSkillMedian;
+    }
+    
+    public Integer getCommunicationSkillP90() {
+        return communicationSkillP90;
+    }
+    
+    public void setCommunicationSkillP90(Integer communicationSkillP90) {
+        this.communicationSkillP90 = communicationSkillP90;
+    }
+    
+    public long getPositiveCount() {
+        return positiveCount;
+    }
+    
+    public void setPositiveCount(long positiveCount) {
+        this.positiveCount = positiveCount;
+    }
+    
+    public long getNegativeCount() {
+        return negativeCount;
+    }
+    
+    public void setNegativeCount(long negativeCount) {
+        this.negativeCount = negativeCount;
+    }
+    
+    public long getNeutralCount() {
+        return neutralCount;
+    }
+    
+    public void setNeutralCount(long neutralCount) {
+        this.neutralCount = neutralCount;
+    }
+}
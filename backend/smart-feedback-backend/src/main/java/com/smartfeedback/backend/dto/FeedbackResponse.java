@@ -18,20 +18,28 @@ public class FeedbackResponse {
     public FeedbackResponse() {}
     
     public FeedbackResponse(Feedback feedback) {
-        this.id = feedback.getId();
-        this.facultyName = feedback.getFacultyName();
-        this.studentName = feedback.getStudentName();
-        this.teachingQuality = feedback.getTeachingQuality();
-        this.communicationSkill = feedback.getCommunicationSkill();
-        this.comment = feedback.getComment();
+        this(feedback.getId(), feedback.getFacultyName(), feedback.getStudentName(), feedback.getTeachingQuality(),
+                feedback.getCommunicationSkill(), feedback.getComment(), feedback.getSentiment(), feedback.getCreatedAt());
+    }
+    
+    // Target of the JPQL constructor projections, which read these columns without loading entities
+    public FeedbackResponse(Long id, String facultyName, String studentName, Integer teachingQuality,
+                            Integer communicationSkill, String comment, Feedback.Sentiment sentiment,
+                            LocalDateTime createdAt) {
+        this.id = id;
+        this.facultyName = facultyName;
+        this.studentName = studentName;
+        this.teachingQuality = teachingQuality;
+        this.communicationSkill = communicationSkill;
+        this.comment = comment;
         // Convert enum to title case (POSITIVE -> Positive)
-        if (feedback.getSentiment() != null) {
-            String sentimentName = feedback.getSentiment().name();
+        if (sentiment != null) {
+            String sentimentName = sentiment.name();
             this.sentiment = sentimentName.substring(0, 1) + sentimentName.substring(1).toLowerCase();
         } else {
             this.sentiment = null;
         }
-        this.createdAt = feedback.getCreatedAt();
+        this.createdAt = createdAt;
     }
     
     public Long getId() {
@@ -0,0 +1,104 @@
+package com.smartfeedback.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// Compact payload pushed to dashboard subscribers; unset fields are omitted
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class FeedbackStreamEvent {
+    
+    public static final String FEEDBACK = "feedback";
+    public static final String SENTIMENT = "sentiment";
+    public static final String REPORT = "report";
+    public static final String ALERT = "alert";
+    
+    private String type;
+    private String facultyName;
+    private Long feedbackId;
+    private Long reportId;
+    private String sentiment;
+    // ACTIVE or RESOLVED for alert events
+    private String alertStatus;
+    private Integer teachingQuality;
+    private Integer communicationSkill;
+    private long timestamp;
+    
+    public FeedbackStreamEvent() {}
+    
+    public FeedbackStreamEvent(String type, String facultyName) {
+        this.type = type;
+        this.facultyName = facultyName;
+        this.timestamp = System.currentTimeMillis();
+    }
+    
+    public String getType() {
+        return type;
+    }
+    
+    public void setType(String type) {
+        this.type = type;
+    }
+    
+    public String getFacultyName() {
+        return facultyName;
+    }
+    
+    public void setFacultyName(String facultyName) {
+        this.facultyName = facultyName;
+    }
+    
+    public Long getFeedbackId() {
+        return feedbackId;
+    }
+    
+    public void setFeedbackId(Long feedbackId) {
+        this.feedbackId = feedbackId;
+    }
+    
+    public Long getReportId() {
+        return reportId;
+    }
+    
+    public void setReportId(Long reportId) {
+        this.reportId = reportId;
+    }
+    
+    public String getSentiment() {
+        return sentiment;
+    }
+    
+    public void setSentiment(String sentiment) {
+        this.sentiment = sentiment;
+    }
+    
+    public String getAlertStatus() {
+        return alertStatus;
+    }
+    
+    public void setAlertStatus(String alertStatus) {
+        this.alertStatus = alertStatus;
+    }
+    
+    public Integer getTeachingQuality() {
+        return teachingQuality;
+    }
+    
+    public void setTeachingQuality(Integer teachingQuality) {
+        this.teachingQuality = teachingQuality;
+    }
+    
+    public Integer getCommunicationSkill() {
+        return communicationSkill;
+    }
+    
+    public void setCommunicationSkill(Integer communicationSkill) {
+        this.communicationSkill = communicationSkill;
+    }
+    
+    public long getTimestamp() {
+        return timestamp;
+    }
+    
+    public void setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+    }
+}
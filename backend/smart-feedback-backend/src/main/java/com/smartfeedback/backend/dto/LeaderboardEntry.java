@@ -0,0 +1,50 @@
+package com.smartfeedback.backend.dto;
+
+public class LeaderboardEntry {
+    
+    private int rank;
+    private String facultyName;
+    private double score;
+    private long feedbackCount;
+    
+    public LeaderboardEntry() {}
+    
+    public LeaderboardEntry(int rank, String facultyName, double score, long feedbackCount) {
+        this.rank = rank;
+        this.facultyName = facultyName;
+        this.score = score;
+        this.feedbackCount = feedbackCount;
+    }
+    
+    public int getRank() {
+        return rank;
+    }
+    
+    public void setRank(int rank) {
+        this.rank = rank;
+    }
+    
+    public String getFacultyName() {
+        return facultyName;
+    }
+    
+    public void setFacultyName(String facultyName) {
+        this.facultyName = facultyName;
+    }
+    
+    public double getScore() {
+        return score;
+    }
+    
+    public void setScore(double score) {
+        this.score = score;
+    }
+    
+    public long getFeedbackCount() {
+        return feedbackCount;
+    }
+    
+    public void setFeedbackCount(long feedbackCount) {
+        this.feedbackCount = feedbackCount;
+    }
+}
@@ -0,0 +1,53 @@
+package com.smartfeedback.backend.dto;
+
+import java.util.List;
+
+public class LeaderboardResponse {
+    
+    private String metric;
+    private int minSamples;
+    // Faculties with at least minSamples feedback
+    private int rankedFaculties;
+    private List<LeaderboardEntry> entries;
+    
+    public LeaderboardResponse() {}
+    
+    public LeaderboardResponse(String metric, int minSamples, int rankedFaculties, List<LeaderboardEntry> entries) {
+        this.metric = metric;
+        this.minSamples = minSamples;
+        this.rankedFaculties = rankedFaculties;
+        this.entries = entries;
+    }
+    
+    public String getMetric() {
+        return metric;
+    }
+    
+    public void setMetric(String metric) {
+        this.metric = metric;
+    }
+    
+    public int getMinSamples() {
+        return minSamples;
+    }
+    
+    public void setMinSamples(int minSamples) {
+        this.minSamples = minSamples;
+    }
+    
+    public int getRankedFaculties() {
+        return rankedFaculties;
+    }
+    
+    public void setRankedFaculties(int rankedFaculties) {
+        this.rankedFaculties = rankedFaculties;
+    }
+    
+    public List<LeaderboardEntry> getEntries() {
+        return entries;
+    }
+    
+    public void setEntries(List<LeaderboardEntry> entries) {
+        this.entries = entries;
+    }
+}
@@ -0,0 +1,220 @@
+package com.smartfeedback.backend.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * State and findings of the last JFR profiling session. Each list ranks the innermost
+ * frames in the application's own packages: for hotMethods weight is CPU samples and detail
+ * the leaf method those samples were in, for allocationSites weight is sampled bytes and
+ * detail the most allocated type, for lockSites weight is milliseconds blocked and detail
+ * the contended lock class. percent is the share of the list's total, including samples
+ * that had no application frame.
+ */
+public class ProfilingReport {
+    
+    private String status;
+    private LocalDateTime startedAt;
+    private int durationSeconds;
+    private LocalDateTime finishedAt;
+    private String recordingFile;
+    private long recordingBytes;
+    private String error;
+    private long cpuSamples;
+    private long appCpuSamples;
+    private long allocationSamples;
+    private long sampledAllocationBytes;
+    private long lockEvents;
+    private long gcCount;
+    private double gcPauseMillis;
+    private List<Entry> hotMethods;
+    private List<Entry> allocationSites;
+    private List<Entry> lockSites;
+    
+    public ProfilingReport() {}
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+    
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+    
+    public int getDurationSeconds() {
+        return durationSeconds;
+    }
+    
+    public void setDurationSeconds(int durationSeconds) {
+        this.durationSeconds = durationSeconds;
+    }
+    
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+    
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+    
+    public String getRecordingFile() {
+        return recordingFile;
+    }
+    
+    public void setRecordingFile(String recordingFile) {
+        this.recordingFile = recordingFile;
+    }
+    
+    public long getRecordingBytes() {
+        return recordingBytes;
+    }
+    
+    public void setRecordingBytes(long recordingBytes) {
+        this.recordingBytes = recordingBytes;
+    }
+    
+    public String getError() {
+        return error;
+    }
+    
+    public void setError(String error) {
+        this.error = error;
+    }
+    
+    public long getCpuSamples() {
+        return cpuSamples;
+    }
+    
+    public void setCpuSamples(long cpuSamples) {
+        this.cpuSamples = cpuSamples;
+    }
+    
+    public long getAppCpuSamples() {
+        return appCpuSamples;
+    }
+    
+    public void setAppCpuSamples(long appCpuSamples) {
+        this.appCpuSamples = appCpuSamples;
+    }
+    
+    public long getAllocationSamples() {
+        return allocationSamples;
+    }
+    
+    public void setAllocationSamples(long allocationSamples) {
+        this.allocationSamples = allocationSamples;
+    }
+    
+    public long getSampledAllocationBytes() {
+        return sampledAllocationBytes;
+    }
+    
+    public void setSampledAllocationBytes(long sampledAllocationBytes) {
+        this.sampledAllocationBytes = sampledAllocationBytes;
+    }
+    
+    public long getLockEvents() {
+        return lockEvents;
+    }
+    
+    public void setLockEvents(long lockEvents) {
+        this.lockEvents = lockEvents;
+    }
+    
+    public long getGcCount() {
+        return gcCount;
+    }
+    
+    public void setGcCount(long gcCount) {
+        this.gcCount = gcCount;
+    }
+    
+    public double getGcPauseMillis() {
+        return gcPauseMillis;
+    }
+    
+    public void setGcPauseMillis(double gcPauseMillis) {
+        this.gcPauseMillis = gcPauseMillis;
+    }
+    
+    public List<Entry> getHotMethods() {
+        return hotMethods;
+    }
+    
+    public void setHotMethods(List<Entry> hotMethods) {
+        this.hotMethods = hotMethods;
+    }
+    
+    public List<Entry> getAllocationSites() {
+        return allocationSites;
+    }
+    
+    public void setAllocationSites(List<Entry> allocationSites) {
+        this.allocationSites = allocationSites;
+    }
+    
+    public List<Entry> getLockSites() {
+        return lockSites;
+    }
+    
+    public void setLockSites(List<Entry> lockSites) {
+        this.lockSites = lockSites;
+    }
+    
+    public static class Entry {
+        
+        private String site;
+        private long weight;
+        private double percent;
+        private String detail;
+        
+        public Entry() {}
+        
+        public Entry(String site, long weight, double percent, String detail) {
+            this.site = site;
+            this.weight = weight;
+            this.percent = percent;
+            this.detail = detail;
+        }
+        
+        public String getSite() {
+            return site;
+        }
+        
+        public void setSite(String site) {
+            this.site = site;
+        }
+        
+        public long getWeight() {
+            return weight;
+        }
+        
+        public void setWeight(long weight) {
+            this.weight = weight;
+        }
+        
+        public double getPercent() {
+            return percent;
+        }
+        
+        public void setPercent(double percent) {
+            this.percent = percent;
+        }
+        
+        public String getDetail() {
+            return detail;
+        }
+        
+        public void setDetail(String detail) {
+            this.detail = detail;
+        }
+    }
+}
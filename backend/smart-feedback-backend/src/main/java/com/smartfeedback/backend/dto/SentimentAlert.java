@@ -0,0 +1,133 @@
+package com.smartfeedback.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.LocalDateTime;
+
+// A faculty's recent negative feedback rate against its baseline; ACTIVE and RESOLVED entries are alerts
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SentimentAlert {
+    
+    public static final String ACTIVE = "ACTIVE";
+    public static final String RESOLVED = "RESOLVED";
+    public static final String NORMAL = "NORMAL";
+    
+    private String facultyName;
+    private String status;
+    private LocalDateTime raisedAt;
+    private LocalDateTime resolvedAt;
+    private int windowMinutes;
+    private long windowTotal;
+    private long windowNegative;
+    private double negativeRatio;
+    private long baselineTotal;
+    private long baselineNegative;
+    private double baselineRatio;
+    private double zScore;
+    
+    public SentimentAlert() {}
+    
+    public SentimentAlert(String facultyName, String status) {
+        this.facultyName = facultyName;
+        this.status = status;
+    }
+    
+    public String getFacultyName() {
+        return facultyName;
+    }
+    
+    public void setFacultyName(String facultyName) {
+        this.facultyName = facultyName;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    public LocalDateTime getRaisedAt() {
+        return raisedAt;
+    }
+    
+    public void setRaisedAt(LocalDateTime raisedAt) {
+        this.raisedAt = raisedAt;
+    }
+    
+    public LocalDateTime getResolvedAt() {
+        return resolvedAt;
+    }
+    
+    public void setResolvedAt(LocalDateTime resolvedAt) {
+        this.resolvedAt = resolvedAt;
+    }
+    
+    public int getWindowMinutes() {
+        return windowMinutes;
+    }
+    
+    public void setWindowMinutes(int windowMinutes) {
+        this.windowMinutes = windowMinutes;
+    }
+    
+    public long getWindowTotal() {
+        return windowTotal;
+    }
+    
+    public void setWindowTotal(long windowTotal) {
+        this.windowTotal = windowTotal;
+    }
+    
+    public long getWindowNegative() {
+        return windowNegative;
+    }
+    
+    public void setWindowNegative(long windowNegative) {
+        this.windowNegative = windowNegative;
+    }
+    
+    public double getNegativeRatio() {
+        return negativeRatio;
+    }
+    
+    public void setNegativeRatio(double negativeRatio) {
+        this.negativeRatio = negativeRatio;
+    }
+    
+    public long getBaselineTotal() {
+        return baselineTotal;
+    }
+    
+    public void setBaselineTotal(long baselineTotal) {
+        this.baselineTotal = baselineTotal;
+    }
+    
+    public long getBaselineNegative() {
+        return baselineNegative;
+    }
+    
+    public void setBaselineNegative(long baselineNegative) {
+        this.baselineNegative = baselineNegative;
+    }
+    
+    public double getBaselineRatio() {
+        return baselineRatio;
+    }
+    
+    public void setBaselineRatio(double baselineRatio) {
+        this.baselineRatio = baselineRatio;
+    }
+    
+    // Jackson would name the property "zscore" from the getter alone
+    @JsonProperty("zScore")
+    public double getZScore() {
+        return zScore;
+    }
+    
+    public void setZScore(double zScore) {
+        this.zScore = zScore;
+    }
+}
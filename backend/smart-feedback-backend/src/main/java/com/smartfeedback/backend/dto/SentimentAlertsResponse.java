@@ -0,0 +1,54 @@
+package com.smartfeedback.backend.dto;
+
+import java.util.List;
+
+public class SentimentAlertsResponse {
+    
+    private int windowMinutes;
+    private int baselineHours;
+    // Faculties whose negative rate is breaking their baseline now, highest z-score first
+    private List<SentimentAlert> active;
+    // Raised and resolved alerts, newest first
+    private List<SentimentAlert> recent;
+    
+    public SentimentAlertsResponse() {}
+    
+    public SentimentAlertsResponse(int windowMinutes, int baselineHours, List<SentimentAlert> active, List<SentimentAlert> recent) {
+        this.windowMinutes = windowMinutes;
+        this.baselineHours = baselineHours;
+        this.active = active;
+        this.recent = recent;
+    }
+    
+    public int getWindowMinutes() {
+        return windowMinutes;
+    }
+    
+    public void setWindowMinutes(int windowMinutes) {
+        this.windowMinutes = windowMinutes;
+    }
+    
+    public int getBaselineHours() {
+        return baselineHours;
+    }
+    
+    public void setBaselineHours(int baselineHours) {
+        this.baselineHours = baselineHours;
+    }
+    
+    public List<SentimentAlert> getActive() {
+        return active;
+    }
+    
+    public void setActive(List<SentimentAlert> active) {
+        this.active = active;
+    }
+    
+    public List<SentimentAlert> getRecent() {
+        return recent;
+    }
+    
+    public void setRecent(List<SentimentAlert> recent) {
+        this.recent = recent;
+    }
+}
@@ -7,12 +7,20 @@ public class SentimentAnalysisRequest {
     @NotBlank(message = "Comment is required")
     private String comment;
     
+    // Optional; occurrences of the name are redacted before the comment leaves the service
+    private String studentName;
+    
     public SentimentAnalysisRequest() {}
     
     public SentimentAnalysisRequest(String comment) {
         this.comment = comment;
     }
     
+    public SentimentAnalysisRequest(String comment, String studentName) {
+        this.comment = comment;
+        this.studentName = studentName;
+    }
+    
     public String getComment() {
         return comment;
     }
@@ -20,4 +28,12 @@ public class SentimentAnalysisRequest {
     public void setComment(String comment) {
         this.comment = comment;
     }
+    
+    public String getStudentName() {
+        return studentName;
+    }
+    
+    public void setStudentName(String studentName) {
+        this.studentName = studentName;
+    }
 }
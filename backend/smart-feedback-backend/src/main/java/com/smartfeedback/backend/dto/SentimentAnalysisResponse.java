@@ -1,13 +1,18 @@
 package com.smartfeedback.backend.dto;
 
+import com.smartfeedback.backend.entity.Feedback;
+
 public class SentimentAnalysisResponse {
     
     private String sentiment;
     
+    private Feedback.SentimentSource source;
+    
     public SentimentAnalysisResponse() {}
     
-    public SentimentAnalysisResponse(String sentiment) {
+    public SentimentAnalysisResponse(String sentiment, Feedback.SentimentSource source) {
         this.sentiment = sentiment;
+        this.source = source;
     }
     
     public String getSentiment() {
@@ -17,4 +22,12 @@ public class SentimentAnalysisResponse {
     public void setSentiment(String sentiment) {
         this.sentiment = sentiment;
     }
+    
+    public Feedback.SentimentSource getSource() {
+        return source;
+    }
+    
+    public void setSource(Feedback.SentimentSource source) {
+        this.source = source;
+    }
 }
@@ -0,0 +1,192 @@
+package com.smartfeedback.backend.dto;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Quality of the local sentiment model. The holdout figures compare its predictions with
+ * the stored gateway labels of feedback it was not trained on: overall, and for the share
+ * of comments it is confident enough to decide alone. The live counters cover this run of
+ * the application; auditAgreement is measured on confident comments that were still sent
+ * to the gateway, and is null until there are some.
+ */
+public class SentimentModelReport {
+    
+    private boolean enabled;
+    private boolean loaded;
+    private LocalDateTime trainedAt;
+    private long trainingRows;
+    private long holdoutRows;
+    private double accuracy;
+    private double minConfidence;
+    private double confidentShare;
+    private double confidentAccuracy;
+    private Map<String, ClassMetrics> classes;
+    private Map<String, Map<String, Long>> confusion;
+    private long localDecisions;
+    private long gatewayDeferrals;
+    private long auditSamples;
+    private Double auditAgreement;
+    
+    public SentimentModelReport() {}
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    public boolean isLoaded() {
+        return loaded;
+    }
+    
+    public void setLoaded(boolean loaded) {
+        this.loaded = loaded;
+    }
+    
+    public LocalDateTime getTrainedAt() {
+        return trainedAt;
+    }
+    
+    public void setTrainedAt(LocalDateTime trainedAt) {
+        this.trainedAt = trainedAt;
+    }
+    
+    public long getTrainingRows() {
+        return trainingRows;
+    }
+    
+    public void setTrainingRows(long trainingRows) {
+        this.trainingRows = trainingRows;
+    }
+    
+    public long getHoldoutRows() {
+        return holdoutRows;
+    }
+    
+    public void setHoldoutRows(long holdoutRows) {
+        this.holdoutRows = holdoutRows;
+    }
+    
+    public double getAccuracy() {
+        return accuracy;
+    }
+    
+    public void setAccuracy(double accuracy) {
+        this.accuracy = accuracy;
+    }
+    
+    public double getMinConfidence() {
+        return minConfidence;
+    }
+    
+    public void setMinConfidence(double minConfidence) {
+        this.minConfidence = minConfidence;
+    }
+    
+    public double getConfidentShare() {
+        return confidentShare;
+    }
+    
+    public void setConfidentShare(double confidentShare) {
+        this.confidentShare = confidentShare;
+    }
+    
+    public double getConfidentAccuracy() {
+        return confidentAccuracy;
+    }
+    
+    public void setConfidentAccuracy(double confidentAccuracy) {
+        this.confidentAccuracy = confidentAccuracy;
+    }
+    
+    public Map<String, ClassMetrics> getClasses() {
+        return classes;
+    }
+    
+    public void setClasses(Map<String, ClassMetrics> classes) {
+        this.classes = classes;
+    }
+    
+    public Map<String, Map<String, Long>> getConfusion() {
+        return confusion;
+    }
+    
+    public void setConfusion(Map<String, Map<String, Long>> confusion) {
+        this.confusion = confusion;
+    }
+    
+    public long getLocalDecisions() {
+        return localDecisions;
+    }
+    
+    public void setLocalDecisions(long localDecisions) {
+        this.localDecisions = localDecisions;
+    }
+    
+    public long getGatewayDeferrals() {
+        return gatewayDeferrals;
+    }
+    
+    public void setGatewayDeferrals(long gatewayDeferrals) {
+        this.gatewayDeferrals = gatewayDeferrals;
+    }
+    
+    public long getAuditSamples() {
+        return auditSamples;
+    }
+    
+    public void setAuditSamples(long auditSamples) {
+        this.auditSamples = auditSamples;
+    }
+    
+    public Double getAuditAgreement() {
+        return auditAgreement;
+    }
+    
+    public void setAuditAgreement(Double auditAgreement) {
+        this.auditAgreement = auditAgreement;
+    }
+    
+    // Precision and recall of one label on the holdout rows; support is its count there
+    public static class ClassMetrics {
+        
+        private double precision;
+        private double recall;
+        private long support;
+        
+        public ClassMetrics() {}
+        
+        public ClassMetrics(double precision, double recall, long support) {
+            this.precision = precision;
+            this.recall = recall;
+            this.support = support;
+        }
+        
+        public double getPrecision() {
+            return precision;
+        }
+        
+        public void setPrecision(double precision) {
+            this.precision = precision;
+        }
+        
+        public double getRecall() {
+            return recall;
+        }
+        
+        public void setRecall(double recall) {
+            this.recall = recall;
+        }
+        
+        public long getSupport() {
+            return support;
+        }
+        
+        public void setSupport(long support) {
+            this.support = support;
+        }
+    }
+}
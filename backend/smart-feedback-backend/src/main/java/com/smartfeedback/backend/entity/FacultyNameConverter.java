@@ -0,0 +1,32 @@
+package com.smartfeedback.backend.entity;
+
+import com.smartfeedback.backend.service.NameDictionary;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores faculty names as the integer id of their faculty row. Also applied to query
+ * parameters, so lookups by name compare integers; an unknown name binds null and
+ * matches nothing. Instantiated by Hibernate through the Spring bean container.
+ */
+@Converter
+public class FacultyNameConverter implements AttributeConverter<String, Integer> {
+    
+    private final NameDictionary nameDictionary;
+    
+    // Constructor injection: Hibernate creates this through the bean container, which
+    // autowires constructors in both regular and AOT-processed contexts, but fields only in the former
+    public FacultyNameConverter(NameDictionary nameDictionary) {
+        this.nameDictionary = nameDictionary;
+    }
+    
+    @Override
+    public Integer convertToDatabaseColumn(String facultyName) {
+        return nameDictionary.find(NameDictionary.Dimension.FACULTY, facultyName);
+    }
+    
+    @Override
+    public String convertToEntityAttribute(Integer facultyId) {
+        return nameDictionary.displayName(NameDictionary.Dimension.FACULTY, facultyId);
+    }
+}
@@ -5,7 +5,8 @@ import jakarta.validation.constraints.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "feedback")
+@Table(name = "feedback", indexes = @Index(name = "idx_feedback_faculty_id", columnList = "faculty_id"))
+@EntityListeners(NameInterningListener.class)
 public class Feedback {
     
     @Id
@@ -13,11 +14,13 @@ public class Feedback {
     private Long id;
     
     @NotBlank(message = "Faculty name is required")
-    @Column(name = "faculty_name", nullable = false)
+    @Convert(converter = FacultyNameConverter.class)
+    @Column(name = "faculty_id", nullable = false)
     private String facultyName;
     
     @NotBlank(message = "Student name is required")
-    @Column(name = "student_name", nullable = false)
+    @Convert(converter = StudentNameConverter.class)
+    @Column(name = "student_id", nullable = false)
     private String studentName;
     
     @Min(value = 1, message = "Teaching quality must be at least 1")
@@ -37,12 +40,19 @@ public class Feedback {
     @Column(name = "sentiment")
     private Sentiment sentiment;
     
+    @Enumerated(EnumType.STRING)
+    @Column(name = "sentiment_source")
+    private SentimentSource sentimentSource;
+    
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
     
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
+        // Write-behind ingestion stamps the acceptance time before the row is flushed
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
     }
     
     // Constructors
@@ -114,6 +124,14 @@ public class Feedback {
         this.sentiment = sentiment;
     }
     
+    public SentimentSource getSentimentSource() {
+        return sentimentSource;
+    }
+    
+    public void setSentimentSource(SentimentSource sentimentSource) {
+        this.sentimentSource = sentimentSource;
+    }
+    
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -125,4 +143,9 @@ public class Feedback {
     public enum Sentiment {
         POSITIVE, NEGATIVE, NEUTRAL
     }
+    
+    // Who decided the sentiment: only GATEWAY labels are used to train the local model
+    public enum SentimentSource {
+        GATEWAY, LOCAL_MODEL, RULE, MOCK, DEFAULT
+    }
 }
@@ -0,0 +1,123 @@
+package com.smartfeedback.backend.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+
+/**
+ * Row count and rating sums of the feedback of one faculty and sentiment that went into
+ * one archive chunk. Written in the same transaction that deletes those rows from the
+ * feedback table, so a chunk file counts as archived only once it has summary rows.
+ */
+@Entity
+@Table(name = "feedback_archive_summary", indexes = @Index(name = "idx_archive_summary_term", columnList = "term"))
+public class FeedbackArchiveSummary {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    // Chunk file path relative to the archive directory
+    @Column(name = "chunk", nullable = false)
+    private String chunk;
+    
+    // First day of the term the rows were submitted in
+    @Column(name = "term", nullable = false)
+    private LocalDate term;
+    
+    @Convert(converter = FacultyNameConverter.class)
+    @Column(name = "faculty_id", nullable = false)
+    private String facultyName;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "sentiment")
+    private Feedback.Sentiment sentiment;
+    
+    @Column(name = "row_count", nullable = false)
+    private long rowCount;
+    
+    @Column(name = "teaching_quality_sum", nullable = false)
+    private long teachingQualitySum;
+    
+    @Column(name = "communication_skill_sum", nullable = false)
+    private long communicationSkillSum;
+    
+    public FeedbackArchiveSummary() {}
+    
+    public FeedbackArchiveSummary(String chunk, LocalDate term, String facultyName, Feedback.Sentiment sentiment) {
+        this.chunk = chunk;
+        this.term = term;
+        this.facultyName = facultyName;
+        this.sentiment = sentiment;
+    }
+    
+    public void add(Feedback feedback) {
+        rowCount++;
+        teachingQualitySum += feedback.getTeachingQuality();
+        communicationSkillSum += feedback.getCommunicationSkill();
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getChunk() {
+        return chunk;
+    }
+    
+    public void setChunk(String chunk) {
+        this.chunk = chunk;
+    }
+    
+    public LocalDate getTerm() {
+        return term;
+    }
+    
+    public void setTerm(LocalDate term) {
+        this.term = term;
+    }
+    
+    public String getFacultyName() {
+        return facultyName;
+    }
+    
+    public void setFacultyName(String facultyName) {
+        this.facultyName = facultyName;
+    }
+    
+    public Feedback.Sentiment getSentiment() {
+        return sentiment;
+    }
+    
+    public void setSentiment(Feedback.Sentiment sentiment) {
+        this.sentiment = sentiment;
+    }
+    
+    public long getRowCount() {
+        return rowCount;
+    }
+    
+    public void setRowCount(long rowCount) {
+        this.rowCount = rowCount;
+    }
+    
+    public long getTeachingQualitySum() {
+        return teachingQualitySum;
+    }
+    
+    public void setTeachingQualitySum(long teachingQualitySum) {
+        this.teachingQualitySum = teachingQualitySum;
+    }
+    
+    public long getCommunicationSkillSum() {
+        return communicationSkillSum;
+    }
+    
+    public void setCommunicationSkillSum(long communicationSkillSum) {
+        this.communicationSkillSum = communicationSkillSum;
+    }
+}
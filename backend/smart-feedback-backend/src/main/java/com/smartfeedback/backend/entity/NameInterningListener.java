@@ -0,0 +1,38 @@
+package com.smartfeedback.backend.entity;
+
+import com.smartfeedback.backend.service.NameDictionary;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+
+/**
+ * Interns faculty and student names before a row is written, so the converters always
+ * find an id, and replaces them with the stored spelling so in-memory copies of the
+ * entity (events, caches) agree with what is read back.
+ */
+public class NameInterningListener {
+    
+    private final NameDictionary nameDictionary;
+    
+    // Constructor-injected for the same reason as FacultyNameConverter
+    public NameInterningListener(NameDictionary nameDictionary) {
+        this.nameDictionary = nameDictionary;
+    }
+    
+    @PrePersist
+    @PreUpdate
+    public void intern(Object entity) {
+        if (entity instanceof Feedback feedback) {
+            feedback.setFacultyName(intern(NameDictionary.Dimension.FACULTY, feedback.getFacultyName()));
+            feedback.setStudentName(intern(NameDictionary.Dimension.STUDENT, feedback.getStudentName()));
+        } else if (entity instanceof Report report) {
+            report.setFacultyName(intern(NameDictionary.Dimension.FACULTY, report.getFacultyName()));
+        }
+    }
+    
+    private String intern(NameDictionary.Dimension dimension, String name) {
+        if (name == null || name.isBlank()) {
+            return name;
+        }
+        return nameDictionary.displayName(dimension, nameDictionary.intern(dimension, name));
+    }
+}
@@ -1,11 +1,18 @@
 package com.smartfeedback.backend.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.util.HexFormat;
 
 @Entity
-@Table(name = "reports")
+@Table(name = "reports", indexes = @Index(name = "idx_reports_faculty_id", columnList = "faculty_id"))
+@EntityListeners(NameInterningListener.class)
 public class Report {
     
     @Id
@@ -13,7 +20,8 @@ public class Report {
     private Long id;
     
     @NotBlank(message = "Faculty name is required")
-    @Column(name = "faculty_name", nullable = false)
+    @Convert(converter = FacultyNameConverter.class)
+    @Column(name = "faculty_id", nullable = false)
     private String facultyName;
     
     @DecimalMin(value = "1.0", message = "Average teaching quality must be at least 1.0")
@@ -48,9 +56,33 @@ public class Report {
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
     
+    // Hash of the aggregates; consecutive reports with the same hash are duplicates
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+    
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
+        contentHash = computeContentHash();
+    }
+    
+    public String computeContentHash() {
+        return contentHash(totalFeedbackCount, avgTeachingQuality, avgCommunicationSkill,
+                positiveCount, negativeCount, neutralCount);
+    }
+    
+    // SHA-256 over the values a report is built from; the summary text is derived from them
+    public static String contentHash(int totalFeedbackCount, double avgTeachingQuality, double avgCommunicationSkill,
+                                     int positiveCount, int negativeCount, int neutralCount) {
+        String content = totalFeedbackCount + "|" + Double.doubleToLongBits(avgTeachingQuality)
+                + "|" + Double.doubleToLongBits(avgCommunicationSkill)
+                + "|" + positiveCount + "|" + negativeCount + "|" + neutralCount;
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
     
     // Constructors
@@ -149,4 +181,13 @@ public class Report {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
+    
+    @JsonIgnore
+    public String getContentHash() {
+        return contentHash;
+    }
+    
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
 }
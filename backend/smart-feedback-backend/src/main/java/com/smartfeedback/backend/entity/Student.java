@@ -0,0 +1,51 @@
+package com.smartfeedback.backend.entity;
+
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "students")
+public class Student {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+    
+    // Lower-cased, whitespace-collapsed form used for lookups
+    @Column(name = "canonical_name", nullable = false, unique = true)
+    private String canonicalName;
+    
+    // First spelling seen for this student, returned on every row that references it
+    @Column(name = "display_name", nullable = false)
+    private String displayName;
+    
+    public Student() {}
+    
+    public Student(String canonicalName, String displayName) {
+        this.canonicalName = canonicalName;
+        this.displayName = displayName;
+    }
+    
+    public Integer getId() {
+        return id;
+    }
+    
+    public void setId(Integer id) {
+        this.id = id;
+    }
+    
+    public String getCanonicalName() {
+        return canonicalName;
+    }
+    
+    public void setCanonicalName(String canonicalName) {
+        this.canonicalName = canonicalName;
+    }
+    
+    public String getDisplayName() {
+        return displayName;
+    }
+    
+    public void setDisplayName(String displayName) {
+        this.displayName = displayName;
+    }
+}
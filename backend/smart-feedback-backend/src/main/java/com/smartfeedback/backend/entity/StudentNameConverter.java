@@ -0,0 +1,27 @@
+package com.smartfeedback.backend.entity;
+
+import com.smartfeedback.backend.service.NameDictionary;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+// Stores student names as the integer id of their students row
+@Converter
+public class StudentNameConverter implements AttributeConverter<String, Integer> {
+    
+    private final NameDictionary nameDictionary;
+    
+    // Constructor-injected for the same reason as FacultyNameConverter
+    public StudentNameConverter(NameDictionary nameDictionary) {
+        this.nameDictionary = nameDictionary;
+    }
+    
+    @Override
+    public Integer convertToDatabaseColumn(String studentName) {
+        return nameDictionary.find(NameDictionary.Dimension.STUDENT, studentName);
+    }
+    
+    @Override
+    public String convertToEntityAttribute(Integer studentId) {
+        return nameDictionary.displayName(NameDictionary.Dimension.STUDENT, studentId);
+    }
+}
@@ -0,0 +1,17 @@
+package com.smartfeedback.backend.event;
+
+import com.smartfeedback.backend.entity.Feedback;
+
+// Published once a feedback row has been accepted and stored
+public class FeedbackSubmittedEvent {
+    
+    private final Feedback feedback;
+    
+    public FeedbackSubmittedEvent(Feedback feedback) {
+        this.feedback = feedback;
+    }
+    
+    public Feedback getFeedback() {
+        return feedback;
+    }
+}
@@ -0,0 +1,17 @@
+package com.smartfeedback.backend.event;
+
+import com.smartfeedback.backend.entity.Report;
+
+// Published after a report has been generated and saved
+public class ReportGeneratedEvent {
+    
+    private final Report report;
+    
+    public ReportGeneratedEvent(Report report) {
+        this.report = report;
+    }
+    
+    public Report getReport() {
+        return report;
+    }
+}
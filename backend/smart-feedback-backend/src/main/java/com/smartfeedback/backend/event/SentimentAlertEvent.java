@@ -0,0 +1,17 @@
+package com.smartfeedback.backend.event;
+
+import com.smartfeedback.backend.dto.SentimentAlert;
+
+// Published when a faculty's negative feedback rate starts or stops breaking its baseline
+public class SentimentAlertEvent {
+    
+    private final SentimentAlert alert;
+    
+    public SentimentAlertEvent(SentimentAlert alert) {
+        this.alert = alert;
+    }
+    
+    public SentimentAlert getAlert() {
+        return alert;
+    }
+}
@@ -0,0 +1,36 @@
+package com.smartfeedback.backend.event;
+
+import com.smartfeedback.backend.entity.Feedback;
+
+// Published when the sentiment of an already stored feedback row changes
+public class SentimentUpdatedEvent {
+    
+    private final Long feedbackId;
+    private final String facultyName;
+    private final Feedback.Sentiment previousSentiment;
+    private final Feedback.Sentiment sentiment;
+    
+    public SentimentUpdatedEvent(Long feedbackId, String facultyName,
+                                 Feedback.Sentiment previousSentiment, Feedback.Sentiment sentiment) {
+        this.feedbackId = feedbackId;
+        this.facultyName = facultyName;
+        this.previousSentiment = previousSentiment;
+        this.sentiment = sentiment;
+    }
+    
+    public Long getFeedbackId() {
+        return feedbackId;
+    }
+    
+    public String getFacultyName() {
+        return facultyName;
+    }
+    
+    public Feedback.Sentiment getPreviousSentiment() {
+        return previousSentiment;
+    }
+    
+    public Feedback.Sentiment getSentiment() {
+        return sentiment;
+    }
+}
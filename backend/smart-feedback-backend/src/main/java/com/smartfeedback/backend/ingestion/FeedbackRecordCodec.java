@@ -0,0 +1,86 @@
+package com.smartfeedback.backend.ingestion;
+
+import com.smartfeedback.backend.entity.Feedback;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+// Binary form of an accepted feedback submission as stored in the write-ahead log
+public final class FeedbackRecordCodec {
+    
+    // Version 1 records, written before the sentiment source was kept, are still read
+    private static final byte VERSION = 2;
+    
+    private FeedbackRecordCodec() {}
+    
+    public static byte[] encode(Feedback feedback) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            writeString(out, feedback.getFacultyName());
+            writeString(out, feedback.getStudentName());
+            out.writeByte(feedback.getTeachingQuality());
+            out.writeByte(feedback.getCommunicationSkill());
+            writeString(out, feedback.getComment());
+            out.writeByte(feedback.getSentiment() != null ? feedback.getSentiment().ordinal() : -1);
+            out.writeByte(feedback.getSentimentSource() != null ? feedback.getSentimentSource().ordinal() : -1);
+            LocalDateTime createdAt = feedback.getCreatedAt();
+            out.writeLong(createdAt.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(createdAt.getNano());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+    
+    public static Feedback decode(byte[] payload) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            byte version = in.readByte();
+            if (version != 1 && version != VERSION) {
+                throw new IllegalStateException("Unsupported write-ahead log record version " + version);
+            }
+            Feedback feedback = new Feedback(
+                readString(in),
+                readString(in),
+                (int) in.readByte(),
+                (int) in.readByte(),
+                readString(in)
+            );
+            int sentiment = in.readByte();
+            feedback.setSentiment(sentiment >= 0 ? Feedback.Sentiment.values()[sentiment] : null);
+            int source = version > 1 ? in.readByte() : -1;
+            feedback.setSentimentSource(source >= 0 ? Feedback.SentimentSource.values()[source] : null);
+            feedback.setCreatedAt(LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC));
+            return feedback;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+    
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] utf8 = new byte[length];
+        in.readFully(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+}
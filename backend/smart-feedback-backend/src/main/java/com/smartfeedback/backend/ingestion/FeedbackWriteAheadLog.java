@@ -0,0 +1,423 @@
+package com.smartfeedback.backend.ingestion;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Segmented append-only log with group commit. Appends from many request threads are
+ * collected by a single writer thread, written with one gathering write and covered by
+ * one fsync. Record layout: [int length][int crc32][long sequence][payload].
+ */
+public class FeedbackWriteAheadLog implements Closeable {
+    
+    private static final Logger logger = LoggerFactory.getLogger(FeedbackWriteAheadLog.class);
+    
+    private static final String SEGMENT_PREFIX = "feedback-";
+    private static final String SEGMENT_SUFFIX = ".wal";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+    private static final int HEADER_BYTES = 16;
+    private static final int MAX_PAYLOAD_BYTES = 16 * 1024 * 1024;
+    
+    public enum Durability {
+        // Acknowledge after the group containing the record is fsynced
+        FSYNC,
+        // Acknowledge after the record reaches the OS page cache; fsync on the sync interval
+        WRITE,
+        // Acknowledge as soon as the record is queued for the writer
+        ASYNC
+    }
+    
+    public record Entry(long sequence, byte[] payload) {}
+    
+    public record Appended(long sequence, CompletableFuture<Void> durable) {}
+    
+    private record Pending(ByteBuffer frame, long sequence, CompletableFuture<Void> durable) {}
+    
+    private record SegmentScan(long validBytes, long lastSequence) {}
+    
+    private final Path directory;
+    private final Durability durability;
+    private final long segmentBytes;
+    private final long groupCommitMs;
+    private final long syncIntervalMs;
+    
+    private final Object lock = new Object();
+    private final ArrayDeque<Pending> pending = new ArrayDeque<>();
+    private long nextSequence = 1;
+    private volatile boolean running;
+    
+    private final List<Path> sealedSegments = new ArrayList<>();
+    private Path currentSegment;
+    private FileChannel channel;
+    private long lastForceNanos;
+    // Where the last failed batch started, until the bytes it left are cut off; -1 when clean
+    private long tornAt = -1;
+    private long checkpointSequence;
+    private Thread writer;
+    
+    public FeedbackWriteAheadLog(Path directory, Durability durability, long segmentBytes,
+                                 long groupCommitMs, long syncIntervalMs) {
+        this.directory = directory;
+        this.durability = durability;
+        this.segmentBytes = segmentBytes;
+        this.groupCommitMs = groupCommitMs;
+        this.syncIntervalMs = syncIntervalMs;
+    }
+    
+    /**
+     * Opens the log, repairing a torn tail, and returns every record newer than the last checkpoint.
+     */
+    public List<Entry> open() throws IOException {
+        Files.createDirectories(directory);
+        checkpointSequence = readCheckpoint();
+        
+        List<Path> segments = listSegments();
+        List<Entry> unflushed = new ArrayList<>();
+        long lastSequence = checkpointSequence;
+        for (int i = 0; i < segments.size(); i++) {
+            Path segment = segments.get(i);
+            SegmentScan scan = readSegment(segment, unflushed, checkpointSequence);
+            lastSequence = Math.max(lastSequence, scan.lastSequence());
+            if (scan.validBytes() < Files.size(segment)) {
+                logger.warn("Truncating torn write-ahead log tail in {} at {} bytes", segment.getFileName(), scan.validBytes());
+                try (FileChannel repair = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+                    repair.truncate(scan.validBytes());
+                }
+            }
+            if (i < segments.size() - 1) {
+                sealedSegments.add(segment);
+            }
+        }
+        nextSequence = lastSequence + 1;
+        
+        if (segments.isEmpty()) {
+            openSegment(nextSequence);
+        } else {
+            currentSegment = segments.get(segments.size() - 1);
+            channel = FileChannel.open(currentSegment, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+        
+        running = true;
+        writer = new Thread(this::writeLoop, "feedback-wal-writer");
+        writer.setDaemon(true);
+        writer.start();
+        logger.info("Write-ahead log opened at {} ({} unflushed records, next sequence {})",
+                directory, unflushed.size(), nextSequence);
+        return unflushed;
+    }
+    
+    public Appended append(byte[] payload) {
+        if (payload.length > MAX_PAYLOAD_BYTES) {
+            throw new IllegalArgumentException("Write-ahead log record too large: " + payload.length);
+        }
+        CompletableFuture<Void> durable = new CompletableFuture<>();
+        long sequence;
+        synchronized (lock) {
+            if (!running) {
+                throw new IllegalStateException("Write-ahead log is closed");
+            }
+            sequence = nextSequence++;
+            pending.add(new Pending(encodeFrame(sequence, payload), sequence, durable));
+            lock.notifyAll();
+        }
+        if (durability == Durability.ASYNC) {
+            durable.complete(null);
+        }
+        return new Appended(sequence, durable);
+    }
+    
+    /**
+     * Records that every entry up to and including {@code sequence} is in the database
+     * and deletes sealed segments that hold nothing newer.
+     */
+    public void checkpoint(long sequence) throws IOException {
+        if (sequence <= checkpointSequence) {
+            return;
+        }
+        Path tmp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        Files.writeString(tmp, Long.toString(sequence), StandardCharsets.UTF_8);
+        Files.move(tmp, directory.resolve(CHECKPOINT_FILE),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        checkpointSequence = sequence;
+        
+        List<Path> removable = new ArrayList<>();
+        synchronized (sealedSegments) {
+            for (int i = 0; i < sealedSegments.size(); i++) {
+                Path next = i + 1 < sealedSegments.size() ? sealedSegments.get(i + 1) : currentSegment;
+                if (next != null && firstSequenceOf(next) - 1 <= sequence) {
+                    removable.add(sealedSegments.get(i));
+                }
+            }
+            sealedSegments.removeAll(removable);
+        }
+        for (Path segment : removable) {
+            Files.deleteIfExists(segment);
+        }
+    }
+    
+    public long getCheckpointSequence() {
+        return checkpointSequence;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            running = false;
+            lock.notifyAll();
+        }
+        if (writer != null) {
+            try {
+                writer.join(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (channel != null && channel.isOpen()) {
+            channel.force(false);
+            channel.close();
+        }
+    }
+    
+    private void writeLoop() {
+        List<Pending> batch = new ArrayList<>();
+        while (true) {
+            synchronized (lock) {
+                try {
+                    while (pending.isEmpty() && running) {
+                        lock.wait(syncIntervalMs > 0 ? syncIntervalMs : 0);
+                        if (pending.isEmpty()) {
+                            periodicForce();
+                        }
+                    }
+                    // Linger briefly so concurrent submitters share one fsync
+                    if (running && groupCommitMs > 0) {
+                        lock.wait(groupCommitMs);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    running = false;
+                }
+                if (pending.isEmpty() && !running) {
+                    return;
+                }
+                batch.addAll(pending);
+                pending.clear();
+            }
+            writeBatch(batch);
+            batch.clear();
+        }
+    }
+    
+    private void writeBatch(List<Pending> batch) {
+        try {
+            if (tornAt >= 0) {
+                repairTail(batch.get(0).sequence());
+            }
+            if (channel.size() >= segmentBytes) {
+                rollSegment(batch.get(0).sequence());
+            }
+            // A failure from here on may leave part of the batch behind; nothing may follow it
+            tornAt = channel.size();
+            ByteBuffer[] frames = new ByteBuffer[batch.size()];
+            for (int i = 0; i < frames.length; i++) {
+                frames[i] = batch.get(i).frame();
+            }
+            long remaining = 0;
+            for (ByteBuffer frame : frames) {
+                remaining += frame.remaining();
+            }
+            while (remaining > 0) {
+                remaining -= write(channel, frames);
+            }
+            if (durability == Durability.FSYNC) {
+                channel.force(false);
+                lastForceNanos = System.nanoTime();
+            } else {
+                periodicForce();
+            }
+            tornAt = -1;
+            for (Pending p : batch) {
+                p.durable().complete(null);
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.error("Write-ahead log append failed: ", e);
+            for (Pending p : batch) {
+                p.durable().completeExceptionally(e);
+            }
+            if (tornAt >= 0) {
+                try {
+                    repairTail(batch.get(batch.size() - 1).sequence() + 1);
+                } catch (IOException repair) {
+                    // Tried again before the next batch is written
+                    logger.error("Write-ahead log could not discard a failed write: {}", repair.getMessage());
+                }
+            }
+        }
+    }
+    
+    // Overridden by tests to fail partway through a write
+    long write(FileChannel target, ByteBuffer[] frames) throws IOException {
+        return target.write(frames);
+    }
+    
+    /**
+     * Cuts off what a failed batch left in the segment. Recovery stops reading a segment at
+     * the first bad frame, so anything appended after those bytes would be lost on restart.
+     * If the segment cannot be truncated, later batches go to a new segment from firstSequence
+     * and the torn tail is truncated when the log is next opened.
+     */
+    private void repairTail(long firstSequence) throws IOException {
+        try {
+            channel.truncate(tornAt);
+            tornAt = -1;
+            return;
+        } catch (IOException e) {
+            logger.warn("Write-ahead log could not truncate {}, starting a new segment: {}",
+                    currentSegment.getFileName(), e.getMessage());
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.debug("Closing the torn write-ahead log segment failed: {}", e.getMessage());
+        }
+        Path torn = currentSegment;
+        openSegment(firstSequence);
+        synchronized (sealedSegments) {
+            sealedSegments.add(torn);
+        }
+        tornAt = -1;
+    }
+    
+    private void periodicForce() {
+        if (durability == Durability.FSYNC || syncIntervalMs <= 0) {
+            return;
+        }
+        long elapsedMs = (System.nanoTime() - lastForceNanos) / 1_000_000;
+        if (elapsedMs < syncIntervalMs) {
+            return;
+        }
+        try {
+            channel.force(false);
+        } catch (IOException e) {
+            logger.warn("Write-ahead log sync failed: {}", e.getMessage());
+        }
+        lastForceNanos = System.nanoTime();
+    }
+    
+    private void rollSegment(long firstSequence) throws IOException {
+        channel.force(false);
+        channel.close();
+        synchronized (sealedSegments) {
+            sealedSegments.add(currentSegment);
+        }
+        openSegment(firstSequence);
+    }
+    
+    private void openSegment(long firstSequence) throws IOException {
+        Path segment = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX));
+        channel = FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        synchronized (sealedSegments) {
+            currentSegment = segment;
+        }
+    }
+    
+    private static ByteBuffer encodeFrame(long sequence, byte[] payload) {
+        CRC32 crc = new CRC32();
+        ByteBuffer frame = ByteBuffer.allocate(HEADER_BYTES + payload.length);
+        frame.putInt(payload.length);
+        frame.putInt(0);
+        frame.putLong(sequence);
+        frame.put(payload);
+        crc.update(frame.array(), 8, 8 + payload.length);
+        frame.putInt(4, (int) crc.getValue());
+        frame.flip();
+        return frame;
+    }
+    
+    // Appends records newer than the checkpoint to out and measures the valid prefix of the segment
+    private static SegmentScan readSegment(Path segment, List<Entry> out, long checkpoint) throws IOException {
+        long valid = 0;
+        long lastSequence = firstSequenceOf(segment) - 1;
+        try (InputStream raw = Files.newInputStream(segment);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(raw, 1 << 16))) {
+            while (true) {
+                int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                if (length < 0 || length > MAX_PAYLOAD_BYTES) {
+                    break;
+                }
+                byte[] body = new byte[8 + length];
+                int crcValue;
+                try {
+                    crcValue = in.readInt();
+                    in.readFully(body);
+                } catch (EOFException e) {
+                    break;
+                }
+                CRC32 crc = new CRC32();
+                crc.update(body);
+                if ((int) crc.getValue() != crcValue) {
+                    break;
+                }
+                long sequence = ByteBuffer.wrap(body, 0, 8).getLong();
+                lastSequence = sequence;
+                if (sequence > checkpoint) {
+                    byte[] payload = new byte[length];
+                    System.arraycopy(body, 8, payload, 0, length);
+                    out.add(new Entry(sequence, payload));
+                }
+                valid += HEADER_BYTES + length;
+            }
+        }
+        return new SegmentScan(valid, lastSequence);
+    }
+    
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(p -> {
+                        String name = p.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+    
+    private long readCheckpoint() throws IOException {
+        Path file = directory.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        String value = Files.readString(file, StandardCharsets.UTF_8).trim();
+        return value.isEmpty() ? 0 : Long.parseLong(value);
+    }
+    
+    private static long firstSequenceOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
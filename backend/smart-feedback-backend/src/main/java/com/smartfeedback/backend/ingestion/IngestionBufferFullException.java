@@ -0,0 +1,9 @@
+package com.smartfeedback.backend.ingestion;
+
+// Write-behind ingestion is holding as many unflushed records as it may; the client should retry later
+public class IngestionBufferFullException extends RuntimeException {
+    
+    public IngestionBufferFullException(String message) {
+        super(message);
+    }
+}
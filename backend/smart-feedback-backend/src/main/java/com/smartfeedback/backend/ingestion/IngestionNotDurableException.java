@@ -0,0 +1,9 @@
+package com.smartfeedback.backend.ingestion;
+
+// A submission whose record could not be confirmed in the write-ahead log or the database
+public class IngestionNotDurableException extends RuntimeException {
+    
+    public IngestionNotDurableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
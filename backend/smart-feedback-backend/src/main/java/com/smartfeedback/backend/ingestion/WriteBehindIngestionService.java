@@ -0,0 +1,288 @@
+package com.smartfeedback.backend.ingestion;
+
+import com.smartfeedback.backend.entity.Feedback;
+import com.smartfeedback.backend.event.FeedbackSubmittedEvent;
+import com.smartfeedback.backend.repository.FeedbackStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Write-behind ingestion for feedback submissions: requests are acknowledged once their
+ * record is in the local write-ahead log, and a background flusher drains the log into
+ * the database in large transactions. Unflushed records are replayed on startup.
+ * Delivery to the database is at-least-once: a crash between a batch commit and its
+ * checkpoint replays that batch.
+ *
+ * If a record is not confirmed in the log within app.ingestion.ack-timeout-ms, it is taken
+ * back out of the flush buffer and the submission fails, so a retry does not store it
+ * twice. Only a crash before the next checkpoint can still replay it, if a slow write
+ * did land. A record the flusher has already taken is acknowledged once its batch
+ * commits instead. Such failures are counted in feedback.ingestion.not-durable and turn
+ * the health of this component DOWN until a record is logged again.
+ */
+@Service
+@ConditionalOnProperty(name = "app.ingestion.mode", havingValue = "write-behind")
+public class WriteBehindIngestionService implements HealthIndicator {
+    
+    private static final Logger logger = LoggerFactory.getLogger(WriteBehindIngestionService.class);
+    
+    @Value("${app.ingestion.wal-dir:./data/wal}")
+    private String walDirectory;
+    
+    @Value("${app.ingestion.durability:fsync}")
+    private String durability;
+    
+    @Value("${app.ingestion.group-commit-ms:2}")
+    private long groupCommitMs;
+    
+    @Value("${app.ingestion.sync-interval-ms:1000}")
+    private long syncIntervalMs;
+    
+    @Value("${app.ingestion.segment-bytes:67108864}")
+    private long segmentBytes;
+    
+    @Value("${app.ingestion.batch-size:500}")
+    private int batchSize;
+    
+    @Value("${app.ingestion.flush-interval-ms:200}")
+    private long flushIntervalMs;
+    
+    @Value("${app.ingestion.queue-capacity:100000}")
+    private int queueCapacity;
+    
+    @Value("${app.ingestion.ack-timeout-ms:5000}")
+    private long ackTimeoutMs;
+    
+    @Autowired
+    private FeedbackStore feedbackStore;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private static final class Buffered {
+        private final long sequence;
+        private final Feedback feedback;
+        // Completed once the batch holding the record commits
+        private final CompletableFuture<Void> stored = new CompletableFuture<>();
+        
+        Buffered(long sequence, Feedback feedback) {
+            this.sequence = sequence;
+            this.feedback = feedback;
+        }
+    }
+    
+    private final ConcurrentLinkedQueue<Buffered> buffer = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger buffered = new AtomicInteger();
+    // Keeps buffer order identical to log sequence order so checkpoints stay contiguous
+    private final Object appendLock = new Object();
+    
+    private FeedbackWriteAheadLog wal;
+    private Thread flusher;
+    private volatile boolean running;
+    private Counter notDurable;
+    // Why the last submission could not be logged; null once a record is logged again
+    private volatile String logFailure;
+    
+    @PostConstruct
+    void start() throws IOException {
+        notDurable = meterRegistry.counter("feedback.ingestion.not-durable");
+        wal = new FeedbackWriteAheadLog(
+            Paths.get(walDirectory),
+            FeedbackWriteAheadLog.Durability.valueOf(durability.trim().toUpperCase(Locale.ROOT)),
+            segmentBytes,
+            groupCommitMs,
+            syncIntervalMs
+        );
+        
+        List<FeedbackWriteAheadLog.Entry> unflushed = wal.open();
+        for (FeedbackWriteAheadLog.Entry entry : unflushed) {
+            buffer.add(new Buffered(entry.sequence(), FeedbackRecordCodec.decode(entry.payload())));
+            buffered.incrementAndGet();
+        }
+        if (!unflushed.isEmpty()) {
+            logger.info("Replaying {} feedback records from the write-ahead log", unflushed.size());
+        }
+        
+        running = true;
+        flusher = new Thread(this::flushLoop, "feedback-write-behind");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+    
+    @PreDestroy
+    void stop() throws IOException {
+        running = false;
+        LockSupport.unpark(flusher);
+        try {
+            flusher.join(30000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        wal.close();
+        logger.info("Write-behind ingestion stopped with {} records left for replay", buffered.get());
+    }
+    
+    /**
+     * Logs the feedback and returns once it is durable according to the configured durability.
+     * Throws IngestionNotDurableException when it is not, with the record not stored.
+     */
+    public Feedback accept(Feedback feedback) {
+        if (buffered.get() >= queueCapacity) {
+            throw new IngestionBufferFullException("Ingestion buffer full. Please try again later.");
+        }
+        if (feedback.getCreatedAt() == null) {
+            feedback.setCreatedAt(LocalDateTime.now());
+        }
+        byte[] payload = FeedbackRecordCodec.encode(feedback);
+        
+        FeedbackWriteAheadLog.Appended appended;
+        Buffered entry;
+        synchronized (appendLock) {
+            appended = wal.append(payload);
+            entry = new Buffered(appended.sequence(), feedback);
+            buffer.add(entry);
+        }
+        buffered.incrementAndGet();
+        
+        try {
+            appended.durable().get(ackTimeoutMs, TimeUnit.MILLISECONDS);
+            logFailure = null;
+            return feedback;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return notLogged(entry, e);
+        } catch (ExecutionException | TimeoutException e) {
+            return notLogged(entry, e instanceof ExecutionException ? e.getCause() : e);
+        }
+    }
+    
+    private Feedback notLogged(Buffered entry, Throwable cause) {
+        notDurable.increment();
+        logFailure = cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+        logger.error("Feedback record {} not confirmed in the write-ahead log: {}", entry.sequence, logFailure);
+        if (buffer.remove(entry)) {
+            buffered.decrementAndGet();
+            throw new IngestionNotDurableException("Feedback could not be written to the write-ahead log and was not stored", cause);
+        }
+        // Too late to withdraw: the flusher has it, and it is durable once that batch commits
+        try {
+            entry.stored.get(ackTimeoutMs, TimeUnit.MILLISECONDS);
+            return entry.feedback;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IngestionNotDurableException("Interrupted before the feedback could be confirmed stored", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IngestionNotDurableException("Feedback could not be confirmed stored", e);
+        }
+    }
+    
+    @Override
+    public Health health() {
+        String failure = logFailure;
+        Health.Builder health = failure == null ? Health.up() : Health.down().withDetail("error", failure);
+        return health.withDetail("durability", durability).withDetail("buffered", buffered.get()).build();
+    }
+    
+    public int getBufferedCount() {
+        return buffered.get();
+    }
+    
+    private void flushLoop() {
+        List<Buffered> batch = new ArrayList<>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            if (running && buffered.get() < batchSize) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(flushIntervalMs));
+            }
+            Buffered next;
+            while (batch.size() < batchSize && (next = buffer.poll()) != null) {
+                batch.add(next);
+            }
+            if (batch.isEmpty()) {
+                continue;
+            }
+            if (!flushWithRetry(batch)) {
+                // Shutting down: this batch and everything after it stay in the log for replay,
+                // and nothing later may be checkpointed past it
+                return;
+            }
+            buffered.addAndGet(-batch.size());
+            batch.clear();
+        }
+    }
+    
+    // False when the batch could not be flushed before shutdown
+    private boolean flushWithRetry(List<Buffered> batch) {
+        List<Feedback> rows = new ArrayList<>(batch.size());
+        for (Buffered entry : batch) {
+            rows.add(entry.feedback);
+        }
+        long lastSequence = batch.get(batch.size() - 1).sequence;
+        
+        long backoffMs = 100;
+        while (true) {
+            try {
+                // saveAll commits the batch in one transaction of its own
+                List<Feedback> saved = feedbackStore.saveAll(rows);
+                batch.forEach(entry -> entry.stored.complete(null));
+                if (saved != null) {
+                    saved.forEach(f -> eventPublisher.publishEvent(new FeedbackSubmittedEvent(f)));
+                }
+                break;
+            } catch (Exception e) {
+                logger.error("Write-behind flush of {} records failed, retrying in {} ms: {}", rows.size(), backoffMs, e.getMessage());
+                if (!running) {
+                    // Leave the records in the log; they are replayed on the next start
+                    return false;
+                }
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(backoffMs));
+                backoffMs = Math.min(backoffMs * 2, 10000);
+            }
+        }
+        
+        // Committed: only the checkpoint is retried, since saving the rows again would duplicate them
+        backoffMs = 100;
+        while (true) {
+            try {
+                wal.checkpoint(lastSequence);
+                logger.debug("Flushed {} feedback records up to sequence {}", rows.size(), lastSequence);
+                return true;
+            } catch (IOException e) {
+                logger.error("Write-ahead log checkpoint to {} failed, retrying in {} ms: {}", lastSequence, backoffMs, e.getMessage());
+                if (!running) {
+                    // A later checkpoint covers this batch; without one it is replayed on the next start
+                    return true;
+                }
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(backoffMs));
+                backoffMs = Math.min(backoffMs * 2, 10000);
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.smartfeedback.backend.repository;
+
+import com.smartfeedback.backend.entity.FeedbackArchiveSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface FeedbackArchiveSummaryRepository extends JpaRepository<FeedbackArchiveSummary, Long> {
+    
+    // Term, sentiment, row count and rating sums over every faculty, for the archive status
+    @Query("SELECT s.term, s.sentiment, SUM(s.rowCount), SUM(s.teachingQualitySum), SUM(s.communicationSkillSum) "
+            + "FROM FeedbackArchiveSummary s GROUP BY s.term, s.sentiment ORDER BY s.term")
+    List<Object[]> aggregateByTermAndSentiment();
+    
+    List<FeedbackArchiveSummary> findByTermIn(Collection<LocalDate> terms);
+}
@@ -1,11 +1,16 @@
 package com.smartfeedback.backend.repository;
 
+import com.smartfeedback.backend.dto.FeedbackResponse;
 import com.smartfeedback.backend.entity.Feedback;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -13,6 +18,30 @@ public interface FeedbackRepository extends JpaRepository<Feedback, Long> {
     
     List<Feedback> findByFacultyName(String facultyName);
     
+    List<Feedback> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+    
+    // Oldest rows first, for moving past terms to the archive
+    List<Feedback> findByCreatedAtBeforeOrderByIdAsc(LocalDateTime cutoff, Pageable pageable);
+    
+    // Listings are built straight from the selected columns: no managed entities, no
+    // dirty-checking snapshots and no second mapping pass
+    String RESPONSE_PROJECTION = "SELECT new com.smartfeedback.backend.dto.FeedbackResponse(f.id, f.facultyName, "
+            + "f.studentName, f.teachingQuality, f.communicationSkill, f.comment, f.sentiment, f.createdAt) FROM Feedback f";
+    
+    @Query(RESPONSE_PROJECTION + " ORDER BY f.id")
+    List<FeedbackResponse> findAllResponses();
+    
+    @Query(RESPONSE_PROJECTION + " WHERE f.facultyName = :facultyName ORDER BY f.id")
+    List<FeedbackResponse> findResponsesByFacultyName(@Param("facultyName") String facultyName);
+    
+    @Query(RESPONSE_PROJECTION + " WHERE f.studentName = :studentName ORDER BY f.id")
+    List<FeedbackResponse> findResponsesByStudentName(@Param("studentName") String studentName);
+    
+    @Modifying
+    @Query("UPDATE Feedback f SET f.sentiment = :sentiment, f.sentimentSource = :source WHERE f.id IN :ids")
+    int updateSentiment(@Param("ids") Collection<Long> ids, @Param("sentiment") Feedback.Sentiment sentiment,
+                        @Param("source") Feedback.SentimentSource source);
+    
     @Query("SELECT AVG(f.teachingQuality) FROM Feedback f WHERE f.facultyName = :facultyName")
     Double findAverageTeachingQualityByFacultyName(@Param("facultyName") String facultyName);
     
@@ -23,6 +52,20 @@ public interface FeedbackRepository extends JpaRepository<Feedback, Long> {
     Long countByFacultyNameAndSentiment(@Param("facultyName") String facultyName, 
                                        @Param("sentiment") Feedback.Sentiment sentiment);
     
+    // Sentiment, row count and rating sums of one faculty, for combining with archived rows
+    @Query("SELECT f.sentiment, COUNT(f), SUM(f.teachingQuality), SUM(f.communicationSkill) "
+            + "FROM Feedback f WHERE f.facultyName = :facultyName GROUP BY f.sentiment")
+    List<Object[]> aggregateByFacultyName(@Param("facultyName") String facultyName);
+    
+    // One grouped scan of the faculty_id index instead of a count query per sentiment
+    @Query("SELECT f.sentiment, COUNT(f) FROM Feedback f WHERE f.facultyName = :facultyName GROUP BY f.sentiment")
+    List<Object[]> countSentimentsByFacultyName(@Param("facultyName") String facultyName);
+    
+    // Faculty, sentiment, row count and rating sums for every (faculty, sentiment) pair
+    @Query("SELECT f.facultyName, f.sentiment, COUNT(f), SUM(f.teachingQuality), SUM(f.communicationSkill) "
+            + "FROM Feedback f GROUP BY f.facultyName, f.sentiment")
+    List<Object[]> aggregateByFacultyAndSentiment();
+    
     @Query("SELECT COUNT(f) FROM Feedback f WHERE f.facultyName = :facultyName")
     Long countByFacultyName(@Param("facultyName") String facultyName);
 }
@@ -0,0 +1,115 @@
+package com.smartfeedback.backend.repository;
+
+import com.smartfeedback.backend.analytics.AnalyticsAggregator;
+import com.smartfeedback.backend.analytics.AnalyticsQuery;
+import com.smartfeedback.backend.analytics.FacultyAggregate;
+import com.smartfeedback.backend.dto.FeedbackResponse;
+import com.smartfeedback.backend.entity.Feedback;
+import com.smartfeedback.backend.service.NameDictionary;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Storage engine for feedback rows. The default implementation delegates to the JPA
+ * {@link FeedbackRepository}; app.storage.engine=mmap selects the append-only
+ * memory-mapped segment log instead.
+ */
+public interface FeedbackStore {
+    
+    // Inserts new feedback; for an existing id only the sentiment may change
+    Feedback save(Feedback feedback);
+    
+    List<Feedback> saveAll(List<Feedback> feedback);
+    
+    Optional<Feedback> findById(Long id);
+    
+    List<Feedback> findAll();
+    
+    // Up to limit rows with an id greater than afterId, in id order
+    List<Feedback> findPageAfterId(long afterId, int limit);
+    
+    List<Feedback> findByFacultyName(String facultyName);
+    
+    // Read-only listings for the API, in id order
+    default List<FeedbackResponse> findAllResponses() {
+        return toResponses(findAll());
+    }
+    
+    default List<FeedbackResponse> findResponsesByFacultyName(String facultyName) {
+        return toResponses(findByFacultyName(facultyName));
+    }
+    
+    // Student names match the way faculty names do: ignoring case and whitespace
+    default List<FeedbackResponse> findResponsesByStudentName(String studentName) {
+        String canonical = NameDictionary.canonicalize(studentName);
+        return toResponses(findAll().stream()
+                .filter(f -> NameDictionary.canonicalize(f.getStudentName()).equals(canonical))
+                .collect(Collectors.toList()));
+    }
+    
+    private static List<FeedbackResponse> toResponses(List<Feedback> feedback) {
+        return feedback.stream()
+                .sorted(Comparator.comparing(Feedback::getId))
+                .map(FeedbackResponse::new)
+                .collect(Collectors.toList());
+    }
+    
+    Double findAverageTeachingQualityByFacultyName(String facultyName);
+    
+    Double findAverageCommunicationSkillByFacultyName(String facultyName);
+    
+    Long countByFacultyNameAndSentiment(String facultyName, Feedback.Sentiment sentiment);
+    
+    // Count per sentiment, with every sentiment present as a key
+    default Map<Feedback.Sentiment, Long> countSentimentsByFacultyName(String facultyName) {
+        Map<Feedback.Sentiment, Long> counts = new EnumMap<>(Feedback.Sentiment.class);
+        for (Feedback.Sentiment sentiment : Feedback.Sentiment.values()) {
+            counts.put(sentiment, countByFacultyNameAndSentiment(facultyName, sentiment));
+        }
+        return counts;
+    }
+    
+    Long countByFacultyName(String facultyName);
+    
+    // Counts, rating sums and sentiment counts for every faculty with feedback
+    default List<FacultyAggregate> aggregateByFaculty() {
+        Map<String, FacultyAggregate> aggregates = new LinkedHashMap<>();
+        for (Feedback feedback : findAll()) {
+            aggregates.computeIfAbsent(feedback.getFacultyName(), FacultyAggregate::new)
+                    .add(feedback.getSentiment(), 1, feedback.getTeachingQuality(), feedback.getCommunicationSkill());
+        }
+        return new ArrayList<>(aggregates.values());
+    }
+    
+    // The groups of an /api/analytics query, with its filters applied
+    default AnalyticsAggregator aggregate(AnalyticsQuery query) {
+        AnalyticsAggregator aggregator = new AnalyticsAggregator(query);
+        for (Feedback feedback : findAll()) {
+            if (query.matches(feedback.getFacultyName(), feedback.getSentiment(), feedback.getCreatedAt())) {
+                aggregator.add(feedback.getFacultyName(), feedback.getSentiment(), feedback.getTeachingQuality(),
+                        feedback.getCommunicationSkill(), feedback.getCreatedAt().toLocalDate());
+            }
+        }
+        return aggregator;
+    }
+    
+    long count();
+    
+    void deleteById(Long id);
+    
+    // Sets the sentiment of existing rows, all decided by source; ids that no longer exist are skipped
+    default void updateSentiments(Map<Long, Feedback.Sentiment> sentiments, Feedback.SentimentSource source) {
+        sentiments.forEach((id, sentiment) -> findById(id).ifPresent(feedback -> {
+            feedback.setSentiment(sentiment);
+            feedback.setSentimentSource(source);
+            save(feedback);
+        }));
+    }
+}
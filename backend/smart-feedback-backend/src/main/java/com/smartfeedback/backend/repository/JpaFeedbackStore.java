@@ -0,0 +1,313 @@
+package com.smartfeedback.backend.repository;
+
+import com.smartfeedback.backend.analytics.AnalyticsAggregator;
+import com.smartfeedback.backend.analytics.AnalyticsQuery;
+import com.smartfeedback.backend.analytics.FacultyAggregate;
+import com.smartfeedback.backend.archive.FeedbackArchive;
+import com.smartfeedback.backend.dto.FeedbackResponse;
+import com.smartfeedback.backend.entity.Feedback;
+import com.smartfeedback.backend.service.NameDictionary;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+
+/**
+ * {@link FeedbackStore} over the feedback table. With the archive enabled, rows from past
+ * terms live in {@link FeedbackArchive} instead: counts, averages and aggregates add its
+ * summaries so they still cover all feedback, and student history and analytics include
+ * archived rows. Other listings and row lookups see the feedback table only.
+ */
+@Component
+@ConditionalOnProperty(name = "app.storage.engine", havingValue = "jpa", matchIfMissing = true)
+public class JpaFeedbackStore implements FeedbackStore {
+    
+    @Autowired
+    private FeedbackRepository feedbackRepository;
+    
+    @Autowired(required = false)
+    private FeedbackArchive feedbackArchive;
+    
+    @Autowired
+    private NameDictionary nameDictionary;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    // Names are interned before the repository opens its transaction: a new dimension row
+    // is inserted on a connection of its own, which must not be requested while the
+    // transaction already holds one
+    @Override
+    public Feedback save(Feedback feedback) {
+        internNames(feedback);
+        return feedbackRepository.save(feedback);
+    }
+    
+    @Override
+    public List<Feedback> saveAll(List<Feedback> feedback) {
+        feedback.forEach(this::internNames);
+        return feedbackRepository.saveAll(feedback);
+    }
+    
+    private void internNames(Feedback feedback) {
+        if (feedback.getFacultyName() != null && !feedback.getFacultyName().isBlank()) {
+            nameDictionary.intern(NameDictionary.Dimension.FACULTY, feedback.getFacultyName());
+        }
+        if (feedback.getStudentName() != null && !feedback.getStudentName().isBlank()) {
+            nameDictionary.intern(NameDictionary.Dimension.STUDENT, feedback.getStudentName());
+        }
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Feedback> findById(Long id) {
+        return feedbackRepository.findById(id);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public List<Feedback> findAll() {
+        return feedbackRepository.findAll();
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public List<Feedback> findPageAfterId(long afterId, int limit) {
+        return feedbackRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, limit));
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public List<Feedback> findByFacultyName(String facultyName) {
+        return feedbackRepository.findByFacultyName(facultyName);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public List<FeedbackResponse> findAllResponses() {
+        return feedbackRepository.findAllResponses();
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public List<FeedbackResponse> findResponsesByFacultyName(String facultyName) {
+        return feedbackRepository.findResponsesByFacultyName(facultyName);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public List<FeedbackResponse> findResponsesByStudentName(String studentName) {
+        List<FeedbackResponse> hot = feedbackRepository.findResponsesByStudentName(studentName);
+        if (feedbackArchive == null) {
+            return hot;
+        }
+        List<FeedbackResponse> history = new ArrayList<>(feedbackArchive.findResponsesByStudentName(studentName));
+        history.addAll(hot);
+        history.sort(Comparator.comparing(FeedbackResponse::getId));
+        return history;
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public Double findAverageTeachingQualityByFacultyName(String facultyName) {
+        FacultyAggregate archived = archived(facultyName);
+        if (archived == null) {
+            return feedbackRepository.findAverageTeachingQualityByFacultyName(facultyName);
+        }
+        return withHotRows(facultyName, archived).averageTeachingQuality();
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public Double findAverageCommunicationSkillByFacultyName(String facultyName) {
+        FacultyAggregate archived = archived(facultyName);
+        if (archived == null) {
+            return feedbackRepository.findAverageCommunicationSkillByFacultyName(facultyName);
+        }
+        return withHotRows(facultyName, archived).averageCommunicationSkill();
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public Long countByFacultyNameAndSentiment(String facultyName, Feedback.Sentiment sentiment) {
+        FacultyAggregate archived = archived(facultyName);
+        long count = feedbackRepository.countByFacultyNameAndSentiment(facultyName, sentiment);
+        return archived == null ? count : count + archived.count(sentiment);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Feedback.Sentiment, Long> countSentimentsByFacultyName(String facultyName) {
+        Map<Feedback.Sentiment, Long> counts = new EnumMap<>(Feedback.Sentiment.class);
+        for (Feedback.Sentiment sentiment : Feedback.Sentiment.values()) {
+            counts.put(sentiment, 0L);
+        }
+        for (Object[] row : feedbackRepository.countSentimentsByFacultyName(facultyName)) {
+            if (row[0] != null) {
+                counts.put((Feedback.Sentiment) row[0], (Long) row[1]);
+            }
+        }
+        FacultyAggregate archived = archived(facultyName);
+        if (archived != null) {
+            counts.replaceAll((sentiment, count) -> count + archived.count(sentiment));
+        }
+        return counts;
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public Long countByFacultyName(String facultyName) {
+        FacultyAggregate archived = archived(facultyName);
+        long count = feedbackRepository.countByFacultyName(facultyName);
+        return archived == null ? count : count + archived.getCount();
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public List<FacultyAggregate> aggregateByFaculty() {
+        Map<String, FacultyAggregate> aggregates = new LinkedHashMap<>();
+        for (Object[] row : feedbackRepository.aggregateByFacultyAndSentiment()) {
+            aggregates.computeIfAbsent((String) row[0], FacultyAggregate::new)
+                    .add((Feedback.Sentiment) row[1], (Long) row[2], ((Number) row[3]).longValue(), ((Number) row[4]).longValue());
+        }
+        if (feedbackArchive != null) {
+            for (FacultyAggregate archived : feedbackArchive.aggregates()) {
+                aggregates.computeIfAbsent(archived.getFacultyName(), FacultyAggregate::new).add(archived);
+            }
+        }
+        return new ArrayList<>(aggregates.values());
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public AnalyticsAggregator aggregate(AnalyticsQuery query) {
+        // Only the requested dimensions are selected and grouped; time is grouped by day
+        // and rolled up to weeks or months while folding
+        List<String> dimensions = new ArrayList<>();
+        if (query.groupsBy(AnalyticsQuery.Dimension.FACULTY)) {
+            dimensions.add("f.facultyName");
+        }
+        if (query.groupsBy(AnalyticsQuery.Dimension.SENTIMENT)) {
+            dimensions.add("f.sentiment");
+        }
+        if (query.groupsBy(AnalyticsQuery.Dimension.TEACHING_QUALITY)) {
+            dimensions.add("f.teachingQuality");
+        }
+        if (query.groupsBy(AnalyticsQuery.Dimension.COMMUNICATION_SKILL)) {
+            dimensions.add("f.communicationSkill");
+        }
+        if (query.groupsBy(AnalyticsQuery.Dimension.TIME)) {
+            dimensions.add("extract(date from f.createdAt)");
+        }
+        
+        StringBuilder jpql = new StringBuilder("SELECT ");
+        for (String dimension : dimensions) {
+            jpql.append(dimension).append(", ");
+        }
+        jpql.append("COUNT(f), SUM(f.teachingQuality), SUM(f.communicationSkill) FROM Feedback f WHERE 1 = 1");
+        if (!query.faculties().isEmpty()) {
+            jpql.append(" AND f.facultyName IN :faculties");
+        }
+        if (!query.sentiments().isEmpty()) {
+            jpql.append(" AND f.sentiment IN :sentiments");
+        }
+        if (query.from() != null) {
+            jpql.append(" AND f.createdAt >= :from");
+        }
+        if (query.to() != null) {
+            jpql.append(" AND f.createdAt < :to");
+        }
+        if (!dimensions.isEmpty()) {
+            jpql.append(" GROUP BY ").append(String.join(", ", dimensions));
+        }
+        
+        TypedQuery<Object[]> typed = entityManager.createQuery(jpql.toString(), Object[].class);
+        if (!query.faculties().isEmpty()) {
+            typed.setParameter("faculties", new TreeSet<>(query.faculties()));
+        }
+        if (!query.sentiments().isEmpty()) {
+            typed.setParameter("sentiments", query.sentiments());
+        }
+        if (query.from() != null) {
+            typed.setParameter("from", query.from());
+        }
+        if (query.to() != null) {
+            typed.setParameter("to", query.to());
+        }
+        
+        AnalyticsAggregator aggregator = new AnalyticsAggregator(query);
+        for (Object[] row : typed.getResultList()) {
+            int i = 0;
+            String faculty = query.groupsBy(AnalyticsQuery.Dimension.FACULTY) ? (String) row[i++] : null;
+            Feedback.Sentiment sentiment = query.groupsBy(AnalyticsQuery.Dimension.SENTIMENT) ? (Feedback.Sentiment) row[i++] : null;
+            Integer teachingQuality = query.groupsBy(AnalyticsQuery.Dimension.TEACHING_QUALITY) ? (Integer) row[i++] : null;
+            Integer communicationSkill = query.groupsBy(AnalyticsQuery.Dimension.COMMUNICATION_SKILL) ? (Integer) row[i++] : null;
+            LocalDate day = query.groupsBy(AnalyticsQuery.Dimension.TIME) ? toLocalDate(row[i++]) : null;
+            long count = ((Number) row[i++]).longValue();
+            if (count == 0) {
+                continue;
+            }
+            aggregator.add(faculty, sentiment, teachingQuality, communicationSkill, day, count,
+                    ((Number) row[i++]).longValue(), ((Number) row[i]).longValue());
+        }
+        if (feedbackArchive != null) {
+            feedbackArchive.aggregate(query, aggregator);
+        }
+        return aggregator;
+    }
+    
+    private static LocalDate toLocalDate(Object value) {
+        if (value instanceof LocalDate date) {
+            return date;
+        }
+        return ((java.sql.Date) value).toLocalDate();
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public long count() {
+        return feedbackRepository.count();
+    }
+    
+    @Override
+    public void deleteById(Long id) {
+        feedbackRepository.deleteById(id);
+    }
+    
+    private FacultyAggregate archived(String facultyName) {
+        return feedbackArchive != null ? feedbackArchive.aggregate(facultyName) : null;
+    }
+    
+    // Archived totals plus the faculty's rows still in the feedback table
+    private FacultyAggregate withHotRows(String facultyName, FacultyAggregate archived) {
+        FacultyAggregate combined = new FacultyAggregate(archived.getFacultyName());
+        combined.add(archived);
+        for (Object[] row : feedbackRepository.aggregateByFacultyName(facultyName)) {
+            combined.add((Feedback.Sentiment) row[0], (Long) row[1], ((Number) row[2]).longValue(), ((Number) row[3]).longValue());
+        }
+        return combined;
+    }
+    
+    // One bulk UPDATE per sentiment, all in one transaction
+    @Override
+    @Transactional
+    public void updateSentiments(Map<Long, Feedback.Sentiment> sentiments, Feedback.SentimentSource source) {
+        Map<Feedback.Sentiment, List<Long>> idsBySentiment = new EnumMap<>(Feedback.Sentiment.class);
+        sentiments.forEach((id, sentiment) -> idsBySentiment.computeIfAbsent(sentiment, s -> new ArrayList<>()).add(id));
+        idsBySentiment.forEach((sentiment, ids) -> feedbackRepository.updateSentiment(ids, sentiment, source));
+    }
+}
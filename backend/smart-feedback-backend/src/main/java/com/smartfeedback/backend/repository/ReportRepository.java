@@ -2,6 +2,7 @@ package com.smartfeedback.backend.repository;
 
 import com.smartfeedback.backend.entity.Report;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,4 +13,16 @@ public interface ReportRepository extends JpaRepository<Report, Long> {
     List<Report> findByFacultyName(String facultyName);
     
     List<Report> findByFacultyNameOrderByCreatedAtDesc(String facultyName);
+    
+    List<Report> findByFacultyNameOrderByIdAsc(String facultyName);
+    
+    Report findFirstByFacultyNameOrderByIdDesc(String facultyName);
+    
+    // Faculties that have reports
+    @Query("SELECT DISTINCT r.facultyName FROM Report r")
+    List<String> findFacultyNames();
+    
+    // Newest report of every faculty; ids are assigned in creation order
+    @Query("SELECT r FROM Report r WHERE r.id IN (SELECT MAX(r2.id) FROM Report r2 GROUP BY r2.facultyName)")
+    List<Report> findLatestPerFaculty();
 }
@@ -0,0 +1,156 @@
+package com.smartfeedback.backend.repository.mmap;
+
+import com.smartfeedback.backend.entity.Feedback;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.zip.CRC32;
+
+/**
+ * On-disk layout of one feedback record. The fixed 44 byte header is followed by the
+ * UTF-8 faculty name, student name and comment, padded to 8 bytes. Flags, sentiment and
+ * its source sit outside the checksummed range so they can be rewritten in place.
+ *
+ * <pre>
+ *  0 int   record length (0 marks the end of a segment)
+ *  4 int   crc32 of bytes [16, length)
+ *  8 byte  flags
+ *  9 byte  sentiment ordinal + 1 (0 = none)
+ * 10 byte  teaching quality
+ * 11 byte  communication skill
+ * 12 byte  sentiment source ordinal + 1 (0 = unknown)
+ * 16 long  id
+ * 24 long  created at, epoch seconds (UTC)
+ * 32 int   created at, nanos
+ * 36 short faculty name length
+ * 38 short student name length
+ * 40 int   comment length (-1 = none)
+ * </pre>
+ */
+final class FeedbackRecordLayout {
+    
+    static final int LENGTH = 0;
+    static final int CRC = 4;
+    static final int FLAGS = 8;
+    static final int SENTIMENT = 9;
+    static final int TEACHING_QUALITY = 10;
+    static final int COMMUNICATION_SKILL = 11;
+    static final int SENTIMENT_SOURCE = 12;
+    static final int ID = 16;
+    static final int CREATED_SECONDS = 24;
+    static final int CREATED_NANOS = 32;
+    static final int FACULTY_LENGTH = 36;
+    static final int STUDENT_LENGTH = 38;
+    static final int COMMENT_LENGTH = 40;
+    static final int HEADER_BYTES = 44;
+    
+    static final byte FLAG_DELETED = 1;
+    
+    private static final int ALIGNMENT = 8;
+    private static final int MAX_NAME_BYTES = 0xFFFF;
+    
+    private FeedbackRecordLayout() {}
+    
+    static byte[] encode(Feedback feedback) {
+        byte[] faculty = feedback.getFacultyName().getBytes(StandardCharsets.UTF_8);
+        byte[] student = feedback.getStudentName().getBytes(StandardCharsets.UTF_8);
+        byte[] comment = feedback.getComment() != null ? feedback.getComment().getBytes(StandardCharsets.UTF_8) : null;
+        if (faculty.length > MAX_NAME_BYTES || student.length > MAX_NAME_BYTES) {
+            throw new IllegalArgumentException("Faculty or student name too long for the feedback store");
+        }
+        
+        int unpadded = HEADER_BYTES + faculty.length + student.length + (comment != null ? comment.length : 0);
+        int length = (unpadded + ALIGNMENT - 1) & -ALIGNMENT;
+        ByteBuffer record = ByteBuffer.allocate(length);
+        record.putInt(LENGTH, length);
+        record.put(SENTIMENT, sentimentByte(feedback.getSentiment()));
+        record.put(SENTIMENT_SOURCE, sourceByte(feedback.getSentimentSource()));
+        record.put(TEACHING_QUALITY, feedback.getTeachingQuality().byteValue());
+        record.put(COMMUNICATION_SKILL, feedback.getCommunicationSkill().byteValue());
+        record.putLong(ID, feedback.getId());
+        record.putLong(CREATED_SECONDS, feedback.getCreatedAt().toEpochSecond(ZoneOffset.UTC));
+        record.putInt(CREATED_NANOS, feedback.getCreatedAt().getNano());
+        record.putShort(FACULTY_LENGTH, (short) faculty.length);
+        record.putShort(STUDENT_LENGTH, (short) student.length);
+        record.putInt(COMMENT_LENGTH, comment != null ? comment.length : -1);
+        record.put(HEADER_BYTES, faculty);
+        record.put(HEADER_BYTES + faculty.length, student);
+        if (comment != null) {
+            record.put(HEADER_BYTES + faculty.length + student.length, comment);
+        }
+        record.putInt(CRC, checksum(record, 0, length));
+        return record.array();
+    }
+    
+    // True when a complete, uncorrupted record starts at offset
+    static boolean isValid(ByteBuffer segment, int offset, int limit) {
+        if (offset + HEADER_BYTES > limit) {
+            return false;
+        }
+        int length = segment.getInt(offset + LENGTH);
+        if (length < HEADER_BYTES || (length & (ALIGNMENT - 1)) != 0 || offset + length > limit) {
+            return false;
+        }
+        return segment.getInt(offset + CRC) == checksum(segment, offset, length);
+    }
+    
+    static Feedback decode(ByteBuffer segment, int offset) {
+        int facultyLength = Short.toUnsignedInt(segment.getShort(offset + FACULTY_LENGTH));
+        int studentLength = Short.toUnsignedInt(segment.getShort(offset + STUDENT_LENGTH));
+        int commentLength = segment.getInt(offset + COMMENT_LENGTH);
+        int strings = offset + HEADER_BYTES;
+        
+        Feedback feedback = new Feedback(
+            readString(segment, strings, facultyLength),
+            readString(segment, strings + facultyLength, studentLength),
+            (int) segment.get(offset + TEACHING_QUALITY),
+            (int) segment.get(offset + COMMUNICATION_SKILL),
+            commentLength >= 0 ? readString(segment, strings + facultyLength + studentLength, commentLength) : null
+        );
+        feedback.setId(segment.getLong(offset + ID));
+        feedback.setSentiment(sentimentOf(segment.get(offset + SENTIMENT)));
+        feedback.setSentimentSource(sourceOf(segment.get(offset + SENTIMENT_SOURCE)));
+        feedback.setCreatedAt(LocalDateTime.ofEpochSecond(
+            segment.getLong(offset + CREATED_SECONDS), segment.getInt(offset + CREATED_NANOS), ZoneOffset.UTC));
+        return feedback;
+    }
+    
+    static String facultyName(ByteBuffer segment, int offset) {
+        int facultyLength = Short.toUnsignedInt(segment.getShort(offset + FACULTY_LENGTH));
+        return readString(segment, offset + HEADER_BYTES, facultyLength);
+    }
+    
+    static boolean isDeleted(ByteBuffer segment, int offset) {
+        return (segment.get(offset + FLAGS) & FLAG_DELETED) != 0;
+    }
+    
+    static byte sentimentByte(Feedback.Sentiment sentiment) {
+        return (byte) (sentiment != null ? sentiment.ordinal() + 1 : 0);
+    }
+    
+    static Feedback.Sentiment sentimentOf(byte value) {
+        return value > 0 ? Feedback.Sentiment.values()[value - 1] : null;
+    }
+    
+    static byte sourceByte(Feedback.SentimentSource source) {
+        return (byte) (source != null ? source.ordinal() + 1 : 0);
+    }
+    
+    static Feedback.SentimentSource sourceOf(byte value) {
+        return value > 0 ? Feedback.SentimentSource.values()[value - 1] : null;
+    }
+    
+    private static String readString(ByteBuffer segment, int offset, int length) {
+        byte[] bytes = new byte[length];
+        segment.get(offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    private static int checksum(ByteBuffer buffer, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(offset + ID, length - ID));
+        return (int) crc.getValue();
+    }
+}
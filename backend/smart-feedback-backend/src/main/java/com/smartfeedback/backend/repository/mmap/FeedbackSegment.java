@@ -0,0 +1,148 @@
+package com.smartfeedback.backend.repository.mmap;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// One preallocated, memory-mapped segment file of the feedback store
+final class FeedbackSegment {
+    
+    private static final String PREFIX = "segment-";
+    private static final String SUFFIX = ".dat";
+    
+    private final int number;
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private int writePosition;
+    private long deadBytes;
+    private int liveRecords;
+    
+    private FeedbackSegment(int number, Path path, FileChannel channel, MappedByteBuffer buffer) {
+        this.number = number;
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+    
+    static FeedbackSegment create(Path directory, int number, int capacity) throws IOException {
+        return map(number, fileFor(directory, number), capacity);
+    }
+    
+    static FeedbackSegment createAt(Path path, int number, int capacity) throws IOException {
+        return map(number, path, capacity);
+    }
+    
+    static FeedbackSegment open(Path path) throws IOException {
+        return map(numberOf(path), path, (int) Files.size(path));
+    }
+    
+    private static FeedbackSegment map(int number, Path path, int capacity) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        return new FeedbackSegment(number, path, channel, buffer);
+    }
+    
+    static Path fileFor(Path directory, int number) {
+        return directory.resolve(String.format("%s%08d%s", PREFIX, number, SUFFIX));
+    }
+    
+    static boolean isSegmentFile(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+    }
+    
+    private static int numberOf(Path path) {
+        String name = path.getFileName().toString();
+        return Integer.parseInt(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+    
+    int number() {
+        return number;
+    }
+    
+    Path path() {
+        return path;
+    }
+    
+    MappedByteBuffer buffer() {
+        return buffer;
+    }
+    
+    int capacity() {
+        return buffer.capacity();
+    }
+    
+    int writePosition() {
+        return writePosition;
+    }
+    
+    void setWritePosition(int writePosition) {
+        this.writePosition = writePosition;
+    }
+    
+    boolean fits(int length) {
+        // Leave room for the zero length word that terminates the segment
+        return writePosition + length + 4 <= buffer.capacity();
+    }
+    
+    int append(byte[] record) {
+        int offset = writePosition;
+        buffer.put(offset, record);
+        writePosition += record.length;
+        liveRecords++;
+        return offset;
+    }
+    
+    void force(int offset, int length) {
+        buffer.force(offset, length);
+    }
+    
+    void force() {
+        buffer.force();
+    }
+    
+    // Clears bytes left behind by a torn write so a later scan cannot misread them
+    void zeroFrom(int offset) {
+        byte[] zeros = new byte[8192];
+        for (int position = offset; position < buffer.capacity(); position += zeros.length) {
+            buffer.put(position, zeros, 0, Math.min(zeros.length, buffer.capacity() - position));
+        }
+    }
+    
+    long deadBytes() {
+        return deadBytes;
+    }
+    
+    int liveRecords() {
+        return liveRecords;
+    }
+    
+    void resetCounters() {
+        deadBytes = 0;
+        liveRecords = 0;
+    }
+    
+    void recordLive() {
+        liveRecords++;
+    }
+    
+    void recordDead(int length) {
+        deadBytes += length;
+    }
+    
+    void markDeleted(int offset) {
+        int length = buffer.getInt(offset + FeedbackRecordLayout.LENGTH);
+        buffer.put(offset + FeedbackRecordLayout.FLAGS,
+                (byte) (buffer.get(offset + FeedbackRecordLayout.FLAGS) | FeedbackRecordLayout.FLAG_DELETED));
+        deadBytes += length;
+        liveRecords--;
+    }
+    
+    void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,713 @@
+package com.smartfeedback.backend.repository.mmap;
+
+import com.smartfeedback.backend.analytics.AnalyticsAggregator;
+import com.smartfeedback.backend.analytics.AnalyticsQuery;
+import com.smartfeedback.backend.analytics.FacultyAggregate;
+import com.smartfeedback.backend.entity.Feedback;
+import com.smartfeedback.backend.repository.FeedbackStore;
+import com.smartfeedback.backend.service.NameDictionary;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Append-only feedback store built from memory-mapped segment files. Records are never
+ * moved except by compaction, so a record is addressed by (segment number, offset).
+ * A sparse id index and per-faculty postings with running aggregates are rebuilt from
+ * the segments on startup; the aggregate queries never touch the records at all.
+ */
+@Component
+@ConditionalOnProperty(name = "app.storage.engine", havingValue = "mmap")
+public class MappedFeedbackStore implements FeedbackStore {
+    
+    private static final Logger logger = LoggerFactory.getLogger(MappedFeedbackStore.class);
+    
+    @Value("${app.storage.mmap.dir:./data/feedback-store}")
+    private String storeDirectory;
+    
+    @Value("${app.storage.mmap.segment-bytes:67108864}")
+    private int segmentBytes;
+    
+    @Value("${app.storage.mmap.index-interval:64}")
+    private int indexInterval;
+    
+    @Value("${app.storage.mmap.sync-on-write:false}")
+    private boolean syncOnWrite;
+    
+    @Value("${app.storage.mmap.compaction-threshold:0.3}")
+    private double compactionThreshold;
+    
+    private interface RecordVisitor {
+        // Return false to stop the scan
+        boolean visit(int segmentNumber, ByteBuffer segment, int offset);
+    }
+    
+    private static final class FacultyIndex {
+        // The first spelling seen, as faculty names in aggregates
+        private final String displayName;
+        private long[] positions = new long[16];
+        private int size;
+        private long count;
+        private long teachingSum;
+        private long communicationSum;
+        private final long[] sentimentCounts = new long[Feedback.Sentiment.values().length];
+        
+        FacultyIndex(String displayName) {
+            this.displayName = displayName;
+        }
+        
+        void add(long position) {
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, size * 2);
+            }
+            positions[size++] = position;
+        }
+        
+        void include(ByteBuffer segment, int offset, int sign) {
+            count += sign;
+            teachingSum += sign * segment.get(offset + FeedbackRecordLayout.TEACHING_QUALITY);
+            communicationSum += sign * segment.get(offset + FeedbackRecordLayout.COMMUNICATION_SKILL);
+            countSentiment(FeedbackRecordLayout.sentimentOf(segment.get(offset + FeedbackRecordLayout.SENTIMENT)), sign);
+        }
+        
+        void countSentiment(Feedback.Sentiment sentiment, int sign) {
+            if (sentiment != null) {
+                sentimentCounts[sentiment.ordinal()] += sign;
+            }
+        }
+    }
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<Integer, FeedbackSegment> segments = new TreeMap<>();
+    // Keyed by canonical name, so spellings differing only in case or spacing share postings
+    private final Map<String, FacultyIndex> faculties = new HashMap<>();
+    // Every exact spelling stored, so records find their index without normalizing the name
+    private final Map<String, FacultyIndex> spellings = new HashMap<>();
+    private Path directory;
+    private FeedbackSegment active;
+    
+    // Sparse id index: the position of every indexInterval-th record, ids ascending
+    private long[] indexIds = new long[256];
+    private long[] indexPositions = new long[256];
+    private int indexSize;
+    private long recordOrdinal;
+    
+    private long nextId = 1;
+    private long liveCount;
+    
+    @PostConstruct
+    void open() throws IOException {
+        directory = Paths.get(storeDirectory);
+        Files.createDirectories(directory);
+        long started = System.nanoTime();
+        
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path path : files.sorted().toList()) {
+                if (path.getFileName().toString().endsWith(".compacting")) {
+                    // Leftover from an interrupted compaction; the original segment is intact
+                    Files.deleteIfExists(path);
+                } else if (FeedbackSegment.isSegmentFile(path)) {
+                    FeedbackSegment segment = FeedbackSegment.open(path);
+                    segments.put(segment.number(), segment);
+                }
+            }
+        }
+        if (segments.isEmpty()) {
+            FeedbackSegment first = FeedbackSegment.create(directory, 1, segmentBytes);
+            segments.put(first.number(), first);
+        }
+        rebuildIndexes();
+        
+        logger.info("Memory-mapped feedback store opened at {}: {} records in {} segments, recovered in {} ms",
+                directory, liveCount, segments.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+    
+    @PreDestroy
+    void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            for (FeedbackSegment segment : segments.values()) {
+                segment.force();
+                segment.close();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    @Override
+    public Feedback save(Feedback feedback) {
+        lock.writeLock().lock();
+        try {
+            if (feedback.getId() != null) {
+                updateSentiment(feedback);
+                return feedback;
+            }
+            long position = append(feedback);
+            if (syncOnWrite) {
+                FeedbackSegment segment = segments.get(segmentOf(position));
+                segment.force(offsetOf(position), segment.writePosition() - offsetOf(position));
+            }
+            return feedback;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    @Override
+    public List<Feedback> saveAll(List<Feedback> feedback) {
+        lock.writeLock().lock();
+        try {
+            int firstSegment = active.number();
+            for (Feedback item : feedback) {
+                if (item.getId() != null) {
+                    updateSentiment(item);
+                } else {
+                    append(item);
+                }
+            }
+            if (syncOnWrite) {
+                // One flush for the whole batch
+                segments.tailMap(firstSegment, true).values().forEach(FeedbackSegment::force);
+            }
+            return feedback;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    @Override
+    public Optional<Feedback> findById(Long id) {
+        lock.readLock().lock();
+        try {
+            long position = locate(id);
+            if (position < 0) {
+                return Optional.empty();
+            }
+            FeedbackSegment segment = segments.get(segmentOf(position));
+            int offset = offsetOf(position);
+            if (FeedbackRecordLayout.isDeleted(segment.buffer(), offset)) {
+                return Optional.empty();
+            }
+            return Optional.of(FeedbackRecordLayout.decode(segment.buffer(), offset));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    @Override
+    public List<Feedback> findAll() {
+        lock.readLock().lock();
+        try {
+            List<Feedback> result = new ArrayList<>((int) Math.min(liveCount, Integer.MAX_VALUE));
+            scan(position(segments.firstKey(), 0), (segmentNumber, buffer, offset) -> {
+                if (!FeedbackRecordLayout.isDeleted(buffer, offset)) {
+                    result.add(FeedbackRecordLayout.decode(buffer, offset));
+                }
+                return true;
+            });
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    @Override
+    public List<Feedback> findPageAfterId(long afterId, int limit) {
+        lock.readLock().lock();
+        try {
+            List<Feedback> result = new ArrayList<>(Math.min(limit, 1024));
+            // Ids grow with position, so the scan can start at the sparse index entry before afterId
+            int slot = afterId < Long.MAX_VALUE ? floorIndex(afterId + 1) : -1;
+            long start = slot < 0 ? position(segments.firstKey(), 0) : indexPositions[slot];
+            scan(start, (segmentNumber, buffer, offset) -> {
+                if (buffer.getLong(offset + FeedbackRecordLayout.ID) > afterId
+                        && !FeedbackRecordLayout.isDeleted(buffer, offset)) {
+                    result.add(FeedbackRecordLayout.decode(buffer, offset));
+                }
+                return result.size() < limit;
+            });
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    @Override
+    public List<Feedback> findByFacultyName(String facultyName) {
+        lock.readLock().lock();
+        try {
+            FacultyIndex index = facultyIndex(facultyName);
+            if (index == null) {
+                return new ArrayList<>();
+            }
+            List<Feedback> result = new ArrayList<>((int) index.count);
+            for (int i = 0; i < index.size; i++) {
+                long position = index.positions[i];
+                ByteBuffer buffer = segments.get(segmentOf(position)).buffer();
+                int offset = offsetOf(position);
+                if (!FeedbackRecordLayout.isDeleted(buffer, offset)) {
+                    result.add(FeedbackRecordLayout.decode(buffer, offset));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    @Override
+    public Double findAverageTeachingQualityByFacultyName(String facultyName) {
+        lock.readLock().lock();
+        try {
+            FacultyIndex index = facultyIndex(facultyName);
+            return index == null || index.count == 0 ? null : (double) index.teachingSum / index.count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    @Override
+    public Double findAverageCommunicationSkillByFacultyName(String facultyName) {
+        lock.readLock().lock();
+        try {
+            FacultyIndex index = facultyIndex(facultyName);
+            return index == null || index.count == 0 ? null : (double) index.communicationSum / index.count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    @Override
+    public Long countByFacultyNameAndSentiment(String facultyName, Feedback.Sentiment sentiment) {
+        lock.readLock().lock();
+        try {
+            FacultyIndex index = facultyIndex(facultyName);
+            return index == null ? 0L : index.sentimentCounts[sentiment.ordinal()];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    @Override
+    public Long countByFacultyName(String facultyName) {
+        lock.readLock().lock();
+        try {
+            FacultyIndex index = facultyIndex(facultyName);
+            return index == null ? 0L : index.count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    // Straight from the per-faculty index; no records are read
+    @Override
+    public List<FacultyAggregate> aggregateByFaculty() {
+        lock.readLock().lock();
+        try {
+            List<FacultyAggregate> result = new ArrayList<>(faculties.size());
+            faculties.values().forEach(index -> {
+                if (index.count == 0) {
+                    return;
+                }
+                FacultyAggregate aggregate = new FacultyAggregate(index.displayName);
+                long classified = 0;
+                for (Feedback.Sentiment sentiment : Feedback.Sentiment.values()) {
+                    long rows = index.sentimentCounts[sentiment.ordinal()];
+                    aggregate.add(sentiment, rows, 0, 0);
+                    classified += rows;
+                }
+                aggregate.add(null, index.count - classified, index.teachingSum, index.communicationSum);
+                result.add(aggregate);
+            });
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    // Reads only the record headers and faculty names; a faculty filter walks just those postings
+    @Override
+    public AnalyticsAggregator aggregate(AnalyticsQuery query) {
+        lock.readLock().lock();
+        try {
+            AnalyticsAggregator aggregator = new AnalyticsAggregator(query);
+            if (query.faculties().isEmpty()) {
+                scan(position(segments.firstKey(), 0), (segmentNumber, buffer, offset) -> {
+                    if (!FeedbackRecordLayout.isDeleted(buffer, offset)) {
+                        FacultyIndex index = spellings.get(FeedbackRecordLayout.facultyName(buffer, offset));
+                        aggregate(query, aggregator, buffer, offset, index.displayName);
+                    }
+                    return true;
+                });
+                return aggregator;
+            }
+            // The postings already select the faculties, whichever spelling the filter used
+            AnalyticsQuery unfiltered = new AnalyticsQuery(query.groupBy(), query.bucket(), Set.of(), query.sentiments(),
+                    query.from(), query.to());
+            Set<FacultyIndex> selected = new LinkedHashSet<>();
+            for (String facultyName : query.faculties()) {
+                FacultyIndex index = facultyIndex(facultyName);
+                if (index != null) {
+                    selected.add(index);
+                }
+            }
+            for (FacultyIndex index : selected) {
+                for (int i = 0; i < index.size; i++) {
+                    long position = index.positions[i];
+                    aggregate(unfiltered, aggregator, segments.get(segmentOf(position)).buffer(), offsetOf(position),
+                            index.displayName);
+                }
+            }
+            return aggregator;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private static void aggregate(AnalyticsQuery query, AnalyticsAggregator aggregator, ByteBuffer buffer, int offset,
+                                  String facultyName) {
+        if (FeedbackRecordLayout.isDeleted(buffer, offset)) {
+            return;
+        }
+        Feedback.Sentiment sentiment = FeedbackRecordLayout.sentimentOf(buffer.get(offset + FeedbackRecordLayout.SENTIMENT));
+        LocalDateTime createdAt = LocalDateTime.ofEpochSecond(buffer.getLong(offset + FeedbackRecordLayout.CREATED_SECONDS),
+                buffer.getInt(offset + FeedbackRecordLayout.CREATED_NANOS), ZoneOffset.UTC);
+        if (query.matches(facultyName, sentiment, createdAt)) {
+            aggregator.add(facultyName, sentiment, buffer.get(offset + FeedbackRecordLayout.TEACHING_QUALITY),
+                    buffer.get(offset + FeedbackRecordLayout.COMMUNICATION_SKILL), createdAt.toLocalDate());
+        }
+    }
+    
+    @Override
+    public long count() {
+        lock.readLock().lock();
+        try {
+            return liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    @Override
+    public void deleteById(Long id) {
+        lock.writeLock().lock();
+        try {
+            long position = locate(id);
+            if (position < 0) {
+                return;
+            }
+            FeedbackSegment segment = segments.get(segmentOf(position));
+            int offset = offsetOf(position);
+            ByteBuffer buffer = segment.buffer();
+            if (FeedbackRecordLayout.isDeleted(buffer, offset)) {
+                return;
+            }
+            spellings.get(FeedbackRecordLayout.facultyName(buffer, offset)).include(buffer, offset, -1);
+            segment.markDeleted(offset);
+            liveCount--;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    @Override
+    public void updateSentiments(Map<Long, Feedback.Sentiment> sentiments, Feedback.SentimentSource source) {
+        lock.writeLock().lock();
+        try {
+            sentiments.forEach((id, sentiment) -> {
+                Feedback feedback = new Feedback();
+                feedback.setId(id);
+                feedback.setSentiment(sentiment);
+                feedback.setSentimentSource(source);
+                try {
+                    updateSentiment(feedback);
+                } catch (IllegalArgumentException e) {
+                    // Deleted since it was read
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Rewrites sealed segments whose deleted share exceeds the threshold and drops
+     * segments with no live records left, then rebuilds the in-memory indexes.
+     */
+    @Scheduled(fixedDelayString = "${app.storage.mmap.compaction-interval-ms:600000}")
+    public void compact() {
+        lock.writeLock().lock();
+        try {
+            int compacted = 0;
+            for (FeedbackSegment segment : new ArrayList<>(segments.values())) {
+                if (segment == active || segment.deadBytes() == 0) {
+                    continue;
+                }
+                if ((double) segment.deadBytes() / segment.writePosition() < compactionThreshold) {
+                    continue;
+                }
+                if (segment.liveRecords() == 0) {
+                    segment.close();
+                    Files.deleteIfExists(segment.path());
+                    segments.remove(segment.number());
+                } else {
+                    segments.put(segment.number(), rewrite(segment));
+                }
+                compacted++;
+            }
+            if (compacted > 0) {
+                rebuildIndexes();
+                logger.info("Compacted {} feedback store segments", compacted);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    private FeedbackSegment rewrite(FeedbackSegment segment) throws IOException {
+        ByteBuffer source = segment.buffer();
+        List<byte[]> live = new ArrayList<>(segment.liveRecords());
+        int liveBytes = 0;
+        for (int offset = 0; offset < segment.writePosition(); ) {
+            int length = source.getInt(offset + FeedbackRecordLayout.LENGTH);
+            if (!FeedbackRecordLayout.isDeleted(source, offset)) {
+                byte[] record = new byte[length];
+                source.get(offset, record);
+                live.add(record);
+                liveBytes += length;
+            }
+            offset += length;
+        }
+        
+        Path target = segment.path();
+        Path staging = target.resolveSibling(target.getFileName() + ".compacting");
+        FeedbackSegment copy = FeedbackSegment.createAt(staging, segment.number(), liveBytes + 4);
+        live.forEach(copy::append);
+        copy.force();
+        copy.close();
+        segment.close();
+        Files.move(staging, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return FeedbackSegment.open(target);
+    }
+    
+    // Caller holds the write lock
+    private long append(Feedback feedback) {
+        if (feedback.getCreatedAt() == null) {
+            feedback.setCreatedAt(LocalDateTime.now());
+        }
+        feedback.setId(nextId++);
+        byte[] record = FeedbackRecordLayout.encode(feedback);
+        if (record.length + 4 > segmentBytes) {
+            throw new IllegalArgumentException("Feedback record of " + record.length + " bytes exceeds the segment size");
+        }
+        if (!active.fits(record.length)) {
+            roll();
+        }
+        int offset = active.append(record);
+        long position = position(active.number(), offset);
+        indexRecord(feedback.getId(), position);
+        FacultyIndex index = indexFor(feedback.getFacultyName());
+        index.add(position);
+        index.include(active.buffer(), offset, 1);
+        liveCount++;
+        return position;
+    }
+    
+    // Caller holds the write lock
+    private void updateSentiment(Feedback feedback) {
+        long position = locate(feedback.getId());
+        FeedbackSegment segment = position < 0 ? null : segments.get(segmentOf(position));
+        int offset = offsetOf(position);
+        if (segment == null || FeedbackRecordLayout.isDeleted(segment.buffer(), offset)) {
+            throw new IllegalArgumentException("Feedback not found: " + feedback.getId());
+        }
+        ByteBuffer buffer = segment.buffer();
+        Feedback.Sentiment previous = FeedbackRecordLayout.sentimentOf(buffer.get(offset + FeedbackRecordLayout.SENTIMENT));
+        byte source = FeedbackRecordLayout.sourceByte(feedback.getSentimentSource());
+        if (previous == feedback.getSentiment() && buffer.get(offset + FeedbackRecordLayout.SENTIMENT_SOURCE) == source) {
+            return;
+        }
+        buffer.put(offset + FeedbackRecordLayout.SENTIMENT, FeedbackRecordLayout.sentimentByte(feedback.getSentiment()));
+        buffer.put(offset + FeedbackRecordLayout.SENTIMENT_SOURCE, source);
+        if (previous != feedback.getSentiment()) {
+            FacultyIndex index = spellings.get(FeedbackRecordLayout.facultyName(buffer, offset));
+            index.countSentiment(previous, -1);
+            index.countSentiment(feedback.getSentiment(), 1);
+        }
+        if (syncOnWrite) {
+            segment.force(offset, FeedbackRecordLayout.HEADER_BYTES);
+        }
+    }
+    
+    // Caller holds the write lock
+    private FacultyIndex indexFor(String facultyName) {
+        return spellings.computeIfAbsent(facultyName, spelling -> faculties.computeIfAbsent(
+                NameDictionary.canonicalize(spelling), k -> new FacultyIndex(NameDictionary.displayForm(spelling))));
+    }
+    
+    // Caller holds a lock
+    private FacultyIndex facultyIndex(String facultyName) {
+        FacultyIndex index = spellings.get(facultyName);
+        return index != null ? index : faculties.get(NameDictionary.canonicalize(facultyName));
+    }
+    
+    private void roll() {
+        try {
+            active.force();
+            FeedbackSegment next = FeedbackSegment.create(directory, active.number() + 1, segmentBytes);
+            segments.put(next.number(), next);
+            active = next;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    // Position of the record with this id, or -1
+    private long locate(long id) {
+        int slot = floorIndex(id);
+        if (slot < 0) {
+            return -1;
+        }
+        long[] found = {-1};
+        scan(indexPositions[slot], (segmentNumber, buffer, offset) -> {
+            long recordId = buffer.getLong(offset + FeedbackRecordLayout.ID);
+            if (recordId == id) {
+                found[0] = position(segmentNumber, offset);
+            }
+            return recordId < id;
+        });
+        return found[0];
+    }
+    
+    private void scan(long start, RecordVisitor visitor) {
+        int offset = offsetOf(start);
+        for (FeedbackSegment segment : segments.tailMap(segmentOf(start), true).values()) {
+            ByteBuffer buffer = segment.buffer();
+            while (offset < segment.writePosition()) {
+                if (!visitor.visit(segment.number(), buffer, offset)) {
+                    return;
+                }
+                offset += buffer.getInt(offset + FeedbackRecordLayout.LENGTH);
+            }
+            offset = 0;
+        }
+    }
+    
+    private int floorIndex(long id) {
+        int low = 0;
+        int high = indexSize - 1;
+        int result = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (indexIds[mid] <= id) {
+                result = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return result;
+    }
+    
+    private void indexRecord(long id, long position) {
+        if (recordOrdinal++ % indexInterval != 0) {
+            return;
+        }
+        if (indexSize == indexIds.length) {
+            indexIds = Arrays.copyOf(indexIds, indexSize * 2);
+            indexPositions = Arrays.copyOf(indexPositions, indexSize * 2);
+        }
+        indexIds[indexSize] = id;
+        indexPositions[indexSize] = position;
+        indexSize++;
+    }
+    
+    // Caller holds the write lock (or is opening the store)
+    private void rebuildIndexes() {
+        faculties.clear();
+        spellings.clear();
+        indexSize = 0;
+        recordOrdinal = 0;
+        liveCount = 0;
+        long maxId = 0;
+        
+        for (FeedbackSegment segment : segments.values()) {
+            ByteBuffer buffer = segment.buffer();
+            boolean last = segment.number() == segments.lastKey();
+            int offset = 0;
+            segment.resetCounters();
+            while (offset + 4 <= segment.capacity() && buffer.getInt(offset) != 0) {
+                if (!FeedbackRecordLayout.isValid(buffer, offset, segment.capacity())) {
+                    if (last) {
+                        logger.warn("Discarding torn feedback record at {} offset {}", segment.path().getFileName(), offset);
+                        segment.zeroFrom(offset);
+                    } else {
+                        logger.error("Corrupt feedback record at {} offset {}; ignoring the rest of the segment",
+                                segment.path().getFileName(), offset);
+                    }
+                    break;
+                }
+                int length = buffer.getInt(offset + FeedbackRecordLayout.LENGTH);
+                long id = buffer.getLong(offset + FeedbackRecordLayout.ID);
+                long position = position(segment.number(), offset);
+                maxId = Math.max(maxId, id);
+                indexRecord(id, position);
+                if (FeedbackRecordLayout.isDeleted(buffer, offset)) {
+                    segment.recordDead(length);
+                } else {
+                    segment.recordLive();
+                    FacultyIndex index = indexFor(FeedbackRecordLayout.facultyName(buffer, offset));
+                    index.add(position);
+                    index.include(buffer, offset, 1);
+                    liveCount++;
+                }
+                offset += length;
+            }
+            segment.setWritePosition(offset);
+        }
+        
+        nextId = Math.max(nextId, maxId + 1);
+        active = segments.lastEntry().getValue();
+    }
+    
+    private static long position(int segment, int offset) {
+        return ((long) segment << 32) | (offset & 0xFFFFFFFFL);
+    }
+    
+    private static int segmentOf(long position) {
+        return (int) (position >>> 32);
+    }
+    
+    private static int offsetOf(long position) {
+        return (int) position;
+    }
+}
@@ -0,0 +1,60 @@
+package com.smartfeedback.backend.service;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * The academic calendar as a list of months in which a term starts. Shared by report
+ * retention, which keeps one report per past term, and feedback archival, which moves
+ * whole past terms out of the hot table.
+ */
+public class AcademicTerms {
+    
+    // Months (1-12) in which a term starts, ascending
+    private final int[] termStartMonths;
+    
+    public AcademicTerms(int[] termStartMonths) {
+        if (termStartMonths.length == 0) {
+            throw new IllegalArgumentException("At least one term start month is required");
+        }
+        this.termStartMonths = termStartMonths.clone();
+        Arrays.sort(this.termStartMonths);
+    }
+    
+    // Parses a comma-separated month list such as "1,8"
+    public static AcademicTerms parse(String months) {
+        return new AcademicTerms(Arrays.stream(months.split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray());
+    }
+    
+    public LocalDate termStart(LocalDate date) {
+        for (int i = termStartMonths.length - 1; i >= 0; i--) {
+            if (termStartMonths[i] <= date.getMonthValue()) {
+                return LocalDate.of(date.getYear(), termStartMonths[i], 1);
+            }
+        }
+        // Before the first term start of the year: still in last year's final term
+        return LocalDate.of(date.getYear() - 1, termStartMonths[termStartMonths.length - 1], 1);
+    }
+    
+    // Start of the term terms before the one containing date; 0 is that term itself
+    public LocalDate termStart(LocalDate date, int termsBack) {
+        LocalDate start = termStart(date);
+        for (int i = 0; i < termsBack; i++) {
+            start = termStart(start.minusDays(1));
+        }
+        return start;
+    }
+    
+    // Start of the term after the one containing date
+    public LocalDate nextTermStart(LocalDate date) {
+        LocalDate current = termStart(date);
+        LocalDate next = current.plusMonths(1);
+        while (termStart(next).equals(current)) {
+            next = next.plusMonths(1);
+        }
+        return next;
+    }
+}
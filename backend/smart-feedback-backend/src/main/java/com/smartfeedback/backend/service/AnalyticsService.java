@@ -0,0 +1,136 @@
+package com.smartfeedback.backend.service;
+
+import com.smartfeedback.backend.analytics.AnalyticsAggregator;
+import com.smartfeedback.backend.analytics.AnalyticsQuery;
+import com.smartfeedback.backend.analytics.ColumnarAnalyticsCache;
+import com.smartfeedback.backend.dto.AnalyticsResponse;
+import com.smartfeedback.backend.entity.Feedback;
+import com.smartfeedback.backend.repository.FeedbackStore;
+import com.smartfeedback.backend.tenant.TenantContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group-by aggregates over feedback for dashboards. Answered from the columnar cache when
+ * it is enabled, otherwise by the {@link FeedbackStore} of the configured storage engine.
+ * Results are cached for a few seconds in a small LRU map, and capped at max-rows groups.
+ */
+@Service
+public class AnalyticsService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AnalyticsService.class);
+    
+    @Value("${app.analytics.query.cache-ttl-ms:10000}")
+    private long cacheTtlMs;
+    
+    @Value("${app.analytics.query.cache-max-entries:100}")
+    private int cacheMaxEntries;
+    
+    @Value("${app.analytics.query.max-rows:1000}")
+    private int maxRows;
+    
+    @Autowired
+    private FeedbackStore feedbackStore;
+    
+    @Autowired
+    private NameDictionary nameDictionary;
+    
+    // Present only when app.analytics.columnar.enabled=true
+    @Autowired(required = false)
+    private ColumnarAnalyticsCache columnarAnalyticsCache;
+    
+    private record CacheKey(String tenant, AnalyticsQuery query) {}
+    
+    private record CachedResult(AnalyticsResponse response, long expiresAtNanos) {}
+    
+    // Access-ordered, so the least recently used query is evicted first
+    private final Map<CacheKey, CachedResult> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<CacheKey, CachedResult> eldest) {
+            return size() > cacheMaxEntries;
+        }
+    };
+    
+    @Transactional(readOnly = true)
+    public AnalyticsResponse query(String groupBy, String bucket, List<String> faculties, List<String> sentiments,
+                                   LocalDateTime from, LocalDateTime to) {
+        // Case and spacing variants of a faculty name share one cache entry
+        List<String> resolved = null;
+        if (faculties != null) {
+            resolved = new ArrayList<>();
+            for (String faculty : faculties) {
+                resolved.add(nameDictionary.resolveDisplayName(NameDictionary.Dimension.FACULTY, faculty));
+            }
+        }
+        AnalyticsQuery query;
+        try {
+            query = AnalyticsQuery.parse(groupBy, bucket, resolved, sentiments, from, to);
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException(e.getMessage());
+        }
+        
+        CacheKey key = new CacheKey(TenantContext.current(), query);
+        long now = System.nanoTime();
+        synchronized (cache) {
+            CachedResult cached = cache.get(key);
+            if (cached != null && now - cached.expiresAtNanos() < 0) {
+                return cached.response();
+            }
+        }
+        
+        long started = System.nanoTime();
+        AnalyticsAggregator aggregator = columnarAnalyticsCache != null ? fromColumns(query) : feedbackStore.aggregate(query);
+        AnalyticsResponse response = new AnalyticsResponse();
+        response.setGroupBy(query.groupBy().stream().map(AnalyticsQuery.Dimension::parameter).toList());
+        response.setBucket(query.bucket() != null ? query.bucket().name().toLowerCase() : null);
+        response.setRows(aggregator.rows(maxRows));
+        response.setTotalGroups(aggregator.groupCount());
+        response.setTruncated(aggregator.groupCount() > maxRows);
+        response.setGeneratedAt(LocalDateTime.now());
+        logger.debug("Analytics query {} answered with {} groups in {} ms",
+                query, aggregator.groupCount(), (System.nanoTime() - started) / 1_000_000);
+        
+        synchronized (cache) {
+            cache.put(key, new CachedResult(response, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(cacheTtlMs)));
+        }
+        return response;
+    }
+    
+    private AnalyticsAggregator fromColumns(AnalyticsQuery query) {
+        AnalyticsAggregator aggregator = new AnalyticsAggregator(query);
+        long lower = query.from() != null ? query.from().toInstant(ZoneOffset.UTC).toEpochMilli() : Long.MIN_VALUE;
+        long upper = query.to() != null ? query.to().toInstant(ZoneOffset.UTC).toEpochMilli() : Long.MAX_VALUE;
+        boolean byTime = query.groupsBy(AnalyticsQuery.Dimension.TIME);
+        Set<Feedback.Sentiment> sentiments = query.sentiments();
+        
+        columnarAnalyticsCache.getAll().forEach((faculty, columns) -> {
+            if (!query.faculties().isEmpty() && !query.faculties().contains(faculty)) {
+                return;
+            }
+            columns.forEachRow((createdAt, teachingQuality, communicationSkill, sentiment) -> {
+                if (createdAt < lower || createdAt >= upper
+                        || (!sentiments.isEmpty() && !sentiments.contains(sentiment))) {
+                    return;
+                }
+                LocalDate day = byTime ? LocalDate.ofInstant(Instant.ofEpochMilli(createdAt), ZoneOffset.UTC) : null;
+                aggregator.add(faculty, sentiment, teachingQuality, communicationSkill, day);
+            });
+        });
+        return aggregator;
+    }
+}
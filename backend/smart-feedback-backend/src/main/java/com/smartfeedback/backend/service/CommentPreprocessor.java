@@ -0,0 +1,148 @@
+package com.smartfeedback.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Prepares a comment for classification: Unicode and whitespace normalization, PII
+ * redaction (the submitting student's name, e-mail addresses, URLs, phone and id numbers)
+ * and head/tail truncation to a token budget. Comments with no words at all are labelled
+ * here without a gateway call.
+ */
+@Component
+public class CommentPreprocessor {
+    
+    // Rough token estimate for English text; good enough to bound prompt size
+    private static final int CHARS_PER_TOKEN = 4;
+    private static final String ELLIPSIS = " … ";
+    
+    private static final Pattern CONTROL = Pattern.compile("[\\p{Cc}\\p{Cf}&&[^\\n\\t\\u200D]]");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern EMAIL = Pattern.compile("[\\w.+-]+@[\\w-]+(\\.[\\w-]+)+");
+    private static final Pattern URL = Pattern.compile("(?i)\\b(https?://|www\\.)\\S+");
+    private static final Pattern PHONE = Pattern.compile("\\+?\\d[\\d\\s().-]{7,}\\d");
+    private static final Pattern ID_NUMBER = Pattern.compile("\\b[A-Za-z]{0,4}\\d{6,}\\b");
+    private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{N}]");
+    
+    private static final List<String> POSITIVE_EMOJI = Arrays.asList(
+        "👍", "👏", "🙌", "😀", "😃", "😄", "😁", "😊", "🙂", "😍", "🥰", "❤", "💯", "🔥", "⭐", "🌟", "✅");
+    private static final List<String> NEGATIVE_EMOJI = Arrays.asList(
+        "👎", "😞", "😟", "😠", "😡", "😢", "😭", "☹", "🙁", "😩", "😫", "💩", "❌", "😴", "🤬");
+    
+    @Value("${ai.gateway.preprocess.max-tokens:256}")
+    private int maxTokens;
+    
+    // Share of the budget kept from the start of the comment; the rest comes from the end
+    @Value("${ai.gateway.preprocess.head-ratio:0.6}")
+    private double headRatio;
+    
+    /**
+     * Result of preprocessing: either text to send to the gateway, or a label decided
+     * locally (localLabel non-null), in which case text is unused.
+     */
+    public record PreparedComment(String text, String localLabel, boolean truncated) {}
+    
+    public PreparedComment prepare(String comment, String studentName) {
+        String text = normalize(comment);
+        if (text.isEmpty()) {
+            return new PreparedComment(text, "Neutral", false);
+        }
+        if (!WORD.matcher(text).find()) {
+            return new PreparedComment(text, labelSymbols(text), false);
+        }
+        text = redact(text, studentName);
+        int maxChars = maxTokens * CHARS_PER_TOKEN;
+        if (text.length() <= maxChars) {
+            return new PreparedComment(text, null, false);
+        }
+        return new PreparedComment(truncate(text, maxChars), null, true);
+    }
+    
+    static String normalize(String comment) {
+        if (comment == null) {
+            return "";
+        }
+        String text = Normalizer.normalize(comment, Normalizer.Form.NFKC);
+        text = CONTROL.matcher(text).replaceAll("");
+        return WHITESPACE.matcher(text).replaceAll(" ").trim();
+    }
+    
+    static String redact(String text, String studentName) {
+        text = EMAIL.matcher(text).replaceAll("[email]");
+        text = URL.matcher(text).replaceAll("[link]");
+        text = ID_NUMBER.matcher(text).replaceAll("[id]");
+        text = PHONE.matcher(text).replaceAll("[phone]");
+        if (studentName != null) {
+            for (String part : namePartsLongestFirst(studentName)) {
+                Pattern name = Pattern.compile("(?iu)(?<![\\p{L}\\p{N}])" + Pattern.quote(part) + "(?![\\p{L}\\p{N}])");
+                text = name.matcher(text).replaceAll(Matcher.quoteReplacement("[name]"));
+            }
+        }
+        return text;
+    }
+    
+    // Full name first so "Jane Doe" becomes one [name] rather than two
+    private static List<String> namePartsLongestFirst(String studentName) {
+        String full = normalize(studentName);
+        List<String> parts = new ArrayList<>();
+        if (full.length() >= 2) {
+            parts.add(full);
+        }
+        for (String part : full.split(" ")) {
+            // Skip initials and particles that would also match ordinary words
+            if (part.length() >= 3 && !parts.contains(part)) {
+                parts.add(part);
+            }
+        }
+        return parts;
+    }
+    
+    /**
+     * Keeps the opening and closing of an over-long comment, where students tend to state
+     * their overall verdict, and drops the middle. Cuts fall on word boundaries.
+     */
+    String truncate(String text, int maxChars) {
+        int budget = maxChars - ELLIPSIS.length();
+        int headChars = (int) (budget * headRatio);
+        int tailChars = budget - headChars;
+        
+        int headEnd = text.lastIndexOf(' ', headChars);
+        if (headEnd <= 0) {
+            headEnd = headChars;
+        }
+        int tailStart = text.indexOf(' ', text.length() - tailChars);
+        if (tailStart < 0 || tailStart <= headEnd) {
+            tailStart = text.length() - tailChars;
+        }
+        return text.substring(0, headEnd).trim() + ELLIPSIS + text.substring(tailStart).trim();
+    }
+    
+    static String labelSymbols(String text) {
+        int positive = count(text, POSITIVE_EMOJI);
+        int negative = count(text, NEGATIVE_EMOJI);
+        if (positive > negative) {
+            return "Positive";
+        }
+        if (negative > positive) {
+            return "Negative";
+        }
+        return "Neutral";
+    }
+    
+    private static int count(String text, List<String> symbols) {
+        int total = 0;
+        for (String symbol : symbols) {
+            for (int i = text.indexOf(symbol); i >= 0; i = text.indexOf(symbol, i + symbol.length())) {
+                total++;
+            }
+        }
+        return total;
+    }
+}
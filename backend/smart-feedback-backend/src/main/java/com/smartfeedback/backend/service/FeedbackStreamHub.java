@@ -0,0 +1,289 @@
+package com.smartfeedback.backend.service;
+
+import com.smartfeedback.backend.dto.FeedbackStreamEvent;
+import com.smartfeedback.backend.entity.Feedback;
+import com.smartfeedback.backend.entity.Report;
+import com.smartfeedback.backend.event.FeedbackSubmittedEvent;
+import com.smartfeedback.backend.event.ReportGeneratedEvent;
+import com.smartfeedback.backend.event.SentimentAlertEvent;
+import com.smartfeedback.backend.event.SentimentUpdatedEvent;
+import com.smartfeedback.backend.tenant.TenantContext;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fan-out hub for the dashboard live feed. Each subscriber owns a bounded buffer
+ * that is drained by a small shared dispatcher pool, so idle connections hold no thread.
+ */
+@Service
+public class FeedbackStreamHub {
+    
+    private static final Logger logger = LoggerFactory.getLogger(FeedbackStreamHub.class);
+    
+    // Subscription key for admin dashboards that follow every faculty
+    private static final String ALL_FACULTIES = "*";
+    
+    @Value("${app.stream.buffer-size:64}")
+    private int bufferSize;
+    
+    @Value("${app.stream.max-subscribers:5000}")
+    private int maxSubscribers;
+    
+    @Value("${app.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+    
+    @Value("${app.stream.dispatch-threads:4}")
+    private int dispatchThreads;
+    
+    // disconnect: close a subscriber whose buffer is full; drop-oldest: discard its oldest event
+    @Value("${app.stream.slow-consumer-policy:disconnect}")
+    private String slowConsumerPolicy;
+    
+    private final Map<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final AtomicLong droppedEvents = new AtomicLong();
+    private final AtomicLong disconnectedSlowConsumers = new AtomicLong();
+    private final AtomicLong eventSequence = new AtomicLong();
+    
+    private ExecutorService dispatcher;
+    private boolean dropOldest;
+    
+    @PostConstruct
+    void start() {
+        AtomicInteger threadIndex = new AtomicInteger();
+        dispatcher = Executors.newFixedThreadPool(Math.max(1, dispatchThreads), runnable -> {
+            Thread thread = new Thread(runnable, "feedback-stream-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        dropOldest = "drop-oldest".equalsIgnoreCase(slowConsumerPolicy.trim());
+    }
+    
+    @PreDestroy
+    void stop() {
+        subscribers.values().forEach(set -> set.forEach(Subscriber::close));
+        subscribers.clear();
+        dispatcher.shutdownNow();
+    }
+    
+    public SseEmitter subscribe(String facultyName) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new RuntimeException("Too many live feed subscribers");
+        }
+        
+        String key = subscriptionKey(facultyName);
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(key, emitter, bufferSize);
+        // Inside compute, so a concurrent remove cannot drop the set this subscriber just joined
+        subscribers.compute(key, (k, set) -> {
+            Set<Subscriber> target = set != null ? set : ConcurrentHashMap.newKeySet();
+            target.add(subscriber);
+            return target;
+        });
+        
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+        
+        logger.debug("Live feed subscriber added for {}", key);
+        return emitter;
+    }
+    
+    @EventListener
+    public void onFeedbackSubmitted(FeedbackSubmittedEvent event) {
+        Feedback feedback = event.getFeedback();
+        FeedbackStreamEvent payload = new FeedbackStreamEvent(FeedbackStreamEvent.FEEDBACK, feedback.getFacultyName());
+        payload.setFeedbackId(feedback.getId());
+        payload.setTeachingQuality(feedback.getTeachingQuality());
+        payload.setCommunicationSkill(feedback.getCommunicationSkill());
+        payload.setSentiment(feedback.getSentiment() != null ? feedback.getSentiment().name() : null);
+        publish(payload);
+    }
+    
+    @EventListener
+    public void onSentimentUpdated(SentimentUpdatedEvent event) {
+        FeedbackStreamEvent payload = new FeedbackStreamEvent(FeedbackStreamEvent.SENTIMENT, event.getFacultyName());
+        payload.setFeedbackId(event.getFeedbackId());
+        payload.setSentiment(event.getSentiment().name());
+        publish(payload);
+    }
+    
+    @EventListener
+    public void onReportGenerated(ReportGeneratedEvent event) {
+        Report report = event.getReport();
+        FeedbackStreamEvent payload = new FeedbackStreamEvent(FeedbackStreamEvent.REPORT, report.getFacultyName());
+        payload.setReportId(report.getId());
+        publish(payload);
+    }
+    
+    @EventListener
+    public void onSentimentAlert(SentimentAlertEvent event) {
+        FeedbackStreamEvent payload = new FeedbackStreamEvent(FeedbackStreamEvent.ALERT, event.getAlert().getFacultyName());
+        payload.setAlertStatus(event.getAlert().getStatus());
+        publish(payload);
+    }
+    
+    public void publish(FeedbackStreamEvent payload) {
+        if (subscriberCount.get() == 0) {
+            return;
+        }
+        // Built once and shared by every subscriber
+        Set<ResponseBodyEmitter.DataWithMediaType> frame = SseEmitter.event()
+                .id(Long.toString(eventSequence.incrementAndGet()))
+                .name(payload.getType())
+                .data(payload)
+                .build();
+        deliver(subscribers.get(subscriptionKey(payload.getFacultyName())), frame);
+        deliver(subscribers.get(subscriptionKey(null)), frame);
+    }
+    
+    // Comment frames keep proxies from closing idle connections and flush out dead clients
+    @Scheduled(fixedDelayString = "${app.stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        if (subscriberCount.get() == 0) {
+            return;
+        }
+        Set<ResponseBodyEmitter.DataWithMediaType> frame = SseEmitter.event().comment("keepalive").build();
+        subscribers.values().forEach(set -> deliver(set, frame));
+    }
+    
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("subscribers", subscriberCount.get());
+        stats.put("facultyChannels", subscribers.size());
+        stats.put("droppedEvents", droppedEvents.get());
+        stats.put("disconnectedSlowConsumers", disconnectedSlowConsumers.get());
+        stats.put("slowConsumerPolicy", dropOldest ? "drop-oldest" : "disconnect");
+        return stats;
+    }
+    
+    private void deliver(Set<Subscriber> targets, Set<ResponseBodyEmitter.DataWithMediaType> frame) {
+        if (targets == null) {
+            return;
+        }
+        for (Subscriber subscriber : targets) {
+            if (subscriber.enqueue(frame)) {
+                subscriber.scheduleDrain();
+            }
+        }
+    }
+    
+    // Removal and dropping the emptied set happen atomically with subscribe for the same key
+    private void remove(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.key, (key, set) -> {
+            if (set.remove(subscriber)) {
+                subscriberCount.decrementAndGet();
+            }
+            return set.isEmpty() ? null : set;
+        });
+    }
+    
+    // Scoped to the current tenant, so subscribers only see their own institution
+    private static String subscriptionKey(String facultyName) {
+        String tenant = TenantContext.current() + "|";
+        if (facultyName == null || facultyName.trim().isEmpty()) {
+            return tenant + ALL_FACULTIES;
+        }
+        return tenant + facultyName.trim().toLowerCase(Locale.ROOT);
+    }
+    
+    private final class Subscriber {
+        
+        private final String key;
+        private final SseEmitter emitter;
+        private final ArrayBlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+        
+        Subscriber(String key, SseEmitter emitter, int capacity) {
+            this.key = key;
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        }
+        
+        boolean enqueue(Set<ResponseBodyEmitter.DataWithMediaType> frame) {
+            if (closed) {
+                return false;
+            }
+            if (buffer.offer(frame)) {
+                return true;
+            }
+            if (!dropOldest) {
+                disconnectedSlowConsumers.incrementAndGet();
+                logger.warn("Disconnecting slow live feed subscriber for {}", key);
+                close();
+                return false;
+            }
+            // Make room by discarding the oldest frame; retry once in case a drain raced us
+            if (buffer.poll() != null) {
+                droppedEvents.incrementAndGet();
+            }
+            if (!buffer.offer(frame)) {
+                droppedEvents.incrementAndGet();
+            }
+            return true;
+        }
+        
+        void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    dispatcher.execute(this::drain);
+                } catch (RuntimeException e) {
+                    draining.set(false);
+                }
+            }
+        }
+        
+        private void drain() {
+            do {
+                Set<ResponseBodyEmitter.DataWithMediaType> frame;
+                while (!closed && (frame = buffer.poll()) != null) {
+                    try {
+                        emitter.send(frame);
+                    } catch (IOException | IllegalStateException e) {
+                        logger.debug("Live feed subscriber for {} went away: {}", key, e.getMessage());
+                        close();
+                    }
+                }
+                draining.set(false);
+                // A frame may have been queued after the last poll but before the flag was cleared
+            } while (!closed && !buffer.isEmpty() && draining.compareAndSet(false, true));
+        }
+        
+        void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            buffer.clear();
+            remove(this);
+            try {
+                emitter.complete();
+            } catch (RuntimeException ignored) {
+                // Connection already gone
+            }
+        }
+    }
+}
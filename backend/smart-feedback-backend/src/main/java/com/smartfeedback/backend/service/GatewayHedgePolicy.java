@@ -0,0 +1,132 @@
+package com.smartfeedback.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides when a duplicate gateway request is sent. The delay is the configured percentile
+ * of recent primary-call latencies, and a credit budget keeps hedges to at most max-rate of
+ * all calls. Counters under sentiment.gateway.hedge.* record how often hedges were sent,
+ * skipped for budget, and answered first.
+ */
+@Component
+public class GatewayHedgePolicy {
+    
+    private static final int WINDOW = 512;
+    private static final int RECOMPUTE_EVERY = 32;
+    
+    @Value("${ai.gateway.hedge.enabled:false}")
+    private boolean enabled;
+    
+    @Value("${ai.gateway.hedge.percentile:0.95}")
+    private double percentile;
+    
+    @Value("${ai.gateway.hedge.initial-delay-ms:800}")
+    private long initialDelayMs;
+    
+    @Value("${ai.gateway.hedge.min-delay-ms:50}")
+    private long minDelayMs;
+    
+    @Value("${ai.gateway.hedge.max-delay-ms:3000}")
+    private long maxDelayMs;
+    
+    @Value("${ai.gateway.hedge.min-samples:50}")
+    private int minSamples;
+    
+    @Value("${ai.gateway.hedge.max-rate:0.05}")
+    private double maxRate;
+    
+    @Value("${ai.gateway.hedge.burst:5}")
+    private double burst;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    // Ring buffer of recent primary latencies in nanoseconds
+    private final long[] samples = new long[WINDOW];
+    private int sampleCount;
+    private int nextSample;
+    private volatile long delayNanos;
+    
+    private double credits;
+    
+    private Counter calls;
+    private Counter hedgesSent;
+    private Counter hedgesWon;
+    private Counter hedgesSkipped;
+    private Timer latency;
+    
+    @PostConstruct
+    void init() {
+        delayNanos = TimeUnit.MILLISECONDS.toNanos(initialDelayMs);
+        credits = burst;
+        calls = meterRegistry.counter("sentiment.gateway.calls");
+        hedgesSent = meterRegistry.counter("sentiment.gateway.hedge.sent");
+        hedgesWon = meterRegistry.counter("sentiment.gateway.hedge.won");
+        hedgesSkipped = meterRegistry.counter("sentiment.gateway.hedge.skipped");
+        latency = meterRegistry.timer("sentiment.gateway.latency");
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    // Called once per classification; earns the budget hedges are paid from
+    public synchronized void recordCall() {
+        calls.increment();
+        credits = Math.min(burst, credits + maxRate);
+    }
+    
+    public Duration hedgeDelay() {
+        return Duration.ofNanos(delayNanos);
+    }
+    
+    // True when a hedge may be sent now; spends one credit
+    public synchronized boolean tryAcquireHedge() {
+        // Tolerance for rounding in the repeated fractional additions
+        if (credits < 1.0 - 1e-9) {
+            hedgesSkipped.increment();
+            return false;
+        }
+        credits -= 1.0;
+        hedgesSent.increment();
+        return true;
+    }
+    
+    public void recordHedgeWon() {
+        hedgesWon.increment();
+    }
+    
+    /**
+     * Records a primary-call latency. Calls cancelled because the hedge won are recorded
+     * with their elapsed time too, a lower bound that keeps the slow tail in the window.
+     */
+    public void recordLatency(long nanos) {
+        latency.record(nanos, TimeUnit.NANOSECONDS);
+        long[] snapshot = null;
+        synchronized (this) {
+            samples[nextSample] = nanos;
+            nextSample = (nextSample + 1) % WINDOW;
+            sampleCount++;
+            if (sampleCount >= minSamples && sampleCount % RECOMPUTE_EVERY == 0) {
+                snapshot = Arrays.copyOf(samples, Math.min(sampleCount, WINDOW));
+            }
+        }
+        if (snapshot != null) {
+            Arrays.sort(snapshot);
+            int index = (int) Math.min(snapshot.length - 1, Math.ceil(percentile * snapshot.length) - 1);
+            long clamped = Math.max(TimeUnit.MILLISECONDS.toNanos(minDelayMs),
+                    Math.min(TimeUnit.MILLISECONDS.toNanos(maxDelayMs), snapshot[Math.max(0, index)]));
+            delayNanos = clamped;
+        }
+    }
+}
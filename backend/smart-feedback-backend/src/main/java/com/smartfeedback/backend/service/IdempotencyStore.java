@@ -0,0 +1,163 @@
+package com.smartfeedback.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Recent Idempotency-Key values and the responses they produced. The first request with a
+ * key claims it and runs; duplicates that arrive meanwhile wait for its response instead of
+ * running again, and later retries get the stored response until it expires. A claim that
+ * fails is released, so the next retry runs the request itself.
+ *
+ * Bounded to max-entries keys, least recently used first out. A key whose request is still
+ * running is never evicted, since its duplicates would then run again; when every key is
+ * in flight, new keys are turned away instead. Kept in memory, so retries are only
+ * deduplicated when they reach the same instance.
+ */
+@Component
+public class IdempotencyStore {
+    
+    public record StoredResponse(int status, Object body) {}
+    
+    @Value("${app.idempotency.ttl-ms:86400000}")
+    private long ttlMs;
+    
+    @Value("${app.idempotency.max-entries:10000}")
+    private int maxEntries;
+    
+    // How long a duplicate waits for the request that claimed its key
+    @Value("${app.idempotency.wait-timeout-ms:30000}")
+    private long waitTimeoutMs;
+    
+    private static final class Entry {
+        final String fingerprint;
+        final CompletableFuture<StoredResponse> response = new CompletableFuture<>();
+        volatile long expiresAtNanos;
+        
+        Entry(String fingerprint, long expiresAtNanos) {
+            this.fingerprint = fingerprint;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+    
+    // Access-ordered, so the least recently used key is evicted first
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    
+    public final class Claim {
+        private final String key;
+        private final Entry entry;
+        private final boolean owner;
+        
+        private Claim(String key, Entry entry, boolean owner) {
+            this.key = key;
+            this.entry = entry;
+            this.owner = owner;
+        }
+        
+        // True for the request that should run; false for a duplicate
+        public boolean isOwner() {
+            return owner;
+        }
+        
+        /**
+         * Waits for the owner's response. Null means the owner failed and released the key,
+         * so the caller should claim again.
+         */
+        public StoredResponse await() throws InterruptedException, TimeoutException {
+            try {
+                return entry.response.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (ExecutionException e) {
+                return null;
+            }
+        }
+        
+        public void complete(int status, Object body) {
+            entry.expiresAtNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ttlMs);
+            entry.response.complete(new StoredResponse(status, body));
+        }
+        
+        public void release() {
+            synchronized (entries) {
+                entries.remove(key, entry);
+            }
+            entry.response.complete(null);
+        }
+    }
+    
+    /**
+     * Claims key for a request whose content hashes to fingerprint, or joins the request
+     * that already holds it. A key reused for different content is rejected. Null when the
+     * store is full of keys whose requests are still running.
+     */
+    public Claim claim(String key, String fingerprint) {
+        long now = System.nanoTime();
+        synchronized (entries) {
+            Entry existing = entries.get(key);
+            if (existing != null && existing.expiresAtNanos - now > 0) {
+                if (!existing.fingerprint.equals(fingerprint)) {
+                    throw new RuntimeException("Idempotency-Key was already used for a different request");
+                }
+                return new Claim(key, existing, false);
+            }
+            if (existing == null && entries.size() >= maxEntries && !evictCompleted()) {
+                return null;
+            }
+            Entry entry = new Entry(fingerprint, now + TimeUnit.MILLISECONDS.toNanos(ttlMs));
+            entries.put(key, entry);
+            return new Claim(key, entry, true);
+        }
+    }
+    
+    // Evicts the least recently used key whose response is stored; false if all are in flight
+    private boolean evictCompleted() {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().response.isDone()) {
+                iterator.remove();
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+    
+    @Scheduled(fixedDelay = 60000)
+    public void purgeExpired() {
+        long now = System.nanoTime();
+        synchronized (entries) {
+            entries.values().removeIf(entry -> entry.response.isDone() && entry.expiresAtNanos - now <= 0);
+        }
+    }
+    
+    // SHA-256 over the parts, so the stored fingerprint stays small however long the request
+    public static String fingerprint(Object... parts) {
+        StringBuilder content = new StringBuilder();
+        for (Object part : parts) {
+            content.append(part).append('\u0000');
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(content.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
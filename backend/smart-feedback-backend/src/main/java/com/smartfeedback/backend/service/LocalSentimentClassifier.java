@@ -0,0 +1,305 @@
+package com.smartfeedback.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartfeedback.backend.dto.SentimentModelReport;
+import com.smartfeedback.backend.entity.Feedback;
+import com.smartfeedback.backend.repository.FeedbackStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In-process sentiment model distilled from the gateway's labels. Retraining reads the
+ * feedback whose sentiment source is the gateway, trains a {@link SentimentModel} on nine rows in ten and measures it
+ * on the rest, then saves the model and its report next to each other; both are loaded
+ * again on startup. When enabled, comments the model is confident about are labelled here
+ * and only the rest go to the gateway. A small share of confident comments is sent to the
+ * gateway anyway, to keep measuring how often the two agree.
+ */
+@Service
+public class LocalSentimentClassifier {
+    
+    private static final Logger logger = LoggerFactory.getLogger(LocalSentimentClassifier.class);
+    
+    private static final int PAGE_SIZE = 1000;
+    private static final int HOLDOUT_MODULUS = 10;
+    
+    @Value("${app.sentiment.local.enabled:false}")
+    private boolean enabled;
+    
+    @Value("${app.sentiment.local.model-file:./data/sentiment/model.bin}")
+    private String modelFile;
+    
+    @Value("${app.sentiment.local.min-confidence:0.9}")
+    private double minConfidence;
+    
+    // Share of confident comments still sent to the gateway to measure agreement
+    @Value("${app.sentiment.local.audit-rate:0.02}")
+    private double auditRate;
+    
+    @Value("${app.sentiment.local.hash-bits:18}")
+    private int hashBits;
+    
+    // Additive smoothing of feature counts
+    @Value("${app.sentiment.local.smoothing:0.5}")
+    private double smoothing;
+    
+    @Value("${app.sentiment.local.min-training-rows:200}")
+    private int minTrainingRows;
+    
+    @Autowired
+    private FeedbackStore feedbackStore;
+    
+    @Autowired
+    private CommentPreprocessor commentPreprocessor;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    private volatile SentimentModel model;
+    private volatile SentimentModelReport holdoutReport;
+    private final AtomicBoolean training = new AtomicBoolean();
+    
+    private Counter decided;
+    private Counter deferred;
+    private Counter auditAgreed;
+    private Counter auditDisagreed;
+    
+    private record Sample(String text, Feedback.Sentiment label) {}
+    
+    @PostConstruct
+    void init() {
+        decided = meterRegistry.counter("sentiment.local.decided");
+        deferred = meterRegistry.counter("sentiment.local.deferred");
+        auditAgreed = meterRegistry.counter("sentiment.local.audit", "outcome", "agreed");
+        auditDisagreed = meterRegistry.counter("sentiment.local.audit", "outcome", "disagreed");
+        
+        Path path = Paths.get(modelFile);
+        if (!Files.exists(path)) {
+            if (enabled) {
+                logger.warn("No sentiment model at {}; every comment goes to the gateway until one is trained", path);
+            }
+            return;
+        }
+        try (InputStream in = Files.newInputStream(path)) {
+            model = SentimentModel.read(in);
+            Path reportPath = reportPath();
+            if (Files.exists(reportPath)) {
+                holdoutReport = objectMapper.readValue(reportPath.toFile(), SentimentModelReport.class);
+            }
+            logger.info("Loaded sentiment model trained on {} rows", model.getTrainingRows());
+        } catch (IOException e) {
+            logger.error("Could not load sentiment model {}: {}", path, e.getMessage());
+        }
+    }
+    
+    // Label of a prepared comment when the model is confident, or null to ask the gateway
+    public String classify(String text) {
+        SentimentModel current = model;
+        if (!enabled || current == null) {
+            return null;
+        }
+        SentimentModel.Prediction prediction = current.predict(text);
+        if (prediction.confidence() < minConfidence || ThreadLocalRandom.current().nextDouble() < auditRate) {
+            deferred.increment();
+            return null;
+        }
+        decided.increment();
+        return displayLabel(prediction.label());
+    }
+    
+    // Compares the gateway's label with what the model would have decided alone
+    public void recordGatewayLabel(String text, String label) {
+        SentimentModel current = model;
+        if (!enabled || current == null || label == null) {
+            return;
+        }
+        SentimentModel.Prediction prediction = current.predict(text);
+        if (prediction.confidence() >= minConfidence) {
+            (displayLabel(prediction.label()).equals(label) ? auditAgreed : auditDisagreed).increment();
+        }
+    }
+    
+    public SentimentModelReport retrain() {
+        if (!training.compareAndSet(false, true)) {
+            throw new RuntimeException("Model training already running");
+        }
+        try {
+            long started = System.nanoTime();
+            SentimentModel.Trainer trainer = SentimentModel.trainer(hashBits, smoothing);
+            List<Sample> holdout = new ArrayList<>();
+            long trainingRows = 0;
+            long afterId = 0;
+            List<Feedback> page;
+            while (!(page = feedbackStore.findPageAfterId(afterId, PAGE_SIZE)).isEmpty()) {
+                for (Feedback feedback : page) {
+                    afterId = feedback.getId();
+                    // Labels from this model, the mock, the emoji rules or the Neutral default would
+                    // only teach the model to agree with itself
+                    if (feedback.getSentiment() == null || feedback.getSentimentSource() != Feedback.SentimentSource.GATEWAY
+                            || !StringUtils.hasText(feedback.getComment())) {
+                        continue;
+                    }
+                    // Same preparation as live comments
+                    CommentPreprocessor.PreparedComment prepared =
+                            commentPreprocessor.prepare(feedback.getComment(), feedback.getStudentName());
+                    if (feedback.getId() % HOLDOUT_MODULUS == 0) {
+                        holdout.add(new Sample(prepared.text(), feedback.getSentiment()));
+                    } else {
+                        trainer.add(prepared.text(), feedback.getSentiment());
+                        trainingRows++;
+                    }
+                }
+            }
+            if (trainingRows < minTrainingRows) {
+                throw new RuntimeException("Not enough gateway-labelled feedback to train: " + trainingRows
+                        + " rows, at least " + minTrainingRows + " needed");
+            }
+            
+            SentimentModel candidate = trainer.build();
+            SentimentModelReport report = evaluate(candidate, holdout);
+            save(candidate, report);
+            model = candidate;
+            holdoutReport = report;
+            logger.info("Trained sentiment model on {} rows in {} ms: holdout accuracy {}, {} of comments decided locally",
+                    trainingRows, (System.nanoTime() - started) / 1_000_000, report.getAccuracy(), report.getConfidentShare());
+            return getReport();
+        } finally {
+            training.set(false);
+        }
+    }
+    
+    public SentimentModelReport getReport() {
+        SentimentModelReport saved = holdoutReport;
+        SentimentModelReport report = new SentimentModelReport();
+        if (saved != null) {
+            report.setTrainedAt(saved.getTrainedAt());
+            report.setTrainingRows(saved.getTrainingRows());
+            report.setHoldoutRows(saved.getHoldoutRows());
+            report.setAccuracy(saved.getAccuracy());
+            report.setConfidentShare(saved.getConfidentShare());
+            report.setConfidentAccuracy(saved.getConfidentAccuracy());
+            report.setClasses(saved.getClasses());
+            report.setConfusion(saved.getConfusion());
+        }
+        report.setEnabled(enabled);
+        report.setLoaded(model != null);
+        report.setMinConfidence(minConfidence);
+        report.setLocalDecisions((long) decided.count());
+        report.setGatewayDeferrals((long) deferred.count());
+        long agreed = (long) auditAgreed.count();
+        long audited = agreed + (long) auditDisagreed.count();
+        report.setAuditSamples(audited);
+        report.setAuditAgreement(audited > 0 ? (double) agreed / audited : null);
+        return report;
+    }
+    
+    private SentimentModelReport evaluate(SentimentModel candidate, List<Sample> holdout) {
+        Feedback.Sentiment[] labels = Feedback.Sentiment.values();
+        long[][] confusion = new long[labels.length][labels.length];
+        long correct = 0;
+        long confident = 0;
+        long confidentCorrect = 0;
+        for (Sample sample : holdout) {
+            SentimentModel.Prediction prediction = candidate.predict(sample.text());
+            boolean right = prediction.label() == sample.label();
+            confusion[sample.label().ordinal()][prediction.label().ordinal()]++;
+            correct += right ? 1 : 0;
+            if (prediction.confidence() >= minConfidence) {
+                confident++;
+                confidentCorrect += right ? 1 : 0;
+            }
+        }
+        
+        Map<String, SentimentModelReport.ClassMetrics> classes = new LinkedHashMap<>();
+        Map<String, Map<String, Long>> confusionByLabel = new LinkedHashMap<>();
+        for (Feedback.Sentiment actual : labels) {
+            long support = 0;
+            long predicted = 0;
+            Map<String, Long> row = new LinkedHashMap<>();
+            for (Feedback.Sentiment other : labels) {
+                support += confusion[actual.ordinal()][other.ordinal()];
+                predicted += confusion[other.ordinal()][actual.ordinal()];
+                row.put(displayLabel(other), confusion[actual.ordinal()][other.ordinal()]);
+            }
+            long hits = confusion[actual.ordinal()][actual.ordinal()];
+            classes.put(displayLabel(actual), new SentimentModelReport.ClassMetrics(
+                    ratio(hits, predicted), ratio(hits, support), support));
+            confusionByLabel.put(displayLabel(actual), row);
+        }
+        
+        SentimentModelReport report = new SentimentModelReport();
+        report.setTrainedAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(candidate.getTrainedAt()), ZoneId.systemDefault()));
+        report.setTrainingRows(candidate.getTrainingRows());
+        report.setHoldoutRows(holdout.size());
+        report.setAccuracy(ratio(correct, holdout.size()));
+        report.setMinConfidence(minConfidence);
+        report.setConfidentShare(ratio(confident, holdout.size()));
+        report.setConfidentAccuracy(ratio(confidentCorrect, confident));
+        report.setClasses(classes);
+        report.setConfusion(confusionByLabel);
+        return report;
+    }
+    
+    // Writes both files under temporary names first, so a crash leaves the previous pair
+    private void save(SentimentModel candidate, SentimentModelReport report) {
+        Path path = Paths.get(modelFile);
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            Path modelTemp = path.resolveSibling(path.getFileName() + ".tmp");
+            try (OutputStream out = Files.newOutputStream(modelTemp)) {
+                candidate.write(out);
+            }
+            Path reportTemp = path.resolveSibling(reportPath().getFileName() + ".tmp");
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(reportTemp.toFile(), report);
+            Files.move(modelTemp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Files.move(reportTemp, reportPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not save sentiment model to " + path, e);
+        }
+    }
+    
+    private Path reportPath() {
+        Path path = Paths.get(modelFile);
+        return path.resolveSibling(path.getFileName() + ".report.json");
+    }
+    
+    private static double ratio(long part, long whole) {
+        return whole == 0 ? 0 : (double) part / whole;
+    }
+    
+    // POSITIVE -> Positive, as the gateway labels are written
+    private static String displayLabel(Feedback.Sentiment sentiment) {
+        String name = sentiment.name();
+        return name.charAt(0) + name.substring(1).toLowerCase();
+    }
+}
@@ -0,0 +1,243 @@
+package com.smartfeedback.backend.service;
+
+import com.smartfeedback.backend.tenant.TenantContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.text.Normalizer;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Maps faculty and student names to the integer ids of their dimension rows. Names are
+ * canonicalized first, so case and whitespace variants share one id, and both directions
+ * are cached in memory after the first lookup. Misses are cached for a short while too.
+ *
+ * Dimension rows are read over JDBC, on the current transaction's connection when there
+ * is one: the JPA converters call in here while Hibernate is flushing, where going through
+ * the EntityManager would recurse into the flush, and taking a second pooled connection
+ * there would deadlock the pool once every connection is held by such a transaction.
+ * New rows are inserted on their own auto-commit connection, so a new name stays valid
+ * even when the transaction that introduced it rolls back; callers intern names before
+ * they begin a transaction (see JpaFeedbackStore), leaving only cache hits inside it.
+ *
+ * Each tenant has its own dimension tables, so the caches are kept per tenant.
+ */
+@Service
+public class NameDictionary {
+    
+    public enum Dimension {
+        FACULTY("faculty"),
+        STUDENT("students");
+        
+        private final String table;
+        
+        Dimension(String table) {
+            this.table = table;
+        }
+    }
+    
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    
+    // Names looked up and not found are remembered, so repeated lookups of unknown names do
+    // not each take a connection; briefly, since another instance may intern them meanwhile
+    private static final int MAX_MISSES = 10_000;
+    private static final long MISS_TTL_NANOS = TimeUnit.SECONDS.toNanos(30);
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    private static final class Entries {
+        final Map<Dimension, Map<String, Integer>> idsByCanonicalName = new ConcurrentHashMap<>();
+        final Map<Dimension, Map<Integer, String>> displayNamesById = new ConcurrentHashMap<>();
+        // Canonical names of recent misses and when they were recorded; least recently used go first
+        final Map<Dimension, Map<String, Long>> missedAt = new ConcurrentHashMap<>();
+        
+        Entries() {
+            for (Dimension dimension : Dimension.values()) {
+                idsByCanonicalName.put(dimension, new ConcurrentHashMap<>());
+                displayNamesById.put(dimension, new ConcurrentHashMap<>());
+                missedAt.put(dimension, new LinkedHashMap<>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                        return size() > MAX_MISSES;
+                    }
+                });
+            }
+        }
+        
+        boolean recentlyMissed(Dimension dimension, String canonical) {
+            Map<String, Long> misses = missedAt.get(dimension);
+            synchronized (misses) {
+                Long at = misses.get(canonical);
+                if (at != null && System.nanoTime() - at > MISS_TTL_NANOS) {
+                    misses.remove(canonical);
+                    return false;
+                }
+                return at != null;
+            }
+        }
+        
+        void recordMiss(Dimension dimension, String canonical) {
+            Map<String, Long> misses = missedAt.get(dimension);
+            synchronized (misses) {
+                misses.put(canonical, System.nanoTime());
+            }
+        }
+        
+        void forgetMiss(Dimension dimension, String canonical) {
+            Map<String, Long> misses = missedAt.get(dimension);
+            synchronized (misses) {
+                misses.remove(canonical);
+            }
+        }
+    }
+    
+    private final Map<String, Entries> entriesByTenant = new ConcurrentHashMap<>();
+    
+    // NFKC, trimmed and with runs of whitespace collapsed to one space; null stays null
+    public static String displayForm(String name) {
+        if (name == null) {
+            return null;
+        }
+        return WHITESPACE.matcher(Normalizer.normalize(name, Normalizer.Form.NFKC).trim()).replaceAll(" ");
+    }
+    
+    public static String canonicalize(String name) {
+        String display = displayForm(name);
+        return display != null ? display.toLowerCase(Locale.ROOT) : null;
+    }
+    
+    // Returns the id for name, inserting a dimension row the first time it is seen
+    public int intern(Dimension dimension, String name) {
+        String canonical = canonicalize(name);
+        if (canonical == null || canonical.isEmpty()) {
+            throw new IllegalArgumentException("Name must not be blank");
+        }
+        Integer id = find(dimension, name);
+        if (id != null) {
+            return id;
+        }
+        try {
+            return insert(dimension, canonical, displayForm(name));
+        } catch (DataIntegrityViolationException e) {
+            // Another instance or thread inserted the same canonical name first
+            entries().forgetMiss(dimension, canonical);
+            id = find(dimension, name);
+            if (id == null) {
+                throw e;
+            }
+            return id;
+        }
+    }
+    
+    // Id for name if it has been interned, otherwise null
+    public Integer find(Dimension dimension, String name) {
+        String canonical = canonicalize(name);
+        if (canonical == null) {
+            return null;
+        }
+        Entries entries = entries();
+        Integer id = entries.idsByCanonicalName.get(dimension).get(canonical);
+        if (id == null && !entries.recentlyMissed(dimension, canonical)) {
+            id = select(dimension, "SELECT id, display_name FROM " + dimension.table + " WHERE canonical_name = ?", canonical);
+            if (id == null) {
+                entries.recordMiss(dimension, canonical);
+            }
+        }
+        return id;
+    }
+    
+    public String displayName(Dimension dimension, Integer id) {
+        if (id == null) {
+            return null;
+        }
+        String name = entries().displayNamesById.get(dimension).get(id);
+        if (name == null) {
+            select(dimension, "SELECT id, display_name FROM " + dimension.table + " WHERE id = ?", id);
+            name = entries().displayNamesById.get(dimension).get(id);
+            if (name == null) {
+                throw new IllegalStateException("Unknown " + dimension.name().toLowerCase(Locale.ROOT) + " id " + id);
+            }
+        }
+        return name;
+    }
+    
+    // The stored spelling for a known name, or the cleaned-up input for an unknown one
+    public String resolveDisplayName(Dimension dimension, String name) {
+        Integer id = find(dimension, name);
+        return id != null ? displayName(dimension, id) : displayForm(name);
+    }
+    
+    public int size(Dimension dimension) {
+        return entries().idsByCanonicalName.get(dimension).size();
+    }
+    
+    // Dimension rows are only ever inserted committed, so reading them on the caller's
+    // transaction sees the same rows a fresh connection would
+    private Integer select(Dimension dimension, String sql, Object key) {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setObject(1, key);
+            try (ResultSet rs = statement.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                int id = rs.getInt(1);
+                String display = rs.getString(2);
+                cache(dimension, id, canonicalize(display), display);
+                return id;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to read " + dimension.table + " dictionary", e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+    
+    private int insert(Dimension dimension, String canonical, String display) {
+        String sql = "INSERT INTO " + dimension.table + " (canonical_name, display_name) VALUES (?, ?)";
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            try (PreparedStatement statement = connection.prepareStatement(sql, new String[] {"id"})) {
+                statement.setString(1, canonical);
+                statement.setString(2, display);
+                statement.executeUpdate();
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    keys.next();
+                    int id = keys.getInt(1);
+                    cache(dimension, id, canonical, display);
+                    return id;
+                }
+            }
+        } catch (SQLException e) {
+            // 23xxx is the SQL state class for integrity constraint violations
+            if (e.getSQLState() != null && e.getSQLState().startsWith("23")) {
+                throw new DataIntegrityViolationException(e.getMessage(), e);
+            }
+            throw new RuntimeException("Failed to insert into " + dimension.table + " dictionary", e);
+        }
+    }
+    
+    private void cache(Dimension dimension, int id, String canonical, String display) {
+        Entries entries = entries();
+        entries.idsByCanonicalName.get(dimension).put(canonical, id);
+        entries.displayNamesById.get(dimension).put(id, display);
+        entries.forgetMiss(dimension, canonical);
+    }
+    
+    private Entries entries() {
+        return entriesByTenant.computeIfAbsent(TenantContext.current(), tenant -> new Entries());
+    }
+}
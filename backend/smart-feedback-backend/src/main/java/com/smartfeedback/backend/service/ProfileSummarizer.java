@@ -0,0 +1,198 @@
+package com.smartfeedback.backend.service;
+
+import com.smartfeedback.backend.dto.ProfilingReport;
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads a JFR recording and ranks where the application itself spends CPU, allocates and
+ * waits for locks. Every sample is charged to its innermost frame in the given package, so
+ * time spent inside a library shows up at the application method that called it. Samples
+ * whose stack has no such frame, including stacks cut off at the recorder's stack depth,
+ * only count towards the totals.
+ */
+public class ProfileSummarizer {
+    
+    private final String packagePrefix;
+    private final int topN;
+    
+    private final Site cpu = new Site();
+    private final Site allocation = new Site();
+    private final Site locks = new Site();
+    private long appCpuSamples;
+    private long allocationSamples;
+    private long lockEvents;
+    private long gcCount;
+    private double gcPauseMillis;
+    
+    // Weights per site, and per site the weights of each detail (leaf method, type, lock class)
+    private static class Site {
+        final Map<String, Long> weights = new HashMap<>();
+        final Map<String, Map<String, Long>> details = new HashMap<>();
+        long total;
+        
+        void add(String site, String detail, long weight) {
+            total += weight;
+            if (site == null) {
+                return;
+            }
+            weights.merge(site, weight, Long::sum);
+            if (detail != null) {
+                details.computeIfAbsent(site, key -> new HashMap<>()).merge(detail, weight, Long::sum);
+            }
+        }
+        
+        List<ProfilingReport.Entry> top(int limit) {
+            List<ProfilingReport.Entry> entries = new ArrayList<>();
+            weights.entrySet().stream()
+                    .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                    .limit(limit)
+                    .forEach(entry -> {
+                        String detail = details.getOrDefault(entry.getKey(), Map.of()).entrySet().stream()
+                                .max(Map.Entry.comparingByValue())
+                                .map(Map.Entry::getKey)
+                                .orElse(null);
+                        double percent = total == 0 ? 0 : Math.round(entry.getValue() * 1000.0 / total) / 10.0;
+                        entries.add(new ProfilingReport.Entry(entry.getKey(), entry.getValue(), percent, detail));
+                    });
+            return entries;
+        }
+    }
+    
+    private ProfileSummarizer(String packagePrefix, int topN) {
+        this.packagePrefix = packagePrefix.endsWith(".") ? packagePrefix : packagePrefix + ".";
+        this.topN = topN;
+    }
+    
+    public static ProfilingReport summarize(Path recording, String packagePrefix, int topN) throws IOException {
+        ProfileSummarizer summarizer = new ProfileSummarizer(packagePrefix, topN);
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                summarizer.accept(file.readEvent());
+            }
+        }
+        return summarizer.report();
+    }
+    
+    private void accept(RecordedEvent event) {
+        switch (event.getEventType().getName()) {
+            case "jdk.ExecutionSample" -> {
+                RecordedFrame frame = appFrame(event.getStackTrace());
+                if (frame != null) {
+                    appCpuSamples++;
+                }
+                cpu.add(frame == null ? null : method(frame), leaf(event.getStackTrace()), 1);
+            }
+            case "jdk.ObjectAllocationSample" -> {
+                allocationSamples++;
+                allocation.add(site(appFrame(event.getStackTrace())), className(event.getClass("objectClass")),
+                        event.getLong("weight"));
+            }
+            case "jdk.JavaMonitorEnter" -> {
+                lockEvents++;
+                locks.add(site(appFrame(event.getStackTrace())), className(event.getClass("monitorClass")),
+                        event.getDuration().toMillis());
+            }
+            case "jdk.ThreadPark" -> {
+                // Parking on a lock's synchronizer is contention; parking on a condition or future is waiting for work
+                String parked = className(event.getClass("parkedClass"));
+                if (parked != null && parked.endsWith("Sync")) {
+                    lockEvents++;
+                    locks.add(site(appFrame(event.getStackTrace())), parked, event.getDuration().toMillis());
+                }
+            }
+            case "jdk.GarbageCollection" -> {
+                gcCount++;
+                Duration pauses = event.getDuration("sumOfPauses");
+                gcPauseMillis += pauses.toNanos() / 1_000_000.0;
+            }
+            default -> {
+            }
+        }
+    }
+    
+    private ProfilingReport report() {
+        ProfilingReport report = new ProfilingReport();
+        report.setCpuSamples(cpu.total);
+        report.setAppCpuSamples(appCpuSamples);
+        report.setAllocationSamples(allocationSamples);
+        report.setSampledAllocationBytes(allocation.total);
+        report.setLockEvents(lockEvents);
+        report.setGcCount(gcCount);
+        report.setGcPauseMillis(Math.round(gcPauseMillis * 10) / 10.0);
+        report.setHotMethods(cpu.top(topN));
+        report.setAllocationSites(allocation.top(topN));
+        report.setLockSites(locks.top(topN));
+        return report;
+    }
+    
+    private RecordedFrame appFrame(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return null;
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            if (frame.isJavaFrame() && frame.getMethod().getType().getName().startsWith(packagePrefix)) {
+                return frame;
+            }
+        }
+        return null;
+    }
+    
+    private static String leaf(RecordedStackTrace stackTrace) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return null;
+        }
+        return method(stackTrace.getFrames().get(0));
+    }
+    
+    private static String method(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+    }
+    
+    // Method and line, since one method can allocate or lock in several places
+    private static String site(RecordedFrame frame) {
+        if (frame == null) {
+            return null;
+        }
+        int line = frame.getLineNumber();
+        return line > 0 ? method(frame) + ":" + line : method(frame);
+    }
+    
+    // Array types come as descriptors ("[B", "[Ljava.lang.String;") and are shown as in source
+    private static String className(RecordedClass recordedClass) {
+        if (recordedClass == null) {
+            return null;
+        }
+        String name = recordedClass.getName();
+        int dimensions = 0;
+        while (dimensions < name.length() && name.charAt(dimensions) == '[') {
+            dimensions++;
+        }
+        if (dimensions == 0) {
+            return name;
+        }
+        String element = switch (name.charAt(dimensions)) {
+            case 'B' -> "byte";
+            case 'C' -> "char";
+            case 'D' -> "double";
+            case 'F' -> "float";
+            case 'I' -> "int";
+            case 'J' -> "long";
+            case 'S' -> "short";
+            case 'Z' -> "boolean";
+            default -> name.substring(dimensions + 1, name.length() - 1);
+        };
+        return element + "[]".repeat(dimensions);
+    }
+}
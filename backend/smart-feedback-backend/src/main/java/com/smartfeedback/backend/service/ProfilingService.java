@@ -0,0 +1,218 @@
+package com.smartfeedback.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartfeedback.backend.dto.ProfilingReport;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Time-boxed Java Flight Recorder sessions started at runtime, so a CPU or allocation
+ * regression can be looked at without restarting with profiler flags. Only the events
+ * needed for the summary are recorded: CPU samples, allocation samples, monitor and lock
+ * waits above app.profiling.lock-threshold-ms, and GC pauses. When a session ends the
+ * recording is written to app.profiling.dir, summarized by {@link ProfileSummarizer} and
+ * the summary saved next to it; the newest app.profiling.keep recordings are kept.
+ */
+@Service
+public class ProfilingService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ProfilingService.class);
+    
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    
+    @Value("${app.profiling.dir:./data/profiling}")
+    private String dir;
+    
+    @Value("${app.profiling.max-duration-seconds:300}")
+    private int maxDurationSeconds;
+    
+    @Value("${app.profiling.cpu-sample-ms:10}")
+    private long cpuSampleMs;
+    
+    @Value("${app.profiling.allocation-samples-per-second:300}")
+    private int allocationSamplesPerSecond;
+    
+    @Value("${app.profiling.lock-threshold-ms:10}")
+    private long lockThresholdMs;
+    
+    // Frames in this package are the ones the summary ranks
+    @Value("${app.profiling.package:com.smartfeedback.backend}")
+    private String packagePrefix;
+    
+    @Value("${app.profiling.top:20}")
+    private int top;
+    
+    @Value("${app.profiling.keep:5}")
+    private int keep;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    private ScheduledExecutorService scheduler;
+    private Recording recording;
+    private ScheduledFuture<?> scheduledStop;
+    private volatile ProfilingReport report;
+    
+    @PostConstruct
+    void init() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "jfr-profiling");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ProfilingReport idle = new ProfilingReport();
+        idle.setStatus("IDLE");
+        report = idle;
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        synchronized (this) {
+            if (recording != null) {
+                recording.close();
+                recording = null;
+            }
+        }
+        scheduler.shutdownNow();
+    }
+    
+    public synchronized ProfilingReport start(int durationSeconds) {
+        if (recording != null) {
+            throw new RuntimeException("Profiling session already running");
+        }
+        if (durationSeconds < 1 || durationSeconds > maxDurationSeconds) {
+            throw new RuntimeException("Duration must be between 1 and " + maxDurationSeconds + " seconds");
+        }
+        if (!FlightRecorder.isAvailable()) {
+            throw new RuntimeException("Flight recorder is not available in this JVM");
+        }
+        
+        Recording session = new Recording();
+        session.setName("smart-feedback-profiling");
+        session.setToDisk(true);
+        session.enable("jdk.ExecutionSample").withPeriod(Duration.ofMillis(cpuSampleMs));
+        session.enable("jdk.ObjectAllocationSample").with("throttle", allocationSamplesPerSecond + "/s");
+        session.enable("jdk.JavaMonitorEnter").withThreshold(Duration.ofMillis(lockThresholdMs)).withStackTrace();
+        session.enable("jdk.ThreadPark").withThreshold(Duration.ofMillis(lockThresholdMs)).withStackTrace();
+        session.enable("jdk.GarbageCollection");
+        session.start();
+        recording = session;
+        
+        ProfilingReport running = new ProfilingReport();
+        running.setStatus("RUNNING");
+        running.setStartedAt(LocalDateTime.now());
+        running.setDurationSeconds(durationSeconds);
+        report = running;
+        scheduledStop = scheduler.schedule(this::finish, durationSeconds, TimeUnit.SECONDS);
+        logger.info("Started JFR profiling for {} s", durationSeconds);
+        return running;
+    }
+    
+    // Ends the running session early; the summary is ready when the status leaves RUNNING
+    public synchronized ProfilingReport stop() {
+        if (recording != null && scheduledStop.cancel(false)) {
+            scheduler.execute(this::finish);
+        }
+        return report;
+    }
+    
+    public ProfilingReport getReport() {
+        return report;
+    }
+    
+    // The recording behind the current report, or null when there is none on disk
+    public Path getRecordingFile() {
+        String file = report.getRecordingFile();
+        if (file == null) {
+            return null;
+        }
+        Path path = Paths.get(file);
+        return Files.exists(path) ? path : null;
+    }
+    
+    private void finish() {
+        Recording session;
+        ProfilingReport running;
+        synchronized (this) {
+            session = recording;
+            running = report;
+            if (session == null) {
+                return;
+            }
+        }
+        
+        ProfilingReport result;
+        Path file = Paths.get(dir, "profile-" + running.getStartedAt().format(FILE_TIME) + ".jfr");
+        try {
+            session.stop();
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            session.dump(file);
+            result = ProfileSummarizer.summarize(file, packagePrefix, top);
+            result.setStatus("COMPLETED");
+            result.setRecordingFile(file.toString());
+            result.setRecordingBytes(Files.size(file));
+        } catch (IOException | RuntimeException e) {
+            logger.error("JFR profiling session failed: ", e);
+            result = new ProfilingReport();
+            result.setStatus("FAILED");
+            result.setError(e.getMessage());
+        } finally {
+            session.close();
+        }
+        result.setStartedAt(running.getStartedAt());
+        result.setDurationSeconds(running.getDurationSeconds());
+        result.setFinishedAt(LocalDateTime.now());
+        
+        if (result.getRecordingFile() != null) {
+            try {
+                objectMapper.writeValue(Paths.get(file + ".summary.json").toFile(), result);
+            } catch (IOException e) {
+                logger.warn("Could not save profiling summary for {}: {}", file, e.getMessage());
+            }
+            prune();
+        }
+        synchronized (this) {
+            recording = null;
+            report = result;
+        }
+        logger.info("JFR profiling finished: {} CPU samples, {} in application code, recording {}",
+                result.getCpuSamples(), result.getAppCpuSamples(), result.getRecordingFile());
+    }
+    
+    // Keeps the newest recordings and their summaries
+    private void prune() {
+        try (Stream<Path> files = Files.list(Paths.get(dir))) {
+            List<Path> recordings = files
+                    .filter(path -> path.getFileName().toString().matches("profile-.*\\.jfr"))
+                    .sorted()
+                    .toList();
+            for (int i = 0; i < recordings.size() - Math.max(1, keep); i++) {
+                Files.deleteIfExists(recordings.get(i));
+                Files.deleteIfExists(Paths.get(recordings.get(i) + ".summary.json"));
+            }
+        } catch (IOException e) {
+            logger.warn("Could not prune old profiling recordings: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.smartfeedback.backend.service;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gateway request body for one model, serialized once with a placeholder for the comment.
+ * Rendering a request only JSON-escapes the comment and concatenates three strings.
+ */
+final class PromptTemplate {
+    
+    static final String SYSTEM_PROMPT = "Classify the sentiment of a student's feedback about a teacher. "
+            + "Reply with exactly one word: Positive, Negative or Neutral.";
+    
+    private static final String PLACEHOLDER = "@@COMMENT@@";
+    
+    private final String prefix;
+    private final String suffix;
+    
+    PromptTemplate(ObjectMapper objectMapper, String model, double temperature, int maxTokens) {
+        Map<String, Object> body = Map.of(
+            "model", model,
+            "temperature", temperature,
+            "max_tokens", maxTokens,
+            "messages", List.of(
+                Map.of("role", "system", "content", SYSTEM_PROMPT),
+                Map.of("role", "user", "content", PLACEHOLDER)
+            )
+        );
+        try {
+            String json = objectMapper.writeValueAsString(body);
+            int at = json.indexOf(PLACEHOLDER);
+            this.prefix = json.substring(0, at);
+            this.suffix = json.substring(at + PLACEHOLDER.length());
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not build prompt template", e);
+        }
+    }
+    
+    String render(String comment) {
+        char[] escaped = JsonStringEncoder.getInstance().quoteAsString(comment);
+        return new StringBuilder(prefix.length() + escaped.length + suffix.length())
+                .append(prefix)
+                .append(escaped)
+                .append(suffix)
+                .toString();
+    }
+}
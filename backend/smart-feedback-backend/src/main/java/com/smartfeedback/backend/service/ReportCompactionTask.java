@@ -0,0 +1,76 @@
+package com.smartfeedback.backend.service;
+
+import com.smartfeedback.backend.entity.Report;
+import com.smartfeedback.backend.repository.ReportRepository;
+import com.smartfeedback.backend.tenant.TenantContext;
+import com.smartfeedback.backend.tenant.TenantRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Applies the report retention policy to every faculty's history, tenant by tenant, in the background
+@Component
+@ConditionalOnProperty(name = "app.reports.retention.enabled", havingValue = "true")
+public class ReportCompactionTask {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ReportCompactionTask.class);
+    
+    @Value("${app.reports.retention.daily-days:30}")
+    private int dailyDays;
+    
+    @Value("${app.reports.retention.term-start-months:1,8}")
+    private String termStartMonths;
+    
+    @Autowired
+    private ReportRepository reportRepository;
+    
+    @Autowired
+    private TenantRegistry tenantRegistry;
+    
+    private ReportRetentionPolicy policy;
+    
+    @PostConstruct
+    void init() {
+        policy = new ReportRetentionPolicy(dailyDays, AcademicTerms.parse(termStartMonths));
+    }
+    
+    @Scheduled(initialDelayString = "${app.reports.retention.initial-delay-ms:120000}",
+               fixedDelayString = "${app.reports.retention.compaction-interval-ms:3600000}")
+    public void compact() {
+        for (String tenant : tenantRegistry.tenants()) {
+            if (!tenantRegistry.tryBeginWrite(tenant)) {
+                continue;
+            }
+            try {
+                TenantContext.runAs(tenant, this::compactTenant);
+            } finally {
+                tenantRegistry.endWrite(tenant);
+            }
+        }
+    }
+    
+    private void compactTenant() {
+        long started = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        int deleted = 0;
+        for (String facultyName : reportRepository.findFacultyNames()) {
+            List<Report> deletions = policy.selectForDeletion(reportRepository.findByFacultyNameOrderByIdAsc(facultyName), now);
+            if (!deletions.isEmpty()) {
+                reportRepository.deleteAllInBatch(deletions);
+                deleted += deletions.size();
+            }
+        }
+        if (deleted > 0) {
+            logger.info("Report compaction removed {} reports for tenant {} in {} ms",
+                    deleted, TenantContext.current(), (System.nanoTime() - started) / 1_000_000);
+        }
+    }
+}
@@ -1,17 +1,33 @@
 package com.smartfeedback.backend.service;
 
+import com.smartfeedback.backend.analytics.ColumnarAnalyticsCache;
+import com.smartfeedback.backend.analytics.FacultyAggregate;
+import com.smartfeedback.backend.analytics.FacultyColumns;
+import com.smartfeedback.backend.dto.FacultyStatsResponse;
 import com.smartfeedback.backend.dto.ReportGenerationRequest;
 import com.smartfeedback.backend.dto.ReportGenerationResponse;
 import com.smartfeedback.backend.entity.Feedback;
 import com.smartfeedback.backend.entity.Report;
-import com.smartfeedback.backend.repository.FeedbackRepository;
+import com.smartfeedback.backend.event.ReportGeneratedEvent;
+import com.smartfeedback.backend.repository.FeedbackStore;
 import com.smartfeedback.backend.repository.ReportRepository;
+import com.smartfeedback.backend.tracing.Tracer;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 
 @Service
 public class ReportGenerationService {
@@ -19,33 +35,130 @@ public class ReportGenerationService {
     private static final Logger logger = LoggerFactory.getLogger(ReportGenerationService.class);
     
     @Autowired
-    private FeedbackRepository feedbackRepository;
+    private FeedbackStore feedbackStore;
     
     @Autowired
     private ReportRepository reportRepository;
     
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    // Present only when app.analytics.columnar.enabled=true
+    @Autowired(required = false)
+    private ColumnarAnalyticsCache columnarAnalyticsCache;
+    
+    @Autowired
+    private NameDictionary nameDictionary;
+    
+    @Autowired
+    private Tracer tracer;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    private TransactionTemplate writeTransaction;
+    
+    @PostConstruct
+    void init() {
+        writeTransaction = new TransactionTemplate(transactionManager);
+    }
+    
     public ReportGenerationResponse generateReport(ReportGenerationRequest request) {
-        String facultyName = request.getFacultyName();
+        // Case and spacing variants resolve to the stored spelling
+        String facultyName = nameDictionary.resolveDisplayName(NameDictionary.Dimension.FACULTY, request.getFacultyName());
         logger.info("Generating report for faculty: {}", facultyName);
         
-        // Fetch all feedback for this faculty
-        List<Feedback> feedbackList = feedbackRepository.findByFacultyName(facultyName);
+        int totalFeedback;
+        double avgTeachingQuality;
+        double avgCommunicationSkill;
+        long positiveCount;
+        long negativeCount;
+        long neutralCount;
         
-        if (feedbackList.isEmpty()) {
-            throw new RuntimeException("No feedback found for this faculty");
+        if (columnarAnalyticsCache != null) {
+            // Answer from the in-memory columns without touching the database
+            FacultyColumns columns = columnarAnalyticsCache.get(facultyName);
+            if (columns == null) {
+                throw new RuntimeException("No feedback found for this faculty");
+            }
+            totalFeedback = columns.size();
+            avgTeachingQuality = columns.averageTeachingQuality();
+            avgCommunicationSkill = columns.averageCommunicationSkill();
+            positiveCount = columns.count(Feedback.Sentiment.POSITIVE);
+            negativeCount = columns.count(Feedback.Sentiment.NEGATIVE);
+            neutralCount = columns.count(Feedback.Sentiment.NEUTRAL);
+        } else {
+            // Counted rather than loaded, and including archived terms like the averages below
+            long count = tracer.trace("db.feedback.countByFacultyName",
+                    () -> feedbackStore.countByFacultyName(facultyName));
+            
+            if (count == 0) {
+                throw new RuntimeException("No feedback found for this faculty");
+            }
+            totalFeedback = (int) count;
+            
+            // Calculate averages
+            avgTeachingQuality = tracer.trace("db.feedback.averageTeachingQuality",
+                    () -> feedbackStore.findAverageTeachingQualityByFacultyName(facultyName));
+            avgCommunicationSkill = tracer.trace("db.feedback.averageCommunicationSkill",
+                    () -> feedbackStore.findAverageCommunicationSkillByFacultyName(facultyName));
+            
+            // Count sentiments
+            Map<Feedback.Sentiment, Long> sentimentCounts = tracer.trace("db.feedback.countSentiments",
+                    () -> feedbackStore.countSentimentsByFacultyName(facultyName));
+            positiveCount = sentimentCounts.get(Feedback.Sentiment.POSITIVE);
+            negativeCount = sentimentCounts.get(Feedback.Sentiment.NEGATIVE);
+            neutralCount = sentimentCounts.get(Feedback.Sentiment.NEUTRAL);
         }
         
-        // Calculate averages
-        double avgTeachingQuality = feedbackRepository.findAverageTeachingQualityByFacultyName(facultyName);
-        double avgCommunicationSkill = feedbackRepository.findAverageCommunicationSkillByFacultyName(facultyName);
-        
-        // Count sentiments
-        long positiveCount = feedbackRepository.countByFacultyNameAndSentiment(facultyName, Feedback.Sentiment.POSITIVE);
-        long negativeCount = feedbackRepository.countByFacultyNameAndSentiment(facultyName, Feedback.Sentiment.NEGATIVE);
-        long neutralCount = feedbackRepository.countByFacultyNameAndSentiment(facultyName, Feedback.Sentiment.NEUTRAL);
+        return new ReportGenerationResponse(saveReport(facultyName, totalFeedback, avgTeachingQuality, avgCommunicationSkill,
+                positiveCount, negativeCount, neutralCount,
+                () -> tracer.trace("db.report.findLatest", () -> reportRepository.findFirstByFacultyNameOrderByIdDesc(facultyName))));
+    }
+    
+    // Used by the scheduled precomputation, which reads all faculties in one aggregate query and
+    // their latest reports (latest is null for a faculty without one) in another
+    public Report generateReport(FacultyAggregate aggregate, Report latest) {
+        return saveReport(aggregate.getFacultyName(), (int) aggregate.getCount(),
+                aggregate.averageTeachingQuality(), aggregate.averageCommunicationSkill(),
+                aggregate.count(Feedback.Sentiment.POSITIVE), aggregate.count(Feedback.Sentiment.NEGATIVE),
+                aggregate.count(Feedback.Sentiment.NEUTRAL), () -> latest);
+    }
+    
+    /**
+     * Stores a report unless it would repeat the faculty's latest one. The check and the
+     * insert run in one read-write transaction, so both go to the primary, with the
+     * faculty's dimension row locked: concurrent generations for one faculty, from any
+     * instance, take turns and the later one sees the report the earlier one stored.
+     * Callers that already hold the latest report pass it in rather than have it read again.
+     */
+    private Report saveReport(String facultyName, int totalFeedback, double avgTeachingQuality, double avgCommunicationSkill,
+                              long positiveCount, long negativeCount, long neutralCount, Supplier<Report> latestReport) {
+        int facultyId = nameDictionary.intern(NameDictionary.Dimension.FACULTY, facultyName);
+        return writeTransaction.execute(status -> {
+            entityManager.createNativeQuery("SELECT id FROM faculty WHERE id = ? FOR UPDATE")
+                    .setParameter(1, facultyId)
+                    .getSingleResult();
+            return storeUnlessUnchanged(facultyName, totalFeedback, avgTeachingQuality, avgCommunicationSkill,
+                    positiveCount, negativeCount, neutralCount, latestReport.get());
+        });
+    }
+    
+    private Report storeUnlessUnchanged(String facultyName, int totalFeedback, double avgTeachingQuality,
+                                        double avgCommunicationSkill, long positiveCount, long negativeCount, long neutralCount,
+                                        Report latest) {
+        // Nothing changed since the last report: return it instead of storing a duplicate
+        String contentHash = Report.contentHash(totalFeedback, avgTeachingQuality, avgCommunicationSkill,
+                (int) positiveCount, (int) negativeCount, (int) neutralCount);
+        if (latest != null && contentHash.equals(latest.getContentHash())) {
+            logger.info("Report for {} unchanged since {}, not stored again", facultyName, latest.getCreatedAt());
+            return latest;
+        }
         
         // Generate sentiment summary
-        int totalFeedback = feedbackList.size();
         double positivePercent = (positiveCount * 100.0) / totalFeedback;
         double negativePercent = (negativeCount * 100.0) / totalFeedback;
         double neutralPercent = (neutralCount * 100.0) / totalFeedback;
@@ -69,19 +182,34 @@ public class ReportGenerationService {
             (int) neutralCount
         );
         
-        Report savedReport = reportRepository.save(report);
+        Report savedReport = tracer.trace("db.report.save", () -> reportRepository.save(report));
         logger.info("Report generated successfully: {}", savedReport.getId());
+        eventPublisher.publishEvent(new ReportGeneratedEvent(savedReport));
         
-        return new ReportGenerationResponse(savedReport);
+        return savedReport;
+    }
+    
+    @Transactional(readOnly = true)
+    public FacultyStatsResponse getFacultyStats(String facultyName, LocalDateTime from, LocalDateTime to) {
+        String name = nameDictionary.resolveDisplayName(NameDictionary.Dimension.FACULTY, facultyName);
+        FacultyColumns columns = columnarAnalyticsCache != null
+                ? columnarAnalyticsCache.get(name)
+                : FacultyColumns.of(tracer.trace("db.feedback.findByFacultyName", () -> feedbackStore.findByFacultyName(name)));
+        if (columns == null || columns.size() == 0) {
+            throw new RuntimeException("No feedback found for this faculty");
+        }
+        return columns.stats(name, from, to);
     }
     
+    @Transactional(readOnly = true)
     public List<Report> getAllReports() {
         logger.info("Retrieving all reports");
-        return reportRepository.findAll();
+        return tracer.trace("db.report.findAll", () -> reportRepository.findAll());
     }
     
+    @Transactional(readOnly = true)
     public List<Report> getReportsByFaculty(String facultyName) {
         logger.info("Retrieving reports for faculty: {}", facultyName);
-        return reportRepository.findByFacultyNameOrderByCreatedAtDesc(facultyName);
+        return tracer.trace("db.report.findByFacultyName", () -> reportRepository.findByFacultyNameOrderByCreatedAtDesc(facultyName));
     }
 }
@@ -0,0 +1,176 @@
+package com.smartfeedback.backend.service;
+
+import com.smartfeedback.backend.analytics.FacultyAggregate;
+import com.smartfeedback.backend.entity.Feedback;
+import com.smartfeedback.backend.entity.Report;
+import com.smartfeedback.backend.repository.FeedbackStore;
+import com.smartfeedback.backend.repository.ReportRepository;
+import com.smartfeedback.backend.tenant.TenantContext;
+import com.smartfeedback.backend.tenant.TenantRegistry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Regenerates reports in the background so dashboards find a current one waiting. Each run
+ * reads every faculty's aggregates in one grouped query and the newest report of each
+ * faculty in another, and only faculties whose counts, averages or sentiment split differ
+ * from their last report get a new one. Reports are written on a small pool, and workers
+ * hold off while requests are queueing for database connections. Tenants are handled one
+ * after another, skipping any that is being moved.
+ */
+@Component
+@ConditionalOnProperty(name = "app.reports.precompute.enabled", havingValue = "true")
+public class ReportPrecomputeScheduler {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ReportPrecomputeScheduler.class);
+    
+    @Value("${app.reports.precompute.threads:2}")
+    private int threads;
+    
+    // Wait while more than this many threads are waiting for a database connection
+    @Value("${app.reports.precompute.max-pending-connections:0}")
+    private int maxPendingConnections;
+    
+    @Value("${app.reports.precompute.throttle-ms:200}")
+    private long throttleMs;
+    
+    // A faculty still waiting after this long is left for the next run
+    @Value("${app.reports.precompute.max-wait-ms:30000}")
+    private long maxWaitMs;
+    
+    @Autowired
+    private FeedbackStore feedbackStore;
+    
+    @Autowired
+    private ReportRepository reportRepository;
+    
+    @Autowired
+    private ReportGenerationService reportGenerationService;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private TenantRegistry tenantRegistry;
+    
+    private ExecutorService pool;
+    
+    @PostConstruct
+    void start() {
+        AtomicInteger threadIndex = new AtomicInteger();
+        pool = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "report-precompute-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    @PreDestroy
+    void stop() {
+        pool.shutdownNow();
+    }
+    
+    @Scheduled(initialDelayString = "${app.reports.precompute.initial-delay-ms:60000}",
+               fixedDelayString = "${app.reports.precompute.interval-ms:300000}")
+    public void precompute() {
+        for (String tenant : tenantRegistry.tenants()) {
+            if (!tenantRegistry.tryBeginWrite(tenant)) {
+                continue;
+            }
+            try {
+                TenantContext.runAs(tenant, this::precomputeTenant);
+            } finally {
+                tenantRegistry.endWrite(tenant);
+            }
+        }
+    }
+    
+    private void precomputeTenant() {
+        long started = System.nanoTime();
+        List<FacultyAggregate> aggregates = feedbackStore.aggregateByFaculty();
+        Map<String, Report> latest = new HashMap<>();
+        for (Report report : reportRepository.findLatestPerFaculty()) {
+            latest.put(report.getFacultyName(), report);
+        }
+        
+        List<Callable<Report>> work = new ArrayList<>();
+        for (FacultyAggregate aggregate : aggregates) {
+            Report current = latest.get(aggregate.getFacultyName());
+            if (!isReflectedIn(aggregate, current)) {
+                work.add(TenantContext.propagate(() -> {
+                    awaitDatabaseCapacity();
+                    return reportGenerationService.generateReport(aggregate, current);
+                }));
+            }
+        }
+        if (work.isEmpty()) {
+            logger.debug("Report precompute for tenant {}: all {} faculties up to date", TenantContext.current(), aggregates.size());
+            return;
+        }
+        
+        int generated = 0;
+        int failed = 0;
+        try {
+            for (Future<Report> result : pool.invokeAll(work)) {
+                try {
+                    result.get();
+                    generated++;
+                } catch (ExecutionException e) {
+                    failed++;
+                    logger.warn("Report precompute failed: {}", e.getCause().getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        logger.info("Report precompute for tenant {}: {} generated, {} failed, {} unchanged in {} ms",
+                TenantContext.current(), generated, failed, aggregates.size() - work.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+    
+    // True when the report was computed from exactly these aggregates
+    static boolean isReflectedIn(FacultyAggregate aggregate, Report report) {
+        return report != null && Report.contentHash((int) aggregate.getCount(),
+                aggregate.averageTeachingQuality(), aggregate.averageCommunicationSkill(),
+                (int) aggregate.count(Feedback.Sentiment.POSITIVE), (int) aggregate.count(Feedback.Sentiment.NEGATIVE),
+                (int) aggregate.count(Feedback.Sentiment.NEUTRAL)).equals(report.getContentHash());
+    }
+    
+    private void awaitDatabaseCapacity() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+        while (pendingConnections() > maxPendingConnections) {
+            if (System.nanoTime() > deadline) {
+                throw new RuntimeException("Database busy, report deferred to the next run");
+            }
+            Thread.sleep(throttleMs);
+        }
+    }
+    
+    // Threads waiting for a connection across all Hikari pools
+    private double pendingConnections() {
+        return meterRegistry.find("hikaricp.connections.pending").gauges().stream()
+                .mapToDouble(Gauge::value)
+                .sum();
+    }
+}
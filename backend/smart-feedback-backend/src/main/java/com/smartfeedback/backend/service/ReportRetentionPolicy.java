@@ -0,0 +1,72 @@
+package com.smartfeedback.backend.service;
+
+import com.smartfeedback.backend.entity.Report;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Thins out one faculty's report history: the newest report of each day is kept for the
+ * last dailyDays days and the newest of each term before that. Of the reports kept, one
+ * that repeats the content of the kept report before it is dropped as well, so the
+ * history only records changes.
+ */
+public class ReportRetentionPolicy {
+    
+    private final int dailyDays;
+    private final AcademicTerms terms;
+    
+    public ReportRetentionPolicy(int dailyDays, int[] termStartMonths) {
+        this(dailyDays, new AcademicTerms(termStartMonths));
+    }
+    
+    public ReportRetentionPolicy(int dailyDays, AcademicTerms terms) {
+        this.dailyDays = dailyDays;
+        this.terms = terms;
+    }
+    
+    // Reports to delete, given one faculty's reports in id (creation) order
+    public List<Report> selectForDeletion(List<Report> reports, LocalDateTime now) {
+        Map<String, Report> newestPerPeriod = new HashMap<>();
+        for (Report report : reports) {
+            newestPerPeriod.put(periodOf(report.getCreatedAt(), now), report);
+        }
+        Set<Report> kept = Collections.newSetFromMap(new IdentityHashMap<>());
+        kept.addAll(newestPerPeriod.values());
+        
+        List<Report> deletions = new ArrayList<>();
+        String previousHash = null;
+        for (Report report : reports) {
+            if (!kept.contains(report)) {
+                deletions.add(report);
+                continue;
+            }
+            // Rows from before content hashes were stored get one computed
+            String hash = report.getContentHash() != null ? report.getContentHash() : report.computeContentHash();
+            if (hash.equals(previousHash)) {
+                deletions.add(report);
+            } else {
+                previousHash = hash;
+            }
+        }
+        return deletions;
+    }
+    
+    String periodOf(LocalDateTime createdAt, LocalDateTime now) {
+        if (createdAt.isAfter(now.minusDays(dailyDays))) {
+            return "day:" + createdAt.toLocalDate();
+        }
+        return "term:" + termStart(createdAt.toLocalDate());
+    }
+    
+    LocalDate termStart(LocalDate date) {
+        return terms.termStart(date);
+    }
+}
@@ -4,18 +4,24 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.smartfeedback.backend.dto.SentimentAnalysisRequest;
 import com.smartfeedback.backend.dto.SentimentAnalysisResponse;
+import com.smartfeedback.backend.entity.Feedback;
+import com.smartfeedback.backend.tracing.Span;
+import com.smartfeedback.backend.tracing.Tracer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class SentimentAnalysisService {
@@ -34,6 +40,25 @@ public class SentimentAnalysisService {
     @Value("${ai.gateway.max-tokens}")
     private int maxTokens;
     
+    // Model for hedged requests; blank sends the hedge to ai.gateway.model
+    @Value("${ai.gateway.hedge.secondary-model:}")
+    private String secondaryModel;
+    
+    @Autowired
+    private GatewayHedgePolicy hedgePolicy;
+    
+    @Autowired
+    private CommentPreprocessor commentPreprocessor;
+    
+    @Autowired
+    private LocalSentimentClassifier localSentimentClassifier;
+    
+    @Autowired
+    private Tracer tracer;
+    
+    // Serialized request bodies per model, built on first use
+    private final Map<String, PromptTemplate> promptTemplates = new ConcurrentHashMap<>();
+    
     private final WebClient webClient;
     private final ObjectMapper objectMapper;
     
@@ -43,76 +68,185 @@ public class SentimentAnalysisService {
     }
     
     public SentimentAnalysisResponse analyzeSentiment(SentimentAnalysisRequest request) {
-        String comment = request.getComment();
-        logger.info("Analyzing sentiment for comment: {}", comment);
+        return analyze(request, true);
+    }
+    
+    // Skips the local model, for re-scoring where the gateway's own label is wanted
+    public SentimentAnalysisResponse analyzeSentimentWithGateway(SentimentAnalysisRequest request) {
+        return analyze(request, false);
+    }
+    
+    private SentimentAnalysisResponse analyze(SentimentAnalysisRequest request, boolean allowLocalModel) {
+        if (request.getComment() == null || request.getComment().trim().isEmpty()) {
+            return new SentimentAnalysisResponse("Neutral", Feedback.SentimentSource.DEFAULT);
+        }
         
-        if (comment == null || comment.trim().isEmpty()) {
-            return new SentimentAnalysisResponse("Neutral");
+        // Empty and emoji-only comments are labelled locally; the rest are redacted and trimmed
+        CommentPreprocessor.PreparedComment prepared = commentPreprocessor.prepare(request.getComment(), request.getStudentName());
+        if (prepared.localLabel() != null) {
+            logger.info("Sentiment decided locally: {}", prepared.localLabel());
+            return new SentimentAnalysisResponse(prepared.localLabel(), Feedback.SentimentSource.RULE);
+        }
+        String comment = prepared.text();
+        if (allowLocalModel) {
+            String localLabel = tracer.trace("sentiment.local-model", () -> localSentimentClassifier.classify(comment));
+            if (localLabel != null) {
+                logger.debug("Sentiment decided by the local model: {}", localLabel);
+                return new SentimentAnalysisResponse(localLabel, Feedback.SentimentSource.LOCAL_MODEL);
+            }
         }
+        logger.info("Analyzing sentiment for comment of {} chars{}", comment.length(), prepared.truncated() ? " (truncated)" : "");
         
         String apiKey = System.getenv("LOVABLE_API_KEY");
-        if (apiKey == null || apiKey.trim().isEmpty() || apiKey.equals("demo_key_for_testing")) {
+        if (!isUsableKey(apiKey)) {
             logger.warn("LOVABLE_API_KEY is not configured or is demo key, returning mock sentiment");
             // Return a mock sentiment for testing purposes
             String mockSentiment = determineMockSentiment(comment);
-            return new SentimentAnalysisResponse(mockSentiment);
+            return new SentimentAnalysisResponse(mockSentiment, Feedback.SentimentSource.MOCK);
         }
         
+        Span span = tracer.startSpan("sentiment.gateway");
         try {
-            Map<String, Object> requestBody = createRequestBody(comment);
-            
-            String response = webClient.post()
-                    .uri(aiGatewayUrl)
-                    .header("Authorization", "Bearer " + apiKey)
-                    .header("Content-Type", "application/json")
-                    .bodyValue(requestBody)
-                    .retrieve()
-                    .onStatus(status -> status.is4xxClientError(), clientResponse -> {
-                        if (clientResponse.statusCode() == HttpStatus.TOO_MANY_REQUESTS) {
-                            return Mono.error(new RuntimeException("Rate limit exceeded. Please try again later."));
-                        }
-                        if (clientResponse.statusCode() == HttpStatus.PAYMENT_REQUIRED) {
-                            return Mono.error(new RuntimeException("Payment required. Please add credits to your Lovable AI workspace."));
-                        }
-                        return Mono.error(new RuntimeException("AI Gateway error: " + clientResponse.statusCode()));
-                    })
-                    .bodyToMono(String.class)
-                    .block();
-            
-            String sentiment = extractSentimentFromResponse(response);
+            span.tag("model", aiModel).tag("hedging", hedgePolicy.isEnabled());
+            // Captured here: hedged requests are built on a timer thread outside the trace
+            String traceparent = tracer.traceparent();
+            hedgePolicy.recordCall();
+            String sentiment = hedgePolicy.isEnabled()
+                    ? classifyHedged(comment, apiKey, traceparent, span)
+                    : parseLabel(timedPrimaryCall(comment, apiKey, traceparent).block());
+            if (sentiment == null) {
+                // No valid label came back; Neutral stands in, but not as the gateway's answer
+                span.tag("label", "none");
+                logger.warn("AI Gateway returned no valid sentiment, defaulting to Neutral");
+                return new SentimentAnalysisResponse("Neutral", Feedback.SentimentSource.DEFAULT);
+            }
+            span.tag("label", sentiment);
             logger.info("Sentiment analysis result: {}", sentiment);
+            localSentimentClassifier.recordGatewayLabel(comment, sentiment);
             
-            return new SentimentAnalysisResponse(sentiment);
+            return new SentimentAnalysisResponse(sentiment, Feedback.SentimentSource.GATEWAY);
             
         } catch (WebClientResponseException e) {
+            span.error(e);
             logger.error("AI Gateway error: {} - {}", e.getStatusCode(), e.getResponseBodyAsString());
             throw new RuntimeException("AI Gateway error: " + e.getStatusCode());
         } catch (Exception e) {
+            span.error(e);
             logger.error("Error in sentiment analysis: ", e);
             throw new RuntimeException("Error analyzing sentiment: " + e.getMessage());
+        } finally {
+            span.close();
         }
     }
     
-    private Map<String, Object> createRequestBody(String comment) {
-        Map<String, Object> requestBody = new HashMap<>();
-        requestBody.put("model", aiModel);
-        requestBody.put("temperature", temperature);
-        requestBody.put("max_tokens", maxTokens);
-        
-        Map<String, Object> systemMessage = new HashMap<>();
-        systemMessage.put("role", "system");
-        systemMessage.put("content", "You are a sentiment analysis expert. Analyze the given feedback comment and classify it as exactly one of: \"Positive\", \"Negative\", or \"Neutral\". Respond with ONLY the sentiment classification word, nothing else.");
-        
-        Map<String, Object> userMessage = new HashMap<>();
-        userMessage.put("role", "user");
-        userMessage.put("content", "Analyze this feedback comment and respond with only one word - Positive, Negative, or Neutral:\n\n\"" + comment + "\"");
+    // False when analysis falls back to the mock for lack of a gateway key
+    public boolean isGatewayConfigured() {
+        return isUsableKey(System.getenv("LOVABLE_API_KEY"));
+    }
+    
+    private static boolean isUsableKey(String apiKey) {
+        return apiKey != null && !apiKey.trim().isEmpty() && !apiKey.equals("demo_key_for_testing");
+    }
+    
+    /**
+     * Sends a duplicate request, to the secondary model when one is configured, if the first
+     * has not answered within the hedge delay. The first valid label wins and the other
+     * request is cancelled; a primary reply without a valid label waits for the hedge, and
+     * null comes back only when neither had one. A failed or unparseable hedge is ignored; a
+     * primary failure still fails the call, so hedging never turns into a retry of
+     * rate-limited requests.
+     */
+    private String classifyHedged(String comment, String apiKey, String traceparent, Span span) {
+        String hedgeModel = StringUtils.hasText(secondaryModel) ? secondaryModel : aiModel;
         
-        requestBody.put("messages", new Object[]{systemMessage, userMessage});
+        Mono<HedgeOutcome> primary = timedPrimaryCall(comment, apiKey, traceparent)
+                .map(response -> new HedgeOutcome(parseLabel(response), false));
+        Mono<HedgeOutcome> hedge = Mono.delay(hedgePolicy.hedgeDelay())
+                .flatMap(tick -> {
+                    if (!hedgePolicy.tryAcquireHedge()) {
+                        return Mono.empty();
+                    }
+                    return callGateway(hedgeModel, comment, apiKey, traceparent)
+                            .mapNotNull(this::parseLabel)
+                            .map(label -> new HedgeOutcome(label, true))
+                            .onErrorResume(e -> {
+                                logger.warn("Hedged gateway request failed: {}", e.getMessage());
+                                return Mono.empty();
+                            });
+                });
         
-        return requestBody;
+        // The hedge completes empty when it is not sent or has no label, so only valid labels race
+        HedgeOutcome outcome = Flux.merge(primary, hedge)
+                .filter(candidate -> candidate.label() != null)
+                .next()
+                .block();
+        if (outcome == null) {
+            return null;
+        }
+        if (outcome.hedged()) {
+            hedgePolicy.recordHedgeWon();
+        }
+        span.tag("hedgeWon", outcome.hedged());
+        return outcome.label();
+    }
+    
+    private Mono<String> timedPrimaryCall(String comment, String apiKey, String traceparent) {
+        return Mono.defer(() -> {
+            long started = System.nanoTime();
+            return callGateway(aiModel, comment, apiKey, traceparent)
+                    .doOnSuccess(response -> hedgePolicy.recordLatency(System.nanoTime() - started))
+                    .doOnCancel(() -> hedgePolicy.recordLatency(System.nanoTime() - started));
+        });
+    }
+    
+    private Mono<String> callGateway(String model, String comment, String apiKey, String traceparent) {
+        return webClient.post()
+                .uri(aiGatewayUrl)
+                .header("Authorization", "Bearer " + apiKey)
+                .header("Content-Type", "application/json")
+                .headers(headers -> {
+                    if (traceparent != null) {
+                        headers.set("traceparent", traceparent);
+                    }
+                })
+                .bodyValue(templateFor(model).render(comment))
+                .retrieve()
+                .onStatus(status -> status.is4xxClientError(), clientResponse -> {
+                    if (clientResponse.statusCode() == HttpStatus.TOO_MANY_REQUESTS) {
+                        return Mono.error(new RuntimeException("Rate limit exceeded. Please try again later."));
+                    }
+                    if (clientResponse.statusCode() == HttpStatus.PAYMENT_REQUIRED) {
+                        return Mono.error(new RuntimeException("Payment required. Please add credits to your Lovable AI workspace."));
+                    }
+                    return Mono.error(new RuntimeException("AI Gateway error: " + clientResponse.statusCode()));
+                })
+                .bodyToMono(String.class);
+    }
+    
+    private record HedgeOutcome(String label, boolean hedged) {}
+    
+    /**
+     * Runs the request-building, serialization and response-parsing code for a comment
+     * without calling the gateway, so startup warm-up can get these paths compiled.
+     */
+    public String warmUp(String comment) {
+        CommentPreprocessor.PreparedComment prepared = commentPreprocessor.prepare(comment, "Warm Up");
+        templateFor(aiModel).render(prepared.text());
+        String sentiment = determineMockSentiment(comment);
+        return extractSentimentFromResponse("{\"choices\":[{\"message\":{\"content\":\"" + sentiment + "\"}}]}");
+    }
+    
+    private PromptTemplate templateFor(String model) {
+        return promptTemplates.computeIfAbsent(model, m -> new PromptTemplate(objectMapper, m, temperature, maxTokens));
     }
     
     private String extractSentimentFromResponse(String response) {
+        String sentiment = parseLabel(response);
+        return sentiment != null ? sentiment : "Neutral";
+    }
+    
+    // The label in a gateway response, or null when it is missing or not a valid sentiment
+    private String parseLabel(String response) {
         try {
             JsonNode jsonNode = objectMapper.readTree(response);
             String sentiment = jsonNode.path("choices").path(0).path("message").path("content").asText().trim();
@@ -125,10 +259,10 @@ public class SentimentAnalysisService {
                 }
             }
             
-            return "Neutral";
+            return null;
         } catch (Exception e) {
             logger.error("Error parsing AI response: ", e);
-            return "Neutral";
+            return null;
         }
     }
     
@@ -0,0 +1,423 @@
+package com.smartfeedback.backend.service;
+
+import com.smartfeedback.backend.dto.BackfillProgressResponse;
+import com.smartfeedback.backend.dto.SentimentAnalysisRequest;
+import com.smartfeedback.backend.dto.SentimentAnalysisResponse;
+import com.smartfeedback.backend.entity.Feedback;
+import com.smartfeedback.backend.event.SentimentUpdatedEvent;
+import com.smartfeedback.backend.repository.FeedbackStore;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Re-scores the sentiment of stored feedback, for example after ai.gateway.model changes or
+ * when rows were classified by the mock fallback. Rows are read in pages by id, classified
+ * on a small worker pool paced by a fixed request rate, and each page's changes are written
+ * in one batch. After every page the last id is checkpointed to a file, so a stopped or
+ * interrupted job carries on from there. Rows that could not be classified are listed in
+ * the checkpoint too, so a resumed job does not skip them, and are tried once more when
+ * the scan reaches the end of the table.
+ *
+ * The worker pool, the rate and a back-off on gateway rate limiting keep the job to a
+ * bounded share of gateway capacity, leaving the rest for live submissions.
+ */
+@Service
+public class SentimentBackfillService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(SentimentBackfillService.class);
+    
+    public enum Status { IDLE, RUNNING, STOPPING, STOPPED, COMPLETED, FAILED }
+    
+    @Value("${app.backfill.checkpoint-file:./data/backfill/checkpoint.properties}")
+    private String checkpointFile;
+    
+    @Value("${app.backfill.batch-size:100}")
+    private int batchSize;
+    
+    @Value("${app.backfill.concurrency:2}")
+    private int concurrency;
+    
+    @Value("${app.backfill.rate-per-second:5}")
+    private double ratePerSecond;
+    
+    @Value("${app.backfill.rate-limit-backoff-ms:5000}")
+    private long rateLimitBackoffMs;
+    
+    @Value("${app.backfill.max-attempts:3}")
+    private int maxAttempts;
+    
+    // Carry on with an interrupted job when the application starts
+    @Value("${app.backfill.resume-on-startup:true}")
+    private boolean resumeOnStartup;
+    
+    @Value("${ai.gateway.model}")
+    private String aiModel;
+    
+    @Autowired
+    private FeedbackStore feedbackStore;
+    
+    @Autowired
+    private SentimentAnalysisService sentimentAnalysisService;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    private ExecutorService coordinator;
+    private ExecutorService workers;
+    
+    // Job state; written by the coordinator thread, read by progress requests
+    private volatile Status status = Status.IDLE;
+    private volatile String model;
+    private volatile long lastId;
+    private volatile long totalRows;
+    private volatile long processed;
+    private volatile long changed;
+    // Ids of rows that could not be classified; kept in the checkpoint until one succeeds
+    private final Set<Long> failedIds = new ConcurrentSkipListSet<>();
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime updatedAt;
+    private volatile String lastError;
+    
+    // Progress of the current run, for the rate and ETA
+    private volatile long runStartedNanos;
+    private volatile long runStartProcessed;
+    
+    private volatile boolean shuttingDown;
+    
+    private record Label(Feedback.Sentiment sentiment, Feedback.SentimentSource source) {}
+    
+    // Next time a gateway request may start, in System.nanoTime terms
+    private long nextPermitNanos;
+    
+    @PostConstruct
+    void start() {
+        coordinator = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sentiment-backfill");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger threadIndex = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(Math.max(1, concurrency), runnable -> {
+            Thread thread = new Thread(runnable, "sentiment-backfill-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            // Request threads win any CPU contention with the job
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        loadCheckpoint();
+    }
+    
+    @PreDestroy
+    void stop() {
+        // Leave the checkpoint as RUNNING so the job resumes on the next start
+        shuttingDown = true;
+        coordinator.shutdownNow();
+        workers.shutdownNow();
+    }
+    
+    @EventListener
+    public void onApplicationReady(ApplicationReadyEvent event) {
+        if (resumeOnStartup && status == Status.RUNNING) {
+            if (!sentimentAnalysisService.isGatewayConfigured()) {
+                logger.warn("Not resuming the sentiment backfill: the AI gateway is not configured");
+                finish(Status.STOPPED);
+                return;
+            }
+            logger.info("Resuming sentiment backfill after id {} ({} of {} processed)", lastId, processed, totalRows);
+            launch();
+        }
+    }
+    
+    /**
+     * Starts a job, or resumes a stopped or failed one from its checkpoint. With restart,
+     * or when the previous job completed, a new job starts from the first row.
+     */
+    public synchronized BackfillProgressResponse startJob(boolean restart) {
+        if (status == Status.RUNNING || status == Status.STOPPING) {
+            throw new RuntimeException("Backfill already running");
+        }
+        if (!sentimentAnalysisService.isGatewayConfigured()) {
+            throw new RuntimeException("AI gateway is not configured; the backfill only applies gateway labels");
+        }
+        if (restart || status == Status.IDLE || status == Status.COMPLETED) {
+            lastId = 0;
+            processed = 0;
+            changed = 0;
+            failedIds.clear();
+            startedAt = LocalDateTime.now();
+            totalRows = feedbackStore.count();
+        }
+        model = aiModel;
+        lastError = null;
+        status = Status.RUNNING;
+        writeCheckpoint();
+        launch();
+        return getProgress();
+    }
+    
+    // The current page still finishes and is checkpointed
+    public synchronized BackfillProgressResponse stopJob() {
+        if (status == Status.RUNNING) {
+            status = Status.STOPPING;
+        }
+        return getProgress();
+    }
+    
+    public BackfillProgressResponse getProgress() {
+        double rate = 0;
+        if (status == Status.RUNNING || status == Status.STOPPING) {
+            double seconds = (System.nanoTime() - runStartedNanos) / 1e9;
+            rate = seconds > 0 ? (processed - runStartProcessed) / seconds : 0;
+        }
+        long remaining = Math.max(0, totalRows - processed);
+        Long etaSeconds = rate > 0 ? (long) Math.ceil(remaining / rate) : null;
+        return new BackfillProgressResponse(status.name(), model, lastId, totalRows, processed, changed, failedIds.size(),
+                rate, etaSeconds, startedAt, updatedAt, lastError);
+    }
+    
+    private void launch() {
+        runStartedNanos = System.nanoTime();
+        runStartProcessed = processed;
+        coordinator.submit(this::run);
+    }
+    
+    private void run() {
+        try {
+            while (status == Status.RUNNING && !shuttingDown) {
+                List<Feedback> page = feedbackStore.findPageAfterId(lastId, batchSize);
+                if (!page.isEmpty()) {
+                    processPage(page, false);
+                } else if (retryFailed()) {
+                    finish(Status.COMPLETED);
+                    return;
+                }
+            }
+            if (!shuttingDown) {
+                finish(Status.STOPPED);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.error("Sentiment backfill failed after id {}", lastId, e);
+            lastError = e.getMessage();
+            finish(Status.FAILED);
+        }
+    }
+    
+    // One more attempt at the rows that failed during the scan; false if the job was stopped first
+    private boolean retryFailed() throws InterruptedException {
+        List<Long> pending = new ArrayList<>(failedIds);
+        for (int from = 0; from < pending.size(); from += batchSize) {
+            if (status != Status.RUNNING || shuttingDown) {
+                return false;
+            }
+            List<Feedback> rows = new ArrayList<>();
+            for (Long id : pending.subList(from, Math.min(from + batchSize, pending.size()))) {
+                Optional<Feedback> feedback = feedbackStore.findById(id);
+                if (feedback.isPresent()) {
+                    rows.add(feedback.get());
+                } else {
+                    // Deleted since
+                    failedIds.remove(id);
+                }
+            }
+            if (!rows.isEmpty()) {
+                processPage(rows, true);
+            }
+        }
+        return true;
+    }
+    
+    private void processPage(List<Feedback> page, boolean retry) throws InterruptedException {
+        List<Future<Label>> results = new ArrayList<>(page.size());
+        for (Feedback feedback : page) {
+            results.add(workers.submit(() -> classify(feedback)));
+        }
+        
+        // A row relabelled by the gateway with the same sentiment still records the new source
+        Map<Feedback.SentimentSource, Map<Long, Feedback.Sentiment>> updatesBySource = new EnumMap<>(Feedback.SentimentSource.class);
+        Map<Long, Feedback.Sentiment> updates = new LinkedHashMap<>();
+        for (int i = 0; i < page.size(); i++) {
+            Feedback feedback = page.get(i);
+            try {
+                Label label = results.get(i).get();
+                if (label.sentiment() != feedback.getSentiment() || label.source() != feedback.getSentimentSource()) {
+                    updatesBySource.computeIfAbsent(label.source(), source -> new LinkedHashMap<>())
+                            .put(feedback.getId(), label.sentiment());
+                }
+                if (label.sentiment() != feedback.getSentiment()) {
+                    updates.put(feedback.getId(), label.sentiment());
+                }
+                failedIds.remove(feedback.getId());
+            } catch (ExecutionException e) {
+                // Left as it was and listed in the checkpoint, since lastId moves past it
+                failedIds.add(feedback.getId());
+                lastError = e.getCause().getMessage();
+                logger.warn("Backfill could not classify feedback {}: {}", feedback.getId(), lastError);
+            }
+        }
+        
+        updatesBySource.forEach((source, sentiments) -> feedbackStore.updateSentiments(sentiments, source));
+        for (Feedback feedback : page) {
+            Feedback.Sentiment sentiment = updates.get(feedback.getId());
+            if (sentiment != null) {
+                eventPublisher.publishEvent(new SentimentUpdatedEvent(
+                        feedback.getId(), feedback.getFacultyName(), feedback.getSentiment(), sentiment));
+            }
+        }
+        
+        if (!retry) {
+            lastId = page.get(page.size() - 1).getId();
+            processed += page.size();
+        }
+        changed += updates.size();
+        writeCheckpoint();
+    }
+    
+    private Label classify(Feedback feedback) throws InterruptedException {
+        String comment = feedback.getComment();
+        if (comment == null || comment.trim().isEmpty()) {
+            return new Label(Feedback.Sentiment.NEUTRAL, Feedback.SentimentSource.DEFAULT);
+        }
+        for (int attempt = 1; ; attempt++) {
+            acquirePermit();
+            try {
+                SentimentAnalysisResponse response = sentimentAnalysisService
+                        .analyzeSentimentWithGateway(new SentimentAnalysisRequest(comment, feedback.getStudentName()));
+                // The mock and the Neutral default stand in for a missing or invalid gateway answer;
+                // writing them back would overwrite real labels, so the row counts as failed instead
+                Feedback.SentimentSource source = response.getSource();
+                if (source != Feedback.SentimentSource.GATEWAY && source != Feedback.SentimentSource.RULE) {
+                    throw new IllegalStateException("No gateway label for feedback " + feedback.getId() + " (" + source + ")");
+                }
+                return new Label(Feedback.Sentiment.valueOf(response.getSentiment().toUpperCase()), source);
+            } catch (RuntimeException e) {
+                if (attempt >= maxAttempts || e.getMessage() == null || !e.getMessage().contains("Rate limit")) {
+                    throw e;
+                }
+                backOff();
+            }
+        }
+    }
+    
+    // Spaces request starts 1/rate apart across all workers
+    private void acquirePermit() throws InterruptedException {
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            long permit = Math.max(now, nextPermitNanos);
+            nextPermitNanos = permit + (long) (1e9 / Math.max(0.01, ratePerSecond));
+            waitNanos = permit - now;
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+    
+    // The gateway is rate limiting; hold every worker off for a while
+    private synchronized void backOff() {
+        long resumeAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(rateLimitBackoffMs);
+        nextPermitNanos = Math.max(nextPermitNanos, resumeAt);
+        logger.warn("Gateway rate limited the backfill, pausing for {} ms", rateLimitBackoffMs);
+    }
+    
+    private synchronized void finish(Status finalStatus) {
+        status = finalStatus;
+        writeCheckpoint();
+        logger.info("Sentiment backfill {}: {} processed, {} changed, {} failed",
+                finalStatus.name().toLowerCase(), processed, changed, failedIds.size());
+    }
+    
+    private void writeCheckpoint() {
+        updatedAt = LocalDateTime.now();
+        Properties properties = new Properties();
+        properties.setProperty("status", status.name());
+        properties.setProperty("model", model != null ? model : "");
+        properties.setProperty("lastId", Long.toString(lastId));
+        properties.setProperty("totalRows", Long.toString(totalRows));
+        properties.setProperty("processed", Long.toString(processed));
+        properties.setProperty("changed", Long.toString(changed));
+        properties.setProperty("failedIds", failedIds.stream().map(String::valueOf).collect(Collectors.joining(",")));
+        properties.setProperty("startedAt", startedAt != null ? startedAt.toString() : "");
+        properties.setProperty("updatedAt", updatedAt.toString());
+        try {
+            Path target = Paths.get(checkpointFile);
+            Path directory = target.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path tmp = directory.resolve(target.getFileName() + ".tmp");
+            try (Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                properties.store(writer, "Sentiment backfill checkpoint");
+            }
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write backfill checkpoint", e);
+        }
+    }
+    
+    private void loadCheckpoint() {
+        Path path = Paths.get(checkpointFile);
+        if (!Files.exists(path)) {
+            return;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            logger.warn("Ignoring unreadable backfill checkpoint {}", path, e);
+            return;
+        }
+        status = Status.valueOf(properties.getProperty("status", Status.IDLE.name()));
+        model = properties.getProperty("model");
+        lastId = Long.parseLong(properties.getProperty("lastId", "0"));
+        totalRows = Long.parseLong(properties.getProperty("totalRows", "0"));
+        processed = Long.parseLong(properties.getProperty("processed", "0"));
+        changed = Long.parseLong(properties.getProperty("changed", "0"));
+        failedIds.clear();
+        for (String id : properties.getProperty("failedIds", "").split(",")) {
+            if (!id.isBlank()) {
+                failedIds.add(Long.parseLong(id.trim()));
+            }
+        }
+        String started = properties.getProperty("startedAt", "");
+        startedAt = started.isEmpty() ? null : LocalDateTime.parse(started);
+        updatedAt = LocalDateTime.parse(properties.getProperty("updatedAt"));
+        if (status == Status.STOPPING) {
+            status = Status.STOPPED;
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package com.smartfeedback.backend.service;
+
+import com.smartfeedback.backend.entity.Feedback;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Multinomial Naive Bayes over hashed word unigrams and bigrams, each counted once per
+ * comment. Features are hashed into 2^bits buckets, so the model has a fixed size no
+ * matter the vocabulary; log-likelihoods are kept as one float array laid out bucket by
+ * bucket, so scoring a feature touches one cache line. Immutable once built.
+ *
+ * The file form is gzipped: a header with the class counts, then only the non-empty
+ * buckets as delta-encoded indexes with their per-class counts.
+ */
+public final class SentimentModel {
+    
+    private static final int MAGIC = 0x53464E42; // "SFNB"
+    private static final int VERSION = 1;
+    private static final Feedback.Sentiment[] LABELS = Feedback.Sentiment.values();
+    private static final int CLASSES = LABELS.length;
+    private static final int MAX_FEATURES = 512;
+    
+    public record Prediction(Feedback.Sentiment label, double confidence) {}
+    
+    private final int bits;
+    private final float alpha;
+    private final long trainedAt;
+    private final int[] docs;
+    private final long[] tokens;
+    private final int[] counts;
+    private final float[] logLikelihood;
+    private final double[] logPrior = new double[CLASSES];
+    
+    private SentimentModel(int bits, float alpha, long trainedAt, int[] docs, long[] tokens, int[] counts) {
+        this.bits = bits;
+        this.alpha = alpha;
+        this.trainedAt = trainedAt;
+        this.docs = docs;
+        this.tokens = tokens;
+        this.counts = counts;
+        
+        int buckets = 1 << bits;
+        long totalDocs = Arrays.stream(docs).asLongStream().sum();
+        double[] denominators = new double[CLASSES];
+        for (int c = 0; c < CLASSES; c++) {
+            logPrior[c] = Math.log((docs[c] + 1.0) / (totalDocs + CLASSES));
+            denominators[c] = Math.log(tokens[c] + (double) alpha * buckets);
+        }
+        logLikelihood = new float[counts.length];
+        for (int i = 0; i < counts.length; i++) {
+            logLikelihood[i] = (float) (Math.log(counts[i] + alpha) - denominators[i % CLASSES]);
+        }
+    }
+    
+    public static Trainer trainer(int bits, double alpha) {
+        return new Trainer(bits, (float) alpha);
+    }
+    
+    public Prediction predict(String text) {
+        int[] features = features(text, bits);
+        double[] scores = logPrior.clone();
+        for (int feature : features) {
+            int base = feature * CLASSES;
+            for (int c = 0; c < CLASSES; c++) {
+                scores[c] += logLikelihood[base + c];
+            }
+        }
+        
+        // Softmax over the log scores, shifted by the best for stability
+        int best = 0;
+        for (int c = 1; c < CLASSES; c++) {
+            if (scores[c] > scores[best]) {
+                best = c;
+            }
+        }
+        double sum = 0;
+        for (int c = 0; c < CLASSES; c++) {
+            sum += Math.exp(scores[c] - scores[best]);
+        }
+        return new Prediction(LABELS[best], 1.0 / sum);
+    }
+    
+    public long getTrainedAt() {
+        return trainedAt;
+    }
+    
+    public int getTrainingRows() {
+        return Arrays.stream(docs).sum();
+    }
+    
+    public void write(OutputStream target) throws IOException {
+        GZIPOutputStream gzip = new GZIPOutputStream(target);
+        DataOutputStream out = new DataOutputStream(gzip);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeByte(bits);
+        out.writeFloat(alpha);
+        out.writeLong(trainedAt);
+        out.writeByte(CLASSES);
+        for (int c = 0; c < CLASSES; c++) {
+            out.writeInt(docs[c]);
+            out.writeLong(tokens[c]);
+        }
+        int buckets = 1 << bits;
+        int used = 0;
+        for (int b = 0; b < buckets; b++) {
+            if (!isEmpty(b)) {
+                used++;
+            }
+        }
+        out.writeInt(used);
+        int previous = -1;
+        for (int b = 0; b < buckets; b++) {
+            if (isEmpty(b)) {
+                continue;
+            }
+            writeVarInt(out, b - previous);
+            previous = b;
+            for (int c = 0; c < CLASSES; c++) {
+                writeVarInt(out, counts[b * CLASSES + c]);
+            }
+        }
+        out.flush();
+        gzip.finish();
+    }
+    
+    public static SentimentModel read(InputStream source) throws IOException {
+        DataInputStream in = new DataInputStream(new GZIPInputStream(source));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a sentiment model file");
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported sentiment model version " + version);
+        }
+        int bits = in.readByte();
+        float alpha = in.readFloat();
+        long trainedAt = in.readLong();
+        if (in.readByte() != CLASSES) {
+            throw new IOException("Sentiment model was trained for different labels");
+        }
+        int[] docs = new int[CLASSES];
+        long[] tokens = new long[CLASSES];
+        for (int c = 0; c < CLASSES; c++) {
+            docs[c] = in.readInt();
+            tokens[c] = in.readLong();
+        }
+        int[] counts = new int[(1 << bits) * CLASSES];
+        int used = in.readInt();
+        int bucket = -1;
+        for (int i = 0; i < used; i++) {
+            bucket += readVarInt(in);
+            for (int c = 0; c < CLASSES; c++) {
+                counts[bucket * CLASSES + c] = readVarInt(in);
+            }
+        }
+        return new SentimentModel(bits, alpha, trainedAt, docs, tokens, counts);
+    }
+    
+    private boolean isEmpty(int bucket) {
+        for (int c = 0; c < CLASSES; c++) {
+            if (counts[bucket * CLASSES + c] != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Distinct hashed features of a comment: lower-cased words (letters, digits and
+     * apostrophes) and adjacent word pairs, which is where "not good" differs from "good".
+     */
+    static int[] features(String text, int bits) {
+        int mask = (1 << bits) - 1;
+        int[] features = new int[Math.min(MAX_FEATURES, text.length() * 2 + 1)];
+        int n = 0;
+        int previous = 0;
+        boolean hasPrevious = false;
+        int i = 0;
+        int length = text.length();
+        while (i < length && n < features.length - 1) {
+            char ch = text.charAt(i);
+            if (!isWordChar(ch)) {
+                i++;
+                continue;
+            }
+            int hash = 0;
+            while (i < length && isWordChar(text.charAt(i))) {
+                hash = 31 * hash + Character.toLowerCase(text.charAt(i));
+                i++;
+            }
+            features[n++] = mix(hash) & mask;
+            if (hasPrevious) {
+                features[n++] = mix(previous * 0x01000193 ^ hash ^ 0x5bd1e995) & mask;
+            }
+            previous = hash;
+            hasPrevious = true;
+        }
+        
+        Arrays.sort(features, 0, n);
+        int distinct = 0;
+        for (int j = 0; j < n; j++) {
+            if (distinct == 0 || features[j] != features[distinct - 1]) {
+                features[distinct++] = features[j];
+            }
+        }
+        return Arrays.copyOf(features, distinct);
+    }
+    
+    private static boolean isWordChar(char ch) {
+        return Character.isLetterOrDigit(ch) || ch == '\'';
+    }
+    
+    // Murmur3 finalizer, so similar words land in unrelated buckets
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+    
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+    
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+    }
+    
+    /**
+     * Accumulates labelled comments; not thread-safe.
+     */
+    public static final class Trainer {
+        
+        private final int bits;
+        private final float alpha;
+        private final int[] docs = new int[CLASSES];
+        private final long[] tokens = new long[CLASSES];
+        private final int[] counts;
+        
+        private Trainer(int bits, float alpha) {
+            if (bits < 8 || bits > 24) {
+                throw new IllegalArgumentException("Hash bits must be between 8 and 24");
+            }
+            this.bits = bits;
+            this.alpha = alpha;
+            this.counts = new int[(1 << bits) * CLASSES];
+        }
+        
+        public void add(String text, Feedback.Sentiment label) {
+            int c = label.ordinal();
+            docs[c]++;
+            for (int feature : features(text, bits)) {
+                counts[feature * CLASSES + c]++;
+                tokens[c]++;
+            }
+        }
+        
+        public SentimentModel build() {
+            return new SentimentModel(bits, alpha, System.currentTimeMillis(), docs.clone(), tokens.clone(), counts.clone());
+        }
+    }
+}
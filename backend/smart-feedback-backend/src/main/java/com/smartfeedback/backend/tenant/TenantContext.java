@@ -0,0 +1,64 @@
+package com.smartfeedback.backend.tenant;
+
+import java.util.concurrent.Callable;
+
+/**
+ * The tenant the current thread is working for. Bound per request by the API key filter
+ * and around background work; unbound threads act for the default tenant, which is the
+ * only tenant when tenancy is disabled.
+ */
+public final class TenantContext {
+    
+    public static final String DEFAULT_TENANT = "default";
+    
+    private static final ThreadLocal<String> currentTenant = new ThreadLocal<>();
+    
+    private TenantContext() {}
+    
+    public static String current() {
+        String tenant = currentTenant.get();
+        return tenant != null ? tenant : DEFAULT_TENANT;
+    }
+    
+    public static void set(String tenant) {
+        currentTenant.set(tenant);
+    }
+    
+    public static void clear() {
+        currentTenant.remove();
+    }
+    
+    public static void runAs(String tenant, Runnable work) {
+        String previous = currentTenant.get();
+        currentTenant.set(tenant);
+        try {
+            work.run();
+        } finally {
+            restore(previous);
+        }
+    }
+    
+    public static <T> T callAs(String tenant, Callable<T> work) throws Exception {
+        String previous = currentTenant.get();
+        currentTenant.set(tenant);
+        try {
+            return work.call();
+        } finally {
+            restore(previous);
+        }
+    }
+    
+    // Binds the caller's tenant inside work handed to another thread
+    public static <T> Callable<T> propagate(Callable<T> work) {
+        String tenant = current();
+        return () -> callAs(tenant, work);
+    }
+    
+    private static void restore(String previous) {
+        if (previous != null) {
+            currentTenant.set(previous);
+        } else {
+            currentTenant.remove();
+        }
+    }
+}
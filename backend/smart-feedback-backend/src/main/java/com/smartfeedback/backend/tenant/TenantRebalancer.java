@@ -0,0 +1,274 @@
+package com.smartfeedback.backend.tenant;
+
+import com.smartfeedback.backend.config.TenantRoutingDataSource;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Moves a tenant's schema from one shard to another. The tenant is closed to writes while
+ * its tables are copied in id order inside one target transaction, identity counters are
+ * moved past the copied ids and row counts are compared; only then is the placement
+ * switched and the source tables emptied. Reads keep going to the source until the switch.
+ * Ids are copied unchanged, so caches keyed by id stay valid.
+ */
+@Component
+@ConditionalOnProperty(name = "app.tenancy.enabled", havingValue = "true")
+public class TenantRebalancer {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TenantRebalancer.class);
+    
+    // Parents before children, so foreign keys hold while copying
+    private static final List<String> TABLES = List.of("faculty", "students", "feedback", "reports");
+    
+    @Value("${app.tenancy.rebalance.batch-size:1000}")
+    private int batchSize;
+    
+    @Value("${app.tenancy.rebalance.drain-timeout-ms:30000}")
+    private long drainTimeoutMs;
+    
+    @Autowired
+    private TenantRegistry tenantRegistry;
+    
+    @Autowired
+    private TenantRoutingDataSource dataSource;
+    
+    @Autowired
+    private TenantSchemaInitializer schemaInitializer;
+    
+    private ExecutorService executor;
+    // Replaced, never modified, so status readers see a consistent copy
+    private volatile Map<String, Object> lastMove;
+    
+    @PostConstruct
+    void start() {
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tenant-rebalancer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+    
+    public synchronized Map<String, Object> startMove(String tenant, String targetShard) {
+        if (!tenantRegistry.isKnown(tenant)) {
+            throw new RuntimeException("Unknown tenant: " + tenant);
+        }
+        if (!dataSource.hasShard(targetShard)) {
+            throw new RuntimeException("Unknown shard: " + targetShard);
+        }
+        String sourceShard = tenantRegistry.shardOf(tenant);
+        if (sourceShard.equals(targetShard)) {
+            throw new RuntimeException("Tenant " + tenant + " is already on shard " + targetShard);
+        }
+        if (lastMove != null && "RUNNING".equals(lastMove.get("status"))) {
+            throw new RuntimeException("A tenant move is already running");
+        }
+        
+        Map<String, Object> move = new LinkedHashMap<>();
+        move.put("tenant", tenant);
+        move.put("fromShard", sourceShard);
+        move.put("toShard", targetShard);
+        move.put("status", "RUNNING");
+        move.put("rowsCopied", 0L);
+        move.put("startedAt", LocalDateTime.now());
+        lastMove = move;
+        executor.execute(() -> run(tenant, sourceShard, targetShard));
+        return move;
+    }
+    
+    public Map<String, Object> getStatus() {
+        List<Map<String, Object>> tenants = new ArrayList<>();
+        for (String tenant : tenantRegistry.tenants()) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            String shard = tenantRegistry.shardOf(tenant);
+            entry.put("tenant", tenant);
+            entry.put("shard", shard);
+            entry.put("schema", TenantRegistry.schemaOf(tenant));
+            entry.put("moving", tenantRegistry.isMoving(tenant));
+            entry.put("feedbackRows", countFeedback(tenant, shard));
+            tenants.add(entry);
+        }
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("tenants", tenants);
+        status.put("lastMove", lastMove);
+        return status;
+    }
+    
+    private void run(String tenant, String sourceShard, String targetShard) {
+        long started = System.nanoTime();
+        try {
+            if (!tenantRegistry.beginMove(tenant, drainTimeoutMs)) {
+                throw new IllegalStateException("Writes for tenant " + tenant + " did not finish within " + drainTimeoutMs + " ms");
+            }
+            long copied;
+            try {
+                copied = copy(tenant, sourceShard, targetShard);
+                tenantRegistry.assign(tenant, targetShard);
+                clear(tenant, sourceShard);
+            } finally {
+                tenantRegistry.endMove(tenant);
+            }
+            finish("COMPLETED", copied, null);
+            logger.info("Moved tenant {} from shard {} to {}: {} rows in {} ms", tenant, sourceShard, targetShard,
+                    copied, (System.nanoTime() - started) / 1_000_000);
+        } catch (Exception e) {
+            finish("FAILED", null, e.getMessage());
+            logger.error("Moving tenant {} to shard {} failed", tenant, targetShard, e);
+        }
+    }
+    
+    private void finish(String status, Long rowsCopied, String error) {
+        Map<String, Object> move = new LinkedHashMap<>(lastMove);
+        move.put("status", status);
+        if (rowsCopied != null) {
+            move.put("rowsCopied", rowsCopied);
+        }
+        if (error != null) {
+            move.put("error", error);
+        }
+        move.put("finishedAt", LocalDateTime.now());
+        lastMove = move;
+    }
+    
+    private long copy(String tenant, String sourceShard, String targetShard) throws SQLException {
+        String schema = TenantRegistry.schemaOf(tenant);
+        schemaInitializer.ensureSchema(tenant, targetShard);
+        long copied = 0;
+        try (Connection from = dataSource.shard(sourceShard).getConnection();
+             Connection to = dataSource.shard(targetShard).getConnection()) {
+            from.setSchema(schema);
+            to.setSchema(schema);
+            from.setReadOnly(true);
+            to.setAutoCommit(false);
+            try {
+                for (String table : TABLES) {
+                    if (count(to, table) > 0) {
+                        throw new IllegalStateException("Table " + schema + "." + table + " on shard " + targetShard + " is not empty");
+                    }
+                }
+                for (String table : TABLES) {
+                    long rows = copyTable(from, to, table);
+                    if (rows != count(from, table)) {
+                        throw new IllegalStateException("Row count of " + table + " changed while copying");
+                    }
+                    copied += rows;
+                }
+                to.commit();
+            } catch (SQLException | RuntimeException e) {
+                to.rollback();
+                throw e;
+            }
+            
+            // Only once every row is committed: H2 commits DDL implicitly, which mid-copy would
+            // have left a partial target that every retry then refuses as not empty
+            try {
+                for (String table : TABLES) {
+                    restartIdentity(to, table);
+                }
+            } catch (SQLException | RuntimeException e) {
+                clear(tenant, targetShard);
+                throw e;
+            }
+        }
+        return copied;
+    }
+    
+    private long copyTable(Connection from, Connection to, String table) throws SQLException {
+        long copied = 0;
+        try (Statement select = from.createStatement()) {
+            select.setFetchSize(batchSize);
+            try (ResultSet rows = select.executeQuery("SELECT * FROM " + table + " ORDER BY id")) {
+                ResultSetMetaData meta = rows.getMetaData();
+                int columns = meta.getColumnCount();
+                StringBuilder names = new StringBuilder();
+                StringBuilder placeholders = new StringBuilder();
+                for (int i = 1; i <= columns; i++) {
+                    names.append(i > 1 ? ", " : "").append(meta.getColumnName(i));
+                    placeholders.append(i > 1 ? ", ?" : "?");
+                }
+                try (PreparedStatement insert = to.prepareStatement(
+                        "INSERT INTO " + table + " (" + names + ") VALUES (" + placeholders + ")")) {
+                    while (rows.next()) {
+                        for (int i = 1; i <= columns; i++) {
+                            insert.setObject(i, rows.getObject(i));
+                        }
+                        insert.addBatch();
+                        if (++copied % batchSize == 0) {
+                            insert.executeBatch();
+                        }
+                    }
+                    insert.executeBatch();
+                }
+            }
+        }
+        return copied;
+    }
+    
+    // Copied rows keep their ids, so new rows must be numbered after them (H2 syntax)
+    private static void restartIdentity(Connection connection, String table) throws SQLException {
+        long next;
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM " + table)) {
+            rs.next();
+            next = rs.getLong(1);
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + next);
+        }
+    }
+    
+    private void clear(String tenant, String shard) throws SQLException {
+        try (Connection connection = dataSource.shard(shard).getConnection()) {
+            connection.setSchema(TenantRegistry.schemaOf(tenant));
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                for (int i = TABLES.size() - 1; i >= 0; i--) {
+                    statement.executeUpdate("DELETE FROM " + TABLES.get(i));
+                }
+            }
+            connection.commit();
+        }
+    }
+    
+    private Long countFeedback(String tenant, String shard) {
+        try (Connection connection = dataSource.shard(shard).getConnection()) {
+            connection.setSchema(TenantRegistry.schemaOf(tenant));
+            return count(connection, "feedback");
+        } catch (SQLException e) {
+            logger.warn("Could not count feedback of tenant {}: {}", tenant, e.getMessage());
+            return null;
+        }
+    }
+    
+    private static long count(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM " + table)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
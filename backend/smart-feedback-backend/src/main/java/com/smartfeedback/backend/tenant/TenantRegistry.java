@@ -0,0 +1,216 @@
+package com.smartfeedback.backend.tenant;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Tenants, the API keys that belong to them and the shard each one lives on. Every tenant
+ * has its own schema on its shard; the default tenant uses the shard's PUBLIC schema, so a
+ * deployment without tenancy keeps its existing tables. Placement changes made by the
+ * rebalancer are written to the placement file and win over the configured placement.
+ *
+ * Writes are counted per tenant so a move can close the gate and wait for in-flight
+ * writes to finish before copying.
+ */
+@Component
+public class TenantRegistry {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TenantRegistry.class);
+    
+    public static final String PRIMARY_SHARD = "primary";
+    
+    private static final Pattern TENANT_ID = Pattern.compile("[a-z][a-z0-9_]{0,30}");
+    
+    @Value("${app.tenancy.enabled:false}")
+    private boolean enabled;
+    
+    // apiKey:tenant pairs; keys that are not listed belong to the default tenant
+    @Value("${app.tenancy.keys:}")
+    private String keysProperty;
+    
+    // tenant:shard pairs; tenants that are not listed live on the primary shard
+    @Value("${app.tenancy.placement:}")
+    private String placementProperty;
+    
+    @Value("${app.tenancy.placement-file:./data/tenant-placement.properties}")
+    private String placementFile;
+    
+    private final Map<String, String> tenantsByKey = new HashMap<>();
+    private final Map<String, String> shardsByTenant = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> writesInFlight = new ConcurrentHashMap<>();
+    private final Map<String, Boolean> moving = new ConcurrentHashMap<>();
+    
+    @PostConstruct
+    void init() {
+        shardsByTenant.put(TenantContext.DEFAULT_TENANT, PRIMARY_SHARD);
+        if (!enabled) {
+            return;
+        }
+        parsePairs(keysProperty).forEach((key, tenant) -> tenantsByKey.put(key, validTenant(tenant)));
+        tenantsByKey.values().forEach(tenant -> shardsByTenant.put(tenant, PRIMARY_SHARD));
+        parsePairs(placementProperty).forEach((tenant, shard) -> shardsByTenant.put(validTenant(tenant), shard));
+        loadPlacementFile();
+        logger.info("Tenancy enabled: {}", shardsByTenant);
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public String tenantForKey(String apiKey) {
+        String tenant = apiKey != null ? tenantsByKey.get(apiKey) : null;
+        return tenant != null ? tenant : TenantContext.DEFAULT_TENANT;
+    }
+    
+    public boolean isKnown(String tenant) {
+        return shardsByTenant.containsKey(tenant);
+    }
+    
+    // Default tenant first, then by name
+    public List<String> tenants() {
+        List<String> tenants = new ArrayList<>();
+        tenants.add(TenantContext.DEFAULT_TENANT);
+        for (String tenant : new TreeSet<>(shardsByTenant.keySet())) {
+            if (!tenant.equals(TenantContext.DEFAULT_TENANT)) {
+                tenants.add(tenant);
+            }
+        }
+        return tenants;
+    }
+    
+    public String shardOf(String tenant) {
+        String shard = shardsByTenant.get(tenant);
+        if (shard == null) {
+            throw new IllegalStateException("Unknown tenant " + tenant);
+        }
+        return shard;
+    }
+    
+    public Map<String, String> placement() {
+        return Map.copyOf(shardsByTenant);
+    }
+    
+    public static String schemaOf(String tenant) {
+        return TenantContext.DEFAULT_TENANT.equals(tenant) ? "PUBLIC" : "TENANT_" + tenant.toUpperCase(Locale.ROOT);
+    }
+    
+    // False while the tenant is being moved; every true must be paired with endWrite
+    public boolean tryBeginWrite(String tenant) {
+        AtomicInteger writes = writesInFlight.computeIfAbsent(tenant, k -> new AtomicInteger());
+        writes.incrementAndGet();
+        if (moving.containsKey(tenant)) {
+            writes.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+    
+    public void endWrite(String tenant) {
+        writesInFlight.get(tenant).decrementAndGet();
+    }
+    
+    public boolean isMoving(String tenant) {
+        return moving.containsKey(tenant);
+    }
+    
+    // Closes the tenant to writes and waits for the ones in flight; false if they did not drain in time
+    boolean beginMove(String tenant, long timeoutMs) throws InterruptedException {
+        moving.put(tenant, Boolean.TRUE);
+        AtomicInteger writes = writesInFlight.computeIfAbsent(tenant, k -> new AtomicInteger());
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        while (writes.get() > 0) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(10);
+        }
+        return true;
+    }
+    
+    void endMove(String tenant) {
+        moving.remove(tenant);
+    }
+    
+    void assign(String tenant, String shard) {
+        shardsByTenant.put(tenant, shard);
+        writePlacementFile();
+    }
+    
+    private String validTenant(String tenant) {
+        if (!TENANT_ID.matcher(tenant).matches()) {
+            throw new IllegalStateException("Invalid tenant id '" + tenant + "': use lower-case letters, digits and _");
+        }
+        return tenant;
+    }
+    
+    private Map<String, String> parsePairs(String csv) {
+        Map<String, String> pairs = new HashMap<>();
+        if (!StringUtils.hasText(csv)) {
+            return pairs;
+        }
+        for (String pair : csv.split(",")) {
+            int separator = pair.lastIndexOf(':');
+            if (separator <= 0 || separator == pair.trim().length() - 1) {
+                throw new IllegalStateException("Invalid tenancy entry '" + pair.trim() + "', expected name:value");
+            }
+            pairs.put(pair.substring(0, separator).trim(), pair.substring(separator + 1).trim());
+        }
+        return pairs;
+    }
+    
+    private void loadPlacementFile() {
+        Path path = Paths.get(placementFile);
+        if (!Files.exists(path)) {
+            return;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read tenant placement " + path, e);
+        }
+        properties.stringPropertyNames().forEach(tenant -> shardsByTenant.put(validTenant(tenant), properties.getProperty(tenant)));
+    }
+    
+    private void writePlacementFile() {
+        Properties properties = new Properties();
+        shardsByTenant.forEach(properties::setProperty);
+        try {
+            Path target = Paths.get(placementFile);
+            Path directory = target.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path tmp = directory.resolve(target.getFileName() + ".tmp");
+            try (Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                properties.store(writer, "Tenant placement");
+            }
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write tenant placement", e);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.smartfeedback.backend.tenant;
+
+import com.smartfeedback.backend.config.TenantRoutingDataSource;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Creates each tenant's schema and tables on its shard at startup. Hibernate builds the
+ * default tenant's tables as before; its create script, captured while the entity manager
+ * factory starts, is replayed into every other tenant schema that has no tables yet.
+ */
+@Component
+@ConditionalOnProperty(name = "app.tenancy.enabled", havingValue = "true")
+public class TenantSchemaInitializer {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TenantSchemaInitializer.class);
+    
+    @Autowired
+    private TenantRegistry tenantRegistry;
+    
+    @Autowired
+    private TenantRoutingDataSource dataSource;
+    
+    // Depended on so the create script has been written
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Autowired
+    @Qualifier("tenantSchemaScript")
+    private Path schemaScript;
+    
+    private List<String> statements;
+    
+    @PostConstruct
+    void init() {
+        statements = readStatements();
+        for (String tenant : tenantRegistry.tenants()) {
+            String shard = tenantRegistry.shardOf(tenant);
+            if (!tenant.equals(TenantContext.DEFAULT_TENANT) || !shard.equals(TenantRegistry.PRIMARY_SHARD)) {
+                ensureSchema(tenant, shard);
+            }
+        }
+    }
+    
+    // Creates the tenant's schema and tables on the shard unless they exist; true if created
+    public boolean ensureSchema(String tenant, String shard) {
+        String schema = TenantRegistry.schemaOf(tenant);
+        try (Connection connection = dataSource.shard(shard).getConnection()) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE SCHEMA IF NOT EXISTS " + schema);
+            }
+            if (hasTables(connection, schema)) {
+                return false;
+            }
+            connection.setSchema(schema);
+            try (Statement statement = connection.createStatement()) {
+                for (String sql : statements) {
+                    statement.execute(sql);
+                }
+            }
+            logger.info("Created schema {} for tenant {} on shard {}", schema, tenant, shard);
+            return true;
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to create schema for tenant " + tenant + " on shard " + shard, e);
+        }
+    }
+    
+    private static boolean hasTables(Connection connection, String schema) throws SQLException {
+        try (ResultSet tables = connection.getMetaData().getTables(null, schema, "%", new String[] {"TABLE"})) {
+            return tables.next();
+        }
+    }
+    
+    private List<String> readStatements() {
+        List<String> result = new ArrayList<>();
+        try {
+            for (String line : Files.readAllLines(schemaScript, StandardCharsets.UTF_8)) {
+                String sql = line.trim();
+                if (sql.endsWith(";")) {
+                    sql = sql.substring(0, sql.length() - 1);
+                }
+                if (!sql.isEmpty()) {
+                    result.add(sql);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read tenant schema script", e);
+        }
+        if (result.isEmpty()) {
+            throw new IllegalStateException("Hibernate did not write a schema script to " + schemaScript);
+        }
+        return result;
+    }
+}
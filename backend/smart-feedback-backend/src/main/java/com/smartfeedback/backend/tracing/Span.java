@@ -0,0 +1,63 @@
+package com.smartfeedback.backend.tracing;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One timed stage of a request, opened by {@link Tracer}. Closing it records the end time
+ * and makes its parent current again; closing it twice does nothing. Spans opened outside
+ * a trace are the shared no-op span, so call sites never need to check.
+ */
+public final class Span implements AutoCloseable {
+    
+    static final Span NOOP = new Span(null, null, null, null, 0);
+    
+    private final Tracer.ActiveTrace trace;
+    final String spanId;
+    final String parentSpanId;
+    String name;
+    final long startNanos;
+    long endNanos;
+    Map<String, String> attributes;
+    
+    Span(Tracer.ActiveTrace trace, String spanId, String parentSpanId, String name, long startNanos) {
+        this.trace = trace;
+        this.spanId = spanId;
+        this.parentSpanId = parentSpanId;
+        this.name = name;
+        this.startNanos = startNanos;
+    }
+    
+    public Span tag(String key, Object value) {
+        if (trace != null && value != null) {
+            if (attributes == null) {
+                attributes = new LinkedHashMap<>();
+            }
+            attributes.put(key, String.valueOf(value));
+        }
+        return this;
+    }
+    
+    public Span error(Throwable error) {
+        return tag("error", error.getClass().getSimpleName() + ": " + error.getMessage());
+    }
+    
+    public Span rename(String name) {
+        if (trace != null) {
+            this.name = name;
+        }
+        return this;
+    }
+    
+    public boolean isRecording() {
+        return trace != null;
+    }
+    
+    @Override
+    public void close() {
+        if (trace != null && endNanos == 0) {
+            endNanos = System.nanoTime();
+            trace.closed(this);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.smartfeedback.backend.tracing;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A finished trace as kept in memory and exported. Span start times are offsets from the
+ * start of the trace; sampled is false for traces kept only because they were slow.
+ */
+public record TraceRecord(String traceId, String name, Instant startedAt, long durationMicros, boolean sampled,
+                          List<SpanRecord> spans) {
+    
+    public record SpanRecord(String spanId, String parentSpanId, String name, long startMicros, long durationMicros,
+                             Map<String, String> attributes) {}
+}
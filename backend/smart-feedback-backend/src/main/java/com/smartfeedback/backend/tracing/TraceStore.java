@@ -0,0 +1,144 @@
+package com.smartfeedback.backend.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The last app.tracing.buffer-size kept traces, in a ring that overwrites the oldest, for
+ * the traces actuator endpoint. With app.tracing.export-file set, each trace is also
+ * appended to that file as one JSON line by a background writer; when the writer falls
+ * behind, traces are left out of the file rather than delaying requests.
+ */
+@Component
+public class TraceStore {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TraceStore.class);
+    
+    @Value("${app.tracing.buffer-size:500}")
+    private int bufferSize;
+    
+    @Value("${app.tracing.export-file:}")
+    private String exportFile;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    private TraceRecord[] ring;
+    private long added;
+    private final AtomicLong exportDropped = new AtomicLong();
+    
+    private ThreadPoolExecutor exporter;
+    private BufferedWriter writer;
+    
+    @PostConstruct
+    void start() {
+        ring = new TraceRecord[Math.max(1, bufferSize)];
+        if (!StringUtils.hasText(exportFile)) {
+            return;
+        }
+        try {
+            Path path = Paths.get(exportFile);
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            logger.error("Cannot open trace export file {}: {}", exportFile, e.getMessage());
+            return;
+        }
+        exporter = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1000), runnable -> {
+            Thread thread = new Thread(runnable, "trace-export");
+            thread.setDaemon(true);
+            return thread;
+        }, (runnable, executor) -> exportDropped.incrementAndGet());
+    }
+    
+    @PreDestroy
+    void stop() throws IOException, InterruptedException {
+        if (exporter != null) {
+            exporter.shutdown();
+            exporter.awaitTermination(5, TimeUnit.SECONDS);
+            writer.close();
+        }
+    }
+    
+    public void add(TraceRecord trace) {
+        synchronized (this) {
+            ring[(int) (added % ring.length)] = trace;
+            added++;
+        }
+        if (exporter != null) {
+            exporter.execute(() -> export(trace));
+        }
+    }
+    
+    private void export(TraceRecord trace) {
+        try {
+            writer.write(objectMapper.writeValueAsString(trace));
+            writer.newLine();
+            if (exporter.getQueue().isEmpty()) {
+                writer.flush();
+            }
+        } catch (IOException e) {
+            exportDropped.incrementAndGet();
+            logger.warn("Could not export trace {}: {}", trace.traceId(), e.getMessage());
+        }
+    }
+    
+    // Newest first, at most limit traces that took at least minDurationMs
+    public List<TraceRecord> recent(int limit, long minDurationMs) {
+        List<TraceRecord> result = new ArrayList<>();
+        synchronized (this) {
+            long oldest = Math.max(0, added - ring.length);
+            for (long i = added - 1; i >= oldest && result.size() < limit; i--) {
+                TraceRecord trace = ring[(int) (i % ring.length)];
+                if (trace.durationMicros() >= minDurationMs * 1000) {
+                    result.add(trace);
+                }
+            }
+        }
+        return result;
+    }
+    
+    public TraceRecord find(String traceId) {
+        synchronized (this) {
+            long oldest = Math.max(0, added - ring.length);
+            for (long i = added - 1; i >= oldest; i--) {
+                TraceRecord trace = ring[(int) (i % ring.length)];
+                if (trace.traceId().equals(traceId)) {
+                    return trace;
+                }
+            }
+        }
+        return null;
+    }
+    
+    public synchronized long getAdded() {
+        return added;
+    }
+    
+    public long getExportDropped() {
+        return exportDropped.get();
+    }
+}
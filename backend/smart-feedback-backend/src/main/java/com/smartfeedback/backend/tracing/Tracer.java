@@ -0,0 +1,183 @@
+package com.smartfeedback.backend.tracing;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Request tracing without an external collector. A trace is started per API request,
+ * continuing the caller's W3C traceparent when there is one, and spans opened on the
+ * request thread nest under whichever span is current. A trace is kept when it was
+ * sampled, by the caller's flag or app.tracing.sample-rate, or when it took longer than
+ * app.tracing.slow-threshold-ms, so slow requests can always be looked at afterwards.
+ * Kept traces go to the {@link TraceStore}.
+ */
+@Component
+public class Tracer {
+    
+    private static final Pattern TRACEPARENT = Pattern.compile("[0-9a-f]{2}-[0-9a-f]{32}-[0-9a-f]{16}-[0-9a-f]{2}");
+    private static final String INVALID_TRACE_ID = "0".repeat(32);
+    private static final String INVALID_SPAN_ID = "0".repeat(16);
+    
+    private static final ThreadLocal<ActiveTrace> CURRENT = new ThreadLocal<>();
+    
+    @Value("${app.tracing.enabled:false}")
+    private boolean enabled;
+    
+    @Value("${app.tracing.sample-rate:0.01}")
+    private double sampleRate;
+    
+    // Unsampled traces slower than this are kept too; 0 keeps only sampled ones
+    @Value("${app.tracing.slow-threshold-ms:1000}")
+    private long slowThresholdMs;
+    
+    @Value("${app.tracing.max-spans:200}")
+    private int maxSpans;
+    
+    @Autowired
+    private TraceStore traceStore;
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    /**
+     * Starts a trace on this thread with a root span; closing the root finishes the trace.
+     * An unparseable traceparent is ignored and a new trace is started.
+     */
+    public Span startTrace(String name, String traceparent) {
+        if (!enabled) {
+            return Span.NOOP;
+        }
+        if (CURRENT.get() != null) {
+            return startSpan(name);
+        }
+        
+        String traceId = null;
+        String parentSpanId = null;
+        boolean sampled = false;
+        if (traceparent != null && TRACEPARENT.matcher(traceparent.trim()).matches()) {
+            String[] parts = traceparent.trim().split("-");
+            if (!"ff".equals(parts[0]) && !INVALID_TRACE_ID.equals(parts[1]) && !INVALID_SPAN_ID.equals(parts[2])) {
+                traceId = parts[1];
+                parentSpanId = parts[2];
+                sampled = (Integer.parseInt(parts[3], 16) & 1) == 1;
+            }
+        }
+        if (traceId == null) {
+            traceId = randomHex(16);
+            sampled = ThreadLocalRandom.current().nextDouble() < sampleRate;
+        }
+        if (!sampled && slowThresholdMs <= 0) {
+            return Span.NOOP;
+        }
+        
+        ActiveTrace trace = new ActiveTrace(traceId, sampled);
+        CURRENT.set(trace);
+        trace.root = trace.open(name, parentSpanId);
+        return trace.root;
+    }
+    
+    // Opens a child of the current span; outside a trace this is a no-op span
+    public Span startSpan(String name) {
+        ActiveTrace trace = CURRENT.get();
+        if (trace == null || trace.spans.size() >= maxSpans) {
+            return Span.NOOP;
+        }
+        return trace.open(name, trace.open.isEmpty() ? null : trace.open.peek().spanId);
+    }
+    
+    // Runs work inside a span, tagging it with the exception if one is thrown
+    public <T> T trace(String name, Supplier<T> work) {
+        try (Span span = startSpan(name)) {
+            try {
+                return work.get();
+            } catch (RuntimeException e) {
+                span.error(e);
+                throw e;
+            }
+        }
+    }
+    
+    // W3C traceparent for an outgoing call made from the current span, or null outside a trace
+    public String traceparent() {
+        ActiveTrace trace = CURRENT.get();
+        if (trace == null || trace.open.isEmpty()) {
+            return null;
+        }
+        return "00-" + trace.traceId + "-" + trace.open.peek().spanId + (trace.sampled ? "-01" : "-00");
+    }
+    
+    private void finish(ActiveTrace trace) {
+        CURRENT.remove();
+        Span root = trace.root;
+        long durationNanos = root.endNanos - root.startNanos;
+        if (!trace.sampled && durationNanos < TimeUnit.MILLISECONDS.toNanos(slowThresholdMs)) {
+            return;
+        }
+        
+        List<TraceRecord.SpanRecord> spans = new ArrayList<>(trace.spans.size());
+        for (Span span : trace.spans) {
+            if (span.endNanos == 0) {
+                span.tag("unfinished", true);
+                span.endNanos = root.endNanos;
+            }
+            spans.add(new TraceRecord.SpanRecord(span.spanId, span.parentSpanId, span.name,
+                    (span.startNanos - root.startNanos) / 1000, (span.endNanos - span.startNanos) / 1000,
+                    span.attributes));
+        }
+        traceStore.add(new TraceRecord(trace.traceId, root.name, trace.startedAt, durationNanos / 1000, trace.sampled, spans));
+    }
+    
+    private static String randomHex(int bytes) {
+        StringBuilder hex = new StringBuilder(bytes * 2);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (hex.length() < bytes * 2) {
+            String part = Long.toHexString(random.nextLong());
+            hex.append("0".repeat(16 - part.length())).append(part);
+        }
+        String id = hex.substring(0, bytes * 2);
+        // All zeros is reserved as invalid
+        return id.chars().allMatch(c -> c == '0') ? randomHex(bytes) : id;
+    }
+    
+    // Spans of the trace running on one request thread; only that thread touches it
+    final class ActiveTrace {
+        
+        final String traceId;
+        final boolean sampled;
+        final Instant startedAt = Instant.now();
+        final List<Span> spans = new ArrayList<>();
+        final Deque<Span> open = new ArrayDeque<>();
+        Span root;
+        
+        ActiveTrace(String traceId, boolean sampled) {
+            this.traceId = traceId;
+            this.sampled = sampled;
+        }
+        
+        Span open(String name, String parentSpanId) {
+            Span span = new Span(this, randomHex(8), parentSpanId, name, System.nanoTime());
+            spans.add(span);
+            open.push(span);
+            return span;
+        }
+        
+        void closed(Span span) {
+            open.remove(span);
+            if (span == root) {
+                finish(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.smartfeedback.backend.analytics;
+
+import com.smartfeedback.backend.dto.AnalyticsRow;
+import com.smartfeedback.backend.entity.Feedback;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnalyticsAggregatorTest {
+
+	@Test
+	void rollsDaysUpIntoWeeksAndDropsUngroupedDimensions() {
+		AnalyticsQuery query = AnalyticsQuery.parse("time,sentiment", "week", null, null, null, null);
+		AnalyticsAggregator aggregator = new AnalyticsAggregator(query);
+		// Wednesday and Sunday of one ISO week, then the following Monday
+		aggregator.add("Dr. Rao", Feedback.Sentiment.POSITIVE, 5, 4, LocalDate.of(2026, 10, 14));
+		aggregator.add("Dr. Iyer", Feedback.Sentiment.POSITIVE, 3, 2, LocalDate.of(2026, 10, 18));
+		aggregator.add("Dr. Rao", Feedback.Sentiment.POSITIVE, 1, 1, LocalDate.of(2026, 10, 19));
+		aggregator.add("Dr. Rao", Feedback.Sentiment.NEGATIVE, 2, 2, LocalDate.of(2026, 10, 19), 3, 6, 9);
+
+		List<AnalyticsRow> rows = aggregator.rows(10);
+		assertEquals(3, rows.size());
+		assertEquals("2026-10-12", rows.get(0).getPeriod());
+		assertNull(rows.get(0).getFaculty());
+		assertNull(rows.get(0).getTeachingQuality());
+		assertEquals(2, rows.get(0).getCount());
+		assertEquals(4.0, rows.get(0).getAvgTeachingQuality(), 1e-9);
+		assertEquals("POSITIVE", rows.get(1).getSentiment());
+		assertEquals("NEGATIVE", rows.get(2).getSentiment());
+		assertEquals(3.0, rows.get(2).getAvgCommunicationSkill(), 1e-9);
+
+		assertEquals(1, aggregator.rows(1).size());
+		assertEquals(3, aggregator.groupCount());
+	}
+
+	@Test
+	void rejectsUnknownDimensionsAndBuckets() {
+		assertThrows(IllegalArgumentException.class, () -> AnalyticsQuery.parse("faculty,room", null, null, null, null, null));
+		assertThrows(IllegalArgumentException.class, () -> AnalyticsQuery.parse("time", "hour", null, null, null, null));
+		assertThrows(IllegalArgumentException.class, () -> AnalyticsQuery.parse("faculty", null, null, List.of("angry"), null, null));
+		assertEquals(AnalyticsQuery.parse("sentiment, faculty", null, List.of("B", "A"), null, null, null),
+				AnalyticsQuery.parse("faculty,sentiment", null, List.of("A", "B"), null, null, null));
+	}
+}
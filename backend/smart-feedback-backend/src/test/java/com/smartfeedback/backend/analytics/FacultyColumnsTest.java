@@ -0,0 +1,53 @@
+package com.smartfeedback.backend.analytics;
+
+import com.smartfeedback.backend.dto.FacultyStatsResponse;
+import com.smartfeedback.backend.entity.Feedback;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FacultyColumnsTest {
+
+	private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+	@Test
+	void aggregatesMatchRowsWithAndWithoutTimeRange() {
+		FacultyColumns columns = new FacultyColumns(4);
+		for (int i = 0; i < 100; i++) {
+			columns.append(feedback(i + 1, 1 + i % 5, 5 - i % 5, START.plusDays(i),
+					i % 2 == 0 ? Feedback.Sentiment.POSITIVE : Feedback.Sentiment.NEGATIVE));
+		}
+		// Duplicate ids are ignored
+		columns.append(feedback(10, 5, 5, START, Feedback.Sentiment.NEUTRAL));
+
+		assertEquals(100, columns.size());
+		assertEquals(3.0, columns.averageTeachingQuality(), 1e-9);
+		assertEquals(50L, columns.count(Feedback.Sentiment.POSITIVE));
+
+		FacultyStatsResponse all = columns.stats("Dr. Rao", null, null);
+		assertEquals(100L, all.getTotalFeedbackCount());
+		assertArrayEquals(new long[] {20, 20, 20, 20, 20}, all.getTeachingQualityHistogram());
+		assertEquals(3, all.getTeachingQualityMedian());
+		assertEquals(5, all.getTeachingQualityP90());
+
+		FacultyStatsResponse range = columns.stats("Dr. Rao", START, START.plusDays(10));
+		assertEquals(10L, range.getTotalFeedbackCount());
+		assertEquals(3.0, range.getAvgTeachingQuality(), 1e-9);
+		assertEquals(5L, range.getPositiveCount());
+
+		assertTrue(columns.updateSentiment(2, Feedback.Sentiment.POSITIVE));
+		assertEquals(51L, columns.count(Feedback.Sentiment.POSITIVE));
+		assertEquals(49L, columns.count(Feedback.Sentiment.NEGATIVE));
+		assertNull(columns.stats("Dr. Rao", START.minusDays(5), START).getAvgTeachingQuality());
+	}
+
+	private static Feedback feedback(long id, int teaching, int communication, LocalDateTime createdAt, Feedback.Sentiment sentiment) {
+		Feedback feedback = new Feedback("Dr. Rao", "Student " + id, teaching, communication, "Comment");
+		feedback.setId(id);
+		feedback.setCreatedAt(createdAt);
+		feedback.setSentiment(sentiment);
+		return feedback;
+	}
+}
@@ -0,0 +1,40 @@
+package com.smartfeedback.backend.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RankedSetTest {
+
+	@Test
+	void ranksAndTopKMatchASortedSetUnderRandomUpdates() {
+		RankedSet<Integer> ranked = new RankedSet<>(Comparator.reverseOrder());
+		TreeSet<Integer> expected = new TreeSet<>(Comparator.reverseOrder());
+		Random random = new Random(39);
+		for (int i = 0; i < 5000; i++) {
+			int value = random.nextInt(1000);
+			if (expected.contains(value)) {
+				ranked.remove(value);
+				expected.remove(value);
+			} else {
+				ranked.add(value);
+				expected.add(value);
+			}
+		}
+
+		assertEquals(expected.size(), ranked.size());
+		List<Integer> sorted = new ArrayList<>(expected);
+		assertEquals(sorted.subList(0, 10), ranked.first(10));
+		for (int i = 0; i < sorted.size(); i += 37) {
+			assertEquals(i + 1, ranked.rankOf(sorted.get(i)));
+		}
+		assertEquals(-1, ranked.rankOf(1000));
+		assertEquals(sorted, ranked.first(Integer.MAX_VALUE));
+	}
+}
@@ -0,0 +1,86 @@
+package com.smartfeedback.backend.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SentimentWindowTest {
+
+	private static final long MINUTE = 60_000L;
+	// A real clock value, so bucket numbers have wrapped past the packed field
+	private static final long NOW = 1_792_400_000_000L;
+
+	@Test
+	void countsOnlyTheRequestedBuckets() {
+		SentimentWindow window = new SentimentWindow(MINUTE, 10);
+		window.record(NOW - 5 * MINUTE, true);
+		window.record(NOW - 5 * MINUTE, false);
+		window.record(NOW - MINUTE, true);
+		window.record(NOW, false);
+
+		assertArrayEquals(new long[] {2, 1}, window.counts(NOW, 2));
+		assertArrayEquals(new long[] {4, 2}, window.counts(NOW, 10));
+		// Asking for more than the ring holds is capped at the ring
+		assertArrayEquals(new long[] {4, 2}, window.counts(NOW, 100));
+	}
+
+	@Test
+	void resetsBucketsLeftFromThePreviousLap() {
+		SentimentWindow window = new SentimentWindow(MINUTE, 10);
+		window.record(NOW, true);
+		window.record(NOW, true);
+		window.record(NOW + 10 * MINUTE, false);
+
+		assertArrayEquals(new long[] {1, 0}, window.counts(NOW + 10 * MINUTE, 10));
+		// The old lap no longer counts even when asked for directly
+		assertArrayEquals(new long[] {0, 0}, window.counts(NOW, 1));
+	}
+
+	@Test
+	void dropsRecordsOlderThanTheRing() {
+		SentimentWindow window = new SentimentWindow(MINUTE, 10);
+		window.record(NOW, false);
+		window.record(NOW - 10 * MINUTE, true);
+
+		assertArrayEquals(new long[] {1, 0}, window.counts(NOW, 10));
+	}
+
+	@Test
+	void bucketsExpireAsTimeMovesOn() {
+		SentimentWindow window = new SentimentWindow(MINUTE, 10);
+		window.record(NOW, true);
+
+		assertArrayEquals(new long[] {1, 1}, window.counts(NOW + 9 * MINUTE, 10));
+		assertArrayEquals(new long[] {0, 0}, window.counts(NOW + 10 * MINUTE, 10));
+	}
+
+	@Test
+	void concurrentRecordsAreAllCounted() throws InterruptedException {
+		SentimentWindow window = new SentimentWindow(MINUTE, 4);
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < 8; t++) {
+			threads.add(new Thread(() -> {
+				for (int i = 0; i < 10_000; i++) {
+					window.record(NOW + (i % 2) * MINUTE, i % 4 == 0);
+				}
+			}));
+		}
+		threads.forEach(Thread::start);
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		assertArrayEquals(new long[] {80_000, 20_000}, window.counts(NOW + MINUTE, 2));
+	}
+
+	@Test
+	void zScoreMeasuresDistanceFromTheBaselineInStandardErrors() {
+		assertEquals(0, SentimentMonitor.zScore(0.1, 100, 0.1), 1e-9);
+		// 40 of 100 negative against an expected 10%: 0.3 / sqrt(0.0009)
+		assertEquals(10, SentimentMonitor.zScore(0.4, 100, 0.1), 1e-9);
+		assertEquals(0, SentimentMonitor.zScore(0.5, 0, 0.1), 1e-9);
+	}
+}
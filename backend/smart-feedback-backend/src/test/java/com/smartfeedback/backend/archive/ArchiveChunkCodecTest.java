@@ -0,0 +1,61 @@
+package com.smartfeedback.backend.archive;
+
+import com.smartfeedback.backend.entity.Feedback;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArchiveChunkCodecTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void roundTripsEveryColumn() throws IOException {
+		LocalDateTime start = LocalDateTime.of(2025, 8, 4, 9, 30, 15, 123_000_000);
+		List<ArchivedRow> rows = List.of(
+				new ArchivedRow(7, 1, 40, 5, 4, Feedback.Sentiment.POSITIVE, start, "Clear and well paced"),
+				new ArchivedRow(9, 2, 41, 1, 2, Feedback.Sentiment.NEGATIVE, start.plusDays(3), "Hard to follow — ünïcode"),
+				// Out-of-order timestamps are allowed: deltas are signed
+				new ArchivedRow(1_000_000_000_123L, 1, 40, 3, 3, null, start.minusHours(5), null),
+				new ArchivedRow(1_000_000_000_124L, 3, 300_000, 2, 5, Feedback.Sentiment.NEUTRAL, start.plusSeconds(1), ""));
+		Path file = dir.resolve("chunk.fbc");
+		ArchiveChunkCodec.write(file, rows);
+
+		assertEquals(rows, ArchiveChunkCodec.read(file));
+		assertArrayEquals(new int[] {40, 41, 40, 300_000}, ArchiveChunkCodec.readStudentIds(file));
+	}
+
+	@Test
+	void compressesRepetitiveRows() throws IOException {
+		List<ArchivedRow> rows = new ArrayList<>();
+		LocalDateTime start = LocalDateTime.of(2025, 1, 6, 8, 0);
+		for (int i = 0; i < 5000; i++) {
+			rows.add(new ArchivedRow(100 + i, i % 12, i % 700, 1 + i % 5, 1 + (i * 3) % 5,
+					Feedback.Sentiment.values()[i % 3], start.plusMinutes(i), "Lecture " + (i % 40) + " was useful"));
+		}
+		Path file = dir.resolve("large.fbc");
+		ArchiveChunkCodec.write(file, rows);
+
+		assertTrue(Files.size(file) < 5000 * 8, "archived " + Files.size(file) + " bytes");
+		assertEquals(rows, ArchiveChunkCodec.read(file));
+	}
+
+	@Test
+	void rejectsFilesThatAreNotChunks() throws IOException {
+		Path file = dir.resolve("other.fbc");
+		try (GZIPOutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+			out.write(new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9});
+		}
+		assertThrows(IOException.class, () -> ArchiveChunkCodec.read(file));
+	}
+}
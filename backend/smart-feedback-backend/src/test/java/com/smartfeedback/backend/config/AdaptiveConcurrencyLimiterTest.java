@@ -0,0 +1,88 @@
+package com.smartfeedback.backend.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+	private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+	// Every release closes a window, so each call is one limit update
+	private static AdaptiveConcurrencyLimiter limiter(int initial, int min, int max) {
+		return new AdaptiveConcurrencyLimiter(initial, min, max, 1.5, 0.2, 0, 1);
+	}
+
+	// Fills the limit and releases every slot with the same latency
+	private static void saturate(AdaptiveConcurrencyLimiter limiter, long rttNanos, boolean dropped) {
+		int taken = 0;
+		while (limiter.tryAcquire()) {
+			taken++;
+		}
+		for (int i = 0; i < taken; i++) {
+			limiter.release(rttNanos, dropped, System.nanoTime());
+		}
+	}
+
+	@Test
+	void rejectsOnceTheLimitIsTaken() {
+		AdaptiveConcurrencyLimiter limiter = limiter(2, 1, 10);
+		assertTrue(limiter.tryAcquire());
+		assertTrue(limiter.tryAcquire());
+		assertFalse(limiter.tryAcquire());
+		assertEquals(2, limiter.getInflight());
+
+		limiter.release(10 * MS, false, System.nanoTime());
+		assertTrue(limiter.tryAcquire());
+	}
+
+	@Test
+	void growsWhileLatencyIsSteadyAndTheLimitIsUsed() {
+		AdaptiveConcurrencyLimiter limiter = limiter(10, 2, 100);
+		for (int round = 0; round < 20; round++) {
+			saturate(limiter, 10 * MS, false);
+		}
+		assertTrue(limiter.getLimit() > 20, "limit was " + limiter.getLimit());
+		assertTrue(limiter.getLimit() <= 100);
+	}
+
+	@Test
+	void shrinksWhenLatencyRises() {
+		AdaptiveConcurrencyLimiter limiter = limiter(40, 2, 100);
+		for (int round = 0; round < 5; round++) {
+			saturate(limiter, 10 * MS, false);
+		}
+		int before = limiter.getLimit();
+		for (int round = 0; round < 10; round++) {
+			saturate(limiter, 60 * MS, false);
+		}
+		assertTrue(limiter.getLimit() < before / 2, before + " -> " + limiter.getLimit());
+		assertTrue(limiter.getLimit() >= 2);
+	}
+
+	@Test
+	void backsOffOnServerErrors() {
+		AdaptiveConcurrencyLimiter limiter = limiter(50, 5, 100);
+		assertTrue(limiter.tryAcquire());
+		limiter.release(10 * MS, true, System.nanoTime());
+		assertEquals(45, limiter.getLimit());
+
+		for (int i = 0; i < 100; i++) {
+			assertTrue(limiter.tryAcquire());
+			limiter.release(10 * MS, true, System.nanoTime());
+		}
+		assertEquals(5, limiter.getLimit());
+	}
+
+	@Test
+	void doesNotGrowWhileMostlyIdle() {
+		AdaptiveConcurrencyLimiter limiter = limiter(20, 2, 100);
+		for (int i = 0; i < 200; i++) {
+			assertTrue(limiter.tryAcquire());
+			limiter.release(10 * MS, false, System.nanoTime());
+		}
+		assertEquals(20, limiter.getLimit());
+	}
+}
@@ -0,0 +1,42 @@
+package com.smartfeedback.backend.config;
+
+import com.smartfeedback.backend.service.NameDictionary;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DimensionMigrationTest {
+
+	@Test
+	void rewritesLegacyNameColumnsToDimensionIds() throws Exception {
+		DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:migration;DB_CLOSE_DELAY=-1", "sa", "");
+		JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+		jdbc.execute("CREATE TABLE feedback (id BIGINT PRIMARY KEY, faculty_name VARCHAR(255) NOT NULL, student_name VARCHAR(255) NOT NULL, teaching_quality INT)");
+		jdbc.execute("CREATE TABLE reports (id BIGINT PRIMARY KEY, faculty_name VARCHAR(255) NOT NULL)");
+		jdbc.update("INSERT INTO feedback VALUES (1, 'Dr. Rao', 'Ann', 4), (2, ' dr.  RAO', 'ann', 2), (3, 'Dr. Iyer', 'Bo', 5)");
+		jdbc.update("INSERT INTO reports VALUES (1, 'DR. RAO')");
+
+		NameDictionary dictionary = new NameDictionary();
+		ReflectionTestUtils.setField(dictionary, "dataSource", dataSource);
+		DimensionMigration migration = new DimensionMigration();
+		ReflectionTestUtils.setField(migration, "dataSource", dataSource);
+		ReflectionTestUtils.setField(migration, "nameDictionary", dictionary);
+		migration.migrate();
+
+		assertEquals(2, jdbc.queryForObject("SELECT COUNT(*) FROM faculty", Integer.class));
+		assertEquals(2, jdbc.queryForObject("SELECT COUNT(*) FROM students", Integer.class));
+		Integer rao = dictionary.find(NameDictionary.Dimension.FACULTY, "dr. rao");
+		assertEquals(2, jdbc.queryForObject("SELECT COUNT(*) FROM feedback WHERE faculty_id = ?", Integer.class, rao));
+		assertEquals(rao, jdbc.queryForObject("SELECT faculty_id FROM reports WHERE id = 1", Integer.class));
+		assertEquals("Dr. Rao", dictionary.displayName(NameDictionary.Dimension.FACULTY, rao));
+		assertEquals(0, jdbc.queryForObject(
+				"SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS WHERE COLUMN_NAME IN ('FACULTY_NAME', 'STUDENT_NAME')", Integer.class));
+
+		// A second run finds nothing left to migrate
+		migration.migrate();
+		assertEquals(2, jdbc.queryForObject("SELECT COUNT(*) FROM faculty", Integer.class));
+	}
+}
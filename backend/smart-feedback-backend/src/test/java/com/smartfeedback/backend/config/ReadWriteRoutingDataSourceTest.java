@@ -0,0 +1,49 @@
+package com.smartfeedback.backend.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadWriteRoutingDataSourceTest {
+
+	@Test
+	void readOnlyTransactionsUseReplicaUnlessPinned() {
+		DataSource primary = database("routing_primary", "primary");
+		DataSource replica = database("routing_replica", "replica");
+		DataSource routing = ReadWriteRoutingDataSource.create(primary, replica);
+		JdbcTemplate jdbc = new JdbcTemplate(routing);
+		TransactionTemplate writes = new TransactionTemplate(new DataSourceTransactionManager(routing));
+		TransactionTemplate reads = new TransactionTemplate(new DataSourceTransactionManager(routing));
+		reads.setReadOnly(true);
+
+		assertEquals("primary", writes.execute(status -> whoAmI(jdbc)));
+		assertEquals("replica", reads.execute(status -> whoAmI(jdbc)));
+		assertEquals("primary", whoAmI(jdbc), "no transaction goes to the primary");
+
+		ReadWriteRoutingDataSource.pinToPrimary();
+		try {
+			assertEquals("primary", reads.execute(status -> whoAmI(jdbc)));
+		} finally {
+			ReadWriteRoutingDataSource.unpin();
+		}
+		assertEquals("replica", reads.execute(status -> whoAmI(jdbc)));
+	}
+
+	private static String whoAmI(JdbcTemplate jdbc) {
+		return jdbc.queryForObject("SELECT name FROM marker", String.class);
+	}
+
+	private static DataSource database(String name, String marker) {
+		DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+		JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+		jdbc.execute("CREATE TABLE marker (name VARCHAR(16))");
+		jdbc.update("INSERT INTO marker VALUES (?)", marker);
+		return dataSource;
+	}
+}
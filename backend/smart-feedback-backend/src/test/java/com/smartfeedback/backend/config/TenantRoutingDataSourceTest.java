@@ -0,0 +1,55 @@
+package com.smartfeedback.backend.config;
+
+import com.smartfeedback.backend.tenant.TenantContext;
+import com.smartfeedback.backend.tenant.TenantRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TenantRoutingDataSourceTest {
+
+	@Test
+	void routesEachTenantToItsShardAndSchema() {
+		DataSource primary = database("tenant_primary");
+		DataSource shard = database("tenant_shard1");
+		new JdbcTemplate(primary).execute("CREATE TABLE marker (name VARCHAR(16))");
+		new JdbcTemplate(primary).update("INSERT INTO marker VALUES ('default')");
+		for (String tenant : new String[] {"north", "south"}) {
+			JdbcTemplate jdbc = new JdbcTemplate(tenant.equals("north") ? primary : shard);
+			String schema = TenantRegistry.schemaOf(tenant);
+			jdbc.execute("CREATE SCHEMA " + schema);
+			jdbc.execute("CREATE TABLE " + schema + ".marker (name VARCHAR(16))");
+			jdbc.update("INSERT INTO " + schema + ".marker VALUES (?)", tenant);
+		}
+
+		TenantRegistry registry = new TenantRegistry();
+		ReflectionTestUtils.setField(registry, "enabled", true);
+		ReflectionTestUtils.setField(registry, "keysProperty", "key-n:north,key-s:south");
+		ReflectionTestUtils.setField(registry, "placementProperty", "south:shard1");
+		ReflectionTestUtils.setField(registry, "placementFile", "target/tenant-placement-test.properties");
+		ReflectionTestUtils.invokeMethod(registry, "init");
+		JdbcTemplate jdbc = new JdbcTemplate(new TenantRoutingDataSource(registry,
+				Map.of(TenantRegistry.PRIMARY_SHARD, primary, "shard1", shard)));
+
+		assertEquals("south", registry.tenantForKey("key-s"));
+		assertEquals(TenantContext.DEFAULT_TENANT, registry.tenantForKey("unmapped"));
+		assertEquals("default", whoAmI(jdbc));
+		TenantContext.runAs("north", () -> assertEquals("north", whoAmI(jdbc)));
+		TenantContext.runAs("south", () -> assertEquals("south", whoAmI(jdbc)));
+		assertEquals("default", whoAmI(jdbc), "unbound threads act for the default tenant");
+	}
+
+	private static String whoAmI(JdbcTemplate jdbc) {
+		return jdbc.queryForObject("SELECT name FROM marker", String.class);
+	}
+
+	private static DataSource database(String name) {
+		return new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+	}
+}
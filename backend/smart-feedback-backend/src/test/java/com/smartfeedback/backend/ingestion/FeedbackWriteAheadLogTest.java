@@ -0,0 +1,138 @@
+package com.smartfeedback.backend.ingestion;
+
+import com.smartfeedback.backend.entity.Feedback;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FeedbackWriteAheadLogTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void replaysRecordsAfterCheckpoint() throws Exception {
+		FeedbackWriteAheadLog wal = newLog();
+		wal.open();
+		for (int i = 1; i <= 5; i++) {
+			wal.append(FeedbackRecordCodec.encode(feedback("Student " + i))).durable().get();
+		}
+		wal.checkpoint(3);
+		wal.close();
+
+		FeedbackWriteAheadLog reopened = newLog();
+		List<FeedbackWriteAheadLog.Entry> unflushed = reopened.open();
+		assertEquals(2, unflushed.size());
+		assertEquals(4, unflushed.get(0).sequence());
+		Feedback replayed = FeedbackRecordCodec.decode(unflushed.get(1).payload());
+		assertEquals("Student 5", replayed.getStudentName());
+		assertEquals(Feedback.Sentiment.POSITIVE, replayed.getSentiment());
+		assertEquals(Feedback.SentimentSource.GATEWAY, replayed.getSentimentSource());
+		assertEquals(6, reopened.append(new byte[0]).sequence());
+		reopened.close();
+	}
+
+	@Test
+	void truncatesTornTail() throws Exception {
+		FeedbackWriteAheadLog wal = newLog();
+		wal.open();
+		wal.append(FeedbackRecordCodec.encode(feedback("Complete"))).durable().get();
+		wal.append(FeedbackRecordCodec.encode(feedback("Torn"))).durable().get();
+		wal.close();
+
+		Path segment;
+		try (Stream<Path> files = Files.list(directory)) {
+			segment = files.filter(p -> p.toString().endsWith(".wal")).findFirst().orElseThrow();
+		}
+		try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+			channel.truncate(channel.size() - 3);
+		}
+
+		FeedbackWriteAheadLog reopened = newLog();
+		List<FeedbackWriteAheadLog.Entry> unflushed = reopened.open();
+		assertEquals(1, unflushed.size());
+		assertEquals("Complete", FeedbackRecordCodec.decode(unflushed.get(0).payload()).getStudentName());
+		assertEquals(2, reopened.append(new byte[0]).sequence());
+		reopened.close();
+	}
+
+	@Test
+	void recordsAfterAFailedWriteSurviveRestart() throws Exception {
+		// Writes part of the first frame, then fails as a full disk would
+		AtomicBoolean failNextWrite = new AtomicBoolean();
+		FeedbackWriteAheadLog wal = new FeedbackWriteAheadLog(directory, FeedbackWriteAheadLog.Durability.FSYNC, 1 << 20, 0, 0) {
+			@Override
+			long write(FileChannel target, ByteBuffer[] frames) throws IOException {
+				if (failNextWrite.getAndSet(false)) {
+					ByteBuffer part = frames[0].duplicate();
+					part.limit(part.position() + 10);
+					target.write(part);
+					throw new IOException("No space left on device");
+				}
+				return super.write(target, frames);
+			}
+		};
+		wal.open();
+		wal.append(FeedbackRecordCodec.encode(feedback("Before"))).durable().get();
+		failNextWrite.set(true);
+		CompletableFuture<Void> failed = wal.append(FeedbackRecordCodec.encode(feedback("Failed"))).durable();
+		assertThrows(ExecutionException.class, failed::get);
+		wal.append(FeedbackRecordCodec.encode(feedback("After"))).durable().get();
+		wal.close();
+
+		FeedbackWriteAheadLog reopened = newLog();
+		List<String> students = reopened.open().stream()
+				.map(entry -> FeedbackRecordCodec.decode(entry.payload()).getStudentName())
+				.toList();
+		assertEquals(List.of("Before", "After"), students);
+		reopened.close();
+	}
+
+	@Test
+	void checkpointDeletesSealedSegments() throws Exception {
+		FeedbackWriteAheadLog wal = new FeedbackWriteAheadLog(directory, FeedbackWriteAheadLog.Durability.FSYNC, 64, 0, 0);
+		wal.open();
+		long last = 0;
+		for (int i = 0; i < 4; i++) {
+			FeedbackWriteAheadLog.Appended appended = wal.append(FeedbackRecordCodec.encode(feedback("Student " + i)));
+			appended.durable().get();
+			last = appended.sequence();
+		}
+		assertTrue(countSegments() > 1);
+		wal.checkpoint(last);
+		assertEquals(1, countSegments());
+		wal.close();
+	}
+
+	private FeedbackWriteAheadLog newLog() {
+		return new FeedbackWriteAheadLog(directory, FeedbackWriteAheadLog.Durability.FSYNC, 1 << 20, 0, 0);
+	}
+
+	private long countSegments() throws Exception {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.filter(p -> p.toString().endsWith(".wal")).count();
+		}
+	}
+
+	private static Feedback feedback(String studentName) {
+		Feedback feedback = new Feedback("Dr. Rao", studentName, 4, 5, "Clear explanations");
+		feedback.setSentiment(Feedback.Sentiment.POSITIVE);
+		feedback.setSentimentSource(Feedback.SentimentSource.GATEWAY);
+		feedback.setCreatedAt(LocalDateTime.of(2026, 3, 14, 9, 30, 15, 123456789));
+		return feedback;
+	}
+}
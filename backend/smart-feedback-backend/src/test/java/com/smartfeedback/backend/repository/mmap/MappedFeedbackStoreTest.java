@@ -0,0 +1,170 @@
+package com.smartfeedback.backend.repository.mmap;
+
+import com.smartfeedback.backend.analytics.AnalyticsQuery;
+import com.smartfeedback.backend.analytics.FacultyAggregate;
+import com.smartfeedback.backend.dto.AnalyticsRow;
+import com.smartfeedback.backend.entity.Feedback;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedFeedbackStoreTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void answersRepositoryQueriesAndRecovers() throws Exception {
+		MappedFeedbackStore store = newStore(2048);
+		for (int i = 0; i < 40; i++) {
+			Feedback feedback = new Feedback(i % 2 == 0 ? "Dr. Rao" : "Dr. Iyer", "Student " + i, 1 + i % 5, 5 - i % 5, "Comment " + i);
+			feedback.setSentiment(i % 3 == 0 ? Feedback.Sentiment.POSITIVE : Feedback.Sentiment.NEUTRAL);
+			store.save(feedback);
+		}
+		assertTrue(countSegments() > 1, "small segments should roll");
+
+		Feedback existing = store.findById(7L).orElseThrow();
+		assertEquals("Student 6", existing.getStudentName());
+		existing.setSentiment(Feedback.Sentiment.NEGATIVE);
+		store.save(existing);
+
+		assertEquals(20L, store.countByFacultyName("Dr. Rao"));
+		assertEquals(1L, store.countByFacultyNameAndSentiment("Dr. Rao", Feedback.Sentiment.NEGATIVE));
+		assertEquals(3.0, store.findAverageTeachingQualityByFacultyName("Dr. Rao"), 1e-9);
+		store.close();
+
+		MappedFeedbackStore reopened = newStore(2048);
+		assertEquals(40, reopened.count());
+		assertEquals(Feedback.Sentiment.NEGATIVE, reopened.findById(7L).orElseThrow().getSentiment());
+		List<Feedback> iyer = reopened.findByFacultyName("Dr. Iyer");
+		assertEquals(20, iyer.size());
+		assertEquals(41L, reopened.save(new Feedback("Dr. Iyer", "New", 4, 4, null)).getId());
+		reopened.close();
+	}
+
+	@Test
+	void pagesByIdAndUpdatesSentimentsInBulk() throws Exception {
+		MappedFeedbackStore store = newStore(1024);
+		for (int i = 0; i < 50; i++) {
+			store.save(new Feedback("Dr. Rao", "Student " + i, 3, 3, "Comment " + i));
+		}
+		store.deleteById(12L);
+
+		List<Feedback> page = store.findPageAfterId(10, 5);
+		assertEquals(List.of(11L, 13L, 14L, 15L, 16L), page.stream().map(Feedback::getId).toList());
+		assertTrue(store.findPageAfterId(50, 5).isEmpty());
+		assertEquals(49, store.findPageAfterId(0, 100).size());
+
+		store.updateSentiments(Map.of(11L, Feedback.Sentiment.NEGATIVE, 12L, Feedback.Sentiment.NEGATIVE),
+				Feedback.SentimentSource.GATEWAY);
+		assertEquals(Feedback.Sentiment.NEGATIVE, store.findById(11L).orElseThrow().getSentiment());
+		assertEquals(Feedback.SentimentSource.GATEWAY, store.findById(11L).orElseThrow().getSentimentSource());
+		assertNull(store.findById(13L).orElseThrow().getSentimentSource());
+		assertEquals(1L, store.countByFacultyNameAndSentiment("Dr. Rao", Feedback.Sentiment.NEGATIVE));
+
+		// Relabelling with the same sentiment still records the new source
+		store.updateSentiments(Map.of(11L, Feedback.Sentiment.NEGATIVE), Feedback.SentimentSource.MOCK);
+		assertEquals(Feedback.SentimentSource.MOCK, store.findById(11L).orElseThrow().getSentimentSource());
+		assertEquals(1L, store.countByFacultyNameAndSentiment("Dr. Rao", Feedback.Sentiment.NEGATIVE));
+		store.close();
+	}
+
+	@Test
+	void compactionDropsDeletedRecords() throws Exception {
+		MappedFeedbackStore store = newStore(1024);
+		for (int i = 0; i < 30; i++) {
+			store.save(new Feedback("Dr. Rao", "Student " + i, 3, 3, null));
+		}
+		for (long id = 1; id <= 20; id++) {
+			store.deleteById(id);
+		}
+		long before = countSegments();
+		store.compact();
+
+		assertTrue(countSegments() < before);
+		assertEquals(10, store.count());
+		assertTrue(store.findById(5L).isEmpty());
+		assertEquals("Student 25", store.findById(26L).orElseThrow().getStudentName());
+		assertEquals(10L, store.countByFacultyName("Dr. Rao"));
+		store.close();
+	}
+
+	@Test
+	void answersAnalyticsQueriesFromTheRecords() throws Exception {
+		MappedFeedbackStore store = newStore(1024);
+		for (int i = 0; i < 30; i++) {
+			Feedback feedback = new Feedback(i % 3 == 0 ? "Dr. Rao" : "Dr. Iyer", "Student " + i, 1 + i % 5, 4, null);
+			feedback.setSentiment(i % 2 == 0 ? Feedback.Sentiment.POSITIVE : Feedback.Sentiment.NEGATIVE);
+			store.save(feedback);
+		}
+		store.deleteById(1L);
+
+		List<AnalyticsRow> byFaculty = store.aggregate(AnalyticsQuery.parse("faculty", null, null, null, null, null)).rows(10);
+		assertEquals(List.of("Dr. Iyer", "Dr. Rao"), byFaculty.stream().map(AnalyticsRow::getFaculty).toList());
+		assertEquals(20, byFaculty.get(0).getCount());
+		assertEquals(9, byFaculty.get(1).getCount());
+
+		List<AnalyticsRow> rao = store.aggregate(AnalyticsQuery.parse("sentiment", null, List.of("Dr. Rao"),
+				List.of("negative"), null, null)).rows(10);
+		assertEquals(1, rao.size());
+		assertEquals(5, rao.get(0).getCount());
+		assertEquals(4.0, rao.get(0).getAvgCommunicationSkill(), 1e-9);
+
+		LocalDateTime tomorrow = LocalDateTime.now().plusDays(1);
+		assertEquals(0, store.aggregate(AnalyticsQuery.parse("faculty", null, null, null, tomorrow, null)).groupCount());
+		store.close();
+	}
+
+	@Test
+	void matchesFacultiesWhateverTheirCaseOrSpacing() throws Exception {
+		MappedFeedbackStore store = newStore(1024);
+		store.save(new Feedback("Dr. Rao", "Student 1", 5, 4, null));
+		store.save(new Feedback("dr.  RAO ", "Student 2", 3, 2, null));
+		store.save(new Feedback("Dr. Iyer", "Student 3", 4, 4, null));
+
+		assertEquals(2L, store.countByFacultyName("DR. rao"));
+		assertEquals(2, store.findByFacultyName("dr. rao").size());
+		assertEquals(4.0, store.findAverageTeachingQualityByFacultyName("Dr. Rao"), 1e-9);
+		assertEquals(List.of("Dr. Rao", "Dr. Iyer"), store.aggregateByFaculty().stream()
+				.map(FacultyAggregate::getFacultyName).sorted(Comparator.reverseOrder()).toList());
+
+		List<AnalyticsRow> rao = store.aggregate(AnalyticsQuery.parse("faculty", null, List.of("dr. rao", "Dr. Rao"),
+				null, null, null)).rows(10);
+		assertEquals(1, rao.size());
+		assertEquals("Dr. Rao", rao.get(0).getFaculty());
+		assertEquals(2, rao.get(0).getCount());
+
+		// The first spelling is kept after the indexes are rebuilt from the segments
+		store.close();
+		store = newStore(1024);
+		assertEquals(List.of("Dr. Iyer", "Dr. Rao"), store.aggregate(AnalyticsQuery.parse("faculty", null, null, null,
+				null, null)).rows(10).stream().map(AnalyticsRow::getFaculty).toList());
+		store.close();
+	}
+
+	private MappedFeedbackStore newStore(int segmentBytes) throws Exception {
+		MappedFeedbackStore store = new MappedFeedbackStore();
+		ReflectionTestUtils.setField(store, "storeDirectory", directory.toString());
+		ReflectionTestUtils.setField(store, "segmentBytes", segmentBytes);
+		ReflectionTestUtils.setField(store, "indexInterval", 4);
+		ReflectionTestUtils.setField(store, "compactionThreshold", 0.3);
+		store.open();
+		return store;
+	}
+
+	private long countSegments() throws Exception {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.filter(p -> p.toString().endsWith(".dat")).count();
+		}
+	}
+}
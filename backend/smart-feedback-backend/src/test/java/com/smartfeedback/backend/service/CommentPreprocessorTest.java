@@ -0,0 +1,52 @@
+package com.smartfeedback.backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommentPreprocessorTest {
+
+	@Test
+	void normalizesUnicodeAndWhitespace() {
+		assertEquals("Great class", CommentPreprocessor.normalize("  Ｇreat​ \n\t class "));
+		assertEquals("", CommentPreprocessor.normalize(null));
+	}
+
+	@Test
+	void redactsStudentNameAndContactDetails() {
+		String text = CommentPreprocessor.redact(
+				"I am Jane Doe (jane.doe@uni.edu, +1 555 123 4567, id S1234567), see https://x.io/a. Jane liked it, Janet did not",
+				"jane  DOE");
+		assertEquals("I am [name] ([email], [phone], id [id]), see [link] [name] liked it, Janet did not", text);
+	}
+
+	@Test
+	void labelsEmojiOnlyCommentsLocally() {
+		CommentPreprocessor preprocessor = newPreprocessor(256);
+		assertEquals("Positive", preprocessor.prepare("👍👍 🔥", null).localLabel());
+		assertEquals("Negative", preprocessor.prepare("😡 👍 👎", null).localLabel());
+		assertEquals("Neutral", preprocessor.prepare(" ​ ", null).localLabel());
+		assertNull(preprocessor.prepare("ok 👍", null).localLabel());
+	}
+
+	@Test
+	void truncatesLongCommentsKeepingHeadAndTail() {
+		CommentPreprocessor preprocessor = newPreprocessor(10);
+		String comment = "The start was excellent " + "and then it went on ".repeat(20) + "but the ending was poor";
+
+		CommentPreprocessor.PreparedComment prepared = preprocessor.prepare(comment, null);
+		assertTrue(prepared.truncated());
+		assertTrue(prepared.text().length() <= 40, prepared.text());
+		assertTrue(prepared.text().startsWith("The start was"), prepared.text());
+		assertTrue(prepared.text().endsWith("was poor"), prepared.text());
+		assertFalse(preprocessor.prepare("short", null).truncated());
+	}
+
+	private static CommentPreprocessor newPreprocessor(int maxTokens) {
+		CommentPreprocessor preprocessor = new CommentPreprocessor();
+		ReflectionTestUtils.setField(preprocessor, "maxTokens", maxTokens);
+		ReflectionTestUtils.setField(preprocessor, "headRatio", 0.6);
+		return preprocessor;
+	}
+}
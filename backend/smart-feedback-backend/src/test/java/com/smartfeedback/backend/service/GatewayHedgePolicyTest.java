@@ -0,0 +1,59 @@
+package com.smartfeedback.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GatewayHedgePolicyTest {
+
+	@Test
+	void delayFollowsObservedPercentileWithinBounds() {
+		GatewayHedgePolicy policy = newPolicy(0.1, 1);
+		assertEquals(Duration.ofMillis(800), policy.hedgeDelay(), "initial delay until enough samples");
+
+		// 90 fast calls at 20 ms and 10 slow ones at 2 s: p80 is 20 ms, clamped up to 50 ms
+		for (int i = 0; i < 128; i++) {
+			policy.recordLatency(TimeUnit.MILLISECONDS.toNanos(i % 10 == 0 ? 2000 : 20));
+		}
+		assertEquals(Duration.ofMillis(50), policy.hedgeDelay());
+
+		for (int i = 0; i < 512; i++) {
+			policy.recordLatency(TimeUnit.MILLISECONDS.toNanos(i % 2 == 0 ? 5000 : 300));
+		}
+		assertEquals(Duration.ofMillis(3000), policy.hedgeDelay(), "clamped to max delay");
+	}
+
+	@Test
+	void hedgeBudgetLimitsRate() {
+		GatewayHedgePolicy policy = newPolicy(0.1, 1);
+		int hedges = 0;
+		for (int i = 0; i < 1000; i++) {
+			policy.recordCall();
+			if (policy.tryAcquireHedge()) {
+				hedges++;
+			}
+		}
+		assertTrue(hedges <= 101, "at most the burst plus max-rate of calls, was " + hedges);
+		assertTrue(hedges >= 99, "budget should be spent, was " + hedges);
+	}
+
+	private static GatewayHedgePolicy newPolicy(double maxRate, double burst) {
+		GatewayHedgePolicy policy = new GatewayHedgePolicy();
+		ReflectionTestUtils.setField(policy, "enabled", true);
+		ReflectionTestUtils.setField(policy, "percentile", 0.8);
+		ReflectionTestUtils.setField(policy, "initialDelayMs", 800L);
+		ReflectionTestUtils.setField(policy, "minDelayMs", 50L);
+		ReflectionTestUtils.setField(policy, "maxDelayMs", 3000L);
+		ReflectionTestUtils.setField(policy, "minSamples", 50);
+		ReflectionTestUtils.setField(policy, "maxRate", maxRate);
+		ReflectionTestUtils.setField(policy, "burst", burst);
+		ReflectionTestUtils.setField(policy, "meterRegistry", new SimpleMeterRegistry());
+		policy.init();
+		return policy;
+	}
+}
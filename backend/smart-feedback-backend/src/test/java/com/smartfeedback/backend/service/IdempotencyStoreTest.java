@@ -0,0 +1,82 @@
+package com.smartfeedback.backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyStoreTest {
+
+	@Test
+	void duplicatesWaitForTheOwnerAndReplayItsResponse() throws Exception {
+		IdempotencyStore store = store(60000, 10);
+		IdempotencyStore.Claim first = store.claim("k", "a");
+		assertTrue(first.isOwner());
+
+		IdempotencyStore.Claim duplicate = store.claim("k", "a");
+		assertFalse(duplicate.isOwner());
+		CompletableFuture<IdempotencyStore.StoredResponse> waiting = CompletableFuture.supplyAsync(() -> {
+			try {
+				return duplicate.await();
+			} catch (Exception e) {
+				throw new RuntimeException(e);
+			}
+		});
+		first.complete(201, "body");
+
+		assertEquals(new IdempotencyStore.StoredResponse(201, "body"), waiting.get(5, TimeUnit.SECONDS));
+		assertEquals("body", store.claim("k", "a").await().body());
+		assertThrows(RuntimeException.class, () -> store.claim("k", "different body"));
+	}
+
+	@Test
+	void releasedAndExpiredKeysCanBeClaimedAgain() throws Exception {
+		IdempotencyStore store = store(60000, 2);
+		IdempotencyStore.Claim failed = store.claim("k", "a");
+		IdempotencyStore.Claim waiter = store.claim("k", "a");
+		failed.release();
+		assertNull(waiter.await(), "waiters are told to claim again");
+		IdempotencyStore.Claim retry = store.claim("k", "a");
+		assertTrue(retry.isOwner());
+		retry.complete(201, null);
+
+		// Bounded: the least recently used key is evicted
+		store.claim("x", "a").complete(201, null);
+		store.claim("y", "a").complete(201, null);
+		assertEquals(2, store.size());
+		assertTrue(store.claim("k", "a").isOwner());
+
+		IdempotencyStore expiring = store(0, 10);
+		expiring.claim("k", "a").complete(201, null);
+		assertTrue(expiring.claim("k", "a").isOwner());
+	}
+
+	@Test
+	void keysStillInFlightAreNeverEvicted() {
+		IdempotencyStore store = store(60000, 2);
+		IdempotencyStore.Claim running = store.claim("k", "a");
+		store.claim("x", "a").complete(201, null);
+
+		// The completed key goes, though the running one is older
+		assertTrue(store.claim("y", "a").isOwner());
+		assertFalse(store.claim("k", "a").isOwner());
+
+		// Full of running requests: new keys are turned away
+		assertNull(store.claim("z", "a"));
+		assertFalse(store.claim("y", "a").isOwner());
+		running.complete(201, null);
+		assertTrue(store.claim("z", "a").isOwner());
+		assertEquals(2, store.size());
+	}
+
+	private static IdempotencyStore store(long ttlMs, int maxEntries) {
+		IdempotencyStore store = new IdempotencyStore();
+		ReflectionTestUtils.setField(store, "ttlMs", ttlMs);
+		ReflectionTestUtils.setField(store, "maxEntries", maxEntries);
+		ReflectionTestUtils.setField(store, "waitTimeoutMs", 5000L);
+		return store;
+	}
+}
@@ -0,0 +1,74 @@
+package com.smartfeedback.backend.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NameDictionaryTest {
+
+	private static final int POOL_SIZE = 2;
+
+	@Test
+	void lookupsInsideTransactionsDoNotNeedASecondConnection() throws Exception {
+		HikariDataSource dataSource = new HikariDataSource();
+		dataSource.setJdbcUrl("jdbc:h2:mem:dictionary;DB_CLOSE_DELAY=-1");
+		dataSource.setUsername("sa");
+		dataSource.setMaximumPoolSize(POOL_SIZE);
+		dataSource.setConnectionTimeout(1000);
+		JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+		jdbc.execute("CREATE TABLE faculty (id INT AUTO_INCREMENT PRIMARY KEY, canonical_name VARCHAR(255) NOT NULL UNIQUE, display_name VARCHAR(255) NOT NULL)");
+		jdbc.execute("CREATE TABLE students (id INT AUTO_INCREMENT PRIMARY KEY, canonical_name VARCHAR(255) NOT NULL UNIQUE, display_name VARCHAR(255) NOT NULL)");
+		jdbc.update("INSERT INTO faculty (canonical_name, display_name) VALUES ('dr. rao', 'Dr. Rao')");
+		Integer rao = jdbc.queryForObject("SELECT id FROM faculty WHERE canonical_name = 'dr. rao'", Integer.class);
+
+		NameDictionary dictionary = new NameDictionary();
+		ReflectionTestUtils.setField(dictionary, "dataSource", dataSource);
+		TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+		// Every pooled connection is held by a transaction when the lookups run
+		int threads = POOL_SIZE;
+		CyclicBarrier allConnectionsTaken = new CyclicBarrier(POOL_SIZE);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<Integer>> results = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				String student = "Student " + i;
+				results.add(executor.submit(() -> {
+					// Interned before the transaction, the way the stores do it
+					int studentId = dictionary.intern(NameDictionary.Dimension.STUDENT, student);
+					return transaction.execute(status -> {
+						jdbc.queryForObject("SELECT 1", Integer.class);
+						try {
+							allConnectionsTaken.await(10, TimeUnit.SECONDS);
+						} catch (Exception e) {
+							throw new IllegalStateException(e);
+						}
+						assertEquals(studentId, dictionary.intern(NameDictionary.Dimension.STUDENT, student));
+						assertNull(dictionary.find(NameDictionary.Dimension.FACULTY, "Dr. Unknown " + student));
+						return dictionary.find(NameDictionary.Dimension.FACULTY, "  DR. RAO ");
+					});
+				}));
+			}
+			for (Future<Integer> result : results) {
+				assertEquals(rao, result.get(30, TimeUnit.SECONDS));
+			}
+		} finally {
+			executor.shutdownNow();
+			dataSource.close();
+		}
+		assertEquals(threads, dictionary.size(NameDictionary.Dimension.STUDENT));
+	}
+}
@@ -0,0 +1,92 @@
+package com.smartfeedback.backend.service;
+
+import com.smartfeedback.backend.dto.ProfilingReport;
+import jdk.jfr.Recording;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProfileSummarizerTest {
+
+	@TempDir
+	Path dir;
+
+	// Keeps the allocations reachable so they cannot be optimized away
+	private final List<byte[]> retained = new ArrayList<>();
+	private long checksum;
+
+	@Test
+	void chargesSamplesToTheInnermostApplicationFrame() throws Exception {
+		Path file = dir.resolve("test.jfr");
+		try (Recording recording = new Recording()) {
+			recording.enable("jdk.ExecutionSample").withPeriod(Duration.ofMillis(10));
+			recording.enable("jdk.ObjectAllocationSample").with("throttle", "1000/s");
+			recording.start();
+			long deadline = System.nanoTime() + Duration.ofMillis(1500).toNanos();
+			// Zeroing the arrays runs inside the VM, where execution samples see no Java frames,
+			// so the loop also spins in Java code to be sampled even on a loaded machine
+			while (System.nanoTime() < deadline) {
+				allocate();
+				spin();
+			}
+			recording.stop();
+			recording.dump(file);
+		}
+
+		ProfilingReport report = ProfileSummarizer.summarize(file, "com.smartfeedback.backend.service", 5);
+		String self = ProfileSummarizerTest.class.getName();
+
+		assertTrue(report.getCpuSamples() > 0);
+		assertTrue(report.getAppCpuSamples() > 0);
+		assertTrue(report.getHotMethods().get(0).getSite().startsWith(self + "."));
+
+		assertTrue(report.getAllocationSamples() > 0);
+		ProfilingReport.Entry site = report.getAllocationSites().get(0);
+		assertTrue(site.getSite().startsWith(self + ".allocate:"));
+		assertEquals("byte[]", site.getDetail());
+		assertTrue(site.getPercent() > 0 && site.getPercent() <= 100);
+		assertTrue(report.getHotMethods().size() <= 5);
+	}
+
+	@Test
+	void leavesStacksOutsideThePackageOutOfTheRanking() throws Exception {
+		Path file = dir.resolve("other.jfr");
+		try (Recording recording = new Recording()) {
+			recording.enable("jdk.ObjectAllocationSample").with("throttle", "1000/s");
+			recording.start();
+			for (int i = 0; i < 2000; i++) {
+				allocate();
+			}
+			recording.stop();
+			recording.dump(file);
+		}
+
+		ProfilingReport report = ProfileSummarizer.summarize(file, "com.example.absent", 5);
+		assertTrue(report.getAllocationSamples() > 0);
+		assertTrue(report.getSampledAllocationBytes() > 0);
+		assertTrue(report.getAllocationSites().isEmpty());
+	}
+
+	private void spin() {
+		long value = checksum;
+		for (int i = 0; i < 200_000; i++) {
+			value = value * 31 + i;
+		}
+		checksum = value;
+	}
+
+	private void allocate() {
+		byte[] block = new byte[64 * 1024];
+		block[0] = 1;
+		retained.add(block);
+		if (retained.size() > 64) {
+			retained.clear();
+		}
+	}
+}
@@ -0,0 +1,59 @@
+package com.smartfeedback.backend.service;
+
+import com.smartfeedback.backend.entity.Report;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportRetentionPolicyTest {
+
+	private static final LocalDateTime NOW = LocalDateTime.of(2026, 10, 19, 12, 0);
+
+	private final ReportRetentionPolicy policy = new ReportRetentionPolicy(30, new int[] {8, 1});
+
+	@Test
+	void keepsNewestPerDayRecentlyAndPerTermBefore() {
+		List<Report> reports = new ArrayList<>();
+		reports.add(report(1, LocalDateTime.of(2026, 2, 3, 9, 0), 10));
+		reports.add(report(2, LocalDateTime.of(2026, 5, 20, 9, 0), 11));
+		reports.add(report(3, LocalDateTime.of(2026, 9, 1, 9, 0), 12));
+		reports.add(report(4, NOW.minusDays(2).withHour(8), 13));
+		reports.add(report(5, NOW.minusDays(2).withHour(17), 14));
+		reports.add(report(6, NOW.minusHours(1), 15));
+
+		List<Long> deleted = policy.selectForDeletion(reports, NOW).stream().map(Report::getId).toList();
+		assertEquals(List.of(1L, 4L), deleted);
+	}
+
+	@Test
+	void dropsKeptReportsThatRepeatThePreviousContent() {
+		List<Report> reports = List.of(
+				report(1, NOW.minusDays(3), 10),
+				report(2, NOW.minusDays(2), 10),
+				report(3, NOW.minusDays(1), 11),
+				report(4, NOW.minusHours(1), 11));
+
+		List<Long> deleted = policy.selectForDeletion(reports, NOW).stream().map(Report::getId).toList();
+		assertEquals(List.of(2L, 4L), deleted);
+	}
+
+	@Test
+	void termsWrapAroundTheYear() {
+		assertEquals(LocalDate.of(2025, 8, 1), policy.termStart(LocalDate.of(2025, 12, 31)));
+		assertEquals(LocalDate.of(2026, 1, 1), policy.termStart(LocalDate.of(2026, 7, 31)));
+		assertEquals(LocalDate.of(2025, 8, 1), new ReportRetentionPolicy(30, new int[] {8}).termStart(LocalDate.of(2026, 3, 1)));
+	}
+
+	private static Report report(long id, LocalDateTime createdAt, int total) {
+		Report report = new Report("Dr. Rao", 3.0, 4.0, "summary", total, total, 0, 0);
+		report.setId(id);
+		report.setCreatedAt(createdAt);
+		report.setContentHash(report.computeContentHash());
+		return report;
+	}
+}
@@ -0,0 +1,151 @@
+package com.smartfeedback.backend.service;
+
+import com.smartfeedback.backend.dto.BackfillProgressResponse;
+import com.smartfeedback.backend.dto.SentimentAnalysisRequest;
+import com.smartfeedback.backend.dto.SentimentAnalysisResponse;
+import com.smartfeedback.backend.entity.Feedback;
+import com.smartfeedback.backend.repository.FeedbackStore;
+import com.smartfeedback.backend.repository.mmap.MappedFeedbackStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SentimentBackfillServiceTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void resumedJobRetriesRowsThatFailedBeforeItStopped() throws Exception {
+		MappedFeedbackStore store = newStore(10);
+
+		// Row 3 fails, and the job is stopped while row 5 is being classified
+		SentimentBackfillService[] first = new SentimentBackfillService[1];
+		first[0] = backfill(store, comment -> {
+			if (comment.equals("Comment 3")) {
+				throw new RuntimeException("AI Gateway error: 500");
+			}
+			if (comment.equals("Comment 5")) {
+				first[0].stopJob();
+			}
+			return new SentimentAnalysisResponse("Positive", Feedback.SentimentSource.GATEWAY);
+		});
+		first[0].startJob(true);
+		BackfillProgressResponse stopped = await(first[0], SentimentBackfillService.Status.STOPPED);
+		assertEquals(6, stopped.getLastId());
+		assertEquals(1, stopped.getFailed());
+		first[0].stop();
+
+		// A new instance picks the failed row up from the checkpoint
+		SentimentBackfillService second = backfill(store,
+				comment -> new SentimentAnalysisResponse("Positive", Feedback.SentimentSource.GATEWAY));
+		assertEquals(1, second.getProgress().getFailed());
+		second.startJob(false);
+		BackfillProgressResponse completed = await(second, SentimentBackfillService.Status.COMPLETED);
+		assertEquals(10, completed.getProcessed());
+		assertEquals(0, completed.getFailed());
+		assertEquals(10, completed.getChanged());
+		for (long id = 1; id <= 10; id++) {
+			Feedback feedback = store.findById(id).orElseThrow();
+			assertEquals(Feedback.Sentiment.POSITIVE, feedback.getSentiment(), "feedback " + id);
+			assertEquals(Feedback.SentimentSource.GATEWAY, feedback.getSentimentSource(), "feedback " + id);
+		}
+		second.stop();
+		ReflectionTestUtils.invokeMethod(store, "close");
+	}
+
+	@Test
+	void fallbackLabelsDoNotOverwriteStoredOnes() throws Exception {
+		MappedFeedbackStore store = newStore(4);
+		for (long id = 1; id <= 4; id++) {
+			store.updateSentiments(Map.of(id, Feedback.Sentiment.NEGATIVE), Feedback.SentimentSource.GATEWAY);
+		}
+
+		// Comment 2 gets the mock's answer and comment 3 the Neutral default
+		SentimentBackfillService service = backfill(store, comment -> switch (comment) {
+			case "Comment 2" -> new SentimentAnalysisResponse("Positive", Feedback.SentimentSource.MOCK);
+			case "Comment 3" -> new SentimentAnalysisResponse("Neutral", Feedback.SentimentSource.DEFAULT);
+			default -> new SentimentAnalysisResponse("Positive", Feedback.SentimentSource.GATEWAY);
+		});
+		service.startJob(true);
+		BackfillProgressResponse completed = await(service, SentimentBackfillService.Status.COMPLETED);
+		assertEquals(2, completed.getFailed());
+		assertEquals(2, completed.getChanged());
+		assertEquals(Feedback.Sentiment.POSITIVE, store.findById(1L).orElseThrow().getSentiment());
+		assertEquals(Feedback.Sentiment.NEGATIVE, store.findById(2L).orElseThrow().getSentiment());
+		assertEquals(Feedback.Sentiment.NEGATIVE, store.findById(3L).orElseThrow().getSentiment());
+		service.stop();
+
+		// Without a gateway key every answer would be the mock's, so the job does not start
+		SentimentBackfillService unconfigured = backfill(store, false,
+				comment -> new SentimentAnalysisResponse("Positive", Feedback.SentimentSource.MOCK));
+		assertThrows(RuntimeException.class, () -> unconfigured.startJob(true));
+		unconfigured.stop();
+		ReflectionTestUtils.invokeMethod(store, "close");
+	}
+
+	private MappedFeedbackStore newStore(int rows) {
+		MappedFeedbackStore store = new MappedFeedbackStore();
+		ReflectionTestUtils.setField(store, "storeDirectory", directory.resolve("store").toString());
+		ReflectionTestUtils.setField(store, "segmentBytes", 1 << 16);
+		ReflectionTestUtils.setField(store, "indexInterval", 4);
+		ReflectionTestUtils.setField(store, "compactionThreshold", 0.3);
+		ReflectionTestUtils.invokeMethod(store, "open");
+		for (int i = 1; i <= rows; i++) {
+			store.save(new Feedback("Dr. Rao", "Student " + i, 4, 4, "Comment " + i));
+		}
+		return store;
+	}
+
+	private SentimentBackfillService backfill(FeedbackStore store, Function<String, SentimentAnalysisResponse> classifier) {
+		return backfill(store, true, classifier);
+	}
+
+	private SentimentBackfillService backfill(FeedbackStore store, boolean gatewayConfigured,
+	                                          Function<String, SentimentAnalysisResponse> classifier) {
+		SentimentBackfillService service = new SentimentBackfillService();
+		ReflectionTestUtils.setField(service, "checkpointFile", directory.resolve("checkpoint.properties").toString());
+		ReflectionTestUtils.setField(service, "batchSize", 2);
+		ReflectionTestUtils.setField(service, "concurrency", 1);
+		ReflectionTestUtils.setField(service, "ratePerSecond", 1000.0);
+		ReflectionTestUtils.setField(service, "rateLimitBackoffMs", 10L);
+		ReflectionTestUtils.setField(service, "maxAttempts", 1);
+		ReflectionTestUtils.setField(service, "aiModel", "test-model");
+		ReflectionTestUtils.setField(service, "feedbackStore", store);
+		ReflectionTestUtils.setField(service, "sentimentAnalysisService", new SentimentAnalysisService() {
+			@Override
+			public SentimentAnalysisResponse analyzeSentimentWithGateway(SentimentAnalysisRequest request) {
+				return classifier.apply(request.getComment());
+			}
+
+			@Override
+			public boolean isGatewayConfigured() {
+				return gatewayConfigured;
+			}
+		});
+		ReflectionTestUtils.setField(service, "eventPublisher", (ApplicationEventPublisher) event -> {});
+		service.start();
+		return service;
+	}
+
+	private static BackfillProgressResponse await(SentimentBackfillService service, SentimentBackfillService.Status status)
+			throws InterruptedException {
+		long deadline = System.nanoTime() + 10_000_000_000L;
+		while (System.nanoTime() < deadline) {
+			BackfillProgressResponse progress = service.getProgress();
+			if (progress.getStatus().equals(status.name())) {
+				return progress;
+			}
+			Thread.sleep(10);
+		}
+		fail("Backfill did not reach " + status + ": " + service.getProgress().getStatus());
+		return null;
+	}
+}
@@ -0,0 +1,75 @@
+package com.smartfeedback.backend.service;
+
+import com.smartfeedback.backend.entity.Feedback;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SentimentModelTest {
+
+	private static SentimentModel trained() {
+		SentimentModel.Trainer trainer = SentimentModel.trainer(12, 0.5);
+		for (int i = 0; i < 50; i++) {
+			trainer.add("Great lectures, very clear and helpful " + i, Feedback.Sentiment.POSITIVE);
+			trainer.add("Explains really well, I enjoyed the class", Feedback.Sentiment.POSITIVE);
+			trainer.add("The pace was too fast and the slides were confusing " + i, Feedback.Sentiment.NEGATIVE);
+			trainer.add("Not good, not clear at all", Feedback.Sentiment.NEGATIVE);
+			trainer.add("The course covers chapter " + i + " this term", Feedback.Sentiment.NEUTRAL);
+		}
+		return trainer.build();
+	}
+
+	@Test
+	void learnsLabelsFromTrainingComments() {
+		SentimentModel model = trained();
+		assertEquals(250, model.getTrainingRows());
+
+		SentimentModel.Prediction positive = model.predict("Very clear and helpful lectures");
+		assertEquals(Feedback.Sentiment.POSITIVE, positive.label());
+		assertTrue(positive.confidence() > 0.9);
+		assertEquals(Feedback.Sentiment.NEGATIVE, model.predict("The slides were confusing").label());
+		assertEquals(Feedback.Sentiment.NEUTRAL, model.predict("Covers chapter 3 this term").label());
+	}
+
+	@Test
+	void bigramsSeparateNegatedPhrases() {
+		SentimentModel model = trained();
+		assertEquals(Feedback.Sentiment.NEGATIVE, model.predict("not clear").label());
+		assertEquals(Feedback.Sentiment.POSITIVE, model.predict("very clear").label());
+	}
+
+	@Test
+	void confidenceIsLowForUnseenWords() {
+		SentimentModel.Prediction prediction = trained().predict("zebra quantum marmalade");
+		assertTrue(prediction.confidence() < 0.9, "confidence " + prediction.confidence());
+	}
+
+	@Test
+	void fileRoundTripKeepsPredictions() throws IOException {
+		SentimentModel model = trained();
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		model.write(bytes);
+		SentimentModel loaded = SentimentModel.read(new ByteArrayInputStream(bytes.toByteArray()));
+
+		assertEquals(model.getTrainedAt(), loaded.getTrainedAt());
+		assertEquals(model.getTrainingRows(), loaded.getTrainingRows());
+		for (String text : new String[] {"great class", "too fast", "chapter 9", "not good at all"}) {
+			assertEquals(model.predict(text), loaded.predict(text));
+		}
+		// Only used buckets are stored
+		assertTrue(bytes.size() < 4096, bytes.size() + " bytes");
+	}
+
+	@Test
+	void featuresAreDistinctAndCaseInsensitive() {
+		int[] features = SentimentModel.features("Good GOOD good", 16);
+		// "good" once, and the bigram "good good" once
+		assertEquals(2, features.length);
+		assertArrayEquals(SentimentModel.features("good good", 16), features);
+		assertEquals(0, SentimentModel.features("  ...  ", 16).length);
+	}
+}
@@ -0,0 +1,112 @@
+package com.smartfeedback.backend.tracing;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TracerTest {
+
+	private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+
+	private Tracer tracer;
+	private TraceStore store;
+
+	@BeforeEach
+	void setUp() {
+		store = new TraceStore();
+		ReflectionTestUtils.setField(store, "bufferSize", 3);
+		ReflectionTestUtils.setField(store, "exportFile", "");
+		store.start();
+
+		tracer = new Tracer();
+		ReflectionTestUtils.setField(tracer, "enabled", true);
+		ReflectionTestUtils.setField(tracer, "sampleRate", 0.0);
+		ReflectionTestUtils.setField(tracer, "slowThresholdMs", 1000L);
+		ReflectionTestUtils.setField(tracer, "maxSpans", 10);
+		ReflectionTestUtils.setField(tracer, "traceStore", store);
+	}
+
+	@Test
+	void continuesSampledCallerTraceAndNestsSpans() {
+		try (Span root = tracer.startTrace("GET /api/feedback", "00-" + TRACE_ID + "-00f067aa0ba902b7-01")) {
+			try (Span child = tracer.startSpan("db.query")) {
+				child.tag("rows", 3);
+				String outgoing = tracer.traceparent();
+				assertTrue(outgoing.startsWith("00-" + TRACE_ID + "-"));
+				assertTrue(outgoing.endsWith("-01"));
+				assertEquals("ok", tracer.trace("inner", () -> "ok"));
+			}
+		}
+
+		TraceRecord trace = store.find(TRACE_ID);
+		assertNotNull(trace);
+		assertTrue(trace.sampled());
+		List<TraceRecord.SpanRecord> spans = trace.spans();
+		assertEquals(3, spans.size());
+		assertEquals("00f067aa0ba902b7", spans.get(0).parentSpanId());
+		assertEquals(spans.get(0).spanId(), spans.get(1).parentSpanId());
+		assertEquals(spans.get(1).spanId(), spans.get(2).parentSpanId());
+		assertEquals("3", spans.get(1).attributes().get("rows"));
+		assertNull(tracer.traceparent());
+	}
+
+	@Test
+	void dropsFastUnsampledTracesButKeepsSlowOnes() {
+		tracer.startTrace("fast", null).close();
+		assertEquals(0, store.getAdded());
+
+		ReflectionTestUtils.setField(tracer, "slowThresholdMs", 1L);
+		try (Span root = tracer.startTrace("slow", "00-" + TRACE_ID + "-00f067aa0ba902b7-00")) {
+			sleep(5);
+		}
+		TraceRecord trace = store.find(TRACE_ID);
+		assertNotNull(trace);
+		assertFalse(trace.sampled());
+		assertTrue(trace.durationMicros() >= 5000);
+	}
+
+	@Test
+	void ignoresMalformedTraceparentAndStartsANewTrace() {
+		ReflectionTestUtils.setField(tracer, "sampleRate", 1.0);
+		try (Span root = tracer.startTrace("GET /api/reports", "00-" + "0".repeat(32) + "-00f067aa0ba902b7-01")) {
+			assertTrue(root.isRecording());
+		}
+		List<TraceRecord> recent = store.recent(10, 0);
+		assertEquals(1, recent.size());
+		assertNotEquals("0".repeat(32), recent.get(0).traceId());
+		assertNull(recent.get(0).spans().get(0).parentSpanId());
+	}
+
+	@Test
+	void spansOutsideATraceAreNoOps() {
+		Span span = tracer.startSpan("orphan");
+		assertFalse(span.isRecording());
+		span.tag("key", "value").close();
+		assertEquals(0, store.getAdded());
+	}
+
+	@Test
+	void ringKeepsTheNewestTraces() {
+		ReflectionTestUtils.setField(tracer, "sampleRate", 1.0);
+		for (int i = 0; i < 5; i++) {
+			tracer.startTrace("request-" + i, null).close();
+		}
+		List<TraceRecord> recent = store.recent(10, 0);
+		assertEquals(3, recent.size());
+		assertEquals("request-4", recent.get(0).name());
+		assertEquals("request-2", recent.get(2).name());
+		assertEquals(5, store.getAdded());
+	}
+
+	private static void sleep(long ms) {
+		try {
+			Thread.sleep(ms);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}